@@ -55,6 +55,18 @@ public class BoltServerAddress
         this.stringValue = String.format( "%s:%d", host, port );
     }
 
+    /**
+     * Check if the given address contains an explicit port. Address can have any format accepted by
+     * {@link #BoltServerAddress(String)}.
+     *
+     * @param address the address to check.
+     * @return {@code true} when port is specified, {@code false} otherwise.
+     */
+    public static boolean containsPort( String address )
+    {
+        return uriFrom( address ).getPort() != -1;
+    }
+
     @Override
     public boolean equals( Object o )
     {
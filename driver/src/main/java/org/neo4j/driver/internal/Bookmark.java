@@ -36,7 +36,7 @@ public final class Bookmark
     private static final String BOOKMARKS_KEY = "bookmarks";
     private static final String BOOKMARK_PREFIX = "neo4j:bookmark:v1:tx";
 
-    private static final long UNKNOWN_BOOKMARK_VALUE = -1;
+    public static final long UNKNOWN_TRANSACTION_ID = -1;
 
     private static final Bookmark EMPTY = new Bookmark( Collections.<String>emptySet() );
 
@@ -82,6 +82,26 @@ public final class Bookmark
         return maxValue;
     }
 
+    /**
+     * @return id of the transaction the max bookmark points to, or {@link #UNKNOWN_TRANSACTION_ID} when bookmark is
+     * empty or has an unknown format.
+     */
+    public long maxTransactionId()
+    {
+        return transactionId( maxValue );
+    }
+
+    /**
+     * Extract transaction id from the given bookmark string.
+     *
+     * @param bookmark the bookmark received from the server.
+     * @return id of the transaction or {@link #UNKNOWN_TRANSACTION_ID} when bookmark has an unknown format.
+     */
+    public static long transactionId( String bookmark )
+    {
+        return bookmarkValue( bookmark );
+    }
+
     public Map<String,Value> asBeginTransactionParameters()
     {
         if ( isEmpty() )
@@ -169,9 +189,9 @@ public final class Bookmark
             }
             catch ( NumberFormatException e )
             {
-                return UNKNOWN_BOOKMARK_VALUE;
+                return UNKNOWN_TRANSACTION_ID;
             }
         }
-        return UNKNOWN_BOOKMARK_VALUE;
+        return UNKNOWN_TRANSACTION_ID;
     }
 }
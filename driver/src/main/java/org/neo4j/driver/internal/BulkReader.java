@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.internal.async.QueryRunner;
+import org.neo4j.driver.internal.spi.ConnectionProvider;
+import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Executes a batch of independent read statements in parallel over all readers known to the
+ * {@link ConnectionProvider}.
+ * <p>
+ * Every reader gets a fixed amount of workers. Workers take statements from a shared queue, so faster servers
+ * naturally execute more statements than slower ones. Each statement is executed as an auto-commit query on a
+ * connection towards the worker's server. Records of all statements are handed to the given action one at a time,
+ * in no particular order across statements.
+ * <p>
+ * Statement that fails because its server is unavailable before any of its records was delivered is put back to
+ * the queue and the worker of that server stops, so the statement is executed by a worker of another server.
+ * Execution stops taking new statements after the first other failure. Returned stage is completed exceptionally with
+ * that failure once all running statements are done. Records of a failed statement are discarded, so that its
+ * connection is released back to the pool.
+ */
+class BulkReader
+{
+    private final ConnectionProvider connectionProvider;
+    private final int maxConcurrencyPerServer;
+
+    BulkReader( ConnectionProvider connectionProvider, int maxConcurrencyPerServer )
+    {
+        if ( maxConcurrencyPerServer < 1 )
+        {
+            throw new IllegalArgumentException(
+                    "Maximum concurrency per server should be positive, but was: " + maxConcurrencyPerServer );
+        }
+        this.connectionProvider = connectionProvider;
+        this.maxConcurrencyPerServer = maxConcurrencyPerServer;
+    }
+
+    CompletionStage<List<ResultSummary>> readAll( List<Statement> statements, Consumer<Record> action )
+    {
+        if ( statements.isEmpty() )
+        {
+            return completedFuture( emptyList() );
+        }
+        return connectionProvider.readers().thenCompose( readers ->
+        {
+            if ( readers.length == 0 )
+            {
+                throw new SessionExpiredException( "Failed to execute bulk read, no readers are available" );
+            }
+            return new Execution( statements, action ).start( readers );
+        } );
+    }
+
+    private class Execution
+    {
+        final Queue<Integer> pendingStatements = new ConcurrentLinkedQueue<>();
+        final List<Statement> statements;
+        final Consumer<Record> action;
+        final AtomicReferenceArray<ResultSummary> summaries;
+        final AtomicInteger runningWorkers = new AtomicInteger();
+        final CompletableFuture<List<ResultSummary>> result = new CompletableFuture<>();
+        volatile Throwable error;
+        volatile Throwable retriedError;
+
+        Execution( List<Statement> statements, Consumer<Record> action )
+        {
+            this.statements = statements;
+            this.action = action;
+            this.summaries = new AtomicReferenceArray<>( statements.size() );
+            for ( int i = 0; i < statements.size(); i++ )
+            {
+                pendingStatements.add( i );
+            }
+        }
+
+        CompletionStage<List<ResultSummary>> start( BoltServerAddress[] readers )
+        {
+            int workersPerServer = Math.min( maxConcurrencyPerServer,
+                    (statements.size() + readers.length - 1) / readers.length );
+            List<BoltServerAddress> workers = new ArrayList<>();
+            for ( int i = 0; i < workersPerServer; i++ )
+            {
+                workers.addAll( Arrays.asList( readers ) );
+            }
+
+            runningWorkers.set( workers.size() );
+            for ( BoltServerAddress address : workers )
+            {
+                runNext( address );
+            }
+            return result;
+        }
+
+        void runNext( BoltServerAddress address )
+        {
+            Integer index = error == null ? pendingStatements.poll() : null;
+            if ( index == null )
+            {
+                workerDone();
+                return;
+            }
+
+            AtomicBoolean delivered = new AtomicBoolean();
+            connectionProvider.acquireReaderConnection( address )
+                    .thenCompose( connection -> QueryRunner.runInSession( connection, statements.get( index ), false ) )
+                    .thenCompose( cursor -> forEach( cursor, record ->
+                    {
+                        delivered.set( true );
+                        deliver( record );
+                    } ) )
+                    .whenComplete( ( summary, completionError ) ->
+                    {
+                        Throwable statementError = Futures.completionExceptionCause( completionError );
+                        if ( statementError == null )
+                        {
+                            summaries.set( index, summary );
+                            runNext( address );
+                        }
+                        else if ( !delivered.get() && isServerUnavailable( statementError ) )
+                        {
+                            // this worker stops, so the statement is picked up by a worker of another server
+                            retriedError = statementError;
+                            pendingStatements.add( index );
+                            workerDone();
+                        }
+                        else
+                        {
+                            failed( statementError );
+                            workerDone();
+                        }
+                    } );
+        }
+
+        CompletionStage<ResultSummary> forEach( InternalStatementResultCursor cursor, Consumer<Record> recordAction )
+        {
+            CompletableFuture<ResultSummary> summaryFuture = new CompletableFuture<>();
+            cursor.forEachAsync( recordAction::accept ).whenComplete( ( summary, error ) ->
+            {
+                if ( error == null )
+                {
+                    summaryFuture.complete( summary );
+                }
+                else
+                {
+                    // discard remaining records, otherwise connection is not released when action fails
+                    cursor.consumeAsync().whenComplete( ( ignore, consumeError ) ->
+                            summaryFuture.completeExceptionally( error ) );
+                }
+            } );
+            return summaryFuture;
+        }
+
+        synchronized void deliver( Record record )
+        {
+            // records of different statements arrive on different event loop threads, do not expose the action to this
+            action.accept( record );
+        }
+
+        synchronized void failed( Throwable statementError )
+        {
+            if ( error == null )
+            {
+                error = statementError;
+            }
+            else if ( error != statementError )
+            {
+                error.addSuppressed( statementError );
+            }
+        }
+
+        boolean isServerUnavailable( Throwable error )
+        {
+            return error instanceof ServiceUnavailableException || error instanceof SessionExpiredException;
+        }
+
+        void workerDone()
+        {
+            if ( runningWorkers.decrementAndGet() != 0 )
+            {
+                return;
+            }
+
+            if ( error != null )
+            {
+                result.completeExceptionally( error );
+            }
+            else if ( !pendingStatements.isEmpty() )
+            {
+                // statements were put back by workers of unavailable servers and no workers are left to execute them
+                result.completeExceptionally( retriedError );
+            }
+            else
+            {
+                List<ResultSummary> orderedSummaries = new ArrayList<>( summaries.length() );
+                for ( int i = 0; i < summaries.length(); i++ )
+                {
+                    orderedSummaries.add( summaries.get( i ) );
+                }
+                result.complete( orderedSummaries );
+            }
+        }
+    }
+}
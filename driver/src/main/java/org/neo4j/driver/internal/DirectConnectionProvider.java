@@ -20,11 +20,13 @@ package org.neo4j.driver.internal;
 
 import java.util.concurrent.CompletionStage;
 
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
 import org.neo4j.driver.v1.AccessMode;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.neo4j.driver.v1.AccessMode.READ;
 
 /**
@@ -48,6 +50,24 @@ public class DirectConnectionProvider implements ConnectionProvider
         return connectionPool.acquire( address );
     }
 
+    @Override
+    public CompletionStage<Connection> acquireConnection( AccessMode mode, AcquisitionSettings acquisitionSettings )
+    {
+        return connectionPool.acquire( address, acquisitionSettings );
+    }
+
+    @Override
+    public CompletionStage<Connection> acquireReaderConnection( BoltServerAddress address )
+    {
+        return connectionPool.acquire( address );
+    }
+
+    @Override
+    public CompletionStage<BoltServerAddress[]> readers()
+    {
+        return completedFuture( new BoltServerAddress[]{address} );
+    }
+
     @Override
     public CompletionStage<Void> verifyConnectivity()
     {
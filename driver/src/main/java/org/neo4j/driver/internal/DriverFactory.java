@@ -33,7 +33,10 @@ import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
 import org.neo4j.driver.internal.async.pool.PoolSettings;
 import org.neo4j.driver.internal.cluster.RoutingContext;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
+import org.neo4j.driver.internal.cluster.RoutingTableCache;
+import org.neo4j.driver.internal.cluster.loadbalancing.LatencyAwareLoadBalancingStrategy;
 import org.neo4j.driver.internal.cluster.loadbalancing.LeastConnectedLoadBalancingStrategy;
+import org.neo4j.driver.internal.cluster.loadbalancing.LocalityAwareLoadBalancingStrategy;
 import org.neo4j.driver.internal.cluster.loadbalancing.LoadBalancer;
 import org.neo4j.driver.internal.cluster.loadbalancing.LoadBalancingStrategy;
 import org.neo4j.driver.internal.cluster.loadbalancing.RoundRobinLoadBalancingStrategy;
@@ -100,7 +103,8 @@ public class DriverFactory
         ChannelConnector connector = createConnector( settings, securityPlan, config, clock );
         PoolSettings poolSettings = new PoolSettings( config.maxConnectionPoolSize(),
                 config.connectionAcquisitionTimeoutMillis(), config.maxConnectionLifetimeMillis(),
-                config.idleTimeBeforeConnectionTest()
+                config.idleTimeBeforeConnectionTest(), config.maxPendingConnectionAcquisitions(),
+                Math.min( config.minConnectionPoolSize(), config.maxConnectionPoolSize() )
         );
         return new ConnectionPoolImpl( connector, bootstrap, poolSettings, metrics, config.logging(), clock );
     }
@@ -124,7 +128,7 @@ public class DriverFactory
     }
 
     private InternalDriver createDriver( URI uri, SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
-            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, Metrics metrics, Config config )
+            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, InternalAbstractMetrics metrics, Config config )
     {
         try
         {
@@ -170,14 +174,14 @@ public class DriverFactory
      * <b>This method is protected only for testing</b>
      */
     protected InternalDriver createRoutingDriver( SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
-            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, Metrics metrics, Config config )
+            EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, InternalAbstractMetrics metrics, Config config )
     {
         if ( !securityPlan.isRoutingCompatible() )
         {
             throw new IllegalArgumentException( "The chosen security plan is not compatible with a routing driver" );
         }
         ConnectionProvider connectionProvider = createLoadBalancer( address, connectionPool, eventExecutorGroup,
-                config, routingSettings );
+                config, routingSettings, metrics );
         SessionFactory sessionFactory = createSessionFactory( connectionProvider, retryLogic, config );
         InternalDriver driver = createDriver(securityPlan, sessionFactory, metrics, config);
         Logger log = config.logging().getLog( Driver.class.getSimpleName() );
@@ -201,15 +205,21 @@ public class DriverFactory
      * <b>This method is protected only for testing</b>
      */
     protected LoadBalancer createLoadBalancer( BoltServerAddress address, ConnectionPool connectionPool,
-            EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings )
+            EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings,
+            MetricsListener metrics )
     {
-        LoadBalancingStrategy loadBalancingStrategy = createLoadBalancingStrategy( config, connectionPool );
-        return new LoadBalancer( address, routingSettings, connectionPool, eventExecutorGroup, createClock(),
-                config.logging(), loadBalancingStrategy );
+        Clock clock = createClock();
+        LoadBalancingStrategy loadBalancingStrategy = createLoadBalancingStrategy( config, connectionPool, clock );
+        RoutingTableCache routingTableCache =
+                new RoutingTableCache( config.routingTableCacheFile(), address, clock, config.logging() );
+        LoadBalancer loadBalancer = new LoadBalancer( address, routingSettings, connectionPool, eventExecutorGroup,
+                clock, config.logging(), loadBalancingStrategy, metrics, routingTableCache );
+        loadBalancer.loadCachedRoutingTable();
+        return loadBalancer;
     }
 
     private static LoadBalancingStrategy createLoadBalancingStrategy( Config config,
-            ConnectionPool connectionPool )
+            ConnectionPool connectionPool, Clock clock )
     {
         switch ( config.loadBalancingStrategy() )
         {
@@ -217,6 +227,11 @@ public class DriverFactory
             return new RoundRobinLoadBalancingStrategy( config.logging() );
         case LEAST_CONNECTED:
             return new LeastConnectedLoadBalancingStrategy( connectionPool, config.logging() );
+        case LOCALITY_AWARE:
+            return new LocalityAwareLoadBalancingStrategy( connectionPool, config.localZone(), config.serverZones(),
+                    config.logging() );
+        case LATENCY_AWARE:
+            return new LatencyAwareLoadBalancingStrategy( connectionPool, clock, config.logging() );
         default:
             throw new IllegalArgumentException( "Unknown load balancing strategy: " + config.loadBalancingStrategy() );
         }
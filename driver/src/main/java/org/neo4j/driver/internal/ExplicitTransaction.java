@@ -18,6 +18,8 @@
  */
 package org.neo4j.driver.internal;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
@@ -32,6 +34,7 @@ import org.neo4j.driver.internal.handlers.RollbackTxResponseHandler;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
@@ -76,20 +79,29 @@ public class ExplicitTransaction extends AbstractStatementRunner implements Tran
 
     private final Connection connection;
     private final NetworkSession session;
+    private final RecordBufferWatermarks recordBufferWatermarks;
     private final ResultCursorsHolder resultCursors;
 
     private volatile Bookmark bookmark = Bookmark.empty();
     private volatile State state = State.ACTIVE;
 
     public ExplicitTransaction( Connection connection, NetworkSession session )
+    {
+        this( connection, session, RecordBufferWatermarks.DEFAULT );
+    }
+
+    public ExplicitTransaction( Connection connection, NetworkSession session,
+            RecordBufferWatermarks recordBufferWatermarks )
     {
         this.connection = connection;
         this.session = session;
+        this.recordBufferWatermarks = recordBufferWatermarks;
         this.resultCursors = new ResultCursorsHolder();
     }
 
     public CompletionStage<ExplicitTransaction> beginAsync( Bookmark initialBookmark )
     {
+        connection.setTransactionOpen( true );
         if ( initialBookmark.isEmpty() )
         {
             connection.run( BEGIN_QUERY, emptyMap(), NoOpResponseHandler.INSTANCE, NoOpResponseHandler.INSTANCE );
@@ -208,15 +220,65 @@ public class ExplicitTransaction extends AbstractStatementRunner implements Tran
         return (CompletionStage) run( statement, true );
     }
 
+    @Override
+    public List<StatementResult> runAll( List<Statement> statements )
+    {
+        List<InternalStatementResultCursor> cursors = Futures.blockingGet( runAll( statements, false ),
+                () -> terminateConnectionOnThreadInterrupt( "Thread interrupted while running queries in " +
+                                                            "transaction" ) );
+        List<StatementResult> results = new ArrayList<>( cursors.size() );
+        for ( InternalStatementResultCursor cursor : cursors )
+        {
+            results.add( new InternalStatementResult( connection, cursor ) );
+        }
+        return results;
+    }
+
+    @Override
+    public CompletionStage<List<StatementResultCursor>> runAllAsync( List<Statement> statements )
+    {
+        return runAll( statements, true ).thenApply( cursors -> new ArrayList<StatementResultCursor>( cursors ) );
+    }
+
     private CompletionStage<InternalStatementResultCursor> run( Statement statement, boolean waitForRunResponse )
     {
         ensureCanRunQueries();
         CompletionStage<InternalStatementResultCursor> cursorStage =
-                QueryRunner.runInTransaction( connection, statement, this, waitForRunResponse );
+                QueryRunner.runInTransaction( connection, statement, this, recordBufferWatermarks,
+                        waitForRunResponse );
         resultCursors.add( cursorStage );
         return cursorStage;
     }
 
+    private CompletionStage<List<InternalStatementResultCursor>> runAll( List<Statement> statements,
+            boolean waitForRunResponse )
+    {
+        ensureCanRunQueries();
+        if ( statements.isEmpty() )
+        {
+            return completedFuture( new ArrayList<>() );
+        }
+
+        List<CompletionStage<InternalStatementResultCursor>> cursorStages = QueryRunner.runAllInTransaction(
+                connection, statements, this, recordBufferWatermarks, waitForRunResponse );
+        CompletableFuture<?>[] cursorFutures = new CompletableFuture<?>[cursorStages.size()];
+        for ( int i = 0; i < cursorStages.size(); i++ )
+        {
+            resultCursors.add( cursorStages.get( i ) );
+            cursorFutures[i] = cursorStages.get( i ).toCompletableFuture();
+        }
+
+        return CompletableFuture.allOf( cursorFutures ).thenApply( ignore ->
+        {
+            List<InternalStatementResultCursor> cursors = new ArrayList<>( cursorStages.size() );
+            for ( CompletionStage<InternalStatementResultCursor> cursorStage : cursorStages )
+            {
+                cursors.add( Futures.getNow( cursorStage ) );
+            }
+            return cursors;
+        } );
+    }
+
     private void ensureCanRunQueries()
     {
         if ( state == State.COMMITTED )
@@ -274,6 +336,7 @@ public class ExplicitTransaction extends AbstractStatementRunner implements Tran
 
         CompletableFuture<Void> commitFuture = new CompletableFuture<>();
         ResponseHandler pullAllHandler = new CommitTxResponseHandler( commitFuture, this );
+        connection.setTransactionOpen( false );
         connection.runAndFlush( COMMIT_QUERY, emptyMap(), NoOpResponseHandler.INSTANCE, pullAllHandler );
         return commitFuture;
     }
@@ -287,6 +350,7 @@ public class ExplicitTransaction extends AbstractStatementRunner implements Tran
 
         CompletableFuture<Void> rollbackFuture = new CompletableFuture<>();
         ResponseHandler pullAllHandler = new RollbackTxResponseHandler( rollbackFuture );
+        connection.setTransactionOpen( false );
         connection.runAndFlush( ROLLBACK_QUERY, emptyMap(), NoOpResponseHandler.INSTANCE, pullAllHandler );
         return rollbackFuture;
     }
@@ -18,8 +18,10 @@
  */
 package org.neo4j.driver.internal;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.neo4j.driver.internal.metrics.spi.Metrics;
 import org.neo4j.driver.internal.security.SecurityPlan;
@@ -28,7 +30,11 @@ import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Driver;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
+import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.SessionOptions;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.summary.ResultSummary;
 
 import static org.neo4j.driver.internal.util.Futures.completedWithNull;
 
@@ -92,10 +98,37 @@ public class InternalDriver implements Driver
         return newSession( mode, Bookmark.from( bookmarks ) );
     }
 
+    @Override
+    public Session session( AccessMode mode, Iterable<String> bookmarks, SessionOptions options )
+    {
+        if ( options == null )
+        {
+            throw new IllegalArgumentException( "Session options must not be null" );
+        }
+        return newSession( mode, Bookmark.from( bookmarks ), options );
+    }
+
+    @Override
+    public CompletionStage<List<ResultSummary>> readAllAsync( List<Statement> statements,
+            int maxConcurrencyPerServer, Consumer<Record> action )
+    {
+        assertOpen();
+        return sessionFactory.readAll( statements, maxConcurrencyPerServer, action );
+    }
+
     private Session newSession( AccessMode mode, Bookmark bookmark )
+    {
+        return newSession( mode, bookmark, SessionOptions.DEFAULT );
+    }
+
+    private Session newSession( AccessMode mode, Bookmark bookmark, SessionOptions options )
     {
         assertOpen();
-        Session session = sessionFactory.newInstance( mode, bookmark );
+        return assertOpenAfterCreating( sessionFactory.newInstance( mode, bookmark, options ) );
+    }
+
+    private Session assertOpenAfterCreating( Session session )
+    {
         if ( closed.get() )
         {
             // session does not immediately acquire connection, it is fine to just throw
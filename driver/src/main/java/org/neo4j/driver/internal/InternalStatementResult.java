@@ -20,9 +20,13 @@ package org.neo4j.driver.internal;
 
 import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.internal.util.TypedRecordMapper;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.StatementResultCursor;
@@ -71,6 +75,12 @@ public class InternalStatementResult implements StatementResult
         return record;
     }
 
+    @Override
+    public List<Record> nextBatch( int maxSize )
+    {
+        return blockingGet( cursor.nextBatchAsync( maxSize ) );
+    }
+
     @Override
     public Record single()
     {
@@ -100,6 +110,29 @@ public class InternalStatementResult implements StatementResult
         return blockingGet( cursor.listAsync( mapFunction ) );
     }
 
+    @Override
+    public <T> List<T> list( Class<T> type )
+    {
+        return list( new TypedRecordMapper<>( type ) );
+    }
+
+    @Override
+    public Stream<Record> stream()
+    {
+        LongSupplier remainingRecordsEstimate = cursor instanceof InternalStatementResultCursor
+                                                ? ((InternalStatementResultCursor) cursor)::remainingRecordsEstimate
+                                                : () -> Long.MAX_VALUE;
+        RecordSpliterator spliterator = new RecordSpliterator( this, remainingRecordsEstimate );
+        return StreamSupport.stream( spliterator, false ).onClose( this::consume );
+    }
+
+    @Override
+    public <T> Stream<T> stream( Class<T> type )
+    {
+        TypedRecordMapper<T> mapper = new TypedRecordMapper<>( type );
+        return stream().map( mapper::apply );
+    }
+
     @Override
     public ResultSummary consume()
     {
@@ -32,6 +32,7 @@ import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.util.Consumer;
 import org.neo4j.driver.v1.util.Function;
 import org.neo4j.driver.v1.util.Functions;
+import org.neo4j.driver.v1.util.Publisher;
 
 public class InternalStatementResultCursor implements StatementResultCursor
 {
@@ -62,6 +63,16 @@ public class InternalStatementResultCursor implements StatementResultCursor
         return pullAllHandler.nextAsync();
     }
 
+    @Override
+    public CompletionStage<List<Record>> nextBatchAsync( int maxSize )
+    {
+        if ( maxSize <= 0 )
+        {
+            throw new IllegalArgumentException( "Maximum batch size should be positive, but was: " + maxSize );
+        }
+        return pullAllHandler.nextBatchAsync( maxSize );
+    }
+
     @Override
     public CompletionStage<Record> peekAsync()
     {
@@ -118,29 +129,44 @@ public class InternalStatementResultCursor implements StatementResultCursor
         return pullAllHandler.listAsync( mapFunction );
     }
 
+    @Override
+    public Publisher<Record> asPublisher()
+    {
+        return pullAllHandler::subscribe;
+    }
+
     public CompletionStage<Throwable> failureAsync()
     {
         return pullAllHandler.failureAsync();
     }
 
+    public long remainingRecordsEstimate()
+    {
+        return pullAllHandler.remainingRecordsEstimate();
+    }
+
     private void internalForEachAsync( Consumer<Record> action, CompletableFuture<Void> resultFuture )
     {
-        CompletionStage<Record> recordFuture = nextAsync();
+        // take all buffered records at once instead of going through a future for every record
+        CompletionStage<List<Record>> batchFuture = pullAllHandler.nextBatchAsync( Integer.MAX_VALUE );
 
         // use async completion listener because of recursion, otherwise it is possible for
         // the caller thread to get StackOverflowError when result is large and buffered
-        recordFuture.whenCompleteAsync( ( record, completionError ) ->
+        batchFuture.whenCompleteAsync( ( batch, completionError ) ->
         {
             Throwable error = Futures.completionExceptionCause( completionError );
             if ( error != null )
             {
                 resultFuture.completeExceptionally( error );
             }
-            else if ( record != null )
+            else if ( !batch.isEmpty() )
             {
                 try
                 {
-                    action.accept( record );
+                    for ( Record record : batch )
+                    {
+                        action.accept( record );
+                    }
                 }
                 catch ( Throwable actionError )
                 {
@@ -23,6 +23,7 @@ import org.neo4j.driver.internal.spi.ConnectionProvider;
 import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Logging;
+import org.neo4j.driver.v1.SessionOptions;
 
 import static java.lang.System.lineSeparator;
 
@@ -33,7 +34,13 @@ class LeakLoggingNetworkSession extends NetworkSession
     LeakLoggingNetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
             Logging logging )
     {
-        super( connectionProvider, mode, retryLogic, logging );
+        this( connectionProvider, connectionProvider, mode, SessionOptions.DEFAULT, retryLogic, logging );
+    }
+
+    LeakLoggingNetworkSession( ConnectionProvider connectionProvider, ConnectionProvider autoCommitConnectionProvider,
+            AccessMode mode, SessionOptions options, RetryLogic retryLogic, Logging logging )
+    {
+        super( connectionProvider, autoCommitConnectionProvider, mode, options, retryLogic, logging );
         this.stackTrace = captureStackTrace();
     }
 
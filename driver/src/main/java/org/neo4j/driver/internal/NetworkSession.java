@@ -24,6 +24,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.driver.internal.async.QueryRunner;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.logging.PrefixedLogger;
 import org.neo4j.driver.internal.retry.RetryLogic;
 import org.neo4j.driver.internal.spi.Connection;
@@ -32,7 +33,9 @@ import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Logger;
 import org.neo4j.driver.v1.Logging;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.SessionOptions;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.StatementResultCursor;
@@ -49,7 +52,11 @@ public class NetworkSession extends AbstractStatementRunner implements Session
     private static final String LOG_NAME = "Session";
 
     private final ConnectionProvider connectionProvider;
+    private final ConnectionProvider autoCommitConnectionProvider;
     private final AccessMode mode;
+    private final AcquisitionSettings acquisitionSettings;
+    private final RecordBufferWatermarks recordBufferWatermarks;
+    private final boolean deferredPull;
     private final RetryLogic retryLogic;
     protected final Logger logger;
 
@@ -62,9 +69,27 @@ public class NetworkSession extends AbstractStatementRunner implements Session
 
     public NetworkSession( ConnectionProvider connectionProvider, AccessMode mode, RetryLogic retryLogic,
             Logging logging )
+    {
+        this( connectionProvider, connectionProvider, mode, SessionOptions.DEFAULT, retryLogic, logging );
+    }
+
+    /**
+     * Create a new session that acquires connections for transactions from the given {@code connectionProvider} and
+     * connections for auto-commit queries from the given {@code autoCommitConnectionProvider}. The latter might share
+     * connections between sessions. Given {@code options} should already contain the configured values of options
+     * that the user did not override, driver defaults are used for the missing ones.
+     */
+    public NetworkSession( ConnectionProvider connectionProvider, ConnectionProvider autoCommitConnectionProvider,
+            AccessMode mode, SessionOptions options, RetryLogic retryLogic, Logging logging )
     {
         this.connectionProvider = connectionProvider;
+        this.autoCommitConnectionProvider = autoCommitConnectionProvider;
         this.mode = mode;
+        this.acquisitionSettings = acquisitionSettings( options );
+        this.recordBufferWatermarks = options.recordBufferWatermarks() == null
+                                      ? RecordBufferWatermarks.DEFAULT
+                                      : options.recordBufferWatermarks();
+        this.deferredPull = Boolean.TRUE.equals( options.deferredPull() );
         this.retryLogic = retryLogic;
         this.logger = new PrefixedLogger( "[" + hashCode() + "]", logging.getLog( LOG_NAME ) );
     }
@@ -364,8 +389,9 @@ public class NetworkSession extends AbstractStatementRunner implements Session
         ensureSessionIsOpen();
 
         CompletionStage<InternalStatementResultCursor> newResultCursorStage = ensureNoOpenTxBeforeRunningQuery()
-                .thenCompose( ignore -> acquireConnection( mode ) )
-                .thenCompose( connection -> QueryRunner.runInSession( connection, statement, waitForRunResponse ) );
+                .thenCompose( ignore -> acquireConnection( autoCommitConnectionProvider, mode ) )
+                .thenCompose( connection -> QueryRunner.runInSession( connection, statement, recordBufferWatermarks,
+                        deferredPull, waitForRunResponse ) );
 
         resultCursorStage = newResultCursorStage.exceptionally( error -> null );
 
@@ -384,10 +410,11 @@ public class NetworkSession extends AbstractStatementRunner implements Session
 
         // create a chain that acquires connection and starts a transaction
         CompletionStage<ExplicitTransaction> newTransactionStage = ensureNoOpenTxBeforeStartingTx()
-                .thenCompose( ignore -> acquireConnection( mode ) )
+                .thenCompose( ignore -> acquireConnection( connectionProvider, mode ) )
                 .thenCompose( connection ->
                 {
-                    ExplicitTransaction tx = new ExplicitTransaction( connection, NetworkSession.this );
+                    ExplicitTransaction tx = new ExplicitTransaction( connection, NetworkSession.this,
+                            recordBufferWatermarks );
                     return tx.beginAsync( bookmark );
                 } );
 
@@ -410,7 +437,7 @@ public class NetworkSession extends AbstractStatementRunner implements Session
         return newTransactionStage;
     }
 
-    private CompletionStage<Connection> acquireConnection( AccessMode mode )
+    private CompletionStage<Connection> acquireConnection( ConnectionProvider provider, AccessMode mode )
     {
         CompletionStage<Connection> currentConnectionStage = connectionStage;
 
@@ -446,7 +473,7 @@ public class NetworkSession extends AbstractStatementRunner implements Session
                 // there somehow is an existing open connection, this should not happen, just a precondition
                 throw new IllegalStateException( "Existing open connection detected" );
             }
-            return connectionProvider.acquireConnection( mode );
+            return provider.acquireConnection( mode, acquisitionSettings.withBookmark( bookmark ) );
         } );
 
         connectionStage = newConnectionStage.exceptionally( error -> null );
@@ -543,4 +570,17 @@ public class NetworkSession extends AbstractStatementRunner implements Session
                     "No more interaction with this session are allowed as the current session is already closed. " );
         }
     }
+
+    private static AcquisitionSettings acquisitionSettings( SessionOptions options )
+    {
+        if ( options.hasAcquisitionTimeout() )
+        {
+            return new AcquisitionSettings( options.acquisitionPriority(), options.acquisitionTimeoutMillis() );
+        }
+        if ( options.acquisitionPriority() == AcquisitionSettings.DEFAULT.priority() )
+        {
+            return AcquisitionSettings.DEFAULT;
+        }
+        return new AcquisitionSettings( options.acquisitionPriority() );
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
+
+/**
+ * Spliterator over the remaining records of a {@link StatementResult}. Splitting hands off batches of records that
+ * are already buffered, so that records of a single result can be processed by multiple threads. Records themselves
+ * are still received sequentially from a single network connection.
+ */
+class RecordSpliterator implements Spliterator<Record>
+{
+    static final int BATCH_SIZE_INCREMENT = 1024;
+    static final int MAX_BATCH_SIZE = 1 << 25;
+
+    private final StatementResult result;
+    private final LongSupplier remainingRecordsEstimate;
+
+    private int batchSize;
+
+    RecordSpliterator( StatementResult result, LongSupplier remainingRecordsEstimate )
+    {
+        this.result = result;
+        this.remainingRecordsEstimate = remainingRecordsEstimate;
+    }
+
+    @Override
+    public boolean tryAdvance( Consumer<? super Record> action )
+    {
+        if ( result.hasNext() )
+        {
+            action.accept( result.next() );
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining( Consumer<? super Record> action )
+    {
+        List<Record> batch;
+        while ( !(batch = result.nextBatch( MAX_BATCH_SIZE )).isEmpty() )
+        {
+            batch.forEach( action );
+        }
+    }
+
+    @Override
+    public Spliterator<Record> trySplit()
+    {
+        // batches grow arithmetically, same as in spliterators over iterators of unknown size
+        batchSize = Math.min( batchSize + BATCH_SIZE_INCREMENT, MAX_BATCH_SIZE );
+        List<Record> batch = result.nextBatch( batchSize );
+        if ( batch.isEmpty() )
+        {
+            return null;
+        }
+        return Spliterators.spliterator( batch.toArray(), characteristics() );
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        return remainingRecordsEstimate.getAsLong();
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
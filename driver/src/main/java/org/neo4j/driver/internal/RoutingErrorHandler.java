@@ -19,11 +19,26 @@
 package org.neo4j.driver.internal;
 
 /**
- * Interface used for tracking errors when connected to a cluster.
+ * Interface used for tracking errors and successful responses when connected to a cluster.
  */
 public interface RoutingErrorHandler
 {
     void onConnectionFailure( BoltServerAddress address );
 
     void onWriteFailure( BoltServerAddress address );
+
+    /**
+     * Invoked when server responded to a request with a success message.
+     *
+     * @param address the address of the server.
+     */
+    void onSuccess( BoltServerAddress address );
+
+    /**
+     * Invoked when request failed for a reason that says nothing about availability of the server, for example
+     * because of a syntax error in the statement.
+     *
+     * @param address the address of the server.
+     */
+    void onInconclusiveFailure( BoltServerAddress address );
 }
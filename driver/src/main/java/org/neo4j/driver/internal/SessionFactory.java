@@ -18,15 +18,26 @@
  */
 package org.neo4j.driver.internal;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.SessionOptions;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.summary.ResultSummary;
 
 public interface SessionFactory
 {
     Session newInstance( AccessMode mode, Bookmark bookmark );
 
+    Session newInstance( AccessMode mode, Bookmark bookmark, SessionOptions options );
+
+    CompletionStage<List<ResultSummary>> readAll( List<Statement> statements, int maxConcurrencyPerServer,
+            Consumer<Record> action );
+
     CompletionStage<Void> verifyConnectivity();
 
     CompletionStage<Void> close();
@@ -18,26 +18,43 @@
  */
 package org.neo4j.driver.internal;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
+import org.neo4j.driver.internal.async.MultiplexingConnectionProvider;
 import org.neo4j.driver.internal.retry.RetryLogic;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
 import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.Logging;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.SessionOptions;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.summary.ResultSummary;
 
 public class SessionFactoryImpl implements SessionFactory
 {
     private final ConnectionProvider connectionProvider;
+    private final ConnectionProvider autoCommitConnectionProvider;
     private final RetryLogic retryLogic;
     private final Logging logging;
     private final boolean leakedSessionsLoggingEnabled;
+    private final RecordBufferWatermarks recordBufferWatermarks;
+    private final boolean deferredPull;
 
     SessionFactoryImpl( ConnectionProvider connectionProvider, RetryLogic retryLogic, Config config )
     {
         this.connectionProvider = connectionProvider;
+        this.autoCommitConnectionProvider = config.maxMultiplexedQueriesPerConnection() > 1
+                                            ? new MultiplexingConnectionProvider( connectionProvider,
+                                                    config.maxMultiplexedQueriesPerConnection() )
+                                            : connectionProvider;
         this.leakedSessionsLoggingEnabled = config.logLeakedSessions();
+        this.recordBufferWatermarks = config.recordBufferWatermarks();
+        this.deferredPull = config.deferredPull();
         this.retryLogic = retryLogic;
         this.logging = config.logging();
     }
@@ -45,11 +62,25 @@ public class SessionFactoryImpl implements SessionFactory
     @Override
     public Session newInstance( AccessMode mode, Bookmark bookmark )
     {
-        NetworkSession session = createSession( connectionProvider, retryLogic, mode, logging );
+        return newInstance( mode, bookmark, SessionOptions.DEFAULT );
+    }
+
+    @Override
+    public Session newInstance( AccessMode mode, Bookmark bookmark, SessionOptions options )
+    {
+        NetworkSession session = createSession( connectionProvider, retryLogic, mode, withConfiguredDefaults( options ),
+                logging );
         session.setBookmark( bookmark );
         return session;
     }
 
+    @Override
+    public CompletionStage<List<ResultSummary>> readAll( List<Statement> statements, int maxConcurrencyPerServer,
+            Consumer<Record> action )
+    {
+        return new BulkReader( connectionProvider, maxConcurrencyPerServer ).readAll( statements, action );
+    }
+
     @Override
     public CompletionStage<Void> verifyConnectivity()
     {
@@ -74,11 +105,26 @@ public class SessionFactoryImpl implements SessionFactory
         return connectionProvider;
     }
 
+    private SessionOptions withConfiguredDefaults( SessionOptions options )
+    {
+        if ( options.recordBufferWatermarks() == null )
+        {
+            options = options.withRecordBufferWatermarks( recordBufferWatermarks );
+        }
+        if ( options.deferredPull() == null )
+        {
+            options = options.withDeferredPull( deferredPull );
+        }
+        return options;
+    }
+
     private NetworkSession createSession( ConnectionProvider connectionProvider, RetryLogic retryLogic,
-            AccessMode mode, Logging logging )
+            AccessMode mode, SessionOptions options, Logging logging )
     {
         return leakedSessionsLoggingEnabled
-               ? new LeakLoggingNetworkSession( connectionProvider, mode, retryLogic, logging )
-               : new NetworkSession( connectionProvider, mode, retryLogic, logging );
+               ? new LeakLoggingNetworkSession( connectionProvider, autoCommitConnectionProvider, mode, options,
+                       retryLogic, logging )
+               : new NetworkSession( connectionProvider, autoCommitConnectionProvider, mode, options, retryLogic,
+                       logging );
     }
 }
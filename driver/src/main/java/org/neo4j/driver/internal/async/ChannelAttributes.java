@@ -33,6 +33,7 @@ public final class ChannelAttributes
     private static final AttributeKey<ServerVersion> SERVER_VERSION = newInstance( "serverVersion" );
     private static final AttributeKey<Long> CREATION_TIMESTAMP = newInstance( "creationTimestamp" );
     private static final AttributeKey<Long> LAST_USED_TIMESTAMP = newInstance( "lastUsedTimestamp" );
+    private static final AttributeKey<Long> ACQUISITION_NANO_TIME = newInstance( "acquisitionNanoTime" );
     private static final AttributeKey<InboundMessageDispatcher> MESSAGE_DISPATCHER = newInstance( "messageDispatcher" );
     private static final AttributeKey<String> TERMINATION_REASON = newInstance( "terminationReason" );
 
@@ -80,6 +81,16 @@ public final class ChannelAttributes
         set( channel, LAST_USED_TIMESTAMP, lastUsedTimestamp );
     }
 
+    public static Long acquisitionNanoTime( Channel channel )
+    {
+        return get( channel, ACQUISITION_NANO_TIME );
+    }
+
+    public static void setAcquisitionNanoTime( Channel channel, long acquisitionNanoTime )
+    {
+        set( channel, ACQUISITION_NANO_TIME, acquisitionNanoTime );
+    }
+
     public static InboundMessageDispatcher messageDispatcher( Channel channel )
     {
         return get( channel, MESSAGE_DISPATCHER );
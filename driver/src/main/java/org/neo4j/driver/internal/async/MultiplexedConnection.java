@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.handlers.ResponseHandlers;
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.DeferredPull;
+import org.neo4j.driver.internal.spi.IgnoredAwareResponseHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.internal.util.ServerVersion;
+import org.neo4j.driver.v1.Value;
+
+import static org.neo4j.driver.internal.util.ErrorUtil.newConnectionTerminatedError;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+
+/**
+ * Connection used by a single auto-commit query that shares the underlying physical connection with other queries.
+ * <p>
+ * Queries pipelined on the same connection are independent, so a query that has been ignored by the database because
+ * a preceding query failed is transparently executed again. Reset and termination are not propagated to the
+ * underlying connection because they would terminate queries of other sessions. Auto-read of the underlying
+ * connection is never disabled, records of a query are received only after all records of preceding queries, so
+ * pausing the connection for a slow consumer of one result could make consumers of other results wait forever.
+ * Results of multiplexed queries are thus buffered completely.
+ */
+public class MultiplexedConnection implements Connection
+{
+    static final int MAX_REPLAYS = 2;
+
+    private final Connection delegate;
+    private final Supplier<CompletionStage<Void>> releaseAction;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final Set<DetachableResponseHandler> activeHandlers = ConcurrentHashMap.newKeySet();
+
+    MultiplexedConnection( Connection delegate, Supplier<CompletionStage<Void>> releaseAction )
+    {
+        this.delegate = delegate;
+        this.releaseAction = releaseAction;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return !released.get() && delegate.isOpen();
+    }
+
+    @Override
+    public void enableAutoRead()
+    {
+        // auto-read of the shared connection is never disabled
+    }
+
+    @Override
+    public void disableAutoRead()
+    {
+        // other queries on the shared connection might be waiting for the remaining records of this query to arrive
+    }
+
+    @Override
+    public void run( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
+            ResponseHandler pullAllHandler )
+    {
+        run( statement, parameters, runHandler, pullAllHandler, false, 0 );
+    }
+
+    @Override
+    public void runAndFlush( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
+            ResponseHandler pullAllHandler )
+    {
+        run( statement, parameters, runHandler, pullAllHandler, true, 0 );
+    }
+
+    @Override
+    public DeferredPull runAndFlushWithDeferredPull( String statement, Map<String,Value> parameters,
+            ResponseHandler runHandler, ResponseHandler pullHandler )
+    {
+        // retried statements are resent together with PULL_ALL, so the choice can't be deferred
+        runAndFlush( statement, parameters, runHandler, pullHandler );
+        return DeferredPull.NONE;
+    }
+
+    @Override
+    public void setTransactionOpen( boolean open )
+    {
+        // sessions acquire connections for explicit transactions from the delegate provider, never multiplexed ones
+    }
+
+    @Override
+    public CompletionStage<Void> reset()
+    {
+        return completedWithNull();
+    }
+
+    @Override
+    public CompletionStage<Void> release()
+    {
+        if ( released.compareAndSet( false, true ) )
+        {
+            return releaseAction.get();
+        }
+        return completedWithNull();
+    }
+
+    @Override
+    public void terminateAndRelease( String reason )
+    {
+        if ( released.compareAndSet( false, true ) )
+        {
+            // only detach this query, responses that are still to arrive for it will be dropped
+            Throwable error = newConnectionTerminatedError( reason );
+            for ( DetachableResponseHandler handler : activeHandlers )
+            {
+                handler.onFailure( error );
+            }
+            releaseAction.get();
+        }
+    }
+
+    @Override
+    public BoltServerAddress serverAddress()
+    {
+        return delegate.serverAddress();
+    }
+
+    @Override
+    public ServerVersion serverVersion()
+    {
+        return delegate.serverVersion();
+    }
+
+    int activeHandlersCount()
+    {
+        return activeHandlers.size();
+    }
+
+    private void run( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
+            ResponseHandler pullAllHandler, boolean flush, int replay )
+    {
+        Attempt attempt = new Attempt( statement, parameters, runHandler, pullAllHandler, replay );
+        if ( flush )
+        {
+            delegate.runAndFlush( statement, parameters, attempt.runResponseHandler, attempt.pullAllResponseHandler );
+        }
+        else
+        {
+            delegate.run( statement, parameters, attempt.runResponseHandler, attempt.pullAllResponseHandler );
+        }
+    }
+
+    private class Attempt
+    {
+        final DetachableResponseHandler runResponseHandler;
+        final DetachableResponseHandler pullAllResponseHandler;
+
+        Attempt( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
+                ResponseHandler pullAllHandler, int replay )
+        {
+            this.pullAllResponseHandler = new DetachableResponseHandler( pullAllHandler );
+            this.runResponseHandler = new DetachableResponseHandler( runHandler )
+            {
+                @Override
+                public synchronized void onIgnored( Throwable error )
+                {
+                    if ( replay < MAX_REPLAYS && isOpen() && complete() )
+                    {
+                        // database ignored this query because a preceding pipelined query failed, execute it again
+                        pullAllResponseHandler.complete();
+                        run( statement, parameters, runHandler, pullAllHandler, true, replay + 1 );
+                    }
+                    else
+                    {
+                        super.onIgnored( error );
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Handler that forwards responses of this query until the query is completed or detached from the shared
+     * connection.
+     */
+    private class DetachableResponseHandler implements RecordSizeAwareResponseHandler, IgnoredAwareResponseHandler
+    {
+        final ResponseHandler delegate;
+        boolean completed; // guarded by this
+
+        DetachableResponseHandler( ResponseHandler delegate )
+        {
+            this.delegate = delegate;
+            activeHandlers.add( this );
+        }
+
+        @Override
+        public synchronized void onSuccess( Map<String,Value> metadata )
+        {
+            if ( complete() )
+            {
+                delegate.onSuccess( metadata );
+            }
+        }
+
+        @Override
+        public synchronized void onFailure( Throwable error )
+        {
+            if ( complete() )
+            {
+                delegate.onFailure( error );
+            }
+        }
+
+        @Override
+        public synchronized void onIgnored( Throwable error )
+        {
+            onFailure( error );
+        }
+
+        @Override
+        public synchronized void onRecord( Value[] fields )
+        {
+            if ( !completed )
+            {
+                delegate.onRecord( fields );
+            }
+        }
+
+        @Override
+        public synchronized void onRecord( Value[] fields, int messageSize )
+        {
+            if ( !completed )
+            {
+                ResponseHandlers.onRecord( delegate, fields, messageSize );
+            }
+        }
+
+        synchronized boolean complete()
+        {
+            if ( completed )
+            {
+                return false;
+            }
+            completed = true;
+            activeHandlers.remove( this );
+            return true;
+        }
+    }
+}
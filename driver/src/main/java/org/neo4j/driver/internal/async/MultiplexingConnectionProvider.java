@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ConnectionProvider;
+import org.neo4j.driver.internal.util.Futures;
+import org.neo4j.driver.v1.AccessMode;
+
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+
+/**
+ * Connection provider that lets multiple auto-commit read queries share a single physical connection.
+ * <p>
+ * Bolt allows clients to pipeline requests, responses arrive in the same order and are dispatched to the response
+ * handlers queued in {@link org.neo4j.driver.internal.async.inbound.InboundMessageDispatcher}. This provider hands
+ * out {@link MultiplexedConnection}s that point to the same underlying connection until the configured amount of
+ * concurrent queries is reached. After that, new queries share a newly acquired connection and the full one is not
+ * handed out again. Underlying connection is released back to the pool when the last query that uses it releases its
+ * {@link MultiplexedConnection}.
+ * <p>
+ * Only {@link AccessMode#READ read} connections acquired with {@link AcquisitionSettings#DEFAULT default settings}
+ * are multiplexed. The shared connection is acquired with settings of the query that happened to come first, so
+ * queries with a bookmark, a non-default priority or a timeout acquire connections from the delegate provider as is.
+ * Same goes for write connections.
+ */
+public class MultiplexingConnectionProvider implements ConnectionProvider
+{
+    private final ConnectionProvider delegate;
+    private final int maxQueriesPerConnection;
+    private final AtomicReference<SharedConnection> currentConnection = new AtomicReference<>();
+    private final AtomicInteger sharedConnectionCount = new AtomicInteger();
+
+    public MultiplexingConnectionProvider( ConnectionProvider delegate, int maxQueriesPerConnection )
+    {
+        this.delegate = delegate;
+        this.maxQueriesPerConnection = maxQueriesPerConnection;
+    }
+
+    @Override
+    public CompletionStage<Connection> acquireConnection( AccessMode mode )
+    {
+        return acquireConnection( mode, AcquisitionSettings.DEFAULT );
+    }
+
+    @Override
+    public CompletionStage<Connection> acquireConnection( AccessMode mode, AcquisitionSettings acquisitionSettings )
+    {
+        if ( mode != AccessMode.READ || acquisitionSettings != AcquisitionSettings.DEFAULT )
+        {
+            return delegate.acquireConnection( mode, acquisitionSettings );
+        }
+
+        SharedConnection shared = retainSharedConnection();
+        return shared.connectionFuture.handle( ( connection, error ) ->
+        {
+            if ( error != null )
+            {
+                release( shared );
+                throw Futures.asCompletionException( error );
+            }
+            return new MultiplexedConnection( connection, () -> release( shared ) );
+        } );
+    }
+
+    @Override
+    public CompletionStage<Connection> acquireReaderConnection( BoltServerAddress address )
+    {
+        return delegate.acquireReaderConnection( address );
+    }
+
+    @Override
+    public CompletionStage<BoltServerAddress[]> readers()
+    {
+        return delegate.readers();
+    }
+
+    @Override
+    public CompletionStage<Void> verifyConnectivity()
+    {
+        return delegate.verifyConnectivity();
+    }
+
+    @Override
+    public CompletionStage<Void> close()
+    {
+        return delegate.close();
+    }
+
+    int sharedConnectionCount()
+    {
+        return sharedConnectionCount.get();
+    }
+
+    private SharedConnection retainSharedConnection()
+    {
+        while ( true )
+        {
+            SharedConnection shared = currentConnection.get();
+            if ( shared != null && shared.isUsable() && shared.tryRetain( maxQueriesPerConnection ) )
+            {
+                return shared;
+            }
+
+            // current connection is full or broken, replace it, queries that already use it are not affected
+            SharedConnection newShared = new SharedConnection();
+            if ( currentConnection.compareAndSet( shared, newShared ) )
+            {
+                sharedConnectionCount.incrementAndGet();
+                delegate.acquireConnection( AccessMode.READ, AcquisitionSettings.DEFAULT )
+                        .whenComplete( newShared::complete );
+                return newShared;
+            }
+        }
+    }
+
+    private CompletionStage<Void> release( SharedConnection shared )
+    {
+        if ( !shared.release() )
+        {
+            return completedWithNull();
+        }
+        currentConnection.compareAndSet( shared, null );
+        sharedConnectionCount.decrementAndGet();
+
+        return shared.connectionFuture
+                .exceptionally( error -> null )
+                .thenCompose( connection -> connection == null ? completedWithNull() : connection.release() );
+    }
+
+    /**
+     * Physical connection shared by multiple {@link MultiplexedConnection}s.
+     */
+    private static class SharedConnection
+    {
+        final CompletableFuture<Connection> connectionFuture = new CompletableFuture<>();
+
+        // amount of queries that use the connection, zero when the connection is no longer shared
+        private final AtomicInteger users = new AtomicInteger( 1 );
+
+        boolean tryRetain( int maxUsers )
+        {
+            while ( true )
+            {
+                int currentUsers = users.get();
+                if ( currentUsers == 0 || currentUsers >= maxUsers )
+                {
+                    return false;
+                }
+                if ( users.compareAndSet( currentUsers, currentUsers + 1 ) )
+                {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} when the last query that used the connection released it, {@code false} otherwise.
+         */
+        boolean release()
+        {
+            return users.decrementAndGet() == 0;
+        }
+
+        boolean isUsable()
+        {
+            if ( !connectionFuture.isDone() )
+            {
+                return true;
+            }
+            return !connectionFuture.isCompletedExceptionally() && connectionFuture.join().isOpen();
+        }
+
+        void complete( Connection connection, Throwable error )
+        {
+            if ( error != null )
+            {
+                connectionFuture.completeExceptionally( error );
+            }
+            else
+            {
+                connectionFuture.complete( connection );
+            }
+        }
+    }
+}
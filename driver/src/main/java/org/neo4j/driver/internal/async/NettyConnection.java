@@ -24,11 +24,13 @@ import io.netty.channel.pool.ChannelPool;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.inbound.InboundMessageDispatcher;
 import org.neo4j.driver.internal.handlers.ChannelReleasingResetResponseHandler;
+import org.neo4j.driver.internal.messaging.DiscardAllMessage;
 import org.neo4j.driver.internal.handlers.ResetResponseHandler;
 import org.neo4j.driver.internal.messaging.Message;
 import org.neo4j.driver.internal.messaging.PullAllMessage;
@@ -37,6 +39,7 @@ import org.neo4j.driver.internal.messaging.RunMessage;
 import org.neo4j.driver.internal.metrics.ListenerEvent;
 import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.Clock;
 import org.neo4j.driver.internal.util.ServerVersion;
@@ -59,6 +62,9 @@ public class NettyConnection implements Connection
     private final MetricsListener metricsListener;
     private final ListenerEvent inUseEvent;
 
+    private volatile boolean transactionOpen;
+    private volatile boolean pullDeferred;
+
     public NettyConnection( Channel channel, ChannelPool channelPool, Clock clock, MetricsListener metricsListener )
     {
         this.channel = channel;
@@ -117,6 +123,29 @@ public class NettyConnection implements Connection
         }
     }
 
+    @Override
+    public DeferredPull runAndFlushWithDeferredPull( String statement, Map<String,Value> parameters,
+            ResponseHandler runHandler, ResponseHandler pullHandler )
+    {
+        if ( !verifyOpen( runHandler, pullHandler ) )
+        {
+            return DeferredPull.NONE;
+        }
+
+        PendingPull pendingPull = new PendingPull( runHandler, pullHandler );
+        pullDeferred = true;
+        channel.eventLoop().execute( () ->
+                writeAndFlushMessage( new RunMessage( statement, parameters ), pendingPull ) );
+        return pendingPull;
+    }
+
+    @Override
+    public void setTransactionOpen( boolean open )
+    {
+        // failed commit or rollback is detected by the message dispatcher
+        transactionOpen = open;
+    }
+
     @Override
     public CompletionStage<Void> reset()
     {
@@ -180,6 +209,12 @@ public class NettyConnection implements Connection
             {
                 resetHandler.onSuccess( emptyMap() );
             }
+            else if ( !isSessionReset && isIdleOnServer() )
+            {
+                // server is known to be in READY state, there is nothing to reset and no need for a round-trip
+                setAutoRead( true );
+                resetHandler.onSuccess( emptyMap() );
+            }
             else
             {
                 messageDispatcher.muteAckFailure();
@@ -220,33 +255,135 @@ public class NettyConnection implements Connection
         channel.writeAndFlush( message, channel.voidPromise() );
     }
 
+    /**
+     * Check if server-side state of this connection is known to be clean: all responses have been received, none of
+     * them was a failure and there is no open transaction. Should only be executed by the event loop thread.
+     */
+    private boolean isIdleOnServer()
+    {
+        return !transactionOpen &&
+               !pullDeferred &&
+               messageDispatcher.queuedHandlersCount() == 0 &&
+               !messageDispatcher.failureSinceLastReset();
+    }
+
     private void setAutoRead( boolean value )
     {
         channel.config().setAutoRead( value );
     }
 
     private boolean verifyOpen( ResponseHandler runHandler, ResponseHandler pullAllHandler )
+    {
+        Exception error = statusError();
+        if ( error == null )
+        {
+            return true;
+        }
+        runHandler.onFailure( error );
+        pullAllHandler.onFailure( error );
+        return false;
+    }
+
+    private Exception statusError()
     {
         Status connectionStatus = this.status.get();
         switch ( connectionStatus )
         {
         case OPEN:
-            return true;
+            return null;
         case RELEASED:
-            Exception error = new IllegalStateException( "Connection has been released to the pool and can't be used" );
-            runHandler.onFailure( error );
-            pullAllHandler.onFailure( error );
-            return false;
+            return new IllegalStateException( "Connection has been released to the pool and can't be used" );
         case TERMINATED:
-            Exception terminatedError = new IllegalStateException( "Connection has been terminated and can't be used" );
-            runHandler.onFailure( terminatedError );
-            pullAllHandler.onFailure( terminatedError );
-            return false;
+            return new IllegalStateException( "Connection has been terminated and can't be used" );
         default:
             throw new IllegalStateException( "Unknown status: " + connectionStatus );
         }
     }
 
+    /**
+     * Handles response to RUN and writes PULL_ALL or DISCARD_ALL when asked to. Failed RUN has already been
+     * acknowledged by the message dispatcher, so nothing is written after it and the failure is handed to the pull
+     * handler directly.
+     */
+    private class PendingPull implements ResponseHandler, DeferredPull
+    {
+        final ResponseHandler runHandler;
+        final ResponseHandler pullHandler;
+        final AtomicBoolean decided = new AtomicBoolean();
+
+        // only accessed by the event loop thread
+        Throwable runError;
+
+        PendingPull( ResponseHandler runHandler, ResponseHandler pullHandler )
+        {
+            this.runHandler = runHandler;
+            this.pullHandler = pullHandler;
+        }
+
+        @Override
+        public void onSuccess( Map<String,Value> metadata )
+        {
+            runHandler.onSuccess( metadata );
+        }
+
+        @Override
+        public void onFailure( Throwable error )
+        {
+            runError = error;
+            runHandler.onFailure( error );
+            if ( decided.compareAndSet( false, true ) )
+            {
+                // same outcome as an IGNORED response to a pipelined PULL_ALL
+                pullDeferred = false;
+                pullHandler.onFailure( error );
+            }
+        }
+
+        @Override
+        public void onRecord( Value[] fields )
+        {
+            runHandler.onRecord( fields );
+        }
+
+        @Override
+        public void pullAll()
+        {
+            writeInEventLoop( PullAllMessage.PULL_ALL );
+        }
+
+        @Override
+        public void discardAll()
+        {
+            writeInEventLoop( DiscardAllMessage.DISCARD_ALL );
+        }
+
+        private void writeInEventLoop( Message message )
+        {
+            if ( decided.compareAndSet( false, true ) )
+            {
+                channel.eventLoop().execute( () -> write( message ) );
+            }
+        }
+
+        private void write( Message message )
+        {
+            pullDeferred = false;
+            Exception error = statusError();
+            if ( runError != null )
+            {
+                pullHandler.onFailure( runError );
+            }
+            else if ( error != null )
+            {
+                pullHandler.onFailure( error );
+            }
+            else
+            {
+                writeAndFlushMessage( message, pullHandler );
+            }
+        }
+    }
+
     private enum Status
     {
         OPEN,
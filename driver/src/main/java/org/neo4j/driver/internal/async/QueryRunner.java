@@ -18,6 +18,8 @@
  */
 package org.neo4j.driver.internal.async;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -30,6 +32,7 @@ import org.neo4j.driver.internal.handlers.SessionPullAllResponseHandler;
 import org.neo4j.driver.internal.handlers.TransactionPullAllResponseHandler;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.Value;
@@ -61,7 +64,43 @@ public final class QueryRunner
     public static CompletionStage<InternalStatementResultCursor> runInSession( Connection connection,
             Statement statement, boolean waitForRunResponse )
     {
-        return run( connection, statement, null, waitForRunResponse );
+        return runInSession( connection, statement, RecordBufferWatermarks.DEFAULT, waitForRunResponse );
+    }
+
+    /**
+     * Execute given statement for {@link Session#run(Statement)}.
+     *
+     * @param connection the network connection to use.
+     * @param statement the cypher to execute.
+     * @param watermarks the watermarks of the record buffer of the result.
+     * @param waitForRunResponse {@code true} for async query execution and {@code false} for blocking query
+     * execution. Makes returned cursor stage be chained after the RUN response arrives. Needed to have statement
+     * keys populated.
+     * @return stage with cursor.
+     */
+    public static CompletionStage<InternalStatementResultCursor> runInSession( Connection connection,
+            Statement statement, RecordBufferWatermarks watermarks, boolean waitForRunResponse )
+    {
+        return runInSession( connection, statement, watermarks, false, waitForRunResponse );
+    }
+
+    /**
+     * Execute given statement for {@link Session#run(Statement)}.
+     *
+     * @param connection the network connection to use.
+     * @param statement the cypher to execute.
+     * @param watermarks the watermarks of the record buffer of the result.
+     * @param deferPull {@code true} to send only RUN and postpone the choice between PULL_ALL and DISCARD_ALL until
+     * the result is used, {@code false} to send RUN and PULL_ALL right away.
+     * @param waitForRunResponse {@code true} for async query execution and {@code false} for blocking query
+     * execution. Makes returned cursor stage be chained after the RUN response arrives. Needed to have statement
+     * keys populated.
+     * @return stage with cursor.
+     */
+    public static CompletionStage<InternalStatementResultCursor> runInSession( Connection connection,
+            Statement statement, RecordBufferWatermarks watermarks, boolean deferPull, boolean waitForRunResponse )
+    {
+        return run( connection, statement, null, watermarks, deferPull, true, waitForRunResponse, false );
     }
 
     /**
@@ -78,20 +117,87 @@ public final class QueryRunner
     public static CompletionStage<InternalStatementResultCursor> runInTransaction( Connection connection,
             Statement statement, ExplicitTransaction tx, boolean waitForRunResponse )
     {
-        return run( connection, statement, tx, waitForRunResponse );
+        return runInTransaction( connection, statement, tx, RecordBufferWatermarks.DEFAULT, waitForRunResponse );
+    }
+
+    /**
+     * Execute given statement for {@link Transaction#run(Statement)}.
+     *
+     * @param connection the network connection to use.
+     * @param statement the cypher to execute.
+     * @param tx the transaction which executes the query.
+     * @param watermarks the watermarks of the record buffer of the result.
+     * @param waitForRunResponse {@code true} for async query execution and {@code false} for blocking query
+     * execution. Makes returned cursor stage be chained after the RUN response arrives. Needed to have statement
+     * keys populated.
+     * @return stage with cursor.
+     */
+    public static CompletionStage<InternalStatementResultCursor> runInTransaction( Connection connection,
+            Statement statement, ExplicitTransaction tx, RecordBufferWatermarks watermarks, boolean waitForRunResponse )
+    {
+        return run( connection, statement, tx, watermarks, false, true, waitForRunResponse, false );
+    }
+
+    /**
+     * Execute given statements for {@link Transaction#runAll(List)}. RUN and PULL_ALL messages of all statements are
+     * written to the connection and flushed once, after the last statement.
+     * <p>
+     * When waiting for RUN responses, results of all statements but the last one are received completely regardless
+     * of the watermarks. Otherwise a large result would stop reading from the network before RUN responses of the
+     * following statements arrive and returned stages would never complete.
+     *
+     * @param connection the network connection to use.
+     * @param statements the cypher statements to execute.
+     * @param tx the transaction which executes the queries.
+     * @param watermarks the watermarks of the record buffers of the results.
+     * @param waitForRunResponse {@code true} for async query execution and {@code false} for blocking query
+     * execution. Makes returned cursor stages be chained after the RUN responses arrive. Needed to have statement
+     * keys populated.
+     * @return stages with cursors, in the same order as the statements.
+     */
+    public static List<CompletionStage<InternalStatementResultCursor>> runAllInTransaction( Connection connection,
+            List<Statement> statements, ExplicitTransaction tx, RecordBufferWatermarks watermarks,
+            boolean waitForRunResponse )
+    {
+        List<CompletionStage<InternalStatementResultCursor>> cursorStages = new ArrayList<>( statements.size() );
+        for ( int i = 0; i < statements.size(); i++ )
+        {
+            boolean last = i == statements.size() - 1;
+            cursorStages.add( run( connection, statements.get( i ), tx, watermarks, false, last,
+                    waitForRunResponse, waitForRunResponse && !last ) );
+        }
+        return cursorStages;
     }
 
     private static CompletionStage<InternalStatementResultCursor> run( Connection connection,
-            Statement statement, ExplicitTransaction tx, boolean waitForRunResponse )
+            Statement statement, ExplicitTransaction tx, RecordBufferWatermarks watermarks, boolean deferPull,
+            boolean flush, boolean waitForRunResponse, boolean bufferAllRecords )
     {
         String query = statement.text();
         Map<String,Value> params = statement.parameters().asMap( ofValue() );
 
         CompletableFuture<Void> runCompletedFuture = new CompletableFuture<>();
         RunResponseHandler runHandler = new RunResponseHandler( runCompletedFuture );
-        PullAllResponseHandler pullAllHandler = newPullAllHandler( statement, runHandler, connection, tx );
+        PullAllResponseHandler pullAllHandler = newPullAllHandler( statement, runHandler, connection, tx,
+                watermarks );
+        if ( bufferAllRecords )
+        {
+            pullAllHandler.bufferAllRecords();
+        }
 
-        connection.runAndFlush( query, params, runHandler, pullAllHandler );
+        if ( deferPull )
+        {
+            pullAllHandler.deferPull(
+                    connection.runAndFlushWithDeferredPull( query, params, runHandler, pullAllHandler ) );
+        }
+        else if ( flush )
+        {
+            connection.runAndFlush( query, params, runHandler, pullAllHandler );
+        }
+        else
+        {
+            connection.run( query, params, runHandler, pullAllHandler );
+        }
 
         if ( waitForRunResponse )
         {
@@ -106,12 +212,12 @@ public final class QueryRunner
     }
 
     private static PullAllResponseHandler newPullAllHandler( Statement statement, RunResponseHandler runHandler,
-            Connection connection, ExplicitTransaction tx )
+            Connection connection, ExplicitTransaction tx, RecordBufferWatermarks watermarks )
     {
         if ( tx != null )
         {
-            return new TransactionPullAllResponseHandler( statement, runHandler, connection, tx );
+            return new TransactionPullAllResponseHandler( statement, runHandler, connection, tx, watermarks );
         }
-        return new SessionPullAllResponseHandler( statement, runHandler, connection );
+        return new SessionPullAllResponseHandler( statement, runHandler, connection, watermarks );
     }
 }
@@ -19,12 +19,20 @@
 package org.neo4j.driver.internal.async;
 
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.RoutingErrorHandler;
+import org.neo4j.driver.internal.cluster.loadbalancing.BookmarkListener;
+import org.neo4j.driver.internal.cluster.loadbalancing.ResponseLatencyListener;
+import org.neo4j.driver.internal.handlers.BookmarkRecordingResponseHandler;
+import org.neo4j.driver.internal.handlers.LatencyRecordingResponseHandler;
 import org.neo4j.driver.internal.handlers.RoutingResponseHandler;
 import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.ServerVersion;
 import org.neo4j.driver.v1.AccessMode;
@@ -34,13 +42,42 @@ public class RoutingConnection implements Connection
 {
     private final Connection delegate;
     private final AccessMode accessMode;
-    private final RoutingErrorHandler errorHandler;
+    private final OutcomeTrackingErrorHandler errorHandler;
+    private final ResponseLatencyListener latencyListener;
+    private final BookmarkListener bookmarkListener;
+    // latency of queued RUN requests is measured from the moment they are flushed together with a later request
+    private final Queue<LatencyRecordingResponseHandler> unflushedLatencyHandlers = new ConcurrentLinkedQueue<>();
+    // circuit breakers expect a single outcome per acquired connection, responses only decide which one it is
+    private final AtomicBoolean outcomeReported = new AtomicBoolean();
+    private volatile boolean succeeded;
 
     public RoutingConnection( Connection delegate, AccessMode accessMode, RoutingErrorHandler errorHandler )
+    {
+        this( delegate, accessMode, errorHandler, null );
+    }
+
+    /**
+     * Create a new connection that additionally reports latency of RUN requests to the given listener. Latency is
+     * not measured when listener is {@code null}.
+     */
+    public RoutingConnection( Connection delegate, AccessMode accessMode, RoutingErrorHandler errorHandler,
+            ResponseLatencyListener latencyListener )
+    {
+        this( delegate, accessMode, errorHandler, latencyListener, null );
+    }
+
+    /**
+     * Create a new connection that additionally reports latency of RUN requests and bookmarks received on commit to
+     * the given listeners. Listeners are not notified when they are {@code null}.
+     */
+    public RoutingConnection( Connection delegate, AccessMode accessMode, RoutingErrorHandler errorHandler,
+            ResponseLatencyListener latencyListener, BookmarkListener bookmarkListener )
     {
         this.delegate = delegate;
         this.accessMode = accessMode;
-        this.errorHandler = errorHandler;
+        this.errorHandler = new OutcomeTrackingErrorHandler( errorHandler );
+        this.latencyListener = latencyListener;
+        this.bookmarkListener = bookmarkListener;
     }
 
     @Override
@@ -59,21 +96,36 @@ public class RoutingConnection implements Connection
     public void run( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
             ResponseHandler pullAllHandler )
     {
-        delegate.run( statement, parameters, newRoutingResponseHandler( runHandler ),
-                newRoutingResponseHandler( pullAllHandler ) );
+        delegate.run( statement, parameters, newRunResponseHandler( runHandler, false ),
+                newPullAllResponseHandler( pullAllHandler ) );
+    }
+
+    @Override
+    public DeferredPull runAndFlushWithDeferredPull( String statement, Map<String,Value> parameters,
+            ResponseHandler runHandler, ResponseHandler pullHandler )
+    {
+        return delegate.runAndFlushWithDeferredPull( statement, parameters, newRunResponseHandler( runHandler, true ),
+                newPullAllResponseHandler( pullHandler ) );
     }
 
     @Override
     public void runAndFlush( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
             ResponseHandler pullAllHandler )
     {
-        delegate.runAndFlush( statement, parameters, newRoutingResponseHandler( runHandler ),
-                newRoutingResponseHandler( pullAllHandler ) );
+        delegate.runAndFlush( statement, parameters, newRunResponseHandler( runHandler, true ),
+                newPullAllResponseHandler( pullAllHandler ) );
+    }
+
+    @Override
+    public void setTransactionOpen( boolean open )
+    {
+        delegate.setTransactionOpen( open );
     }
 
     @Override
     public CompletionStage<Void> reset()
     {
+        startUnflushedLatencyClocks();
         return delegate.reset();
     }
 
@@ -86,12 +138,15 @@ public class RoutingConnection implements Connection
     @Override
     public CompletionStage<Void> release()
     {
+        startUnflushedLatencyClocks();
+        reportOutcome();
         return delegate.release();
     }
 
     @Override
     public void terminateAndRelease( String reason )
     {
+        reportOutcome();
         delegate.terminateAndRelease( reason );
     }
 
@@ -107,8 +162,112 @@ public class RoutingConnection implements Connection
         return delegate.serverVersion();
     }
 
+    /**
+     * Report outcome of a connection that has not failed. It is a success when the server responded successfully at
+     * least once and inconclusive otherwise, for example when connection is released without running anything. This
+     * also frees the probe of a half-open circuit breaker.
+     */
+    private void reportOutcome()
+    {
+        if ( outcomeReported.compareAndSet( false, true ) )
+        {
+            BoltServerAddress address = serverAddress();
+            if ( succeeded )
+            {
+                errorHandler.delegate.onSuccess( address );
+            }
+            else
+            {
+                errorHandler.delegate.onInconclusiveFailure( address );
+            }
+        }
+    }
+
+    private ResponseHandler newRunResponseHandler( ResponseHandler handler, boolean flush )
+    {
+        ResponseHandler routingHandler = newRoutingResponseHandler( handler );
+        if ( latencyListener == null )
+        {
+            return routingHandler;
+        }
+        LatencyRecordingResponseHandler latencyHandler =
+                new LatencyRecordingResponseHandler( routingHandler, serverAddress(), latencyListener );
+        if ( flush )
+        {
+            // clocks are started before the write because response can arrive before the write call returns
+            startUnflushedLatencyClocks();
+            latencyHandler.requestFlushed();
+        }
+        else
+        {
+            unflushedLatencyHandlers.add( latencyHandler );
+        }
+        return latencyHandler;
+    }
+
+    private void startUnflushedLatencyClocks()
+    {
+        LatencyRecordingResponseHandler latencyHandler;
+        while ( (latencyHandler = unflushedLatencyHandlers.poll()) != null )
+        {
+            latencyHandler.requestFlushed();
+        }
+    }
+
+    private ResponseHandler newPullAllResponseHandler( ResponseHandler handler )
+    {
+        ResponseHandler routingHandler = newRoutingResponseHandler( handler );
+        if ( bookmarkListener == null )
+        {
+            return routingHandler;
+        }
+        return new BookmarkRecordingResponseHandler( routingHandler, serverAddress(), bookmarkListener );
+    }
+
     private RoutingResponseHandler newRoutingResponseHandler( ResponseHandler handler )
     {
         return new RoutingResponseHandler( handler, serverAddress(), accessMode, errorHandler );
     }
+
+    /**
+     * Error handler that reports at most a single failure of this connection and defers other outcomes until the
+     * connection is released. A fatal error fails all queued response handlers, the address is forgotten by the first
+     * one.
+     */
+    private class OutcomeTrackingErrorHandler implements RoutingErrorHandler
+    {
+        final RoutingErrorHandler delegate;
+
+        OutcomeTrackingErrorHandler( RoutingErrorHandler delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onConnectionFailure( BoltServerAddress address )
+        {
+            if ( outcomeReported.compareAndSet( false, true ) )
+            {
+                delegate.onConnectionFailure( address );
+            }
+        }
+
+        @Override
+        public void onWriteFailure( BoltServerAddress address )
+        {
+            delegate.onWriteFailure( address );
+        }
+
+        @Override
+        public void onSuccess( BoltServerAddress address )
+        {
+            succeeded = true;
+        }
+
+        @Override
+        public void onInconclusiveFailure( BoltServerAddress address )
+        {
+            // reported on release, unless a later response shows that the server failed
+        }
+    }
 }
@@ -26,8 +26,10 @@ import java.util.Map;
 import java.util.Queue;
 
 import org.neo4j.driver.internal.handlers.AckFailureResponseHandler;
+import org.neo4j.driver.internal.handlers.ResponseHandlers;
 import org.neo4j.driver.internal.logging.ChannelActivityLogger;
 import org.neo4j.driver.internal.messaging.MessageHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.ErrorUtil;
 import org.neo4j.driver.v1.Logger;
@@ -47,6 +49,8 @@ public class InboundMessageDispatcher implements MessageHandler
     private Throwable currentError;
     private boolean fatalErrorOccurred;
     private boolean ackFailureMuted;
+    private boolean failureSinceLastReset;
+    private int currentMessageSize;
 
     public InboundMessageDispatcher( Channel channel, Logging logging )
     {
@@ -71,6 +75,17 @@ public class InboundMessageDispatcher implements MessageHandler
         return handlers.size();
     }
 
+    /**
+     * Remember size of the inbound message that is about to be read. It is handed to
+     * {@link RecordSizeAwareResponseHandler}s together with record fields.
+     *
+     * @param size the size of the message in bytes.
+     */
+    public void beforeMessage( int size )
+    {
+        currentMessageSize = size;
+    }
+
     @Override
     public void handleInitMessage( String clientNameAndVersion, Map<String,Value> authToken )
     {
@@ -127,7 +142,7 @@ public class InboundMessageDispatcher implements MessageHandler
             log.debug( "S: RECORD %s", Arrays.toString( fields ) );
         }
         ResponseHandler handler = handlers.peek();
-        handler.onRecord( fields );
+        ResponseHandlers.onRecord( handler, fields, currentMessageSize );
     }
 
     @Override
@@ -136,6 +151,7 @@ public class InboundMessageDispatcher implements MessageHandler
         log.debug( "S: FAILURE %s \"%s\"", code, message );
 
         currentError = ErrorUtil.newNeo4jError( code, message );
+        failureSinceLastReset = true;
 
         if ( ErrorUtil.isFatal( currentError ) )
         {
@@ -156,6 +172,7 @@ public class InboundMessageDispatcher implements MessageHandler
     public void handleIgnoredMessage()
     {
         log.debug( "S: IGNORED" );
+        failureSinceLastReset = true;
 
         ResponseHandler handler = handlers.remove();
 
@@ -175,13 +192,14 @@ public class InboundMessageDispatcher implements MessageHandler
 
             error = new ClientException( "Database ignored the request" );
         }
-        handler.onFailure( error );
+        ResponseHandlers.onIgnored( handler, error );
     }
 
     public void handleFatalError( Throwable error )
     {
         currentError = error;
         fatalErrorOccurred = true;
+        failureSinceLastReset = true;
 
         while ( !handlers.isEmpty() )
         {
@@ -205,17 +223,32 @@ public class InboundMessageDispatcher implements MessageHandler
         return fatalErrorOccurred;
     }
 
+    /**
+     * Check if FAILURE or IGNORED message has been received since the last RESET was sent. Server might not be in
+     * READY state in this case.
+     * <p>
+     * <b>This method is not thread-safe</b> and should only be executed by the event loop thread.
+     *
+     * @return {@code true} if a failure has been received, {@code false} otherwise.
+     */
+    public boolean failureSinceLastReset()
+    {
+        return failureSinceLastReset;
+    }
+
     /**
      * Makes this message dispatcher not send ACK_FAILURE in response to FAILURE until it's un-muted using
      * {@link #unMuteAckFailure()}. Muting ACK_FAILURE is needed <b>only</b> when sending RESET message. RESET "jumps"
      * over all queued messages on server and makes them fail. Received failures do not need to be acknowledge because
-     * RESET moves server's state machine to READY state.
+     * RESET moves server's state machine to READY state. Failures received so far are also forgotten, failure of
+     * the RESET itself will be recorded again.
      * <p>
      * <b>This method is not thread-safe</b> and should only be executed by the event loop thread.
      */
     public void muteAckFailure()
     {
         ackFailureMuted = true;
+        failureSinceLastReset = false;
     }
 
     /**
@@ -77,6 +77,7 @@ public class InboundMessageHandler extends SimpleChannelInboundHandler<ByteBuf>
             log.trace( "S: %s", hexDump( msg ) );
         }
 
+        messageDispatcher.beforeMessage( msg.readableBytes() );
         input.start( msg );
         try
         {
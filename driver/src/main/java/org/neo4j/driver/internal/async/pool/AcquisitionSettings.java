@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.neo4j.driver.internal.Bookmark;
+import org.neo4j.driver.v1.AcquisitionPriority;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Parameters of a single connection acquisition: its priority and, optionally, a timeout that overrides the one
+ * configured for the whole pool. Routing driver also uses the bookmark of the session to prefer readers that are
+ * known to have caught up with it.
+ */
+public final class AcquisitionSettings
+{
+    public static final AcquisitionSettings DEFAULT = new AcquisitionSettings( AcquisitionPriority.NORMAL );
+
+    private final AcquisitionPriority priority;
+    private final long timeoutMillis;
+    private final boolean timeoutConfigured;
+    private final Bookmark bookmark;
+
+    public AcquisitionSettings( AcquisitionPriority priority )
+    {
+        this( priority, PoolSettings.NOT_CONFIGURED, false );
+    }
+
+    public AcquisitionSettings( AcquisitionPriority priority, long timeoutMillis )
+    {
+        this( priority, timeoutMillis, true );
+    }
+
+    private AcquisitionSettings( AcquisitionPriority priority, long timeoutMillis, boolean timeoutConfigured )
+    {
+        this( priority, timeoutMillis, timeoutConfigured, Bookmark.empty() );
+    }
+
+    private AcquisitionSettings( AcquisitionPriority priority, long timeoutMillis, boolean timeoutConfigured,
+            Bookmark bookmark )
+    {
+        this.priority = requireNonNull( priority );
+        this.timeoutMillis = timeoutMillis;
+        this.timeoutConfigured = timeoutConfigured;
+        this.bookmark = requireNonNull( bookmark );
+    }
+
+    /**
+     * Create settings for acquisition on behalf of a session with the given bookmark.
+     *
+     * @param bookmark the bookmark of the session.
+     * @return new settings, or this object when bookmark is empty.
+     */
+    public AcquisitionSettings withBookmark( Bookmark bookmark )
+    {
+        if ( bookmark == null || bookmark.isEmpty() )
+        {
+            return this;
+        }
+        return new AcquisitionSettings( priority, timeoutMillis, timeoutConfigured, bookmark );
+    }
+
+    public Bookmark bookmark()
+    {
+        return bookmark;
+    }
+
+    public AcquisitionPriority priority()
+    {
+        return priority;
+    }
+
+    /**
+     * Get the acquisition timeout to use.
+     *
+     * @param poolTimeoutMillis the timeout configured for the connection pool.
+     * @return timeout given to this object if any, the pool timeout otherwise. Negative value means no timeout.
+     */
+    public long timeoutMillis( long poolTimeoutMillis )
+    {
+        return timeoutConfigured ? timeoutMillis : poolTimeoutMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AcquisitionSettings{" +
+               "priority=" + priority +
+               ", timeoutMillis=" + ( timeoutConfigured ? timeoutMillis : "default" ) +
+               ", bookmark=" + bookmark.maxBookmarkAsString() +
+               '}';
+    }
+}
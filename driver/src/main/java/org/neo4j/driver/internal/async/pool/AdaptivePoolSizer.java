@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the effective size limit of a connection pool from the observed usage of its connections.
+ * <p>
+ * Pool records how long every acquisition waited for a connection and how long every connection was held before
+ * being released. From these samples, Little's law gives the average number of connections that were needed during
+ * the last sampling window: the sum of all hold times divided by the window length. Waiting time is added to the
+ * demand when acquisitions had to queue, because those parties would have held a connection if one was available.
+ * <p>
+ * Similar to TCP Vegas, the limit is not increased when the average hold time grows well above the lowest observed
+ * one. Growing latency means the server is congested and more connections would only make things worse. Limit is
+ * decreased slowly when demand is below it, which lets the pool shed unused connections when load goes down.
+ */
+public class AdaptivePoolSizer
+{
+    public static final long SAMPLING_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis( 1 );
+
+    /**
+     * Extra capacity on top of the computed demand to absorb short bursts.
+     */
+    private static final double HEADROOM = 1.25;
+    /**
+     * Hold time this many times larger than the lowest observed one is treated as server congestion.
+     */
+    private static final double MAX_LATENCY_INFLATION = 2.0;
+
+    private final int minSize;
+    private final int maxSize;
+
+    private long windowStartNanos;
+    private long acquisitions;
+    private long waitingAcquisitions;
+    private long waitNanos;
+    private long releases;
+    private long holdNanos;
+    private long baselineHoldNanos = Long.MAX_VALUE;
+
+    public AdaptivePoolSizer( int minSize, int maxSize )
+    {
+        this( minSize, maxSize, System.nanoTime() );
+    }
+
+    AdaptivePoolSizer( int minSize, int maxSize, long startNanos )
+    {
+        if ( minSize <= 0 || minSize > maxSize )
+        {
+            throw new IllegalArgumentException(
+                    "Illegal pool size bounds, min: " + minSize + ", max: " + maxSize );
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.windowStartNanos = startNanos;
+    }
+
+    public int minSize()
+    {
+        return minSize;
+    }
+
+    public int maxSize()
+    {
+        return maxSize;
+    }
+
+    public synchronized void acquired( long waitTimeNanos )
+    {
+        acquisitions++;
+        if ( waitTimeNanos > 0 )
+        {
+            waitingAcquisitions++;
+            waitNanos += waitTimeNanos;
+        }
+    }
+
+    public synchronized void released( long holdTimeNanos )
+    {
+        releases++;
+        holdNanos += Math.max( holdTimeNanos, 0 );
+    }
+
+    /**
+     * Compute the next pool size limit and start a new sampling window.
+     *
+     * @param currentLimit the limit used during the last sampling window.
+     * @param inUse the number of connections currently in use.
+     * @return the new limit, always within the configured bounds.
+     */
+    public int nextLimit( int currentLimit, int inUse )
+    {
+        return nextLimit( currentLimit, inUse, System.nanoTime() );
+    }
+
+    synchronized int nextLimit( int currentLimit, int inUse, long nowNanos )
+    {
+        long windowNanos = nowNanos - windowStartNanos;
+        if ( windowNanos <= 0 )
+        {
+            return clamp( currentLimit );
+        }
+
+        boolean congested = false;
+        if ( releases > 0 )
+        {
+            long averageHoldNanos = holdNanos / releases;
+            baselineHoldNanos = Math.min( baselineHoldNanos, averageHoldNanos );
+            congested = averageHoldNanos > baselineHoldNanos * MAX_LATENCY_INFLATION;
+        }
+
+        int next;
+        if ( waitingAcquisitions > 0 )
+        {
+            // acquisitions had to queue, demand includes the time they spent waiting
+            int demand = demand( holdNanos + waitNanos, windowNanos );
+            next = congested ? currentLimit : Math.max( currentLimit + 1, demand );
+        }
+        else
+        {
+            int demand = Math.max( demand( holdNanos, windowNanos ), inUse );
+            next = demand < currentLimit ? currentLimit - 1 : currentLimit;
+        }
+
+        resetWindow( nowNanos );
+        return clamp( next );
+    }
+
+    private void resetWindow( long nowNanos )
+    {
+        windowStartNanos = nowNanos;
+        acquisitions = 0;
+        waitingAcquisitions = 0;
+        waitNanos = 0;
+        releases = 0;
+        holdNanos = 0;
+    }
+
+    private int clamp( int limit )
+    {
+        return Math.max( minSize, Math.min( maxSize, limit ) );
+    }
+
+    private static int demand( long busyNanos, long windowNanos )
+    {
+        // Little's law: average number of busy connections is the total busy time divided by the elapsed time
+        double concurrency = (double) busyNanos / windowNanos;
+        return (int) Math.min( Integer.MAX_VALUE, Math.ceil( concurrency * HEADROOM ) );
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "AdaptivePoolSizer{" +
+               "minSize=" + minSize +
+               ", maxSize=" + maxSize +
+               ", acquisitions=" + acquisitions +
+               ", waitingAcquisitions=" + waitingAcquisitions +
+               ", releases=" + releases +
+               '}';
+    }
+}
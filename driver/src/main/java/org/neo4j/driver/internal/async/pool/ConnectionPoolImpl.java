@@ -23,6 +23,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
 
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +31,7 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -57,8 +59,9 @@ public class ConnectionPoolImpl implements ConnectionPool
     private final Logger log;
     private MetricsListener metricsListener;
 
-    private final ConcurrentMap<BoltServerAddress,ChannelPool> pools = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BoltServerAddress,NettyChannelPool> pools = new ConcurrentHashMap<>();
     private final AtomicBoolean closed = new AtomicBoolean();
+    private final ScheduledFuture<?> poolSizingTask;
 
     public ConnectionPoolImpl( ChannelConnector connector, Bootstrap bootstrap, PoolSettings settings,
             MetricsListener metricsListener, Logging logging, Clock clock )
@@ -77,25 +80,32 @@ public class ConnectionPoolImpl implements ConnectionPool
         this.metricsListener = metricsListener;
         this.clock = clock;
         this.log = logging.getLog( ConnectionPool.class.getSimpleName() );
+        this.poolSizingTask = settings.adaptivePoolSizingEnabled() ? schedulePoolSizing() : null;
     }
 
     @Override
     public CompletionStage<Connection> acquire( BoltServerAddress address )
     {
-        log.trace( "Acquiring a connection from pool towards %s", address );
+        return acquire( address, AcquisitionSettings.DEFAULT );
+    }
+
+    @Override
+    public CompletionStage<Connection> acquire( BoltServerAddress address, AcquisitionSettings acquisitionSettings )
+    {
+        log.trace( "Acquiring a connection from pool towards %s with %s", address, acquisitionSettings );
 
         assertNotClosed();
-        ChannelPool pool = getOrCreatePool( address );
+        NettyChannelPool pool = getOrCreatePool( address );
 
         ListenerEvent acquireEvent = metricsListener.createListenerEvent();
         metricsListener.beforeAcquiringOrCreating( address, acquireEvent );
-        Future<Channel> connectionFuture = pool.acquire();
+        Future<Channel> connectionFuture = pool.acquire( acquisitionSettings );
 
         return Futures.asCompletionStage( connectionFuture ).handle( ( channel, error ) ->
         {
             try
             {
-                processAcquisitionError( address, error );
+                processAcquisitionError( address, acquisitionSettings, error );
                 assertNotClosed( address, channel, pool );
                 NettyConnection nettyConnection = new NettyConnection( channel, pool, clock, metricsListener );
 
@@ -112,9 +122,19 @@ public class ConnectionPoolImpl implements ConnectionPool
     @Override
     public void retainAll( Set<BoltServerAddress> addressesToRetain )
     {
-        for ( BoltServerAddress address : pools.keySet() )
+        for ( Map.Entry<BoltServerAddress,NettyChannelPool> entry : pools.entrySet() )
         {
-            if ( !addressesToRetain.contains( address ) )
+            BoltServerAddress address = entry.getKey();
+            NettyChannelPool existingPool = entry.getValue();
+            if ( addressesToRetain.contains( address ) )
+            {
+                if ( existingPool.stopDraining() )
+                {
+                    log.info( "Connection pool towards %s stopped draining, address is back in the routing table",
+                            address );
+                }
+            }
+            else
             {
                 int activeChannels = nettyChannelTracker.inUseChannelCount( address );
                 if ( activeChannels == 0 )
@@ -122,7 +142,7 @@ public class ConnectionPoolImpl implements ConnectionPool
                     // address is not present in updated routing table and has no active connections
                     // it's now safe to terminate corresponding connection pool and forget about it
 
-                    ChannelPool pool = pools.remove( address );
+                    NettyChannelPool pool = pools.remove( address );
                     if ( pool != null )
                     {
                         log.info( "Closing connection pool towards %s, it has no active connections " +
@@ -130,6 +150,13 @@ public class ConnectionPoolImpl implements ConnectionPool
                         pool.close();
                     }
                 }
+                else if ( existingPool.drain( () -> closeDrainedPool( address, existingPool ) ) )
+                {
+                    // address is not present in updated routing table but some connections are still in use
+                    // stop giving out connections and close them as they are returned to the pool
+                    log.info( "Draining connection pool towards %s, it has %s active connections " +
+                              "and is not in the routing table", address, activeChannels );
+                }
             }
         }
     }
@@ -146,6 +173,13 @@ public class ConnectionPoolImpl implements ConnectionPool
         return nettyChannelTracker.idleChannelCount( address );
     }
 
+    @Override
+    public int sizeLimit( BoltServerAddress address )
+    {
+        NettyChannelPool pool = pools.get( address );
+        return pool == null ? settings.maxConnectionPoolSize() : pool.sizeLimit();
+    }
+
     @Override
     public CompletionStage<Void> close()
     {
@@ -153,10 +187,15 @@ public class ConnectionPoolImpl implements ConnectionPool
         {
             try
             {
-                for ( Map.Entry<BoltServerAddress,ChannelPool> entry : pools.entrySet() )
+                if ( poolSizingTask != null )
+                {
+                    poolSizingTask.cancel( false );
+                }
+
+                for ( Map.Entry<BoltServerAddress,NettyChannelPool> entry : pools.entrySet() )
                 {
                     BoltServerAddress address = entry.getKey();
-                    ChannelPool pool = entry.getValue();
+                    NettyChannelPool pool = entry.getValue();
 
                     log.info( "Closing connection pool towards %s", address );
                     pool.close();
@@ -179,33 +218,90 @@ public class ConnectionPoolImpl implements ConnectionPool
         return pools.containsKey( address );
     }
 
-    private ChannelPool getOrCreatePool( BoltServerAddress address )
+    @Override
+    public boolean isDraining( BoltServerAddress address )
     {
-        ChannelPool pool = pools.get( address );
+        NettyChannelPool pool = pools.get( address );
+        return pool != null && pool.isDraining();
+    }
+
+    private NettyChannelPool getOrCreatePool( BoltServerAddress address )
+    {
+        NettyChannelPool pool = pools.get( address );
         if ( pool != null )
         {
             return pool;
         }
 
-        synchronized ( this )
+        // pool is created outside of the map to not run side effects while its hash bin is locked, metrics have to
+        // be registered before the pool becomes visible to other threads, registration of existing metrics is a no-op
+        metricsListener.addMetrics( address, this );
+        NettyChannelPool newPool = newPool( address );
+        pool = pools.putIfAbsent( address, newPool );
+        if ( pool != null )
         {
-            pool = pools.get( address );
-            if ( pool != null )
-            {
-                return pool;
-            }
+            // other thread created the pool concurrently
+            newPool.close();
+            return pool;
+        }
+        return newPool;
+    }
 
-            metricsListener.addMetrics( address, this );
-            pool = newPool( address );
-            pools.put( address, pool );
+    private void closeDrainedPool( BoltServerAddress address, NettyChannelPool pool )
+    {
+        if ( pools.remove( address, pool ) )
+        {
+            log.info( "Closing connection pool towards %s, all its connections were returned " +
+                      "and it is not in the routing table", address );
+            pool.close();
         }
-        return pool;
     }
 
-    ChannelPool newPool( BoltServerAddress address )
+    NettyChannelPool newPool( BoltServerAddress address )
     {
         return new NettyChannelPool( address, connector, bootstrap, nettyChannelTracker, channelHealthChecker,
-                settings.connectionAcquisitionTimeout(), settings.maxConnectionPoolSize() );
+                settings.connectionAcquisitionTimeout(), settings.maxConnectionPoolSize(),
+                settings.maxPendingAcquisitions(), newSizer() );
+    }
+
+    private AdaptivePoolSizer newSizer()
+    {
+        if ( settings.adaptivePoolSizingEnabled() )
+        {
+            return new AdaptivePoolSizer( settings.minConnectionPoolSize(), settings.maxConnectionPoolSize() );
+        }
+        return null;
+    }
+
+    private ScheduledFuture<?> schedulePoolSizing()
+    {
+        long interval = AdaptivePoolSizer.SAMPLING_INTERVAL_MILLIS;
+        return eventLoopGroup().next().scheduleAtFixedRate( this::adjustPoolSizes, interval, interval,
+                TimeUnit.MILLISECONDS );
+    }
+
+    private void adjustPoolSizes()
+    {
+        for ( Map.Entry<BoltServerAddress,NettyChannelPool> entry : pools.entrySet() )
+        {
+            NettyChannelPool pool = entry.getValue();
+            try
+            {
+                int oldLimit = pool.sizeLimit();
+                pool.adjustSizeLimit();
+                int newLimit = pool.sizeLimit();
+                if ( oldLimit != newLimit )
+                {
+                    log.debug( "Changed size limit of connection pool towards %s from %s to %s",
+                            entry.getKey(), oldLimit, newLimit );
+                }
+            }
+            catch ( Throwable error )
+            {
+                // failure must not cancel the periodic task
+                log.warn( "Failed to adjust size limit of connection pool towards " + entry.getKey(), error );
+            }
+        }
     }
 
     private EventLoopGroup eventLoopGroup()
@@ -213,7 +309,8 @@ public class ConnectionPoolImpl implements ConnectionPool
         return bootstrap.config().group();
     }
 
-    private void processAcquisitionError( BoltServerAddress serverAddress, Throwable error )
+    private void processAcquisitionError( BoltServerAddress serverAddress, AcquisitionSettings acquisitionSettings,
+            Throwable error )
     {
         Throwable cause = Futures.completionExceptionCause( error );
         if ( cause != null )
@@ -225,7 +322,7 @@ public class ConnectionPoolImpl implements ConnectionPool
                 metricsListener.afterTimedOutToAcquireOrCreate( serverAddress );
                 throw new ClientException(
                         "Unable to acquire connection from the pool within configured maximum time of " +
-                        settings.connectionAcquisitionTimeout() + "ms" );
+                        acquisitionSettings.timeoutMillis( settings.connectionAcquisitionTimeout() ) + "ms" );
             }
             else
             {
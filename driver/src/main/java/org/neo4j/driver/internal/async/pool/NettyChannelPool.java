@@ -23,19 +23,32 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.pool.ChannelHealthChecker;
 import io.netty.channel.pool.FixedChannelPool;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.ChannelConnector;
 import org.neo4j.driver.internal.metrics.ListenerEvent;
+import org.neo4j.driver.v1.AcquisitionPriority;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 
 import static java.util.Objects.requireNonNull;
+import static org.neo4j.driver.internal.async.ChannelAttributes.acquisitionNanoTime;
+import static org.neo4j.driver.internal.async.ChannelAttributes.setAcquisitionNanoTime;
 
 public class NettyChannelPool extends FixedChannelPool
 {
     /**
-     * Unlimited amount of parties are allowed to request channels from the pool.
+     * Unlimited amount of parties are allowed to wait in the underlying netty pool. Number of waiting parties and
+     * acquisition timeouts are controlled by {@link PendingAcquisitionQueue} instead.
      */
     private static final int MAX_PENDING_ACQUIRES = Integer.MAX_VALUE;
+    /**
+     * Timeout is disabled in the underlying netty pool.
+     */
+    private static final long NO_ACQUIRE_TIMEOUT = -1;
     /**
      * Do not check channels when they are returned to the pool.
      */
@@ -44,17 +57,241 @@ public class NettyChannelPool extends FixedChannelPool
     private final BoltServerAddress address;
     private final ChannelConnector connector;
     private final NettyChannelTracker handler;
+    private final long acquireTimeoutMillis;
+    private final PendingAcquisitionQueue pendingAcquisitions;
+    private final AdaptivePoolSizer sizer;
+    /**
+     * Callback to invoke when the last in-use channel is released. Not {@code null} only while the pool is draining.
+     */
+    private final AtomicReference<Runnable> drainedCallback = new AtomicReference<>();
 
     public NettyChannelPool( BoltServerAddress address, ChannelConnector connector, Bootstrap bootstrap,
             NettyChannelTracker handler, ChannelHealthChecker healthCheck, long acquireTimeoutMillis,
             int maxConnections )
     {
-        super( bootstrap, handler, healthCheck, AcquireTimeoutAction.FAIL, acquireTimeoutMillis, maxConnections,
-                MAX_PENDING_ACQUIRES, RELEASE_HEALTH_CHECK );
+        this( address, connector, bootstrap, handler, healthCheck, acquireTimeoutMillis, maxConnections,
+                PoolSettings.DEFAULT_MAX_PENDING_ACQUISITIONS, null );
+    }
+
+    /**
+     * Create a new pool. Size limit of the pool is adapted by the given {@code sizer}. It is fixed to the given
+     * {@code maxConnections} when sizer is {@code null}.
+     */
+    public NettyChannelPool( BoltServerAddress address, ChannelConnector connector, Bootstrap bootstrap,
+            NettyChannelTracker handler, ChannelHealthChecker healthCheck, long acquireTimeoutMillis,
+            int maxConnections, int maxPendingAcquisitions, AdaptivePoolSizer sizer )
+    {
+        super( bootstrap, handler, healthCheck, null, NO_ACQUIRE_TIMEOUT, maxConnections, MAX_PENDING_ACQUIRES,
+                RELEASE_HEALTH_CHECK );
 
         this.address = requireNonNull( address );
         this.connector = requireNonNull( connector );
         this.handler = requireNonNull( handler );
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.pendingAcquisitions = new PendingAcquisitionQueue( maxConnections, maxPendingAcquisitions,
+                bootstrap.config().group().next() );
+        this.sizer = sizer;
+    }
+
+    @Override
+    public Future<Channel> acquire( Promise<Channel> promise )
+    {
+        return acquire( AcquisitionSettings.DEFAULT, promise );
+    }
+
+    public Future<Channel> acquire( AcquisitionSettings settings )
+    {
+        return acquire( settings, bootstrap().config().group().next().newPromise() );
+    }
+
+    @Override
+    public Future<Void> release( Channel channel, Promise<Void> promise )
+    {
+        recordRelease( channel );
+        promise.addListener( future ->
+        {
+            // underlying pool does not count channels that were not acquired from it, do the same for permits
+            if ( future.isSuccess() || !(future.cause() instanceof IllegalArgumentException) )
+            {
+                pendingAcquisitions.release();
+            }
+            if ( isDraining() )
+            {
+                closeIdleChannels();
+                completeDrainingIfDone();
+            }
+        } );
+        return super.release( channel, promise );
+    }
+
+    @Override
+    public void close()
+    {
+        pendingAcquisitions.close();
+        super.close();
+    }
+
+    public int pendingAcquisitionsCount()
+    {
+        return pendingAcquisitions.pendingCount();
+    }
+
+    public int sizeLimit()
+    {
+        return pendingAcquisitions.maxPermits();
+    }
+
+    /**
+     * Recompute the size limit of this pool from the usage observed since the previous invocation and close idle
+     * channels that exceed the new limit. Does nothing when the size limit is fixed.
+     */
+    public void adjustSizeLimit()
+    {
+        if ( sizer == null )
+        {
+            return;
+        }
+
+        int inUse = handler.inUseChannelCount( address );
+        int idle = handler.idleChannelCount( address );
+        int newLimit = sizer.nextLimit( pendingAcquisitions.maxPermits(), inUse );
+        pendingAcquisitions.setMaxPermits( newLimit );
+
+        int excessIdle = Math.min( inUse + idle - newLimit, idle );
+        for ( int i = 0; i < excessIdle; i++ )
+        {
+            Channel channel = pollChannel();
+            if ( channel == null )
+            {
+                break;
+            }
+            // tracker listens to close events of idle channels and updates the counts
+            channel.close();
+        }
+    }
+
+    /**
+     * Start draining this pool. Draining pool refuses new acquisitions with {@link SessionExpiredException}, closes
+     * idle channels right away and in-use channels when they are released. Given callback is invoked once all in-use
+     * channels are released, unless draining is stopped before that.
+     *
+     * @return {@code true} if pool started draining, {@code false} if it was already draining.
+     */
+    public boolean drain( Runnable onDrained )
+    {
+        requireNonNull( onDrained );
+        if ( !drainedCallback.compareAndSet( null, onDrained ) )
+        {
+            return false;
+        }
+        closeIdleChannels();
+        completeDrainingIfDone();
+        return true;
+    }
+
+    /**
+     * Stop draining this pool and let it give out channels again.
+     *
+     * @return {@code true} if pool was draining, {@code false} otherwise.
+     */
+    public boolean stopDraining()
+    {
+        return drainedCallback.getAndSet( null ) != null;
+    }
+
+    public boolean isDraining()
+    {
+        return drainedCallback.get() != null;
+    }
+
+    private void closeIdleChannels()
+    {
+        Channel channel;
+        while ( (channel = pollChannel()) != null )
+        {
+            // tracker listens to close events of idle channels and updates the counts
+            channel.close();
+        }
+    }
+
+    private void completeDrainingIfDone()
+    {
+        if ( handler.inUseChannelCount( address ) == 0 )
+        {
+            Runnable onDrained = drainedCallback.getAndSet( null );
+            if ( onDrained != null )
+            {
+                onDrained.run();
+            }
+        }
+    }
+
+    private Future<Channel> acquire( AcquisitionSettings settings, Promise<Channel> promise )
+    {
+        if ( isDraining() )
+        {
+            promise.tryFailure( drainingError() );
+            return promise;
+        }
+
+        AcquisitionPriority priority = settings.priority();
+        long timeoutMillis = settings.timeoutMillis( acquireTimeoutMillis );
+
+        pendingAcquisitions.acquire( priority, timeoutMillis, promise,
+                waitNanos -> acquireWithPermit( promise, waitNanos ) );
+        return promise;
+    }
+
+    private void acquireWithPermit( Promise<Channel> promise, long waitNanos )
+    {
+        if ( isDraining() )
+        {
+            // pool started draining while this acquisition was waiting for a permit
+            pendingAcquisitions.release();
+            promise.tryFailure( drainingError() );
+            return;
+        }
+
+        super.acquire( promise ).addListener( future ->
+        {
+            if ( future.isSuccess() )
+            {
+                recordAcquisition( promise.getNow(), waitNanos );
+            }
+            else
+            {
+                // channel was not acquired, give the permit to somebody else
+                pendingAcquisitions.release();
+            }
+        } );
+    }
+
+    private SessionExpiredException drainingError()
+    {
+        // not a ServiceUnavailableException, server is not at fault and its circuit breaker should not count this
+        return new SessionExpiredException( "Connection pool towards " + address + " is draining because " +
+                                                "the address is no longer in the routing table" );
+    }
+
+    private void recordAcquisition( Channel channel, long waitNanos )
+    {
+        if ( sizer != null )
+        {
+            setAcquisitionNanoTime( channel, System.nanoTime() );
+            sizer.acquired( waitNanos );
+        }
+    }
+
+    private void recordRelease( Channel channel )
+    {
+        if ( sizer != null )
+        {
+            Long acquisitionNanoTime = acquisitionNanoTime( channel );
+            if ( acquisitionNanoTime != null )
+            {
+                sizer.released( System.nanoTime() - acquisitionNanoTime );
+            }
+        }
     }
 
     @Override
@@ -22,9 +22,9 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.pool.ChannelPoolHandler;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.metrics.ListenerEvent;
@@ -36,8 +36,7 @@ import static org.neo4j.driver.internal.async.ChannelAttributes.serverAddress;
 
 public class NettyChannelTracker implements ChannelPoolHandler
 {
-    private final Map<BoltServerAddress,AtomicInteger> addressToInUseChannelCount = new ConcurrentHashMap<>();
-    private final Map<BoltServerAddress,AtomicInteger> addressToIdleChannelCount = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BoltServerAddress,ChannelCounts> addressToChannelCounts = new ConcurrentHashMap<>();
     private final Logger log;
     private final MetricsListener metricsListener;
     private final ChannelFutureListener closeListener = future -> channelClosed( future.channel() );
@@ -99,51 +98,66 @@ public class NettyChannelTracker implements ChannelPoolHandler
 
     public int inUseChannelCount( BoltServerAddress address )
     {
-        AtomicInteger count = addressToInUseChannelCount.get( address );
-        return count == null ? 0 : count.get();
+        ChannelCounts counts = addressToChannelCounts.get( address );
+        return counts == null ? 0 : (int) counts.inUse.sum();
     }
 
     public int idleChannelCount( BoltServerAddress address )
     {
-        AtomicInteger count = addressToIdleChannelCount.get( address );
-        return count == null ? 0 : count.get();
+        ChannelCounts counts = addressToChannelCounts.get( address );
+        return counts == null ? 0 : (int) counts.idle.sum();
     }
 
     private void incrementInUse( Channel channel )
     {
-        increment( channel, addressToInUseChannelCount );
+        countsFor( channel ).inUse.increment();
     }
 
     private void decrementInUse( Channel channel )
     {
-        decrement( channel, addressToInUseChannelCount );
+        existingCountsFor( channel ).inUse.decrement();
     }
 
     private void incrementIdle( Channel channel )
     {
-        increment( channel, addressToIdleChannelCount );
+        countsFor( channel ).idle.increment();
     }
 
     private void decrementIdle( Channel channel )
     {
-        decrement( channel, addressToIdleChannelCount );
+        existingCountsFor( channel ).idle.decrement();
     }
 
-    private void increment( Channel channel, Map<BoltServerAddress,AtomicInteger> countMap )
+    private ChannelCounts countsFor( Channel channel )
     {
         BoltServerAddress address = serverAddress( channel );
-        AtomicInteger count = countMap.computeIfAbsent( address, k -> new AtomicInteger() );
-        count.incrementAndGet();
+        // plain lookup first, computeIfAbsent locks the hash bin even when the mapping is present
+        ChannelCounts counts = addressToChannelCounts.get( address );
+        if ( counts == null )
+        {
+            counts = addressToChannelCounts.computeIfAbsent( address, k -> new ChannelCounts() );
+        }
+        return counts;
     }
 
-    private void decrement( Channel channel, Map<BoltServerAddress,AtomicInteger> countMap )
+    private ChannelCounts existingCountsFor( Channel channel )
     {
         BoltServerAddress address = serverAddress( channel );
-        AtomicInteger count = countMap.get( address );
-        if ( count == null )
+        ChannelCounts counts = addressToChannelCounts.get( address );
+        if ( counts == null )
         {
             throw new IllegalStateException( "No count exist for address '" + address + "'" );
         }
-        count.decrementAndGet();
+        return counts;
+    }
+
+    /**
+     * Striped counters of channels towards a single address. Every acquire and release touches them, so
+     * {@link LongAdder} is used to avoid all threads spinning on the same memory location.
+     */
+    private static class ChannelCounts
+    {
+        final LongAdder inUse = new LongAdder();
+        final LongAdder idle = new LongAdder();
     }
 }
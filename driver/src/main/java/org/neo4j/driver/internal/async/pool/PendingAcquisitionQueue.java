@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
+
+import org.neo4j.driver.v1.AcquisitionPriority;
+import org.neo4j.driver.v1.exceptions.AcquisitionQueueFullException;
+
+/**
+ * Limits the number of concurrent acquisitions from a connection pool and orders parties that have to wait for a
+ * connection by their {@link AcquisitionPriority priority}. Parties with the same priority are served in FIFO order.
+ * <p>
+ * Number of waiting parties is bounded. New acquisitions are rejected immediately with
+ * {@link AcquisitionQueueFullException} when the bound is reached.
+ */
+public class PendingAcquisitionQueue
+{
+    private final int maxPending;
+    private final EventExecutor executor;
+    private final Queue<PendingAcquisition> pending = new PriorityQueue<>();
+
+    private int maxPermits;
+    private int availablePermits;
+    private long sequenceNumber;
+    private boolean closed;
+
+    public PendingAcquisitionQueue( int maxPermits, int maxPending, EventExecutor executor )
+    {
+        this.maxPermits = maxPermits;
+        this.availablePermits = maxPermits;
+        this.maxPending = maxPending;
+        this.executor = executor;
+    }
+
+    /**
+     * Acquire a permit and execute the given action when it is available. Action is executed either immediately by
+     * the caller thread or later by the thread that releases a permit. Given promise is failed when permit can't be
+     * acquired because of a timeout, a full queue or because this queue is closed. In this case action is never
+     * executed.
+     *
+     * @param priority the priority of this acquisition.
+     * @param timeoutMillis maximum time to wait for a permit. Zero means fail immediately when permit is not available
+     * and negative value means wait forever.
+     * @param promise the promise to fail when permit can't be acquired.
+     * @param action the action to execute when permit is acquired. It receives the time spent waiting for the permit
+     * in nanoseconds, which is zero when permit was available right away.
+     */
+    public void acquire( AcquisitionPriority priority, long timeoutMillis, Promise<?> promise, LongConsumer action )
+    {
+        Throwable error;
+        synchronized ( this )
+        {
+            if ( closed )
+            {
+                error = new IllegalStateException( "Pool closed" );
+            }
+            else if ( availablePermits > 0 )
+            {
+                availablePermits--;
+                error = null;
+            }
+            else if ( timeoutMillis == 0 )
+            {
+                error = newTimeoutException();
+            }
+            else if ( pending.size() >= maxPending )
+            {
+                error = new AcquisitionQueueFullException(
+                        "Unable to acquire connection from the pool because it is exhausted and " + pending.size() +
+                        " parties are already waiting for a connection" );
+            }
+            else
+            {
+                PendingAcquisition acquisition = new PendingAcquisition( priority, sequenceNumber++, promise, action );
+                pending.add( acquisition );
+                if ( timeoutMillis > 0 )
+                {
+                    acquisition.timeout = executor.schedule( () -> timeout( acquisition ), timeoutMillis,
+                            TimeUnit.MILLISECONDS );
+                }
+                return;
+            }
+        }
+
+        if ( error != null )
+        {
+            promise.tryFailure( error );
+        }
+        else
+        {
+            action.accept( 0 );
+        }
+    }
+
+    /**
+     * Release a previously acquired permit. Permit is handed over to the highest priority waiting party, if any.
+     */
+    public void release()
+    {
+        PendingAcquisition next;
+        synchronized ( this )
+        {
+            // permits might be over-committed after the total number has been decreased
+            next = availablePermits >= 0 ? pending.poll() : null;
+            if ( next == null )
+            {
+                availablePermits++;
+                return;
+            }
+        }
+        next.start();
+    }
+
+    /**
+     * Close this queue and fail all waiting parties.
+     */
+    public void close()
+    {
+        List<PendingAcquisition> toFail;
+        synchronized ( this )
+        {
+            closed = true;
+            toFail = new ArrayList<>( pending );
+            pending.clear();
+        }
+        for ( PendingAcquisition acquisition : toFail )
+        {
+            acquisition.fail( new IllegalStateException( "Pool closed" ) );
+        }
+    }
+
+    /**
+     * Change the total number of permits. Waiting parties are started right away when the number grows. When it
+     * shrinks, permits that are currently held are not revoked, the number of available permits goes down as they
+     * are released.
+     *
+     * @param newMaxPermits the new total number of permits.
+     */
+    public void setMaxPermits( int newMaxPermits )
+    {
+        List<PendingAcquisition> toStart = new ArrayList<>();
+        synchronized ( this )
+        {
+            availablePermits += newMaxPermits - maxPermits;
+            maxPermits = newMaxPermits;
+            while ( availablePermits > 0 && !pending.isEmpty() )
+            {
+                availablePermits--;
+                toStart.add( pending.poll() );
+            }
+        }
+        for ( PendingAcquisition acquisition : toStart )
+        {
+            acquisition.start();
+        }
+    }
+
+    public synchronized int maxPermits()
+    {
+        return maxPermits;
+    }
+
+    public synchronized int pendingCount()
+    {
+        return pending.size();
+    }
+
+    private void timeout( PendingAcquisition acquisition )
+    {
+        boolean removed;
+        synchronized ( this )
+        {
+            removed = pending.remove( acquisition );
+        }
+        if ( removed )
+        {
+            acquisition.fail( newTimeoutException() );
+        }
+    }
+
+    private static TimeoutException newTimeoutException()
+    {
+        return new TimeoutException( "Acquire operation took longer then configured maximum time" );
+    }
+
+    private static class PendingAcquisition implements Comparable<PendingAcquisition>
+    {
+        final AcquisitionPriority priority;
+        final long sequenceNumber;
+        final Promise<?> promise;
+        final LongConsumer action;
+        final long enqueuedNanos = System.nanoTime();
+
+        ScheduledFuture<?> timeout;
+
+        PendingAcquisition( AcquisitionPriority priority, long sequenceNumber, Promise<?> promise,
+                LongConsumer action )
+        {
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+            this.promise = promise;
+            this.action = action;
+        }
+
+        void start()
+        {
+            cancelTimeout();
+            action.accept( Math.max( System.nanoTime() - enqueuedNanos, 1 ) );
+        }
+
+        void fail( Throwable error )
+        {
+            cancelTimeout();
+            promise.tryFailure( error );
+        }
+
+        void cancelTimeout()
+        {
+            if ( timeout != null )
+            {
+                timeout.cancel( false );
+            }
+        }
+
+        @Override
+        public int compareTo( PendingAcquisition other )
+        {
+            int byPriority = priority.compareTo( other.priority );
+            return byPriority != 0 ? byPriority : Long.compare( sequenceNumber, other.sequenceNumber );
+        }
+    }
+}
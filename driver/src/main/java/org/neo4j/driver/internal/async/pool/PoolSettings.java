@@ -28,19 +28,40 @@ public class PoolSettings
     public static final long DEFAULT_IDLE_TIME_BEFORE_CONNECTION_TEST = NOT_CONFIGURED;
     public static final long DEFAULT_MAX_CONNECTION_LIFETIME = TimeUnit.HOURS.toMillis( 1 );
     public static final long DEFAULT_CONNECTION_ACQUISITION_TIMEOUT = TimeUnit.SECONDS.toMillis( 60 );
+    public static final int DEFAULT_MAX_PENDING_ACQUISITIONS = Integer.MAX_VALUE;
+    public static final int DEFAULT_MIN_CONNECTION_POOL_SIZE = NOT_CONFIGURED;
 
     private final int maxConnectionPoolSize;
     private final long connectionAcquisitionTimeout;
     private final long maxConnectionLifetime;
     private final long idleTimeBeforeConnectionTest;
+    private final int maxPendingAcquisitions;
+    private final int minConnectionPoolSize;
 
     public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
             long maxConnectionLifetime, long idleTimeBeforeConnectionTest )
+    {
+        this( maxConnectionPoolSize, connectionAcquisitionTimeout, maxConnectionLifetime,
+                idleTimeBeforeConnectionTest, DEFAULT_MAX_PENDING_ACQUISITIONS );
+    }
+
+    public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
+            long maxConnectionLifetime, long idleTimeBeforeConnectionTest, int maxPendingAcquisitions )
+    {
+        this( maxConnectionPoolSize, connectionAcquisitionTimeout, maxConnectionLifetime,
+                idleTimeBeforeConnectionTest, maxPendingAcquisitions, DEFAULT_MIN_CONNECTION_POOL_SIZE );
+    }
+
+    public PoolSettings( int maxConnectionPoolSize, long connectionAcquisitionTimeout,
+            long maxConnectionLifetime, long idleTimeBeforeConnectionTest, int maxPendingAcquisitions,
+            int minConnectionPoolSize )
     {
         this.maxConnectionPoolSize = maxConnectionPoolSize;
         this.connectionAcquisitionTimeout = connectionAcquisitionTimeout;
         this.maxConnectionLifetime = maxConnectionLifetime;
         this.idleTimeBeforeConnectionTest = idleTimeBeforeConnectionTest;
+        this.maxPendingAcquisitions = maxPendingAcquisitions;
+        this.minConnectionPoolSize = minConnectionPoolSize;
     }
 
     public long idleTimeBeforeConnectionTest()
@@ -72,4 +93,19 @@ public class PoolSettings
     {
         return connectionAcquisitionTimeout;
     }
+
+    public int maxPendingAcquisitions()
+    {
+        return maxPendingAcquisitions;
+    }
+
+    public int minConnectionPoolSize()
+    {
+        return minConnectionPoolSize;
+    }
+
+    public boolean adaptivePoolSizingEnabled()
+    {
+        return minConnectionPoolSize > 0;
+    }
 }
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.util.Clock;
@@ -30,97 +31,141 @@ import org.neo4j.driver.v1.AccessMode;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 
+/**
+ * Routing table that keeps its state in an immutable {@link Snapshot}. Every modification publishes a new snapshot
+ * atomically, so readers always observe readers, writers, routers and expiration timestamp from the same cluster
+ * composition and never have to lock.
+ */
 public class ClusterRoutingTable implements RoutingTable
 {
     private static final int MIN_ROUTERS = 1;
 
     private final Clock clock;
-    private volatile long expirationTimeout;
-    private final AddressSet readers;
-    private final AddressSet writers;
-    private final AddressSet routers;
+    private final AtomicReference<Snapshot> snapshot;
 
     public ClusterRoutingTable( Clock clock, BoltServerAddress... routingAddresses )
-    {
-        this( clock );
-        routers.update( new LinkedHashSet<>( asList( routingAddresses ) ) );
-    }
-
-    private ClusterRoutingTable( Clock clock )
     {
         this.clock = clock;
-        this.expirationTimeout = clock.millis() - 1;
-
-        this.readers = new AddressSet();
-        this.writers = new AddressSet();
-        this.routers = new AddressSet();
+        this.snapshot = new AtomicReference<>( new Snapshot( clock.millis() - 1, Collections.emptySet(),
+                Collections.emptySet(), new LinkedHashSet<>( asList( routingAddresses ) ) ) );
     }
 
     @Override
     public boolean isStaleFor( AccessMode mode )
     {
-        return expirationTimeout < clock.millis() ||
-               routers.size() < MIN_ROUTERS ||
-               mode == AccessMode.READ && readers.size() == 0 ||
-               mode == AccessMode.WRITE && writers.size() == 0;
+        Snapshot current = snapshot.get();
+        return current.expirationTimestamp < clock.millis() ||
+               current.routers.size() < MIN_ROUTERS ||
+               mode == AccessMode.READ && current.readers.size() == 0 ||
+               mode == AccessMode.WRITE && current.writers.size() == 0;
     }
 
     @Override
-    public synchronized void update( ClusterComposition cluster )
+    public void update( ClusterComposition cluster )
     {
-        expirationTimeout = cluster.expirationTimestamp();
-        readers.update( cluster.readers() );
-        writers.update( cluster.writers() );
-        routers.update( cluster.routers() );
+        snapshot.set( new Snapshot( cluster.expirationTimestamp(), cluster.readers(), cluster.writers(),
+                cluster.routers() ) );
     }
 
     @Override
-    public synchronized void forget( BoltServerAddress address )
+    public void forget( BoltServerAddress address )
     {
-        routers.remove( address );
-        readers.remove( address );
-        writers.remove( address );
+        snapshot.updateAndGet( current -> current.without( address, true ) );
     }
 
     @Override
     public AddressSet readers()
     {
-        return readers;
+        return snapshot.get().readers;
     }
 
     @Override
     public AddressSet writers()
     {
-        return writers;
+        return snapshot.get().writers;
     }
 
     @Override
     public AddressSet routers()
     {
-        return routers;
+        return snapshot.get().routers;
     }
 
     @Override
     public Set<BoltServerAddress> servers()
     {
+        Snapshot current = snapshot.get();
         Set<BoltServerAddress> servers = new HashSet<>();
-        Collections.addAll( servers, readers.toArray() );
-        Collections.addAll( servers, writers.toArray() );
-        Collections.addAll( servers, routers.toArray() );
+        Collections.addAll( servers, current.readers.toArray() );
+        Collections.addAll( servers, current.writers.toArray() );
+        Collections.addAll( servers, current.routers.toArray() );
         return servers;
     }
 
     @Override
     public void removeWriter( BoltServerAddress toRemove )
     {
-        writers.remove( toRemove );
+        snapshot.updateAndGet( current -> current.without( toRemove, false ) );
     }
 
-
     @Override
-    public synchronized String toString()
+    public String toString()
     {
+        Snapshot current = snapshot.get();
         return format( "Ttl %s, currentTime %s, routers %s, writers %s, readers %s",
-                expirationTimeout, clock.millis(), routers, writers, readers );
+                current.expirationTimestamp, clock.millis(), current.routers, current.writers, current.readers );
+    }
+
+    /**
+     * Immutable state of the routing table. Address sets of a snapshot are filled before it is published and are
+     * never modified afterwards.
+     */
+    private static class Snapshot
+    {
+        final long expirationTimestamp;
+        final AddressSet readers;
+        final AddressSet writers;
+        final AddressSet routers;
+
+        Snapshot( long expirationTimestamp, Set<BoltServerAddress> readers, Set<BoltServerAddress> writers,
+                Set<BoltServerAddress> routers )
+        {
+            this( expirationTimestamp, addressSet( readers ), addressSet( writers ), addressSet( routers ) );
+        }
+
+        Snapshot( long expirationTimestamp, AddressSet readers, AddressSet writers, AddressSet routers )
+        {
+            this.expirationTimestamp = expirationTimestamp;
+            this.readers = readers;
+            this.writers = writers;
+            this.routers = routers;
+        }
+
+        Snapshot without( BoltServerAddress address, boolean fromAllRoles )
+        {
+            AddressSet newWriters = without( writers, address );
+            AddressSet newReaders = fromAllRoles ? without( readers, address ) : readers;
+            AddressSet newRouters = fromAllRoles ? without( routers, address ) : routers;
+            if ( newReaders == readers && newWriters == writers && newRouters == routers )
+            {
+                return this;
+            }
+            return new Snapshot( expirationTimestamp, newReaders, newWriters, newRouters );
+        }
+
+        private static AddressSet without( AddressSet addresses, BoltServerAddress address )
+        {
+            AddressSet copy = new AddressSet();
+            copy.update( new LinkedHashSet<>( asList( addresses.toArray() ) ) );
+            copy.remove( address );
+            return copy.size() == addresses.size() ? addresses : copy;
+        }
+
+        private static AddressSet addressSet( Set<BoltServerAddress> addresses )
+        {
+            AddressSet addressSet = new AddressSet();
+            addressSet.update( addresses );
+            return addressSet;
+        }
     }
 }
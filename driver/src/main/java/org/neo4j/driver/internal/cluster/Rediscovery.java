@@ -19,9 +19,12 @@
 package org.neo4j.driver.internal.cluster;
 
 import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.ScheduledFuture;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -37,6 +40,7 @@ import org.neo4j.driver.v1.exceptions.SecurityException;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.neo4j.driver.internal.util.Futures.completedWithNull;
 
@@ -178,6 +182,10 @@ public class Rediscovery
             ConnectionPool connectionPool, Set<BoltServerAddress> seenServers )
     {
         BoltServerAddress[] addresses = routingTable.routers().toArray();
+        if ( settings.lookupHedgingEnabled() )
+        {
+            return new HedgedLookup( asList( addresses ), routingTable, connectionPool, seenServers ).start();
+        }
 
         CompletableFuture<ClusterComposition> result = completedWithNull();
         for ( BoltServerAddress address : addresses )
@@ -203,6 +211,11 @@ public class Rediscovery
     {
         Set<BoltServerAddress> addresses = hostNameResolver.resolve( initialRouter );
         addresses.removeAll( seenServers );
+        if ( settings.lookupHedgingEnabled() )
+        {
+            return new HedgedLookup( new ArrayList<>( addresses ), routingTable, connectionPool, new HashSet<>() )
+                    .start();
+        }
 
         CompletableFuture<ClusterComposition> result = completedWithNull();
         for ( BoltServerAddress address : addresses )
@@ -255,4 +268,129 @@ public class Rediscovery
         }
     }
 
+    /**
+     * Lookup that queries the given routers in order but does not wait for a slow router longer than the configured
+     * {@link RoutingSettings#lookupHedgeDelay() hedge delay} before querying the next one. First received cluster
+     * composition is the result. Routers that were not queried by then are skipped. Queries that are already in
+     * progress are left to complete so that their connections are returned to the pool, their results are ignored.
+     */
+    private class HedgedLookup
+    {
+        final List<BoltServerAddress> addresses;
+        final RoutingTable routingTable;
+        final ConnectionPool connectionPool;
+        final Set<BoltServerAddress> seenServers;
+        final CompletableFuture<ClusterComposition> result = new CompletableFuture<>();
+        final List<ScheduledFuture<?>> hedgeTimers = new ArrayList<>();
+
+        int started;
+        int inProgress;
+
+        HedgedLookup( List<BoltServerAddress> addresses, RoutingTable routingTable, ConnectionPool connectionPool,
+                Set<BoltServerAddress> seenServers )
+        {
+            this.addresses = addresses;
+            this.routingTable = routingTable;
+            this.connectionPool = connectionPool;
+            this.seenServers = seenServers;
+        }
+
+        synchronized CompletionStage<ClusterComposition> start()
+        {
+            if ( addresses.isEmpty() )
+            {
+                result.complete( null );
+            }
+            else if ( settings.lookupHedgeDelay() == 0 )
+            {
+                while ( started < addresses.size() && !result.isDone() )
+                {
+                    startNext();
+                }
+            }
+            else
+            {
+                startNext();
+            }
+            return result;
+        }
+
+        synchronized void startNext()
+        {
+            if ( result.isDone() || started == addresses.size() )
+            {
+                return;
+            }
+
+            BoltServerAddress address = addresses.get( started++ );
+            inProgress++;
+
+            long delay = settings.lookupHedgeDelay();
+            if ( delay > 0 && started < addresses.size() )
+            {
+                hedgeTimers.add( eventExecutorGroup.next().schedule( this::hedge, delay, TimeUnit.MILLISECONDS ) );
+            }
+
+            lookupOnRouter( address, routingTable, connectionPool )
+                    .whenComplete( ( composition, error ) -> lookupCompleted( address, composition, error ) );
+        }
+
+        synchronized void hedge()
+        {
+            if ( !result.isDone() && started < addresses.size() )
+            {
+                logger.debug( "Routing server did not respond in %sms, querying '%s' in parallel",
+                        settings.lookupHedgeDelay(), addresses.get( started ) );
+                startNext();
+            }
+        }
+
+        synchronized void lookupCompleted( BoltServerAddress address, ClusterComposition composition,
+                Throwable error )
+        {
+            seenServers.add( address );
+            inProgress--;
+
+            if ( result.isDone() )
+            {
+                return;
+            }
+
+            if ( error != null )
+            {
+                complete( null, error );
+            }
+            else if ( composition != null )
+            {
+                complete( composition, null );
+            }
+            else if ( started < addresses.size() )
+            {
+                // router failed, query the next one without waiting for the hedge timer
+                startNext();
+            }
+            else if ( inProgress == 0 )
+            {
+                complete( null, null );
+            }
+        }
+
+        void complete( ClusterComposition composition, Throwable error )
+        {
+            for ( ScheduledFuture<?> timer : hedgeTimers )
+            {
+                timer.cancel( false );
+            }
+            hedgeTimers.clear();
+
+            if ( error != null )
+            {
+                result.completeExceptionally( error );
+            }
+            else
+            {
+                result.complete( composition );
+            }
+        }
+    }
 }
@@ -22,11 +22,29 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class RoutingSettings
 {
+    /**
+     * Background refresh of the routing table is disabled by default.
+     */
+    public static final double DEFAULT_ROUTING_TABLE_REFRESH_FRACTION = 0;
+    /**
+     * Routers are queried one after another by default, next router is queried only when the previous one failed.
+     */
+    public static final long LOOKUP_HEDGING_DISABLED = -1;
+    /**
+     * Per-address circuit breakers are disabled by default, failing servers are only removed from the routing table.
+     */
+    public static final double CIRCUIT_BREAKER_DISABLED = 0;
+    public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = SECONDS.toMillis( 30 );
+
     public static final RoutingSettings DEFAULT = new RoutingSettings( 1, SECONDS.toMillis( 5 ) );
 
     private final int maxRoutingFailures;
     private final long retryTimeoutDelay;
     private final RoutingContext routingContext;
+    private final double routingTableRefreshFraction;
+    private final long lookupHedgeDelay;
+    private final double circuitBreakerFailureRate;
+    private final long circuitBreakerOpenDuration;
 
     public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay )
     {
@@ -34,15 +52,41 @@ public class RoutingSettings
     }
 
     public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext )
+    {
+        this( maxRoutingFailures, retryTimeoutDelay, routingContext, DEFAULT_ROUTING_TABLE_REFRESH_FRACTION );
+    }
+
+    public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext,
+            double routingTableRefreshFraction )
+    {
+        this( maxRoutingFailures, retryTimeoutDelay, routingContext, routingTableRefreshFraction,
+                LOOKUP_HEDGING_DISABLED );
+    }
+
+    public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext,
+            double routingTableRefreshFraction, long lookupHedgeDelay )
+    {
+        this( maxRoutingFailures, retryTimeoutDelay, routingContext, routingTableRefreshFraction, lookupHedgeDelay,
+                CIRCUIT_BREAKER_DISABLED, DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION );
+    }
+
+    public RoutingSettings( int maxRoutingFailures, long retryTimeoutDelay, RoutingContext routingContext,
+            double routingTableRefreshFraction, long lookupHedgeDelay, double circuitBreakerFailureRate,
+            long circuitBreakerOpenDuration )
     {
         this.maxRoutingFailures = maxRoutingFailures;
         this.retryTimeoutDelay = retryTimeoutDelay;
         this.routingContext = routingContext;
+        this.routingTableRefreshFraction = routingTableRefreshFraction;
+        this.lookupHedgeDelay = lookupHedgeDelay;
+        this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
     }
 
     public RoutingSettings withRoutingContext( RoutingContext newRoutingContext )
     {
-        return new RoutingSettings( maxRoutingFailures, retryTimeoutDelay, newRoutingContext );
+        return new RoutingSettings( maxRoutingFailures, retryTimeoutDelay, newRoutingContext,
+                routingTableRefreshFraction, lookupHedgeDelay, circuitBreakerFailureRate, circuitBreakerOpenDuration );
     }
 
     public int maxRoutingFailures()
@@ -59,4 +103,55 @@ public class RoutingSettings
     {
         return routingContext;
     }
+
+    /**
+     * Fraction of the routing table time-to-live after which the table is refreshed in background.
+     *
+     * @return the fraction, value {@code 0} means background refresh is disabled.
+     */
+    public double routingTableRefreshFraction()
+    {
+        return routingTableRefreshFraction;
+    }
+
+    /**
+     * Delay after which the next router is queried while the previous one did not respond yet.
+     *
+     * @return delay in milliseconds, {@code 0} means all routers are queried in parallel and
+     * {@link #LOOKUP_HEDGING_DISABLED} means routers are queried one after another.
+     */
+    public long lookupHedgeDelay()
+    {
+        return lookupHedgeDelay;
+    }
+
+    public boolean lookupHedgingEnabled()
+    {
+        return lookupHedgeDelay >= 0;
+    }
+
+    /**
+     * Fraction of failed requests towards a single server after which its circuit breaker opens.
+     *
+     * @return the failure rate, {@link #CIRCUIT_BREAKER_DISABLED} means circuit breakers are disabled.
+     */
+    public double circuitBreakerFailureRate()
+    {
+        return circuitBreakerFailureRate;
+    }
+
+    /**
+     * Time an open circuit breaker keeps its server ejected before a single probe request is let through.
+     *
+     * @return duration in milliseconds.
+     */
+    public long circuitBreakerOpenDuration()
+    {
+        return circuitBreakerOpenDuration;
+    }
+
+    public boolean circuitBreakerEnabled()
+    {
+        return circuitBreakerFailureRate > CIRCUIT_BREAKER_DISABLED;
+    }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.util.Clock;
+import org.neo4j.driver.v1.Logger;
+import org.neo4j.driver.v1.Logging;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Routing table persisted in a file, so that a new driver can start routing right away instead of waiting for the
+ * rediscovery to complete. File contains addresses of readers, writers and routers of the last known cluster
+ * composition together with the initial router it was obtained for. Cache for a different initial router is ignored.
+ * <p>
+ * Cached composition is loaded with a short {@link #CACHED_ROUTING_TABLE_TTL_MILLIS time-to-live} because it might be
+ * outdated. It is only meant to serve requests while the real routing table is fetched in background. File is
+ * rewritten only when cluster members change, not on every routing table refresh. Writes requested via
+ * {@link #storeInBackground(ClusterComposition)} are performed by a dedicated thread, one at a time and in order.
+ */
+public class RoutingTableCache
+{
+    private static final String LOGGER_NAME = RoutingTableCache.class.getSimpleName();
+
+    private static final String THREAD_NAME_PREFIX = "Neo4jDriverRoutingTableCache";
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 10;
+
+    static final long CACHED_ROUTING_TABLE_TTL_MILLIS = 30_000;
+
+    private static final String INITIAL_ROUTER = "initialRouter";
+    private static final String READERS = "readers";
+    private static final String WRITERS = "writers";
+    private static final String ROUTERS = "routers";
+    private static final String SEPARATOR = ",";
+
+    private final File file;
+    private final BoltServerAddress initialRouter;
+    private final Clock clock;
+    private final Executor storeExecutor;
+    private final Logger log;
+
+    private Properties lastStored;
+
+    /**
+     * @param file the file to keep the routing table in, {@code null} disables the cache.
+     * @param initialRouter the initial router of the driver.
+     * @param clock the clock.
+     * @param logging the logging.
+     */
+    public RoutingTableCache( File file, BoltServerAddress initialRouter, Clock clock, Logging logging )
+    {
+        this( file, initialRouter, clock, file == null ? null : newStoreExecutor(), logging );
+    }
+
+    RoutingTableCache( File file, BoltServerAddress initialRouter, Clock clock, Executor storeExecutor,
+            Logging logging )
+    {
+        this.file = file;
+        this.initialRouter = initialRouter;
+        this.clock = clock;
+        this.storeExecutor = storeExecutor;
+        this.log = logging.getLog( LOGGER_NAME );
+    }
+
+    public boolean isEnabled()
+    {
+        return file != null;
+    }
+
+    /**
+     * Load the cached cluster composition.
+     *
+     * @return the cached composition or {@code null} when cache is disabled, missing, belongs to a different initial
+     * router or can't be read.
+     */
+    public synchronized ClusterComposition load()
+    {
+        if ( !isEnabled() || !file.exists() )
+        {
+            return null;
+        }
+
+        try
+        {
+            Properties properties = new Properties();
+            try ( InputStream input = Files.newInputStream( file.toPath() ) )
+            {
+                properties.load( input );
+            }
+
+            if ( !initialRouter.toString().equals( properties.getProperty( INITIAL_ROUTER ) ) )
+            {
+                log.info( "Ignoring routing table cache %s created for a different initial router %s", file,
+                        properties.getProperty( INITIAL_ROUTER ) );
+                return null;
+            }
+
+            ClusterComposition composition = new ClusterComposition(
+                    clock.millis() + CACHED_ROUTING_TABLE_TTL_MILLIS,
+                    addresses( properties, READERS ), addresses( properties, WRITERS ), addresses( properties, ROUTERS ) );
+            lastStored = properties;
+            return composition;
+        }
+        catch ( IOException | IllegalArgumentException e )
+        {
+            log.warn( "Unable to load routing table cache from " + file, e );
+            return null;
+        }
+    }
+
+    /**
+     * Same as {@link #store(ClusterComposition)} but does not block the caller, file is written by the background
+     * thread of this cache. Compositions are stored in the order of invocations.
+     *
+     * @param composition the composition to store.
+     */
+    public void storeInBackground( ClusterComposition composition )
+    {
+        if ( isEnabled() )
+        {
+            storeExecutor.execute( () -> store( composition ) );
+        }
+    }
+
+    /**
+     * Store the given cluster composition if its members differ from the stored one. Errors are logged and ignored.
+     *
+     * @param composition the composition to store.
+     */
+    public synchronized void store( ClusterComposition composition )
+    {
+        if ( !isEnabled() )
+        {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty( INITIAL_ROUTER, initialRouter.toString() );
+        properties.setProperty( READERS, join( composition.readers() ) );
+        properties.setProperty( WRITERS, join( composition.writers() ) );
+        properties.setProperty( ROUTERS, join( composition.routers() ) );
+        if ( properties.equals( lastStored ) )
+        {
+            return;
+        }
+
+        try
+        {
+            Path target = file.toPath().toAbsolutePath();
+            Files.createDirectories( target.getParent() );
+            // write to a temporary file and move it over the cache, so readers never observe a partially written file
+            Path temp = Files.createTempFile( target.getParent(), target.getFileName().toString(), ".tmp" );
+            try
+            {
+                try ( OutputStream output = Files.newOutputStream( temp ) )
+                {
+                    properties.store( output, "Neo4j driver routing table cache" );
+                }
+                Files.move( temp, target, REPLACE_EXISTING, ATOMIC_MOVE );
+            }
+            finally
+            {
+                Files.deleteIfExists( temp );
+            }
+            lastStored = properties;
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Unable to store routing table cache to " + file, e );
+        }
+    }
+
+    private static Executor newStoreExecutor()
+    {
+        // single daemon thread that is started on demand and terminates when idle, so cache does not need closing
+        return new ThreadPoolExecutor( 0, 1, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new DefaultThreadFactory( THREAD_NAME_PREFIX, true ) );
+    }
+
+    private static Set<BoltServerAddress> addresses( Properties properties, String key )
+    {
+        Set<BoltServerAddress> addresses = new LinkedHashSet<>();
+        String value = properties.getProperty( key, "" );
+        for ( String address : value.split( SEPARATOR ) )
+        {
+            if ( !address.isEmpty() )
+            {
+                addresses.add( new BoltServerAddress( address ) );
+            }
+        }
+        return addresses;
+    }
+
+    private static String join( Set<BoltServerAddress> addresses )
+    {
+        StringBuilder result = new StringBuilder();
+        for ( BoltServerAddress address : addresses )
+        {
+            if ( result.length() > 0 )
+            {
+                result.append( SEPARATOR );
+            }
+            result.append( address );
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.cluster.RoutingSettings;
+import org.neo4j.driver.internal.metrics.MetricsListener;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
+import org.neo4j.driver.internal.util.Clock;
+import org.neo4j.driver.v1.Logger;
+import org.neo4j.driver.v1.Logging;
+
+/**
+ * Circuit breakers for all known server addresses. Removing a failed server from the routing table only helps until
+ * the next rediscovery, which puts the server right back when the cluster still reports it. Circuit breakers remember
+ * failures across routing table updates and eject servers that fail too often from load balancing.
+ * <p>
+ * Every breaker keeps outcomes of the last {@link #WINDOW_SIZE} requests. Breaker {@link CircuitState#OPEN opens}
+ * when at least {@link #MIN_REQUESTS} outcomes are known and the fraction of failures reaches the configured
+ * threshold. Open breaker ejects its server for the configured duration and then becomes
+ * {@link CircuitState#HALF_OPEN half-open}, which lets a single probe request through. Successful probe
+ * {@link CircuitState#CLOSED closes} the breaker and failed probe opens it again.
+ */
+public class CircuitBreakers
+{
+    private static final String LOGGER_NAME = CircuitBreakers.class.getSimpleName();
+
+    static final int WINDOW_SIZE = 20;
+    static final int MIN_REQUESTS = 10;
+
+    private final ConcurrentMap<BoltServerAddress,CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final double failureRate;
+    private final long openDurationMillis;
+    private final Clock clock;
+    private final MetricsListener metricsListener;
+    private final Logger log;
+
+    public CircuitBreakers( RoutingSettings settings, Clock clock, MetricsListener metricsListener, Logging logging )
+    {
+        this( settings.circuitBreakerFailureRate(), settings.circuitBreakerOpenDuration(), clock, metricsListener,
+                logging );
+    }
+
+    public CircuitBreakers( double failureRate, long openDurationMillis, Clock clock, MetricsListener metricsListener,
+            Logging logging )
+    {
+        this.failureRate = failureRate;
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+        this.metricsListener = metricsListener;
+        this.log = logging.getLog( LOGGER_NAME );
+    }
+
+    public boolean isEnabled()
+    {
+        return failureRate > RoutingSettings.CIRCUIT_BREAKER_DISABLED;
+    }
+
+    /**
+     * Filter out addresses ejected by their circuit breakers.
+     *
+     * @param addresses the addresses to filter.
+     * @return addresses that can be used for new requests, same array when none were ejected.
+     */
+    public BoltServerAddress[] available( BoltServerAddress[] addresses )
+    {
+        if ( !isEnabled() )
+        {
+            return addresses;
+        }
+
+        List<BoltServerAddress> available = null;
+        for ( int i = 0; i < addresses.length; i++ )
+        {
+            BoltServerAddress address = addresses[i];
+            CircuitBreaker breaker = breakers.get( address );
+            boolean ejected = breaker != null && !breaker.isAvailable();
+
+            if ( ejected && available == null )
+            {
+                available = new ArrayList<>( addresses.length );
+                for ( int j = 0; j < i; j++ )
+                {
+                    available.add( addresses[j] );
+                }
+            }
+            else if ( !ejected && available != null )
+            {
+                available.add( address );
+            }
+        }
+        return available == null ? addresses : available.toArray( new BoltServerAddress[0] );
+    }
+
+    /**
+     * Check if a request towards the given address is allowed. Half-open breaker allows only a single probe and its
+     * outcome has to be reported via {@link #onSuccess(BoltServerAddress)}, {@link #onFailure(BoltServerAddress)} or
+     * {@link #onInconclusive(BoltServerAddress)}.
+     *
+     * @param address the address to send request to.
+     * @return {@code true} if the request is allowed, {@code false} otherwise.
+     */
+    public boolean tryAcquirePermission( BoltServerAddress address )
+    {
+        if ( !isEnabled() )
+        {
+            return true;
+        }
+        CircuitBreaker breaker = breakers.get( address );
+        return breaker == null || breaker.tryAcquirePermission();
+    }
+
+    public void onSuccess( BoltServerAddress address )
+    {
+        if ( isEnabled() )
+        {
+            breaker( address ).onSuccess();
+        }
+    }
+
+    public void onFailure( BoltServerAddress address )
+    {
+        if ( isEnabled() )
+        {
+            breaker( address ).onFailure();
+        }
+    }
+
+    /**
+     * Report a request that failed for a reason unrelated to the health of the server, like a connection acquisition
+     * timeout. It does not count towards the failure rate but allows a new probe when the request was a probe.
+     *
+     * @param address the address of the request.
+     */
+    public void onInconclusive( BoltServerAddress address )
+    {
+        CircuitBreaker breaker = breakers.get( address );
+        if ( breaker != null )
+        {
+            breaker.onInconclusive();
+        }
+    }
+
+    public CircuitState state( BoltServerAddress address )
+    {
+        CircuitBreaker breaker = breakers.get( address );
+        return breaker == null ? CircuitState.CLOSED : breaker.state();
+    }
+
+    /**
+     * Forget circuit breakers of addresses that are no longer part of the cluster.
+     *
+     * @param addressesToRetain the addresses of the cluster.
+     */
+    public void retainAll( Set<BoltServerAddress> addressesToRetain )
+    {
+        breakers.keySet().retainAll( addressesToRetain );
+    }
+
+    private CircuitBreaker breaker( BoltServerAddress address )
+    {
+        CircuitBreaker breaker = breakers.get( address );
+        if ( breaker == null )
+        {
+            breaker = breakers.computeIfAbsent( address, CircuitBreaker::new );
+        }
+        return breaker;
+    }
+
+    private class CircuitBreaker
+    {
+        final BoltServerAddress address;
+        final boolean[] failedOutcomes = new boolean[WINDOW_SIZE];
+        int outcomes;
+        int failures;
+        int nextOutcome;
+
+        CircuitState state = CircuitState.CLOSED;
+        long openedAt;
+        boolean probeInFlight;
+
+        CircuitBreaker( BoltServerAddress address )
+        {
+            this.address = address;
+        }
+
+        synchronized CircuitState state()
+        {
+            halfOpenIfOpenDurationPassed();
+            return state;
+        }
+
+        synchronized boolean isAvailable()
+        {
+            halfOpenIfOpenDurationPassed();
+            return state == CircuitState.CLOSED || state == CircuitState.HALF_OPEN && !probeInFlight;
+        }
+
+        synchronized boolean tryAcquirePermission()
+        {
+            if ( !isAvailable() )
+            {
+                return false;
+            }
+            if ( state == CircuitState.HALF_OPEN )
+            {
+                probeInFlight = true;
+            }
+            return true;
+        }
+
+        synchronized void onSuccess()
+        {
+            if ( state == CircuitState.HALF_OPEN )
+            {
+                log.info( "Probe request towards %s succeeded, closing its circuit breaker", address );
+                close();
+            }
+            else if ( state == CircuitState.CLOSED )
+            {
+                record( false );
+            }
+        }
+
+        synchronized void onFailure()
+        {
+            if ( state == CircuitState.HALF_OPEN )
+            {
+                log.warn( "Probe request towards %s failed, keeping it ejected for %sms", address,
+                        openDurationMillis );
+                open();
+            }
+            else if ( state == CircuitState.CLOSED )
+            {
+                record( true );
+                if ( outcomes >= MIN_REQUESTS && failures >= failureRate * outcomes )
+                {
+                    log.warn( "%s out of %s requests towards %s failed, ejecting it for %sms", failures, outcomes,
+                            address, openDurationMillis );
+                    open();
+                }
+            }
+        }
+
+        synchronized void onInconclusive()
+        {
+            if ( state == CircuitState.HALF_OPEN )
+            {
+                probeInFlight = false;
+            }
+        }
+
+        private void record( boolean failed )
+        {
+            if ( outcomes == WINDOW_SIZE )
+            {
+                if ( failedOutcomes[nextOutcome] )
+                {
+                    failures--;
+                }
+            }
+            else
+            {
+                outcomes++;
+            }
+            failedOutcomes[nextOutcome] = failed;
+            if ( failed )
+            {
+                failures++;
+            }
+            nextOutcome = (nextOutcome + 1) % WINDOW_SIZE;
+        }
+
+        private void halfOpenIfOpenDurationPassed()
+        {
+            if ( state == CircuitState.OPEN && clock.millis() - openedAt >= openDurationMillis )
+            {
+                probeInFlight = false;
+                changeState( CircuitState.HALF_OPEN );
+            }
+        }
+
+        private void open()
+        {
+            openedAt = clock.millis();
+            probeInFlight = false;
+            changeState( CircuitState.OPEN );
+        }
+
+        private void close()
+        {
+            outcomes = 0;
+            failures = 0;
+            nextOutcome = 0;
+            probeInFlight = false;
+            changeState( CircuitState.CLOSED );
+        }
+
+        private void changeState( CircuitState newState )
+        {
+            state = newState;
+            metricsListener.afterCircuitStateChanged( address, newState );
+        }
+    }
+}
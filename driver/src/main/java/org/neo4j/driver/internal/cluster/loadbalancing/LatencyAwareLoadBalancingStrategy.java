@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.internal.util.Clock;
+import org.neo4j.driver.v1.Logger;
+import org.neo4j.driver.v1.Logging;
+
+/**
+ * Load balancing strategy that prefers servers which respond fast. It keeps an exponentially weighted moving average
+ * (EWMA) of response latency for every address. Selection uses "power of two choices": two random addresses are
+ * compared and the one with the lower cost wins, where cost is the average latency multiplied by the number of
+ * in-flight (checked out of the pool) connections plus one. Comparing only two random candidates prevents the
+ * fastest server from being flooded by all clients at once.
+ * <p>
+ * Addresses without latency samples are assumed to have a neutral latency equal to the mean latency of all measured
+ * addresses, so new servers are tried but still pay for the connections they already have in flight. Weight of the
+ * measured average decays while an address does not receive new samples and its latency drifts towards the same
+ * neutral value. This allows a server that was slow to be probed again after some time instead of being avoided
+ * forever, without making an idle server look infinitely fast. Samples of addresses that leave the routing table are
+ * discarded.
+ */
+public class LatencyAwareLoadBalancingStrategy implements LoadBalancingStrategy, ResponseLatencyListener
+{
+    private static final String LOGGER_NAME = LatencyAwareLoadBalancingStrategy.class.getSimpleName();
+
+    /**
+     * Time constant for aging of samples. Sample that is this old has ~37% of the weight of a fresh sample.
+     */
+    static final long DECAY_TIME_MILLIS = 10_000;
+    /**
+     * Minimal weight of a new sample in the average, applies when samples arrive in quick succession.
+     */
+    static final double MIN_SAMPLE_WEIGHT = 0.2;
+
+    /**
+     * Latency assumed for all addresses when none of them has samples. Any positive value works because only
+     * relative costs are compared.
+     */
+    private static final double DEFAULT_PRIOR_NANOS = 1;
+
+    private final ConcurrentMap<BoltServerAddress,Ewma> latencies = new ConcurrentHashMap<>();
+    private final ConnectionPool connectionPool;
+    private final Clock clock;
+    private final Logger log;
+
+    public LatencyAwareLoadBalancingStrategy( ConnectionPool connectionPool, Clock clock, Logging logging )
+    {
+        this.connectionPool = connectionPool;
+        this.clock = clock;
+        this.log = logging.getLog( LOGGER_NAME );
+    }
+
+    @Override
+    public BoltServerAddress selectReader( BoltServerAddress[] knownReaders )
+    {
+        return select( knownReaders, "reader" );
+    }
+
+    @Override
+    public BoltServerAddress selectWriter( BoltServerAddress[] knownWriters )
+    {
+        return select( knownWriters, "writer" );
+    }
+
+    @Override
+    public void onResponse( BoltServerAddress address, long latencyNanos )
+    {
+        Ewma ewma = latencies.get( address );
+        if ( ewma == null )
+        {
+            ewma = latencies.computeIfAbsent( address, ignore -> new Ewma() );
+        }
+        ewma.update( latencyNanos, clock.millis() );
+    }
+
+    @Override
+    public void retainAll( Set<BoltServerAddress> addressesToRetain )
+    {
+        latencies.keySet().retainAll( addressesToRetain );
+    }
+
+    /**
+     * Average response latency of the given address. Measured average is blended with the mean latency of all
+     * measured addresses according to the age of the last sample.
+     *
+     * @param address the server address.
+     * @return latency in nanoseconds, mean latency of all measured addresses when the given address has no samples.
+     */
+    public double latency( BoltServerAddress address )
+    {
+        return latency( address, prior(), clock.millis() );
+    }
+
+    private BoltServerAddress select( BoltServerAddress[] addresses, String addressType )
+    {
+        int size = addresses.length;
+        if ( size == 0 )
+        {
+            log.trace( "Unable to select %s, no known addresses given", addressType );
+            return null;
+        }
+        if ( size == 1 )
+        {
+            BoltServerAddress address = addresses[0];
+            log.trace( "Selected %s with address: '%s'", addressType, address );
+            return address;
+        }
+
+        // pick two distinct random addresses
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt( size );
+        int secondIndex = random.nextInt( size - 1 );
+        if ( secondIndex >= firstIndex )
+        {
+            secondIndex++;
+        }
+
+        BoltServerAddress first = addresses[firstIndex];
+        BoltServerAddress second = addresses[secondIndex];
+        double prior = prior();
+        long nowMillis = clock.millis();
+        double firstCost = cost( first, prior, nowMillis );
+        double secondCost = cost( second, prior, nowMillis );
+
+        BoltServerAddress selected = firstCost <= secondCost ? first : second;
+        log.trace( "Selected %s with address: '%s' out of '%s' with cost %s and '%s' with cost %s",
+                addressType, selected, first, firstCost, second, secondCost );
+        return selected;
+    }
+
+    private double cost( BoltServerAddress address, double prior, long nowMillis )
+    {
+        return latency( address, prior, nowMillis ) * (connectionPool.inUseConnections( address ) + 1);
+    }
+
+    private double latency( BoltServerAddress address, double prior, long nowMillis )
+    {
+        Ewma ewma = latencies.get( address );
+        return ewma == null ? prior : ewma.value( nowMillis, prior );
+    }
+
+    private double prior()
+    {
+        double sum = 0;
+        int count = 0;
+        for ( Ewma ewma : latencies.values() )
+        {
+            sum += ewma.rawValue();
+            count++;
+        }
+        return count == 0 ? DEFAULT_PRIOR_NANOS : sum / count;
+    }
+
+    private static class Ewma
+    {
+        double value;
+        long lastUpdateMillis;
+        boolean initialized;
+
+        synchronized void update( long sample, long nowMillis )
+        {
+            if ( initialized )
+            {
+                double weight = Math.min( 1 - MIN_SAMPLE_WEIGHT, decayWeight( nowMillis ) );
+                value = value * weight + sample * (1 - weight);
+            }
+            else
+            {
+                value = sample;
+                initialized = true;
+            }
+            lastUpdateMillis = nowMillis;
+        }
+
+        synchronized double value( long nowMillis, double prior )
+        {
+            double weight = decayWeight( nowMillis );
+            return value * weight + prior * (1 - weight);
+        }
+
+        synchronized double rawValue()
+        {
+            return value;
+        }
+
+        private double decayWeight( long nowMillis )
+        {
+            long elapsed = Math.max( 0, nowMillis - lastUpdateMillis );
+            return Math.exp( -(double) elapsed / DECAY_TIME_MILLIS );
+        }
+    }
+}
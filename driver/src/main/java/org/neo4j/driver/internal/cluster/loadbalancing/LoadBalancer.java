@@ -19,13 +19,17 @@
 package org.neo4j.driver.internal.cluster.loadbalancing;
 
 import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.ScheduledFuture;
 
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.RoutingErrorHandler;
 import org.neo4j.driver.internal.async.RoutingConnection;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.cluster.AddressSet;
 import org.neo4j.driver.internal.cluster.ClusterComposition;
 import org.neo4j.driver.internal.cluster.ClusterCompositionProvider;
@@ -35,6 +39,8 @@ import org.neo4j.driver.internal.cluster.Rediscovery;
 import org.neo4j.driver.internal.cluster.RoutingProcedureClusterCompositionProvider;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.cluster.RoutingTable;
+import org.neo4j.driver.internal.cluster.RoutingTableCache;
+import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
@@ -51,51 +57,129 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
 {
     private static final String LOAD_BALANCER_LOG_NAME = "LoadBalancer";
+    /**
+     * Background refresh is not scheduled more often than this, routing table with a very short TTL is refreshed on
+     * demand instead.
+     */
+    static final long MIN_BACKGROUND_REFRESH_DELAY_MILLIS = 1_000;
 
     private final ConnectionPool connectionPool;
     private final RoutingTable routingTable;
+    private final CompletableFuture<RoutingTable> completedRoutingTableFuture;
     private final Rediscovery rediscovery;
     private final LoadBalancingStrategy loadBalancingStrategy;
+    private final ResponseLatencyListener latencyListener;
+    private final CircuitBreakers circuitBreakers;
+    private final RoutingTableCache routingTableCache;
+    private final TransactionIdTracker transactionIdTracker = new TransactionIdTracker();
     private final EventExecutorGroup eventExecutorGroup;
+    private final Clock clock;
+    private final double routingTableRefreshFraction;
     private final Logger log;
 
-    private CompletableFuture<RoutingTable> refreshRoutingTableFuture;
+    private volatile CompletableFuture<RoutingTable> refreshRoutingTableFuture;
+    private ScheduledFuture<?> backgroundRefreshFuture;
+    private boolean closed;
 
     public LoadBalancer( BoltServerAddress initialRouter, RoutingSettings settings, ConnectionPool connectionPool,
             EventExecutorGroup eventExecutorGroup, Clock clock, Logging logging,
-            LoadBalancingStrategy loadBalancingStrategy )
+            LoadBalancingStrategy loadBalancingStrategy, MetricsListener metricsListener,
+            RoutingTableCache routingTableCache )
     {
         this( connectionPool, new ClusterRoutingTable( clock, initialRouter ),
                 createRediscovery( initialRouter, settings, eventExecutorGroup, clock, logging ),
-                loadBalancerLogger( logging ), loadBalancingStrategy, eventExecutorGroup );
+                loadBalancerLogger( logging ), loadBalancingStrategy,
+                new CircuitBreakers( settings, clock, metricsListener, logging ), routingTableCache,
+                eventExecutorGroup, clock, settings.routingTableRefreshFraction() );
     }
 
     // Used only in testing
     public LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
-            EventExecutorGroup eventExecutorGroup, Logging logging )
+            EventExecutorGroup eventExecutorGroup, Clock clock, double routingTableRefreshFraction,
+            CircuitBreakers circuitBreakers, RoutingTableCache routingTableCache, Logging logging )
     {
         this( connectionPool, routingTable, rediscovery, loadBalancerLogger( logging ),
-                new LeastConnectedLoadBalancingStrategy( connectionPool, logging ),
-                eventExecutorGroup );
+                new LeastConnectedLoadBalancingStrategy( connectionPool, logging ), circuitBreakers,
+                routingTableCache, eventExecutorGroup, clock, routingTableRefreshFraction );
     }
 
     private LoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable, Rediscovery rediscovery,
-            Logger log, LoadBalancingStrategy loadBalancingStrategy, EventExecutorGroup eventExecutorGroup )
+            Logger log, LoadBalancingStrategy loadBalancingStrategy, CircuitBreakers circuitBreakers,
+            RoutingTableCache routingTableCache, EventExecutorGroup eventExecutorGroup, Clock clock,
+            double routingTableRefreshFraction )
     {
         this.connectionPool = connectionPool;
         this.routingTable = routingTable;
+        this.completedRoutingTableFuture = completedFuture( routingTable );
         this.rediscovery = rediscovery;
         this.loadBalancingStrategy = loadBalancingStrategy;
+        this.latencyListener = loadBalancingStrategy instanceof ResponseLatencyListener
+                               ? (ResponseLatencyListener) loadBalancingStrategy
+                               : null;
+        this.circuitBreakers = circuitBreakers;
+        this.routingTableCache = routingTableCache;
         this.eventExecutorGroup = eventExecutorGroup;
+        this.clock = clock;
+        this.routingTableRefreshFraction = routingTableRefreshFraction;
         this.log = log;
     }
 
+    /**
+     * Populate the routing table from the {@link RoutingTableCache} and start fetching the real routing table in
+     * background. Does nothing when the cache is disabled or empty.
+     */
+    public void loadCachedRoutingTable()
+    {
+        ClusterComposition composition = routingTableCache.load();
+        if ( composition == null )
+        {
+            return;
+        }
+
+        synchronized ( this )
+        {
+            routingTable.update( composition );
+            log.info( "Loaded cached routing table. %s", routingTable );
+        }
+        eventExecutorGroup.next().execute( this::refreshRoutingTableInBackground );
+    }
+
     @Override
     public CompletionStage<Connection> acquireConnection( AccessMode mode )
+    {
+        return acquireConnection( mode, AcquisitionSettings.DEFAULT );
+    }
+
+    @Override
+    public CompletionStage<Connection> acquireConnection( AccessMode mode, AcquisitionSettings acquisitionSettings )
     {
         return freshRoutingTable( mode )
-                .thenCompose( routingTable -> acquire( mode, routingTable ) )
-                .thenApply( connection -> new RoutingConnection( connection, mode, this ) );
+                .thenCompose( routingTable -> acquire( mode, acquisitionSettings, routingTable ) )
+                .thenApply( connection -> new RoutingConnection( connection, mode, this, latencyListener,
+                        transactionIdTracker ) );
+    }
+
+    @Override
+    public CompletionStage<Connection> acquireReaderConnection( BoltServerAddress address )
+    {
+        return connectionPool.acquire( address ).handle( ( connection, completionError ) ->
+        {
+            Throwable error = Futures.completionExceptionCause( completionError );
+            if ( error != null )
+            {
+                acquisitionFailed( address, error );
+                throw Futures.asCompletionException( error );
+            }
+            return new RoutingConnection( connection, AccessMode.READ, this, latencyListener,
+                    transactionIdTracker );
+        } );
+    }
+
+    @Override
+    public CompletionStage<BoltServerAddress[]> readers()
+    {
+        return freshRoutingTable( AccessMode.READ )
+                .thenApply( routingTable -> circuitBreakers.available( routingTable.readers().toArray() ) );
     }
 
     @Override
@@ -107,9 +191,22 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
     @Override
     public void onConnectionFailure( BoltServerAddress address )
     {
+        circuitBreakers.onFailure( address );
         forget( address );
     }
 
+    @Override
+    public void onSuccess( BoltServerAddress address )
+    {
+        circuitBreakers.onSuccess( address );
+    }
+
+    @Override
+    public void onInconclusiveFailure( BoltServerAddress address )
+    {
+        circuitBreakers.onInconclusive( address );
+    }
+
     @Override
     public void onWriteFailure( BoltServerAddress address )
     {
@@ -119,16 +216,32 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
     @Override
     public CompletionStage<Void> close()
     {
+        cancelBackgroundRefresh();
         return connectionPool.close();
     }
 
-    private synchronized void forget( BoltServerAddress address )
+    private void forget( BoltServerAddress address )
     {
         // remove from the routing table, to prevent concurrent threads from making connections to this address
         routingTable.forget( address );
     }
 
-    private synchronized CompletionStage<RoutingTable> freshRoutingTable( AccessMode mode )
+    private CompletionStage<RoutingTable> freshRoutingTable( AccessMode mode )
+    {
+        // fast path without locking, routing table publishes its state atomically
+        CompletableFuture<RoutingTable> refreshFuture = refreshRoutingTableFuture;
+        if ( refreshFuture != null )
+        {
+            return refreshFuture;
+        }
+        else if ( !routingTable.isStaleFor( mode ) )
+        {
+            return completedRoutingTableFuture;
+        }
+        return freshRoutingTableLocked( mode );
+    }
+
+    private synchronized CompletionStage<RoutingTable> freshRoutingTableLocked( AccessMode mode )
     {
         if ( refreshRoutingTableFuture != null )
         {
@@ -139,30 +252,86 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
         {
             // existing routing table is not fresh and should be updated
             log.info( "Routing table is stale. %s", routingTable );
+            return refreshRoutingTable();
+        }
+        else
+        {
+            // existing routing table was refreshed concurrently, use it
+            return completedRoutingTableFuture;
+        }
+    }
 
-            CompletableFuture<RoutingTable> resultFuture = new CompletableFuture<>();
-            refreshRoutingTableFuture = resultFuture;
+    private synchronized CompletableFuture<RoutingTable> refreshRoutingTable()
+    {
+        CompletableFuture<RoutingTable> resultFuture = new CompletableFuture<>();
+        refreshRoutingTableFuture = resultFuture;
 
-            rediscovery.lookupClusterComposition( routingTable, connectionPool )
-                    .whenComplete( ( composition, completionError ) ->
+        rediscovery.lookupClusterComposition( routingTable, connectionPool )
+                .whenComplete( ( composition, completionError ) ->
+                {
+                    Throwable error = Futures.completionExceptionCause( completionError );
+                    if ( error != null )
+                    {
+                        clusterCompositionLookupFailed( error );
+                    }
+                    else
                     {
-                        Throwable error = Futures.completionExceptionCause( completionError );
-                        if ( error != null )
-                        {
-                            clusterCompositionLookupFailed( error );
-                        }
-                        else
-                        {
-                            freshClusterCompositionFetched( composition );
-                        }
-                    } );
-
-            return resultFuture;
+                        freshClusterCompositionFetched( composition );
+                    }
+                } );
+
+        return resultFuture;
+    }
+
+    private synchronized void refreshRoutingTableInBackground()
+    {
+        backgroundRefreshFuture = null;
+        if ( closed || refreshRoutingTableFuture != null )
+        {
+            // driver is closing or refresh is already happening concurrently, it will schedule the next one
+            return;
         }
-        else
+
+        log.debug( "Refreshing routing table in background. %s", routingTable );
+        refreshRoutingTable().whenComplete( ( ignore, error ) ->
         {
-            // existing routing table is fresh, use it
-            return completedFuture( routingTable );
+            if ( error != null )
+            {
+                log.warn( "Failed to refresh routing table in background, it will be refreshed on demand", error );
+            }
+        } );
+    }
+
+    private synchronized void scheduleBackgroundRefresh( ClusterComposition composition )
+    {
+        if ( closed || routingTableRefreshFraction <= 0 )
+        {
+            return;
+        }
+
+        long ttlMillis = composition.expirationTimestamp() - clock.millis();
+        long delayMillis = (long) (ttlMillis * routingTableRefreshFraction);
+        if ( delayMillis < MIN_BACKGROUND_REFRESH_DELAY_MILLIS )
+        {
+            log.debug( "Routing table TTL of %sms is too short for background refresh", ttlMillis );
+            return;
+        }
+
+        if ( backgroundRefreshFuture != null )
+        {
+            backgroundRefreshFuture.cancel( false );
+        }
+        backgroundRefreshFuture = eventExecutorGroup.next().schedule( this::refreshRoutingTableInBackground,
+                delayMillis, TimeUnit.MILLISECONDS );
+    }
+
+    private synchronized void cancelBackgroundRefresh()
+    {
+        closed = true;
+        if ( backgroundRefreshFuture != null )
+        {
+            backgroundRefreshFuture.cancel( false );
+            backgroundRefreshFuture = null;
         }
     }
 
@@ -171,9 +340,19 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
         try
         {
             routingTable.update( composition );
-            connectionPool.retainAll( routingTable.servers() );
+            Set<BoltServerAddress> servers = routingTable.servers();
+            connectionPool.retainAll( servers );
+            circuitBreakers.retainAll( servers );
+            transactionIdTracker.retainAll( servers );
+            if ( latencyListener != null )
+            {
+                latencyListener.retainAll( servers );
+            }
 
             log.info( "Updated routing table. %s", routingTable );
+            // only enqueue the write while holding the lock, so stored compositions follow the order of updates
+            routingTableCache.storeInBackground( composition );
+            scheduleBackgroundRefresh( composition );
 
             CompletableFuture<RoutingTable> routingTableFuture = refreshRoutingTableFuture;
             refreshRoutingTableFuture = null;
@@ -192,36 +371,46 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
         routingTableFuture.completeExceptionally( error );
     }
 
-    private CompletionStage<Connection> acquire( AccessMode mode, RoutingTable routingTable )
+    private CompletionStage<Connection> acquire( AccessMode mode, AcquisitionSettings acquisitionSettings,
+            RoutingTable routingTable )
     {
-        AddressSet addresses = addressSet( mode, routingTable );
         CompletableFuture<Connection> result = new CompletableFuture<>();
-        acquire( mode, addresses, result );
+        acquire( mode, acquisitionSettings, routingTable, result );
         return result;
     }
 
-    private void acquire( AccessMode mode, AddressSet addresses, CompletableFuture<Connection> result )
+    private void acquire( AccessMode mode, AcquisitionSettings acquisitionSettings, RoutingTable routingTable,
+            CompletableFuture<Connection> result )
     {
-        BoltServerAddress address = selectAddress( mode, addresses );
+        // read addresses on every attempt, previous attempts might have removed failed addresses from the table
+        BoltServerAddress[] knownAddresses = addressSet( mode, routingTable ).toArray();
+        BoltServerAddress[] availableAddresses = circuitBreakers.available( knownAddresses );
+        BoltServerAddress address = selectAddress( mode, availableAddresses, acquisitionSettings );
 
         if ( address == null )
         {
+            String reason = knownAddresses.length == 0 ? "" : "Circuit breakers of all " + mode + " servers are open. ";
             result.completeExceptionally( new SessionExpiredException(
-                    "Failed to obtain connection towards " + mode + " server. " +
+                    "Failed to obtain connection towards " + mode + " server. " + reason +
                     "Known routing table is: " + routingTable ) );
             return;
         }
+        if ( !circuitBreakers.tryAcquirePermission( address ) )
+        {
+            // concurrent request took the only probe of a half-open circuit breaker, select another address
+            acquire( mode, acquisitionSettings, routingTable, result );
+            return;
+        }
 
-        connectionPool.acquire( address ).whenComplete( ( connection, completionError ) ->
+        connectionPool.acquire( address, acquisitionSettings ).whenComplete( ( connection, completionError ) ->
         {
             Throwable error = Futures.completionExceptionCause( completionError );
             if ( error != null )
             {
-                if ( error instanceof ServiceUnavailableException )
+                if ( acquisitionFailed( address, error ) )
                 {
-                    log.error( "Failed to obtain a connection towards address " + address, error );
-                    forget( address );
-                    eventExecutorGroup.next().execute( () -> acquire( mode, addresses, result ) );
+                    eventExecutorGroup.next().execute(
+                            () -> acquire( mode, acquisitionSettings, routingTable, result ) );
                 }
                 else
                 {
@@ -230,11 +419,33 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
             }
             else
             {
+                // outcome for the circuit breaker is reported when the server responds to a request
                 result.complete( connection );
             }
         } );
     }
 
+    /**
+     * Report failed connection acquisition to the circuit breaker and the routing table.
+     *
+     * @return {@code true} when connection should be acquired towards a different address, {@code false} when error
+     * is not related to the address.
+     */
+    private boolean acquisitionFailed( BoltServerAddress address, Throwable error )
+    {
+        if ( error instanceof ServiceUnavailableException )
+        {
+            log.error( "Failed to obtain a connection towards address " + address, error );
+            circuitBreakers.onFailure( address );
+            forget( address );
+            return true;
+        }
+        // other errors, like a draining pool or an acquisition timeout, say nothing about health of the server
+        circuitBreakers.onInconclusive( address );
+        // draining pool means the address left the routing table
+        return error instanceof SessionExpiredException;
+    }
+
     private static AddressSet addressSet( AccessMode mode, RoutingTable routingTable )
     {
         switch ( mode )
@@ -248,14 +459,15 @@ public class LoadBalancer implements ConnectionProvider, RoutingErrorHandler
         }
     }
 
-    private BoltServerAddress selectAddress( AccessMode mode, AddressSet servers )
+    private BoltServerAddress selectAddress( AccessMode mode, BoltServerAddress[] addresses,
+            AcquisitionSettings acquisitionSettings )
     {
-        BoltServerAddress[] addresses = servers.toArray();
-
         switch ( mode )
         {
         case READ:
-            return loadBalancingStrategy.selectReader( addresses );
+            // prefer readers that already applied the bookmark, others would make the transaction wait for them
+            BoltServerAddress[] upToDate = transactionIdTracker.upToDate( addresses, acquisitionSettings.bookmark() );
+            return loadBalancingStrategy.selectReader( upToDate );
         case WRITE:
             return loadBalancingStrategy.selectWriter( addresses );
         default:
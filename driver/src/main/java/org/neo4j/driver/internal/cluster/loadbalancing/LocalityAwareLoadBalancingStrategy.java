@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.v1.Logger;
+import org.neo4j.driver.v1.Logging;
+
+/**
+ * Load balancing strategy that prefers servers located in the same zone as the application. Zones of servers are
+ * configured on the client. Least connected server is selected among the local ones, like
+ * {@link LeastConnectedLoadBalancingStrategy} does. Remote servers are considered only when there are no local
+ * servers in the routing table, for example because they became unavailable, or when the selected local server is
+ * saturated, i.e. all connections allowed by the current size limit of its pool are in use.
+ */
+public class LocalityAwareLoadBalancingStrategy implements LoadBalancingStrategy
+{
+    private static final String LOGGER_NAME = LocalityAwareLoadBalancingStrategy.class.getSimpleName();
+
+    private final LoadBalancingStrategy localStrategy;
+    private final LoadBalancingStrategy fallbackStrategy;
+    private final Set<BoltServerAddress> localServers = new HashSet<>();
+    private final Set<String> localHosts = new HashSet<>();
+    private final ConnectionPool connectionPool;
+    private final Logger log;
+
+    /**
+     * Create a new strategy.
+     *
+     * @param connectionPool the connection pool.
+     * @param localZone the zone of this application, {@code null} when unknown.
+     * @param serverZones map from {@code host} or {@code host:port} to the zone of the server.
+     * @param logging the logging.
+     */
+    public LocalityAwareLoadBalancingStrategy( ConnectionPool connectionPool, String localZone,
+            Map<String,String> serverZones, Logging logging )
+    {
+        this.localStrategy = new LeastConnectedLoadBalancingStrategy( connectionPool, logging );
+        this.fallbackStrategy = new LeastConnectedLoadBalancingStrategy( connectionPool, logging );
+        this.connectionPool = connectionPool;
+        this.log = logging.getLog( LOGGER_NAME );
+
+        for ( Map.Entry<String,String> entry : new HashMap<>( serverZones ).entrySet() )
+        {
+            if ( entry.getValue().equals( localZone ) )
+            {
+                String address = entry.getKey();
+                BoltServerAddress serverAddress = new BoltServerAddress( address );
+                if ( BoltServerAddress.containsPort( address ) )
+                {
+                    localServers.add( serverAddress );
+                }
+                else
+                {
+                    localHosts.add( serverAddress.host() );
+                }
+            }
+        }
+    }
+
+    @Override
+    public BoltServerAddress selectReader( BoltServerAddress[] knownReaders )
+    {
+        BoltServerAddress[] localReaders = localAddresses( knownReaders );
+        BoltServerAddress localReader = localReaders.length == 0 ? null : localStrategy.selectReader( localReaders );
+        if ( isUsable( localReader, "reader" ) )
+        {
+            return localReader;
+        }
+        return fallbackStrategy.selectReader( knownReaders );
+    }
+
+    @Override
+    public BoltServerAddress selectWriter( BoltServerAddress[] knownWriters )
+    {
+        BoltServerAddress[] localWriters = localAddresses( knownWriters );
+        BoltServerAddress localWriter = localWriters.length == 0 ? null : localStrategy.selectWriter( localWriters );
+        if ( isUsable( localWriter, "writer" ) )
+        {
+            return localWriter;
+        }
+        return fallbackStrategy.selectWriter( knownWriters );
+    }
+
+    boolean isLocal( BoltServerAddress address )
+    {
+        return localServers.contains( address ) || localHosts.contains( address.host() );
+    }
+
+    private BoltServerAddress[] localAddresses( BoltServerAddress[] addresses )
+    {
+        int count = 0;
+        BoltServerAddress[] result = new BoltServerAddress[addresses.length];
+        for ( BoltServerAddress address : addresses )
+        {
+            if ( isLocal( address ) )
+            {
+                result[count++] = address;
+            }
+        }
+        if ( count == result.length )
+        {
+            return result;
+        }
+        BoltServerAddress[] trimmed = new BoltServerAddress[count];
+        System.arraycopy( result, 0, trimmed, 0, count );
+        return trimmed;
+    }
+
+    private boolean isUsable( BoltServerAddress localAddress, String addressType )
+    {
+        if ( localAddress == null )
+        {
+            log.trace( "No local %s available, considering remote servers", addressType );
+            return false;
+        }
+        int inUse = connectionPool.inUseConnections( localAddress );
+        if ( inUse >= connectionPool.sizeLimit( localAddress ) )
+        {
+            log.debug( "Local %s '%s' is saturated with %s connections in use, considering remote servers",
+                    addressType, localAddress, inUse );
+            return false;
+        }
+        return true;
+    }
+}
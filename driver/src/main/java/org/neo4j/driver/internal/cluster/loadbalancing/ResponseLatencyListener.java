@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.Set;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+
+/**
+ * A facility that receives response latencies observed for particular server addresses.
+ */
+public interface ResponseLatencyListener
+{
+    /**
+     * Record latency of a single request-response exchange with the given server.
+     *
+     * @param address the server address.
+     * @param latencyNanos time between sending the request and receiving successful response, in nanoseconds.
+     */
+    void onResponse( BoltServerAddress address, long latencyNanos );
+
+    /**
+     * Forget latencies of all addresses except the given ones. Invoked when routing table is updated.
+     *
+     * @param addressesToRetain addresses that are still part of the routing table.
+     */
+    void retainAll( Set<BoltServerAddress> addressesToRetain );
+}
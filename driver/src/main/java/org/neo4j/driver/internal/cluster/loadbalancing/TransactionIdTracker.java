@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.Bookmark;
+
+import static org.neo4j.driver.internal.Bookmark.UNKNOWN_TRANSACTION_ID;
+
+/**
+ * Keeps the id of the last transaction every server is known to have applied. Ids come from bookmarks returned on
+ * commit, both for write transactions on the leader and for read transactions on followers and read replicas.
+ * <p>
+ * Server that has applied the transaction a bookmark points to can start a transaction with this bookmark right away.
+ * Other servers have to wait until they catch up, so readers known to be up-to-date are preferred.
+ */
+public class TransactionIdTracker implements BookmarkListener
+{
+    private final ConcurrentMap<BoltServerAddress,Long> lastTransactionIds = new ConcurrentHashMap<>();
+
+    @Override
+    public void onBookmark( BoltServerAddress address, String bookmark )
+    {
+        long transactionId = Bookmark.transactionId( bookmark );
+        if ( transactionId != UNKNOWN_TRANSACTION_ID )
+        {
+            lastTransactionIds.merge( address, transactionId, Math::max );
+        }
+    }
+
+    /**
+     * @param address the server address.
+     * @return id of the last transaction the server is known to have applied, or
+     * {@link Bookmark#UNKNOWN_TRANSACTION_ID} when nothing is known.
+     */
+    public long lastTransactionId( BoltServerAddress address )
+    {
+        Long transactionId = lastTransactionIds.get( address );
+        return transactionId == null ? UNKNOWN_TRANSACTION_ID : transactionId;
+    }
+
+    /**
+     * Select addresses known to have applied the transaction the given bookmark points to.
+     *
+     * @param addresses the addresses to select from.
+     * @param bookmark the bookmark.
+     * @return addresses that are up-to-date with the bookmark, same array when bookmark is empty or none of the
+     * addresses is known to be up-to-date.
+     */
+    public BoltServerAddress[] upToDate( BoltServerAddress[] addresses, Bookmark bookmark )
+    {
+        long requiredTransactionId = bookmark.maxTransactionId();
+        if ( requiredTransactionId == UNKNOWN_TRANSACTION_ID || lastTransactionIds.isEmpty() )
+        {
+            return addresses;
+        }
+
+        int count = 0;
+        BoltServerAddress[] upToDate = new BoltServerAddress[addresses.length];
+        for ( BoltServerAddress address : addresses )
+        {
+            if ( lastTransactionId( address ) >= requiredTransactionId )
+            {
+                upToDate[count++] = address;
+            }
+        }
+
+        if ( count == 0 || count == addresses.length )
+        {
+            return addresses;
+        }
+        BoltServerAddress[] result = new BoltServerAddress[count];
+        System.arraycopy( upToDate, 0, result, 0, count );
+        return result;
+    }
+
+    /**
+     * Forget servers that are no longer part of the cluster.
+     *
+     * @param addressesToRetain the addresses of the cluster.
+     */
+    public void retainAll( Set<BoltServerAddress> addressesToRetain )
+    {
+        lastTransactionIds.keySet().retainAll( addressesToRetain );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import java.util.Map;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.cluster.loadbalancing.BookmarkListener;
+import org.neo4j.driver.internal.spi.IgnoredAwareResponseHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.v1.Value;
+
+/**
+ * Response handler that reports the bookmark from a successful response to the given {@link BookmarkListener}.
+ */
+public class BookmarkRecordingResponseHandler implements RecordSizeAwareResponseHandler, IgnoredAwareResponseHandler
+{
+    private static final String BOOKMARK_KEY = "bookmark";
+
+    private final ResponseHandler delegate;
+    private final BoltServerAddress address;
+    private final BookmarkListener bookmarkListener;
+
+    public BookmarkRecordingResponseHandler( ResponseHandler delegate, BoltServerAddress address,
+            BookmarkListener bookmarkListener )
+    {
+        this.delegate = delegate;
+        this.address = address;
+        this.bookmarkListener = bookmarkListener;
+    }
+
+    @Override
+    public void onSuccess( Map<String,Value> metadata )
+    {
+        Value bookmarkValue = metadata.get( BOOKMARK_KEY );
+        if ( bookmarkValue != null )
+        {
+            bookmarkListener.onBookmark( address, bookmarkValue.asString() );
+        }
+        delegate.onSuccess( metadata );
+    }
+
+    @Override
+    public void onFailure( Throwable error )
+    {
+        delegate.onFailure( error );
+    }
+
+    @Override
+    public void onIgnored( Throwable error )
+    {
+        ResponseHandlers.onIgnored( delegate, error );
+    }
+
+    @Override
+    public void onRecord( Value[] fields )
+    {
+        delegate.onRecord( fields );
+    }
+
+    @Override
+    public void onRecord( Value[] fields, int messageSize )
+    {
+        ResponseHandlers.onRecord( delegate, fields, messageSize );
+    }
+}
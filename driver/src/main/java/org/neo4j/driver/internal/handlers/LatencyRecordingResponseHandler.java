@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import java.util.Map;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.cluster.loadbalancing.ResponseLatencyListener;
+import org.neo4j.driver.internal.spi.IgnoredAwareResponseHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.v1.Value;
+
+/**
+ * Response handler that measures time from the moment its request is flushed to the network till the successful
+ * response and reports it to the given {@link ResponseLatencyListener}. Latency is not reported when
+ * {@link #requestFlushed()} was never called, because time spent waiting in the outbound buffer is not server latency.
+ */
+public class LatencyRecordingResponseHandler implements RecordSizeAwareResponseHandler, IgnoredAwareResponseHandler
+{
+    private static final long NOT_FLUSHED = Long.MIN_VALUE;
+
+    private final ResponseHandler delegate;
+    private final BoltServerAddress address;
+    private final ResponseLatencyListener latencyListener;
+    private volatile long flushNanos = NOT_FLUSHED;
+
+    public LatencyRecordingResponseHandler( ResponseHandler delegate, BoltServerAddress address,
+            ResponseLatencyListener latencyListener )
+    {
+        this.delegate = delegate;
+        this.address = address;
+        this.latencyListener = latencyListener;
+    }
+
+    /**
+     * Start measuring latency. Should be invoked right before the request is flushed, subsequent invocations are
+     * ignored.
+     */
+    public void requestFlushed()
+    {
+        if ( flushNanos == NOT_FLUSHED )
+        {
+            flushNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void onSuccess( Map<String,Value> metadata )
+    {
+        long startNanos = flushNanos;
+        if ( startNanos != NOT_FLUSHED )
+        {
+            latencyListener.onResponse( address, System.nanoTime() - startNanos );
+        }
+        delegate.onSuccess( metadata );
+    }
+
+    @Override
+    public void onFailure( Throwable error )
+    {
+        delegate.onFailure( error );
+    }
+
+    @Override
+    public void onIgnored( Throwable error )
+    {
+        ResponseHandlers.onIgnored( delegate, error );
+    }
+
+    @Override
+    public void onRecord( Value[] fields )
+    {
+        delegate.onRecord( fields );
+    }
+
+    @Override
+    public void onRecord( Value[] fields, int messageSize )
+    {
+        ResponseHandlers.onRecord( delegate, fields, messageSize );
+    }
+}
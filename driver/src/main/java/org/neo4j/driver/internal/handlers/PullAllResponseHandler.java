@@ -18,147 +18,354 @@
  */
 package org.neo4j.driver.internal.handlers;
 
-import java.util.ArrayDeque;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.driver.internal.InternalRecord;
 import org.neo4j.driver.internal.spi.Connection;
-import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.internal.spi.DeferredPull;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
 import org.neo4j.driver.internal.util.Futures;
-import org.neo4j.driver.internal.util.Iterables;
 import org.neo4j.driver.internal.util.MetadataUtil;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.util.Function;
+import org.neo4j.driver.v1.util.Subscriber;
+import org.neo4j.driver.v1.util.Subscription;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.neo4j.driver.internal.util.Futures.completedWithNull;
 import static org.neo4j.driver.internal.util.Futures.failedFuture;
 
-public abstract class PullAllResponseHandler implements ResponseHandler
+/**
+ * Buffers records of a single result and hands them out to the consumer.
+ * <p>
+ * Records are passed from the event loop thread to the consumer through a lock-free {@link RecordBuffer}. Lock is only
+ * taken when the consumer waits for records, when auto-read has to be toggled and when the result completes. So records
+ * of a result that is consumed slower than it arrives, which is the common case for large results, cross threads
+ * without contention.
+ * <p>
+ * When configured, records of a result that is buffered completely and does not fit into memory are written to a
+ * {@link RecordSpillFile} and read back after the whole result has been received. Files are written and deleted by a
+ * background thread, so disk is never touched by the event loop thread.
+ * <p>
+ * Reactive {@link Subscriber} is signalled by an executor, never by the event loop thread and never while holding the
+ * lock. Events that need a signal only bump a counter, a single draining task delivers all signals that are due and
+ * keeps draining until the counter drops to zero. This serializes signals and makes requests from within
+ * {@link Subscriber#onNext(Object)} trampoline instead of recursing.
+ */
+public abstract class PullAllResponseHandler implements RecordSizeAwareResponseHandler
 {
-    private static final Queue<Record> UNINITIALIZED_RECORDS = Iterables.emptyQueue();
+    private static final Subscription REJECTED_SUBSCRIPTION = new Subscription()
+    {
+        @Override
+        public void request( long n )
+        {
+        }
 
-    static final int RECORD_BUFFER_LOW_WATERMARK = Integer.getInteger( "recordBufferLowWatermark", 300 );
-    static final int RECORD_BUFFER_HIGH_WATERMARK = Integer.getInteger( "recordBufferHighWatermark", 1000 );
+        @Override
+        public void cancel()
+        {
+        }
+    };
+
+    // single daemon thread that is started on demand and terminates when idle, executes tasks in submission order
+    private static final Executor SPILL_EXECUTOR = new ThreadPoolExecutor( 0, 1, 10, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new DefaultThreadFactory( "Neo4jDriverRecordSpill", true ) );
+
+    static final int RECORD_BUFFER_LOW_WATERMARK = RecordBufferWatermarks.DEFAULT.lowRecords();
+    static final int RECORD_BUFFER_HIGH_WATERMARK = RecordBufferWatermarks.DEFAULT.highRecords();
 
     private final Statement statement;
     private final RunResponseHandler runResponseHandler;
     protected final Connection connection;
+    private final RecordBufferWatermarks watermarks;
+    private final Executor spillExecutor;
 
-    // initialized lazily when first record arrives
-    private Queue<Record> records = UNINITIALIZED_RECORDS;
+    private final RecordBuffer records = new RecordBuffer();
+    private final AtomicReference<DeferredPull> deferredPull = new AtomicReference<>();
 
+    // guarded by this
     private boolean finished;
     private Throwable failure;
     private ResultSummary summary;
+    private RecordSpillFile spill;
+    private Record spilledRecord;
+
+    // modified while holding the lock but also read without it
+    private volatile boolean ignoreRecords;
+    private volatile boolean spilling;
+    private volatile boolean autoReadDisabled;
+    private volatile boolean bufferAllRecords;
+    private volatile CompletableFuture<Record> recordFuture;
+    private volatile CompletableFuture<Throwable> failureFuture;
+
+    // single reactive consumer of records, null when there is none or when it is done
+    private volatile Subscriber<? super Record> subscriber;
+    private volatile Executor subscriberExecutor;
+    private final AtomicInteger pendingSubscriberSignals = new AtomicInteger();
+    private boolean subscribed;
+    private boolean subscriptionSignalled;
+    private long demand;
+    private Throwable demandFailure;
+    private Throwable subscriberFailure;
+
+    // only accessed by the spill executor
+    private RecordSpillFile spillWriter;
+    private IOException spillWriteFailure;
+
+    public PullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection,
+            RecordBufferWatermarks watermarks )
+    {
+        this( statement, runResponseHandler, connection, watermarks, SPILL_EXECUTOR );
+    }
 
-    private boolean ignoreRecords;
-    private CompletableFuture<Record> recordFuture;
-    private CompletableFuture<Throwable> failureFuture;
-
-    public PullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection )
+    protected PullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
+            Connection connection, RecordBufferWatermarks watermarks, Executor spillExecutor )
     {
         this.statement = requireNonNull( statement );
         this.runResponseHandler = requireNonNull( runResponseHandler );
         this.connection = requireNonNull( connection );
+        this.watermarks = requireNonNull( watermarks );
+        this.spillExecutor = requireNonNull( spillExecutor );
     }
 
     @Override
-    public synchronized void onSuccess( Map<String,Value> metadata )
+    public void onSuccess( Map<String,Value> metadata )
     {
-        finished = true;
-        summary = extractResultSummary( metadata );
-
+        ResultSummary resultSummary = extractResultSummary( metadata );
+        // network part of the result is complete, connection does not have to wait for spilled records
         afterSuccess();
 
-        completeRecordFuture( null );
-        completeFailureFuture( null );
+        if ( spilling )
+        {
+            // spilled records might still be waiting to be written, complete the result after they are
+            spillExecutor.execute( () ->
+            {
+                finishSpill();
+                succeed( resultSummary );
+            } );
+        }
+        else
+        {
+            succeed( resultSummary );
+        }
+    }
+
+    private void succeed( ResultSummary resultSummary )
+    {
+        synchronized ( this )
+        {
+            finished = true;
+            summary = resultSummary;
+
+            completeRecordFutureWithSpilledRecord();
+            completeRecordFuture( null );
+            completeFailureFuture( null );
+        }
+        signalSubscriber();
     }
 
     protected abstract void afterSuccess();
 
     @Override
-    public synchronized void onFailure( Throwable error )
+    public void onFailure( Throwable error )
     {
-        finished = true;
-        summary = extractResultSummary( emptyMap() );
-
+        ResultSummary resultSummary = extractResultSummary( emptyMap() );
+        // connection and transaction learn about the failure right away, without waiting for spilled records
         afterFailure( error );
 
-        boolean failedRecordFuture = failRecordFuture( error );
-        if ( failedRecordFuture )
+        if ( spilling )
         {
-            // error propagated through the record future
-            completeFailureFuture( null );
+            // spilled records might still be waiting to be written, complete the result after they are
+            spillExecutor.execute( () ->
+            {
+                finishSpill();
+                fail( error, resultSummary );
+            } );
         }
         else
         {
-            boolean completedFailureFuture = completeFailureFuture( error );
-            if ( !completedFailureFuture )
+            fail( error, resultSummary );
+        }
+    }
+
+    private void fail( Throwable error, ResultSummary resultSummary )
+    {
+        synchronized ( this )
+        {
+            finished = true;
+            summary = resultSummary;
+
+            if ( subscriber != null )
             {
-                // error has not been propagated to the user, remember it
-                failure = error;
+                // subscriber should receive the error even if it is also propagated through futures
+                subscriberFailure = error;
+            }
+
+            completeRecordFutureWithSpilledRecord();
+            boolean failedRecordFuture = failRecordFuture( error );
+            if ( failedRecordFuture )
+            {
+                // error propagated through the record future
+                completeFailureFuture( null );
+            }
+            else
+            {
+                boolean completedFailureFuture = completeFailureFuture( error );
+                if ( !completedFailureFuture )
+                {
+                    // error has not been propagated to the user, remember it
+                    failure = error;
+                }
             }
         }
+        signalSubscriber();
     }
 
     protected abstract void afterFailure( Throwable error );
 
     @Override
-    public synchronized void onRecord( Value[] fields )
+    public void onRecord( Value[] fields )
+    {
+        onRecord( fields, 0 );
+    }
+
+    @Override
+    public void onRecord( Value[] fields, int messageSize )
     {
         if ( ignoreRecords )
         {
-            completeRecordFuture( null );
+            if ( recordFuture != null )
+            {
+                synchronized ( this )
+                {
+                    completeRecordFuture( null );
+                }
+            }
+            return;
         }
-        else
+
+        if ( spilling || shouldStartSpilling( messageSize ) )
         {
-            Record record = new InternalRecord( runResponseHandler.statementKeys(), fields );
-            enqueueRecord( record );
-            completeRecordFuture( record );
+            // all further records go to disk to preserve their order
+            spillRecord( fields );
+            return;
         }
-    }
 
-    public synchronized CompletionStage<Record> peekAsync()
-    {
-        Record record = records.peek();
-        if ( record == null )
+        Record record = new InternalRecord( runResponseHandler.statementKeys(), fields );
+        records.add( record, watermarks.tracksBytes() ? messageSize : 0 );
+
+        // buffer is read after the record future and subscriber are assigned, so either they see the added record or
+        // the record future and subscriber are visible here
+        if ( recordFuture != null )
         {
-            if ( failure != null )
+            synchronized ( this )
             {
-                return failedFuture( extractFailure() );
+                Record first = records.peek();
+                if ( first != null )
+                {
+                    completeRecordFuture( first );
+                }
             }
+        }
+        signalSubscriber();
 
-            if ( ignoreRecords || finished )
+        if ( !autoReadDisabled && aboveHighWatermark() )
+        {
+            disableAutoRead();
+        }
+    }
+
+    /**
+     * Postpone the choice between PULL_ALL and DISCARD_ALL until the result is used. PULL_ALL is written as soon as
+     * records, summary or failure are requested. DISCARD_ALL is written when the result is consumed first, so records
+     * are never sent over the network.
+     *
+     * @param pull the deferred choice.
+     */
+    public void deferPull( DeferredPull pull )
+    {
+        deferredPull.set( requireNonNull( pull ) );
+    }
+
+    public CompletionStage<Record> peekAsync()
+    {
+        if ( !ignoreRecords )
+        {
+            Record record = records.peek();
+            if ( record != null )
             {
-                return completedWithNull();
+                return completedFuture( record );
             }
+        }
+        return waitForRecord();
+    }
 
-            if ( recordFuture == null )
+    public CompletionStage<Record> nextAsync()
+    {
+        if ( !ignoreRecords )
+        {
+            Record record = records.poll();
+            if ( record != null )
             {
-                recordFuture = new CompletableFuture<>();
+                afterDequeue();
+                return completedFuture( record );
             }
-            return recordFuture;
         }
-        else
+        return waitForRecord().thenApply( ignore -> dequeueRecord() );
+    }
+
+    public CompletionStage<List<Record>> nextBatchAsync( int maxSize )
+    {
+        if ( !ignoreRecords && !records.isEmpty() )
         {
-            return completedFuture( record );
+            return completedFuture( dequeueRecords( maxSize ) );
         }
+        // wait for at least one record, end of the stream or a failure
+        return waitForRecord().thenApply( record -> record == null
+                                                    ? emptyList()
+                                                    : dequeueRecords( maxSize ) );
     }
 
-    public synchronized CompletionStage<Record> nextAsync()
+    /**
+     * Estimate how many records are left to be consumed. Estimate is exact when the whole result has been received
+     * and is buffered in memory. Otherwise more records might arrive or be read from disk and {@link Long#MAX_VALUE}
+     * is returned.
+     *
+     * @return the amount of remaining records or {@link Long#MAX_VALUE} when unknown.
+     */
+    public synchronized long remainingRecordsEstimate()
     {
-        return peekAsync().thenApply( ignore -> dequeueRecord() );
+        if ( ignoreRecords )
+        {
+            return 0;
+        }
+        if ( finished && !spilling )
+        {
+            return records.size();
+        }
+        return Long.MAX_VALUE;
     }
 
     public synchronized CompletionStage<ResultSummary> summaryAsync()
@@ -175,11 +382,52 @@ public abstract class PullAllResponseHandler implements ResponseHandler
 
     public synchronized CompletionStage<ResultSummary> consumeAsync()
     {
-        ignoreRecords = true;
-        records.clear();
+        DeferredPull pull = deferredPull.getAndSet( null );
+        if ( pull != null )
+        {
+            pull.discardAll();
+        }
+        discardRecords();
         return summaryAsync();
     }
 
+    /**
+     * Stream records to the given subscriber according to its demand. Subscriber is signalled by threads of the
+     * {@link ForkJoinPool#commonPool() common fork-join pool}.
+     *
+     * @param newSubscriber the subscriber.
+     * @see #subscribe(Subscriber, Executor)
+     */
+    public void subscribe( Subscriber<? super Record> newSubscriber )
+    {
+        subscribe( newSubscriber, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * Stream records to the given subscriber according to its demand. Records are delivered straight from the
+     * buffer, without allocating a future per record. Result can only have one subscriber.
+     *
+     * @param newSubscriber the subscriber.
+     * @param executor the executor to signal the subscriber with.
+     */
+    public void subscribe( Subscriber<? super Record> newSubscriber, Executor executor )
+    {
+        requireNonNull( newSubscriber );
+        requireNonNull( executor );
+        if ( !trySubscribe( newSubscriber, executor ) )
+        {
+            executor.execute( () ->
+            {
+                newSubscriber.onSubscribe( REJECTED_SUBSCRIPTION );
+                newSubscriber.onError(
+                        new IllegalStateException( "Result can only be consumed by a single subscriber" ) );
+            } );
+            return;
+        }
+        // result might have been already fully received, complete the subscriber without waiting for demand
+        signalSubscriber();
+    }
+
     public synchronized <T> CompletionStage<List<T>> listAsync( Function<Record,T> mapFunction )
     {
         return failureAsync().thenApply( error ->
@@ -192,8 +440,20 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         } );
     }
 
+    /**
+     * Receive the whole result without ever disabling auto-read, regardless of the watermarks. Needed when responses
+     * that follow this result on the same connection have to arrive before records of this result are consumed.
+     * Records might then be {@linkplain RecordBufferWatermarks#withSpillToDisk(long) spilled to disk}.
+     */
+    public synchronized void bufferAllRecords()
+    {
+        bufferAllRecords = true;
+        enableAutoRead();
+    }
+
     public synchronized CompletionStage<Throwable> failureAsync()
     {
+        pullAllIfDeferred();
         if ( failure != null )
         {
             return completedFuture( extractFailure() );
@@ -209,6 +469,7 @@ public abstract class PullAllResponseHandler implements ResponseHandler
                 // neither SUCCESS nor FAILURE message has arrived, register future to be notified when it arrives
                 // future will be completed with null on SUCCESS and completed with Throwable on FAILURE
                 // enable auto-read, otherwise we might not read SUCCESS/FAILURE if records are not consumed
+                autoReadDisabled = false;
                 connection.enableAutoRead();
                 failureFuture = new CompletableFuture<>();
             }
@@ -216,40 +477,459 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         }
     }
 
-    private void enqueueRecord( Record record )
+    private synchronized boolean trySubscribe( Subscriber<? super Record> newSubscriber, Executor executor )
     {
-        if ( records == UNINITIALIZED_RECORDS )
+        if ( subscribed )
         {
-            records = new ArrayDeque<>();
+            return false;
         }
+        subscribed = true;
+        pullAllIfDeferred();
+        // executor is assigned before the subscriber, so it is visible to everyone who sees the subscriber
+        subscriberExecutor = executor;
+        subscriber = newSubscriber;
+        return true;
+    }
 
-        records.add( record );
+    private void request( long n )
+    {
+        synchronized ( this )
+        {
+            if ( subscriber == null )
+            {
+                return;
+            }
+            if ( n <= 0 )
+            {
+                if ( demandFailure == null )
+                {
+                    demandFailure = new IllegalArgumentException(
+                            "Amount of requested records should be positive, but was: " + n );
+                }
+            }
+            else
+            {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+        }
+        signalSubscriber();
+    }
 
-        boolean shouldBufferAllRecords = failureFuture != null;
-        // when failure is requested we have to buffer all remaining records and then return the error
-        // do not disable auto-read in this case, otherwise records will not be consumed and trailing
-        // SUCCESS or FAILURE message will not arrive as well, so callers will get stuck waiting for the error
-        if ( !shouldBufferAllRecords && records.size() > RECORD_BUFFER_HIGH_WATERMARK )
+    private synchronized void cancel()
+    {
+        if ( subscriber != null )
         {
-            // more than high watermark records are already queued, tell connection to stop auto-reading from network
-            // this is needed to deal with slow consumers, we do not want to buffer all records in memory if they are
-            // fetched from network faster than consumed
-            connection.disableAutoRead();
+            subscriber = null;
+            discardRecords();
+            // keep reading from network so that remaining records are received and dropped
+            autoReadDisabled = false;
+            connection.enableAutoRead();
         }
     }
 
+    private synchronized CompletionStage<Record> waitForRecord()
+    {
+        pullAllIfDeferred();
+        if ( ignoreRecords )
+        {
+            // drop records that have been added concurrently with the discard
+            records.clear();
+        }
+
+        Record record = peekRecord();
+        if ( record != null )
+        {
+            return completedFuture( record );
+        }
+
+        if ( failure != null )
+        {
+            return failedFuture( extractFailure() );
+        }
+
+        if ( ignoreRecords || finished )
+        {
+            return completedWithNull();
+        }
+
+        if ( recordFuture == null )
+        {
+            recordFuture = new CompletableFuture<>();
+        }
+        CompletableFuture<Record> future = recordFuture;
+
+        // record might have been added after the first check but before the record future became visible to the
+        // event loop thread, check again to not miss the notification
+        record = peekRecord();
+        if ( record != null )
+        {
+            completeRecordFuture( record );
+        }
+        else
+        {
+            // buffer is empty, make sure more records are read from network
+            enableAutoRead();
+        }
+        return future;
+    }
+
+    private void pullAllIfDeferred()
+    {
+        DeferredPull pull = deferredPull.getAndSet( null );
+        if ( pull != null )
+        {
+            pull.pullAll();
+        }
+    }
+
+    private void signalSubscriber()
+    {
+        if ( subscriber != null && pendingSubscriberSignals.getAndIncrement() == 0 )
+        {
+            subscriberExecutor.execute( this::drainToSubscriber );
+        }
+    }
+
+    private void drainToSubscriber()
+    {
+        int pending = 1;
+        do
+        {
+            boolean signalled;
+            do
+            {
+                signalled = signalNext();
+            }
+            while ( signalled );
+            pending = pendingSubscriberSignals.addAndGet( -pending );
+        }
+        while ( pending != 0 );
+    }
+
+    /**
+     * Pick the next signal while holding the lock and deliver it without the lock.
+     *
+     * @return {@code true} when a signal was delivered, {@code false} when there is nothing to signal.
+     */
+    private boolean signalNext()
+    {
+        Subscriber<? super Record> target;
+        boolean subscription = false;
+        Record record = null;
+        Throwable error = null;
+
+        synchronized ( this )
+        {
+            target = subscriber;
+            if ( target == null )
+            {
+                return false;
+            }
+
+            if ( !subscriptionSignalled )
+            {
+                subscriptionSignalled = true;
+                subscription = true;
+            }
+            else if ( demandFailure != null )
+            {
+                error = demandFailure;
+                cancel();
+            }
+            else if ( demand > 0 && peekRecord() != null )
+            {
+                if ( demand != Long.MAX_VALUE )
+                {
+                    demand--;
+                }
+                record = dequeueRecord();
+            }
+            else if ( finished && peekRecord() == null )
+            {
+                subscriber = null;
+                error = subscriberFailure != null ? subscriberFailure : failure;
+                if ( error != null && failure == error )
+                {
+                    failure = null; // propagate failure only once
+                }
+            }
+            else
+            {
+                return false;
+            }
+        }
+
+        if ( subscription )
+        {
+            target.onSubscribe( new RecordSubscription() );
+        }
+        else if ( record != null )
+        {
+            target.onNext( record );
+        }
+        else if ( error != null )
+        {
+            target.onError( error );
+        }
+        else
+        {
+            target.onComplete();
+        }
+        return true;
+    }
+
+    private void discardRecords()
+    {
+        ignoreRecords = true;
+        records.clear();
+        if ( spilling )
+        {
+            // files are deleted by the spill executor after all pending writes
+            RecordSpillFile readableSpill = spill;
+            spillExecutor.execute( () -> deleteSpill( readableSpill ) );
+            spill = null;
+            spilling = false;
+        }
+        spilledRecord = null;
+    }
+
     private Record dequeueRecord()
+    {
+        Record record = pollRecord();
+        afterDequeue();
+        return record;
+    }
+
+    private List<Record> dequeueRecords( int maxSize )
+    {
+        List<Record> batch = new ArrayList<>( Math.min( maxSize, records.size() ) );
+        Record record;
+        while ( batch.size() < maxSize && (record = records.poll()) != null )
+        {
+            batch.add( record );
+        }
+        if ( batch.isEmpty() && spilling )
+        {
+            // read spilled records in chunks no bigger than the in-memory buffer, a single batch should never hold
+            // the whole spill file on the heap
+            int chunkSize = Math.min( maxSize, watermarks.highRecords() );
+            while ( batch.size() < chunkSize && (record = pollSpilledRecord()) != null )
+            {
+                batch.add( record );
+            }
+        }
+        afterDequeue();
+        return batch;
+    }
+
+    private Record peekRecord()
+    {
+        Record record = records.peek();
+        return record != null || !spilling ? record : peekSpilledRecord();
+    }
+
+    private Record pollRecord()
     {
         Record record = records.poll();
+        return record != null || !spilling ? record : pollSpilledRecord();
+    }
 
-        if ( records.size() < RECORD_BUFFER_LOW_WATERMARK )
+    private boolean shouldStartSpilling( int messageSize )
+    {
+        // only results that are buffered completely can grow without limit, others are bounded by the watermarks
+        boolean shouldBufferAllRecords = bufferAllRecords || failureFuture != null;
+        return shouldBufferAllRecords && watermarks.spillsToDisk() &&
+               records.bytes() + messageSize > watermarks.spillThresholdBytes();
+    }
+
+    private synchronized void spillRecord( Value[] fields )
+    {
+        // writes are only submitted while holding the lock, so that none of them is submitted after a discard
+        if ( !ignoreRecords )
         {
-            // less than low watermark records are now available in the buffer, tell connection to pre-fetch more
+            spilling = true;
+            spillExecutor.execute( () -> writeSpilledRecord( fields ) );
+        }
+    }
+
+    private void writeSpilledRecord( Value[] fields )
+    {
+        if ( ignoreRecords || spillWriteFailure != null )
+        {
+            return;
+        }
+
+        try
+        {
+            if ( spillWriter == null )
+            {
+                spillWriter = RecordSpillFile.create();
+            }
+            spillWriter.write( fields );
+        }
+        catch ( IOException e )
+        {
+            // remaining records are lost, result is failed when it completes
+            spillWriteFailure = e;
+            deleteSpill( null );
+        }
+    }
+
+    private void finishSpill()
+    {
+        RecordSpillFile writtenSpill = spillWriter;
+        spillWriter = null;
+        synchronized ( this )
+        {
+            if ( !ignoreRecords )
+            {
+                // written records become readable by consumers
+                spill = writtenSpill;
+                writtenSpill = null;
+                if ( spillWriteFailure != null && failure == null )
+                {
+                    failure = new ClientException( "Unable to write records to disk", spillWriteFailure );
+                }
+            }
+            if ( spill == null )
+            {
+                spilling = false;
+            }
+        }
+        if ( writtenSpill != null )
+        {
+            writtenSpill.delete();
+        }
+    }
+
+    private void deleteSpill( RecordSpillFile readableSpill )
+    {
+        if ( spillWriter != null )
+        {
+            spillWriter.delete();
+            spillWriter = null;
+        }
+        if ( readableSpill != null )
+        {
+            readableSpill.delete();
+        }
+    }
+
+    private synchronized Record peekSpilledRecord()
+    {
+        // records that were buffered in memory before spilling started come first
+        Record record = records.peek();
+        if ( record != null )
+        {
+            return record;
+        }
+
+        // spilled records become available only after the whole result has been written
+        if ( spilledRecord == null && spill != null && finished )
+        {
+            try
+            {
+                Value[] fields = spill.read();
+                if ( fields == null )
+                {
+                    spill = null; // all records have been read and file has been deleted
+                    spilling = false;
+                }
+                else
+                {
+                    spilledRecord = new InternalRecord( runResponseHandler.statementKeys(), fields );
+                }
+            }
+            catch ( IOException e )
+            {
+                spill.delete();
+                spill = null;
+                spilling = false;
+                if ( failure == null )
+                {
+                    // remaining records are lost, report this as a failure of the result
+                    failure = new ClientException( "Unable to read records from disk", e );
+                }
+            }
+        }
+        return spilledRecord;
+    }
+
+    private synchronized Record pollSpilledRecord()
+    {
+        Record record = records.poll();
+        if ( record == null )
+        {
+            record = peekSpilledRecord();
+            spilledRecord = null;
+        }
+        return record;
+    }
+
+    private void completeRecordFutureWithSpilledRecord()
+    {
+        if ( spilling && recordFuture != null )
+        {
+            // consumer waits for spilled records, they can be read now that the whole result has been received
+            Record record = peekSpilledRecord();
+            if ( record != null )
+            {
+                completeRecordFuture( record );
+            }
+            else if ( failure != null )
+            {
+                failRecordFuture( extractFailure() );
+            }
+        }
+    }
+
+    private void afterDequeue()
+    {
+        if ( autoReadDisabled && belowLowWatermark() )
+        {
+            // less than low watermark records and bytes are now in the buffer, tell connection to pre-fetch more
             // and populate queue with new records from network
+            enableAutoRead();
+        }
+    }
+
+    private synchronized void disableAutoRead()
+    {
+        // when failure is requested we have to buffer all remaining records and then return the error
+        // do not disable auto-read in this case, otherwise records will not be consumed and trailing
+        // SUCCESS or FAILURE message will not arrive as well, so callers will get stuck waiting for the error
+        boolean shouldBufferAllRecords = bufferAllRecords || failureFuture != null;
+        if ( !autoReadDisabled && !shouldBufferAllRecords && aboveHighWatermark() )
+        {
+            // more than high watermark records or bytes are already queued, tell connection to stop auto-reading
+            // from network, this is needed to deal with slow consumers, we do not want to buffer all records in
+            // memory if they are fetched from network faster than consumed
+            autoReadDisabled = true;
+            connection.disableAutoRead();
+        }
+    }
+
+    private synchronized void enableAutoRead()
+    {
+        if ( autoReadDisabled )
+        {
+            autoReadDisabled = false;
             connection.enableAutoRead();
         }
+    }
 
-        return record;
+    private boolean aboveHighWatermark()
+    {
+        long bytes = records.bytes();
+        // small results are read completely when buffered eagerly, so that connection is released early
+        boolean tooManyRecords = records.size() > watermarks.highRecords() &&
+                                 (!watermarks.buffersEagerly() || bytes > watermarks.eagerBytes());
+        return tooManyRecords || bytes > watermarks.highBytes();
+    }
+
+    private boolean belowLowWatermark()
+    {
+        return records.size() < watermarks.lowRecords() && records.bytes() < watermarks.lowBytes();
     }
 
     private <T> List<T> recordsAsList( Function<Record,T> mapFunction )
@@ -260,11 +940,16 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         }
 
         List<T> result = new ArrayList<>( records.size() );
-        while ( !records.isEmpty() )
+        Record record;
+        while ( (record = pollRecord()) != null )
         {
-            Record record = records.poll();
             result.add( mapFunction.apply( record ) );
         }
+        if ( failure != null )
+        {
+            // spilled records could not be read
+            throw Futures.asCompletionException( extractFailure() );
+        }
         return result;
     }
 
@@ -314,6 +999,21 @@ public abstract class PullAllResponseHandler implements ResponseHandler
         return false;
     }
 
+    private class RecordSubscription implements Subscription
+    {
+        @Override
+        public void request( long n )
+        {
+            PullAllResponseHandler.this.request( n );
+        }
+
+        @Override
+        public void cancel()
+        {
+            PullAllResponseHandler.this.cancel();
+        }
+    }
+
     private ResultSummary extractResultSummary( Map<String,Value> metadata )
     {
         long resultAvailableAfter = runResponseHandler.resultAvailableAfter();
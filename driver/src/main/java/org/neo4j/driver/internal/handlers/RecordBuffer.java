@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import org.neo4j.driver.v1.Record;
+
+/**
+ * Unbounded queue of records that is filled by a single producer and drained by a single consumer without locking.
+ * <p>
+ * Producer is the event loop thread that receives RECORD messages. Consumer is whoever reads the result. Consumer
+ * operations might be executed by different threads, but never concurrently, every consumer thread has to see effects
+ * of the previous one, for example because it is notified through a {@link java.util.concurrent.CompletableFuture}.
+ * <p>
+ * Buffer also tracks total size of the contained records in bytes. Size and byte counts are approximate when read
+ * concurrently with additions or removals, they are exact when read by the producer after an addition or by
+ * the consumer after a removal.
+ */
+final class RecordBuffer
+{
+    // accessed only by the consumer, next node contains the first record
+    private Node head = new Node( null, 0 );
+    // accessed only by the producer, contains the last record
+    private Node tail = head;
+
+    // written only by the producer
+    private volatile long addedRecords;
+    private volatile long addedBytes;
+
+    // written only by the consumer
+    private volatile long removedRecords;
+    private volatile long removedBytes;
+
+    /**
+     * Add record to the end of this buffer. Can only be called by the producer.
+     *
+     * @param record the record.
+     * @param bytes size of the record in bytes.
+     */
+    void add( Record record, int bytes )
+    {
+        // counters are updated before the node becomes visible to the consumer, which can then remove it
+        if ( bytes != 0 )
+        {
+            addedBytes = addedBytes + bytes;
+        }
+        addedRecords = addedRecords + 1;
+        Node node = new Node( record, bytes );
+        tail.next = node;
+        tail = node;
+    }
+
+    /**
+     * Retrieve, but do not remove, the first record. Can only be called by the consumer.
+     *
+     * @return the first record or {@code null} when this buffer is empty.
+     */
+    Record peek()
+    {
+        Node next = head.next;
+        return next == null ? null : next.record;
+    }
+
+    /**
+     * Retrieve and remove the first record. Can only be called by the consumer.
+     *
+     * @return the first record or {@code null} when this buffer is empty.
+     */
+    Record poll()
+    {
+        Node next = head.next;
+        if ( next == null )
+        {
+            return null;
+        }
+
+        Record record = next.record;
+        next.record = null; // let record be garbage collected, node stays around as the new head
+        head = next;
+        if ( next.bytes != 0 )
+        {
+            removedBytes = removedBytes + next.bytes;
+        }
+        removedRecords = removedRecords + 1;
+        return record;
+    }
+
+    /**
+     * Remove all records. Can only be called by the consumer.
+     */
+    void clear()
+    {
+        while ( poll() != null )
+        {
+            // continue removing records
+        }
+    }
+
+    boolean isEmpty()
+    {
+        return head.next == null;
+    }
+
+    int size()
+    {
+        // read removed count first, records are counted as added before the consumer can see and remove them, so the
+        // added count read afterwards is never smaller
+        long removed = removedRecords;
+        return (int) (addedRecords - removed);
+    }
+
+    long bytes()
+    {
+        long removed = removedBytes;
+        return addedBytes - removed;
+    }
+
+    private static class Node
+    {
+        Record record;
+        final int bytes;
+        volatile Node next;
+
+        Node( Record record, int bytes )
+        {
+            this.record = record;
+            this.bytes = bytes;
+        }
+    }
+}
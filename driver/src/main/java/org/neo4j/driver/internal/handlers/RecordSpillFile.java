@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.neo4j.driver.internal.messaging.RecordSpillFormat;
+import org.neo4j.driver.internal.packstream.PackInput;
+import org.neo4j.driver.internal.packstream.PackOutput;
+import org.neo4j.driver.v1.Value;
+
+/**
+ * Temporary file that holds records which did not fit into the in-memory buffer of a result. Records are first all
+ * written and then all read back in the same order. File is deleted when the last record is read or when
+ * {@link #delete()} is called.
+ * <p>
+ * <b>This class is not thread-safe</b>.
+ */
+final class RecordSpillFile
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final DataOutputStream output;
+    private final RecordSpillFormat.RecordWriter writer;
+    private DataInputStream input;
+    private RecordSpillFormat.RecordReader reader;
+
+    private long writtenRecords;
+    private long readRecords;
+    private boolean deleted;
+
+    private RecordSpillFile( Path path ) throws IOException
+    {
+        this.path = path;
+        this.output = new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( path ), BUFFER_SIZE ) );
+        this.writer = RecordSpillFormat.newWriter( new StreamOutput( output ) );
+    }
+
+    static RecordSpillFile create() throws IOException
+    {
+        Path path = Files.createTempFile( "neo4j-driver-records-", ".tmp" );
+        try
+        {
+            return new RecordSpillFile( path );
+        }
+        catch ( IOException e )
+        {
+            Files.deleteIfExists( path );
+            throw e;
+        }
+    }
+
+    void write( Value[] fields ) throws IOException
+    {
+        writer.write( fields );
+        writtenRecords++;
+    }
+
+    /**
+     * Read the next record. Writing is not possible after the first read.
+     *
+     * @return fields of the next record or {@code null} when all records have been read.
+     * @throws IOException when reading fails.
+     */
+    Value[] read() throws IOException
+    {
+        if ( deleted || readRecords == writtenRecords )
+        {
+            delete();
+            return null;
+        }
+
+        if ( reader == null )
+        {
+            output.close();
+            input = new DataInputStream( new BufferedInputStream( Files.newInputStream( path ), BUFFER_SIZE ) );
+            reader = RecordSpillFormat.newReader( new StreamInput( input ) );
+        }
+
+        Value[] fields = reader.read();
+        readRecords++;
+        if ( readRecords == writtenRecords )
+        {
+            delete();
+        }
+        return fields;
+    }
+
+    void delete()
+    {
+        if ( !deleted )
+        {
+            deleted = true;
+            closeQuietly( output );
+            if ( input != null )
+            {
+                closeQuietly( input );
+            }
+            try
+            {
+                Files.deleteIfExists( path );
+            }
+            catch ( IOException ignore )
+            {
+                // file is in the temporary directory, nothing else can be done
+            }
+        }
+    }
+
+    Path path()
+    {
+        return path;
+    }
+
+    private static void closeQuietly( AutoCloseable closeable )
+    {
+        try
+        {
+            closeable.close();
+        }
+        catch ( Exception ignore )
+        {
+        }
+    }
+
+    private static class StreamOutput implements PackOutput
+    {
+        final DataOutputStream output;
+
+        StreamOutput( DataOutputStream output )
+        {
+            this.output = output;
+        }
+
+        @Override
+        public PackOutput writeByte( byte value ) throws IOException
+        {
+            output.writeByte( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeBytes( byte[] data ) throws IOException
+        {
+            output.write( data );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeShort( short value ) throws IOException
+        {
+            output.writeShort( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeInt( int value ) throws IOException
+        {
+            output.writeInt( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeLong( long value ) throws IOException
+        {
+            output.writeLong( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeDouble( double value ) throws IOException
+        {
+            output.writeDouble( value );
+            return this;
+        }
+    }
+
+    private static class StreamInput implements PackInput
+    {
+        final DataInputStream input;
+
+        StreamInput( DataInputStream input )
+        {
+            this.input = input;
+        }
+
+        @Override
+        public byte readByte() throws IOException
+        {
+            return input.readByte();
+        }
+
+        @Override
+        public short readShort() throws IOException
+        {
+            return input.readShort();
+        }
+
+        @Override
+        public int readInt() throws IOException
+        {
+            return input.readInt();
+        }
+
+        @Override
+        public long readLong() throws IOException
+        {
+            return input.readLong();
+        }
+
+        @Override
+        public double readDouble() throws IOException
+        {
+            return input.readDouble();
+        }
+
+        @Override
+        public void readBytes( byte[] into, int offset, int toRead ) throws IOException
+        {
+            input.readFully( into, offset, toRead );
+        }
+
+        @Override
+        public byte peekByte() throws IOException
+        {
+            // underlying buffered stream supports mark and reset
+            input.mark( 1 );
+            byte value = input.readByte();
+            input.reset();
+            return value;
+        }
+    }
+}
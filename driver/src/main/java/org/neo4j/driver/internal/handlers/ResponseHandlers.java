@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import org.neo4j.driver.internal.spi.IgnoredAwareResponseHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.v1.Value;
+
+public final class ResponseHandlers
+{
+    private ResponseHandlers()
+    {
+    }
+
+    /**
+     * Deliver a record to the given handler, together with its message size when the handler is interested in it.
+     *
+     * @param handler the handler to notify.
+     * @param fields the record fields.
+     * @param messageSize the size of the decoded RECORD message in bytes.
+     */
+    public static void onRecord( ResponseHandler handler, Value[] fields, int messageSize )
+    {
+        if ( handler instanceof RecordSizeAwareResponseHandler )
+        {
+            ((RecordSizeAwareResponseHandler) handler).onRecord( fields, messageSize );
+        }
+        else
+        {
+            handler.onRecord( fields );
+        }
+    }
+
+    /**
+     * Notify the given handler that its request has been ignored by the database. Handlers that are not interested in
+     * ignored requests are failed with the given error.
+     *
+     * @param handler the handler to notify.
+     * @param error the error to fail the handler with.
+     */
+    public static void onIgnored( ResponseHandler handler, Throwable error )
+    {
+        if ( handler instanceof IgnoredAwareResponseHandler )
+        {
+            ((IgnoredAwareResponseHandler) handler).onIgnored( error );
+        }
+        else
+        {
+            handler.onFailure( error );
+        }
+    }
+}
@@ -23,6 +23,8 @@ import java.util.Objects;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.RoutingErrorHandler;
+import org.neo4j.driver.internal.spi.IgnoredAwareResponseHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.AccessMode;
@@ -34,7 +36,7 @@ import org.neo4j.driver.v1.exceptions.TransientException;
 
 import static java.lang.String.format;
 
-public class RoutingResponseHandler implements ResponseHandler
+public class RoutingResponseHandler implements RecordSizeAwareResponseHandler, IgnoredAwareResponseHandler
 {
     private final ResponseHandler delegate;
     private final BoltServerAddress address;
@@ -53,6 +55,7 @@ public class RoutingResponseHandler implements ResponseHandler
     @Override
     public void onSuccess( Map<String,Value> metadata )
     {
+        errorHandler.onSuccess( address );
         delegate.onSuccess( metadata );
     }
 
@@ -63,12 +66,25 @@ public class RoutingResponseHandler implements ResponseHandler
         delegate.onFailure( newError );
     }
 
+    @Override
+    public void onIgnored( Throwable error )
+    {
+        Throwable newError = handledError( error );
+        ResponseHandlers.onIgnored( delegate, newError );
+    }
+
     @Override
     public void onRecord( Value[] fields )
     {
         delegate.onRecord( fields );
     }
 
+    @Override
+    public void onRecord( Value[] fields, int messageSize )
+    {
+        ResponseHandlers.onRecord( delegate, fields, messageSize );
+    }
+
     private Throwable handledError( Throwable receivedError )
     {
         Throwable error = Futures.completionExceptionCause( receivedError );
@@ -87,6 +103,7 @@ public class RoutingResponseHandler implements ResponseHandler
         }
         else
         {
+            errorHandler.onInconclusiveFailure( address );
             return error;
         }
     }
@@ -104,6 +121,10 @@ public class RoutingResponseHandler implements ResponseHandler
         {
             errorHandler.onConnectionFailure( address );
         }
+        else
+        {
+            errorHandler.onInconclusiveFailure( address );
+        }
         return e;
     }
 
@@ -116,14 +137,17 @@ public class RoutingResponseHandler implements ResponseHandler
             switch ( accessMode )
             {
             case READ:
+                errorHandler.onInconclusiveFailure( address );
                 return new ClientException( "Write queries cannot be performed in READ access mode." );
             case WRITE:
+                errorHandler.onInconclusiveFailure( address );
                 errorHandler.onWriteFailure( address );
                 return new SessionExpiredException( format( "Server at %s no longer accepts writes", address ) );
             default:
                 throw new IllegalArgumentException( accessMode + " not supported." );
             }
         }
+        errorHandler.onInconclusiveFailure( address );
         return e;
     }
 
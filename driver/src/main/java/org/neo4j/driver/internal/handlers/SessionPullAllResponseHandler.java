@@ -18,7 +18,10 @@
  */
 package org.neo4j.driver.internal.handlers;
 
+import java.util.concurrent.Executor;
+
 import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Statement;
 
 public class SessionPullAllResponseHandler extends PullAllResponseHandler
@@ -26,7 +29,19 @@ public class SessionPullAllResponseHandler extends PullAllResponseHandler
     public SessionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
             Connection connection )
     {
-        super( statement, runResponseHandler, connection );
+        this( statement, runResponseHandler, connection, RecordBufferWatermarks.DEFAULT );
+    }
+
+    public SessionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
+            Connection connection, RecordBufferWatermarks watermarks )
+    {
+        super( statement, runResponseHandler, connection, watermarks );
+    }
+
+    SessionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
+            Connection connection, RecordBufferWatermarks watermarks, Executor spillExecutor )
+    {
+        super( statement, runResponseHandler, connection, watermarks, spillExecutor );
     }
 
     @Override
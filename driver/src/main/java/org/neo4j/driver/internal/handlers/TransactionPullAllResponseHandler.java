@@ -21,6 +21,7 @@ package org.neo4j.driver.internal.handlers;
 import org.neo4j.driver.internal.ExplicitTransaction;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.util.ErrorUtil;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Statement;
 
 import static java.util.Objects.requireNonNull;
@@ -32,7 +33,13 @@ public class TransactionPullAllResponseHandler extends PullAllResponseHandler
     public TransactionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
             Connection connection, ExplicitTransaction tx )
     {
-        super( statement, runResponseHandler, connection );
+        this( statement, runResponseHandler, connection, tx, RecordBufferWatermarks.DEFAULT );
+    }
+
+    public TransactionPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler,
+            Connection connection, ExplicitTransaction tx, RecordBufferWatermarks watermarks )
+    {
+        super( statement, runResponseHandler, connection, watermarks );
         this.tx = requireNonNull( tx );
     }
 
@@ -194,7 +194,7 @@ public class PackStreamMessageFormatV1 implements MessageFormat
             }
         }
 
-        private void packValue( Value value ) throws IOException
+        void packValue( Value value ) throws IOException
         {
             if ( value instanceof InternalValue )
             {
@@ -371,7 +371,7 @@ public class PackStreamMessageFormatV1 implements MessageFormat
             output.handleRecordMessage( fields );
         }
 
-        private Value unpackValue() throws IOException
+        Value unpackValue() throws IOException
         {
             PackType type = unpacker.peekNextType();
             switch ( type )
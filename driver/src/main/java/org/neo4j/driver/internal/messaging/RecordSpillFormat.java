@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.messaging;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.neo4j.driver.internal.packstream.PackInput;
+import org.neo4j.driver.internal.packstream.PackOutput;
+import org.neo4j.driver.internal.util.Iterables;
+import org.neo4j.driver.internal.value.InternalValue;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.types.Entity;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Relationship;
+
+import static org.neo4j.driver.internal.messaging.PackStreamMessageFormatV1.NODE;
+import static org.neo4j.driver.internal.messaging.PackStreamMessageFormatV1.NODE_FIELDS;
+import static org.neo4j.driver.internal.messaging.PackStreamMessageFormatV1.PATH;
+import static org.neo4j.driver.internal.messaging.PackStreamMessageFormatV1.RELATIONSHIP;
+import static org.neo4j.driver.internal.messaging.PackStreamMessageFormatV1.UNBOUND_RELATIONSHIP;
+
+/**
+ * Format used to write received records to local storage and to read them back.
+ * <p>
+ * It is based on the latest PackStream message format and additionally writes nodes, relationships and paths, which
+ * are otherwise only sent by the database. This allows every received value to be stored and restored unchanged.
+ */
+public final class RecordSpillFormat
+{
+    private RecordSpillFormat()
+    {
+    }
+
+    public static RecordWriter newWriter( PackOutput output )
+    {
+        return new SpillWriter( output );
+    }
+
+    public static RecordReader newReader( PackInput input )
+    {
+        return new SpillReader( input );
+    }
+
+    public interface RecordWriter
+    {
+        void write( Value[] fields ) throws IOException;
+    }
+
+    public interface RecordReader
+    {
+        Value[] read() throws IOException;
+    }
+
+    private static class SpillWriter extends PackStreamMessageFormatV2.WriterV2 implements RecordWriter
+    {
+        SpillWriter( PackOutput output )
+        {
+            super( output );
+        }
+
+        @Override
+        public void write( Value[] fields ) throws IOException
+        {
+            packer.packListHeader( fields.length );
+            for ( Value field : fields )
+            {
+                packValue( field );
+            }
+        }
+
+        @Override
+        void packInternalValue( InternalValue value ) throws IOException
+        {
+            switch ( value.typeConstructor() )
+            {
+            case NODE:
+                packNode( value.asNode() );
+                break;
+
+            case RELATIONSHIP:
+                Relationship relationship = value.asRelationship();
+                packer.packStructHeader( 5, RELATIONSHIP );
+                packer.pack( relationship.id() );
+                packer.pack( relationship.startNodeId() );
+                packer.pack( relationship.endNodeId() );
+                packer.pack( relationship.type() );
+                packProperties( relationship );
+                break;
+
+            case PATH:
+                packPath( value.asPath() );
+                break;
+
+            default:
+                super.packInternalValue( value );
+            }
+        }
+
+        private void packNode( Node node ) throws IOException
+        {
+            packer.packStructHeader( NODE_FIELDS, NODE );
+            packer.pack( node.id() );
+            packer.packListHeader( Iterables.count( node.labels() ) );
+            for ( String label : node.labels() )
+            {
+                packer.pack( label );
+            }
+            packProperties( node );
+        }
+
+        private void packPath( Path path ) throws IOException
+        {
+            // same layout as paths received from the database: unique nodes, unique relationships without start and
+            // end node ids and a sequence of relationship and node indexes that describes the traversal
+            Map<Long,Integer> nodeIndexes = new LinkedHashMap<>();
+            Map<Long,Relationship> relationships = new LinkedHashMap<>();
+            Map<Long,Integer> relationshipIndexes = new LinkedHashMap<>();
+            Map<Long,Node> nodes = new LinkedHashMap<>();
+
+            nodeIndexes.put( path.start().id(), 0 );
+            nodes.put( path.start().id(), path.start() );
+            for ( Path.Segment segment : path )
+            {
+                if ( !nodeIndexes.containsKey( segment.end().id() ) )
+                {
+                    nodeIndexes.put( segment.end().id(), nodeIndexes.size() );
+                    nodes.put( segment.end().id(), segment.end() );
+                }
+                Relationship relationship = segment.relationship();
+                if ( !relationshipIndexes.containsKey( relationship.id() ) )
+                {
+                    // relationship indexes are 1-based
+                    relationshipIndexes.put( relationship.id(), relationshipIndexes.size() + 1 );
+                    relationships.put( relationship.id(), relationship );
+                }
+            }
+
+            packer.packStructHeader( 3, PATH );
+
+            packer.packListHeader( nodes.size() );
+            for ( Node node : nodes.values() )
+            {
+                packNode( node );
+            }
+
+            packer.packListHeader( relationships.size() );
+            for ( Relationship relationship : relationships.values() )
+            {
+                packer.packStructHeader( 3, UNBOUND_RELATIONSHIP );
+                packer.pack( relationship.id() );
+                packer.pack( relationship.type() );
+                packProperties( relationship );
+            }
+
+            packer.packListHeader( path.length() * 2 );
+            for ( Path.Segment segment : path )
+            {
+                Relationship relationship = segment.relationship();
+                int relationshipIndex = relationshipIndexes.get( relationship.id() );
+                // negative index means that relationship was traversed against its direction
+                boolean inverse = relationship.startNodeId() != segment.start().id();
+                packer.pack( inverse ? -relationshipIndex : relationshipIndex );
+                packer.pack( nodeIndexes.get( segment.end().id() ) );
+            }
+        }
+
+        private void packProperties( Entity entity ) throws IOException
+        {
+            packer.packMapHeader( entity.size() );
+            for ( String key : entity.keys() )
+            {
+                packer.pack( key );
+                packValue( entity.get( key ) );
+            }
+        }
+    }
+
+    private static class SpillReader extends PackStreamMessageFormatV2.ReaderV2 implements RecordReader
+    {
+        SpillReader( PackInput input )
+        {
+            super( input );
+        }
+
+        @Override
+        public Value[] read() throws IOException
+        {
+            int fieldCount = (int) unpacker.unpackListHeader();
+            Value[] fields = new Value[fieldCount];
+            for ( int i = 0; i < fieldCount; i++ )
+            {
+                fields[i] = unpackValue();
+            }
+            return fields;
+        }
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.neo4j.driver.internal.metrics;
 
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
+
 public interface ConnectionPoolMetricsListener
 {
     void beforeCreating();
@@ -35,5 +37,7 @@ public interface ConnectionPoolMetricsListener
     void afterAcquiredOrCreated( ListenerEvent listenerEvent );
 
     void afterTimedOutToAcquireOrCreate();
+
+    void afterCircuitStateChanged( CircuitState state );
 }
 
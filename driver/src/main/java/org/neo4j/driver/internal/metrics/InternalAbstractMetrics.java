@@ -23,6 +23,7 @@ import java.util.Map;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
 import org.neo4j.driver.internal.metrics.spi.ConnectionMetrics;
 import org.neo4j.driver.internal.metrics.spi.ConnectionPoolMetrics;
 import org.neo4j.driver.internal.metrics.spi.Metrics;
@@ -92,6 +93,12 @@ public abstract class InternalAbstractMetrics implements Metrics, MetricsListene
 
         }
 
+        @Override
+        public void afterCircuitStateChanged( BoltServerAddress serverAddress, CircuitState state )
+        {
+
+        }
+
         @Override
         public ListenerEvent createListenerEvent()
         {
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
 import org.neo4j.driver.internal.metrics.spi.ConnectionPoolMetrics;
 import org.neo4j.driver.internal.metrics.spi.Histogram;
 import org.neo4j.driver.internal.metrics.spi.PoolStatus;
@@ -47,6 +48,8 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
     private final AtomicLong acquired = new AtomicLong();
     private final AtomicLong timedOutToAcquire = new AtomicLong();
 
+    private volatile CircuitState circuitState = CircuitState.CLOSED;
+
     private InternalHistogram acquisitionTimeHistogram;
 
     public InternalConnectionPoolMetrics( BoltServerAddress address, ConnectionPool pool, long connAcquisitionTimeoutMs )
@@ -113,6 +116,12 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
         this.timedOutToAcquire.incrementAndGet();
     }
 
+    @Override
+    public void afterCircuitStateChanged( CircuitState state )
+    {
+        this.circuitState = state;
+    }
+
     @Override
     public String uniqueName()
     {
@@ -124,7 +133,7 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
     {
         if ( pool.isOpen( address ) )
         {
-            return PoolStatus.OPEN;
+            return pool.isDraining( address ) ? PoolStatus.DRAINING : PoolStatus.OPEN;
         }
         else
         {
@@ -132,6 +141,12 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
         }
     }
 
+    @Override
+    public CircuitState circuitState()
+    {
+        return circuitState;
+    }
+
     @Override
     public int inUse()
     {
@@ -196,8 +211,8 @@ public class InternalConnectionPoolMetrics implements ConnectionPoolMetrics, Con
     public String toString()
     {
         return format( "[created=%s, closed=%s, creating=%s, failedToCreate=%s, acquiring=%s, acquired=%s, " +
-                        "timedOutToAcquire=%s, inUse=%s, idle=%s, poolStatus=%s, acquisitionTimeHistogram=%s]",
+                        "timedOutToAcquire=%s, inUse=%s, idle=%s, poolStatus=%s, circuitState=%s, acquisitionTimeHistogram=%s]",
                 created(), closed(), creating(), failedToCreate(), acquiring(), acquired(),
-                timedOutToAcquire(), inUse(), idle(), poolStatus(), acquisitionTimeHistogram() );
+                timedOutToAcquire(), inUse(), idle(), poolStatus(), circuitState(), acquisitionTimeHistogram() );
     }
 }
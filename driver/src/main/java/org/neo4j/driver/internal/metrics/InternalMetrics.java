@@ -24,6 +24,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
 import org.neo4j.driver.internal.metrics.spi.ConnectionMetrics;
 import org.neo4j.driver.internal.metrics.spi.ConnectionPoolMetrics;
 import org.neo4j.driver.internal.spi.ConnectionPool;
@@ -116,6 +117,18 @@ public class InternalMetrics extends InternalAbstractMetrics
         poolMetrics( serverAddress ).afterTimedOutToAcquireOrCreate();
     }
 
+    @Override
+    public void afterCircuitStateChanged( BoltServerAddress serverAddress, CircuitState state )
+    {
+        InternalConnectionPoolMetrics poolMetrics =
+                (InternalConnectionPoolMetrics) this.connectionPoolMetrics.get( serverAddressToUniqueName( serverAddress ) );
+        if ( poolMetrics != null )
+        {
+            // circuit breaker might change its state before the pool for the address is created
+            poolMetrics.afterCircuitStateChanged( state );
+        }
+    }
+
     @Override
     public ListenerEvent createListenerEvent()
     {
@@ -168,13 +181,13 @@ public class InternalMetrics extends InternalAbstractMetrics
 
     private void addPoolMetrics( BoltServerAddress serverAddress, ConnectionPool pool )
     {
-        this.connectionPoolMetrics.put( serverAddressToUniqueName( serverAddress ),
+        this.connectionPoolMetrics.putIfAbsent( serverAddressToUniqueName( serverAddress ),
                 new InternalConnectionPoolMetrics( serverAddress, pool, config.connectionAcquisitionTimeoutMillis() ) );
     }
 
     private void addConnectionMetrics( BoltServerAddress serverAddress )
     {
-        this.connectionMetrics.put( serverAddressToUniqueName( serverAddress ),
+        this.connectionMetrics.putIfAbsent( serverAddressToUniqueName( serverAddress ),
                 new InternalConnectionMetrics( serverAddress, config.connectionTimeoutMillis() ) );
     }
 }
@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.NettyConnection;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
 import org.neo4j.driver.v1.Config;
 
 public interface MetricsListener
@@ -93,6 +94,13 @@ public interface MetricsListener
      */
     void afterConnectionReleased( BoltServerAddress serverAddress, ListenerEvent inUseEvent );
 
+    /**
+     * After the circuit breaker of a server changed its state
+     * @param serverAddress the server the circuit breaker guards
+     * @param state the new state of the circuit breaker
+     */
+    void afterCircuitStateChanged( BoltServerAddress serverAddress, CircuitState state );
+
     ListenerEvent createListenerEvent();
 
     void addMetrics( BoltServerAddress address, ConnectionPoolImpl connectionPool );
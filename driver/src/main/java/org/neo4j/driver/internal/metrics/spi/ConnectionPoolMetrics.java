@@ -31,11 +31,21 @@ public interface ConnectionPoolMetrics
     String uniqueName();
 
     /**
-     * The status of the pool.
+     * The status of the pool. Pool is {@link PoolStatus#DRAINING draining} when its address is no longer in the
+     * routing table but some of its channels are still in-use. Draining progress can be observed via {@link #inUse()}.
      * @return The status of the pool.
      */
     PoolStatus poolStatus();
 
+    /**
+     * The state of the circuit breaker of the server this pool connects to. Circuit is {@link CircuitState#OPEN open}
+     * when the server is ejected from load balancing because too many requests towards it failed and
+     * {@link CircuitState#HALF_OPEN half-open} when a single probe request is allowed to check if it recovered.
+     * @return The state of the circuit breaker, always {@link CircuitState#CLOSED closed} when circuit breakers
+     * are disabled.
+     */
+    CircuitState circuitState();
+
     /**
      * The amount of channels that are currently in-use (borrowed out of the pool).
      * @return The amount of channels that are currently in-use
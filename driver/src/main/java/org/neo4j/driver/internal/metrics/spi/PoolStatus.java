@@ -20,5 +20,5 @@ package org.neo4j.driver.internal.metrics.spi;
 
 public enum PoolStatus
 {
-    OPEN, CLOSED
+    OPEN, DRAINING, CLOSED
 }
@@ -39,6 +39,30 @@ public interface Connection
     void runAndFlush( String statement, Map<String,Value> parameters, ResponseHandler runHandler,
             ResponseHandler pullAllHandler );
 
+    /**
+     * Write RUN message and flush, without the following PULL_ALL or DISCARD_ALL. The choice between them is made
+     * later using the returned {@link DeferredPull}, response to the chosen message is delivered to the given pull
+     * handler. Choice has to be made before any other statement is executed using this connection. Implementations
+     * that can't defer the choice write PULL_ALL immediately.
+     *
+     * @param statement the statement.
+     * @param parameters the statement parameters.
+     * @param runHandler the handler of the RUN response.
+     * @param pullHandler the handler of the PULL_ALL or DISCARD_ALL response.
+     * @return the deferred choice.
+     */
+    DeferredPull runAndFlushWithDeferredPull( String statement, Map<String,Value> parameters,
+            ResponseHandler runHandler, ResponseHandler pullHandler );
+
+    /**
+     * Tell the connection whether an explicit transaction is open on the server. Connection that is released with an
+     * open transaction has to be reset before it can be reused.
+     *
+     * @param open {@code true} when BEGIN is about to be written, {@code false} when COMMIT or ROLLBACK is about to
+     * be written.
+     */
+    void setTransactionOpen( boolean open );
+
     CompletionStage<Void> reset();
 
     CompletionStage<Void> release();
@@ -22,18 +22,25 @@ import java.util.Set;
 import java.util.concurrent.CompletionStage;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 
 public interface ConnectionPool
 {
     CompletionStage<Connection> acquire( BoltServerAddress address );
 
+    CompletionStage<Connection> acquire( BoltServerAddress address, AcquisitionSettings acquisitionSettings );
+
     void retainAll( Set<BoltServerAddress> addressesToRetain );
 
     int inUseConnections( BoltServerAddress address );
 
     int idleConnections( BoltServerAddress address );
 
+    int sizeLimit( BoltServerAddress address );
+
     CompletionStage<Void> close();
 
     boolean isOpen( BoltServerAddress address );
+
+    boolean isDraining( BoltServerAddress address );
 }
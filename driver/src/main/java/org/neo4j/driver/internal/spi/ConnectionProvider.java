@@ -20,6 +20,8 @@ package org.neo4j.driver.internal.spi;
 
 import java.util.concurrent.CompletionStage;
 
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.v1.AccessMode;
 
 /**
@@ -30,6 +32,24 @@ public interface ConnectionProvider
 {
     CompletionStage<Connection> acquireConnection( AccessMode mode );
 
+    CompletionStage<Connection> acquireConnection( AccessMode mode, AcquisitionSettings acquisitionSettings );
+
+    /**
+     * Acquire a read connection towards the given server, bypassing the server selection. Used to spread work over
+     * all {@link #readers() readers}.
+     *
+     * @param address the server to connect to.
+     * @return stage with the acquired connection.
+     */
+    CompletionStage<Connection> acquireReaderConnection( BoltServerAddress address );
+
+    /**
+     * Get servers that currently accept read queries.
+     *
+     * @return stage with addresses of all available readers.
+     */
+    CompletionStage<BoltServerAddress[]> readers();
+
     CompletionStage<Void> verifyConnectivity();
 
     CompletionStage<Void> close();
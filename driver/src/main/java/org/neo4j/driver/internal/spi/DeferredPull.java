@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.spi;
+
+/**
+ * Postponed choice between PULL_ALL and DISCARD_ALL for a statement whose RUN message has been written alone. Only
+ * the first call to either of the methods has an effect.
+ *
+ * @see Connection#runAndFlushWithDeferredPull(String, java.util.Map, ResponseHandler, ResponseHandler)
+ */
+public interface DeferredPull
+{
+    /**
+     * Nothing to decide, because records are already being received or the statement could not be executed.
+     */
+    DeferredPull NONE = new DeferredPull()
+    {
+        @Override
+        public void pullAll()
+        {
+        }
+
+        @Override
+        public void discardAll()
+        {
+        }
+    };
+
+    /**
+     * Write PULL_ALL to receive all records of the result.
+     */
+    void pullAll();
+
+    /**
+     * Write DISCARD_ALL to make the database drop all records of the result. Only the summary is received.
+     */
+    void discardAll();
+}
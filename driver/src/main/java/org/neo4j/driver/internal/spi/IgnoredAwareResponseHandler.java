@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.spi;
+
+/**
+ * {@link ResponseHandler} that needs to tell requests ignored by the database apart from requests that failed, for
+ * example to execute ignored requests again. Handlers that wrap other handlers should implement this interface and
+ * pass the notification on.
+ */
+public interface IgnoredAwareResponseHandler extends ResponseHandler
+{
+    /**
+     * Invoked instead of {@link #onFailure(Throwable)} when the database responded with IGNORED.
+     *
+     * @param error the error of the failed request that made the database ignore this request or an error that
+     * describes why the request was ignored.
+     */
+    void onIgnored( Throwable error );
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.spi;
+
+import org.neo4j.driver.v1.Value;
+
+/**
+ * {@link ResponseHandler} that needs to know how large RECORD messages were on the wire, for example to limit the
+ * amount of memory used by buffered records. Handlers that wrap other handlers should implement this interface and
+ * pass the size on.
+ */
+public interface RecordSizeAwareResponseHandler extends ResponseHandler
+{
+    /**
+     * Invoked instead of {@link #onRecord(Value[])} when the size of the RECORD message is known.
+     *
+     * @param fields the record fields.
+     * @param messageSize the size of the decoded message in bytes.
+     */
+    void onRecord( Value[] fields, int messageSize );
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.value.Uncoercible;
+import org.neo4j.driver.v1.types.Entity;
+import org.neo4j.driver.v1.types.IsoDuration;
+import org.neo4j.driver.v1.types.MapAccessor;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Point;
+import org.neo4j.driver.v1.types.Relationship;
+import org.neo4j.driver.v1.util.Function;
+
+import static java.util.Objects.requireNonNull;
+import static org.neo4j.driver.internal.types.InternalTypeSystem.TYPE_SYSTEM;
+
+/**
+ * Maps records of a single result to instances of a class. Class should have a constructor without parameters. Record
+ * columns are assigned to fields or setter methods with the same name, columns without a matching property are
+ * ignored. When none of the columns match and there is a single map, node or relationship column, its entries are
+ * assigned instead.
+ * <p>
+ * Reflective lookup of the constructor and properties is done once per class and cached. Binding of columns to
+ * properties is done once per result, when the first record is mapped. Records of a single result always have the
+ * same keys, so mapper should not be shared between results.
+ *
+ * @param <T> the type of mapped objects.
+ */
+public class TypedRecordMapper<T> implements Function<Record,T>
+{
+    private static final ClassValue<TypeMapping> MAPPINGS = new ClassValue<TypeMapping>()
+    {
+        @Override
+        protected TypeMapping computeValue( Class<?> type )
+        {
+            return new TypeMapping( type );
+        }
+    };
+
+    private static final Map<Class<?>,Function<Value,?>> CONVERTERS = new HashMap<>();
+
+    static
+    {
+        CONVERTERS.put( Value.class, Values.ofValue() );
+        CONVERTERS.put( Object.class, Values.ofObject() );
+        CONVERTERS.put( String.class, Values.ofString() );
+        CONVERTERS.put( Number.class, Values.ofNumber() );
+        CONVERTERS.put( int.class, Values.ofInteger() );
+        CONVERTERS.put( Integer.class, Values.ofInteger() );
+        CONVERTERS.put( long.class, Values.ofLong() );
+        CONVERTERS.put( Long.class, Values.ofLong() );
+        CONVERTERS.put( float.class, Values.ofFloat() );
+        CONVERTERS.put( Float.class, Values.ofFloat() );
+        CONVERTERS.put( double.class, Values.ofDouble() );
+        CONVERTERS.put( Double.class, Values.ofDouble() );
+        CONVERTERS.put( boolean.class, Values.ofBoolean() );
+        CONVERTERS.put( Boolean.class, Values.ofBoolean() );
+        CONVERTERS.put( byte[].class, Value::asByteArray );
+        CONVERTERS.put( List.class, Values.ofList() );
+        CONVERTERS.put( Map.class, Values.ofMap() );
+        CONVERTERS.put( Entity.class, Values.ofEntity() );
+        CONVERTERS.put( Node.class, Values.ofNode() );
+        CONVERTERS.put( Relationship.class, Values.ofRelationship() );
+        CONVERTERS.put( Path.class, Values.ofPath() );
+        CONVERTERS.put( LocalDate.class, Values.ofLocalDate() );
+        CONVERTERS.put( OffsetTime.class, Values.ofOffsetTime() );
+        CONVERTERS.put( LocalTime.class, Values.ofLocalTime() );
+        CONVERTERS.put( LocalDateTime.class, Values.ofLocalDateTime() );
+        CONVERTERS.put( ZonedDateTime.class, Values.ofZonedDateTime() );
+        CONVERTERS.put( IsoDuration.class, Values.ofIsoDuration() );
+        CONVERTERS.put( Point.class, Values.ofPoint() );
+    }
+
+    private final Class<T> type;
+    private final TypeMapping mapping;
+
+    private Binding binding;
+
+    public TypedRecordMapper( Class<T> type )
+    {
+        this.type = requireNonNull( type );
+        this.mapping = MAPPINGS.get( type );
+    }
+
+    @Override
+    public T apply( Record record )
+    {
+        if ( binding == null )
+        {
+            binding = mapping.bind( record );
+        }
+        return type.cast( binding.map( record ) );
+    }
+
+    /**
+     * Constructor and properties of a class, independent of the result.
+     */
+    private static class TypeMapping
+    {
+        final Class<?> type;
+        final MethodHandle constructor;
+        final Map<String,Property> properties = new HashMap<>();
+
+        TypeMapping( Class<?> type )
+        {
+            if ( type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract( type.getModifiers() ) )
+            {
+                throw new ClientException( "Unable to map records to " + type.getName() +
+                                           ", only concrete classes are supported" );
+            }
+            this.type = type;
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.constructor = findConstructor( type, lookup );
+
+            for ( Class<?> current = type; current != Object.class; current = current.getSuperclass() )
+            {
+                for ( Field field : current.getDeclaredFields() )
+                {
+                    int modifiers = field.getModifiers();
+                    if ( !Modifier.isStatic( modifiers ) && !Modifier.isFinal( modifiers ) && !field.isSynthetic() )
+                    {
+                        // fields of subclasses hide fields of superclasses
+                        properties.putIfAbsent( field.getName(), newFieldProperty( field, lookup ) );
+                    }
+                }
+            }
+
+            for ( Method method : type.getMethods() )
+            {
+                String name = method.getName();
+                if ( name.length() > 3 && name.startsWith( "set" ) && method.getParameterCount() == 1 &&
+                     !Modifier.isStatic( method.getModifiers() ) )
+                {
+                    // setters take precedence over fields
+                    String propertyName = Character.toLowerCase( name.charAt( 3 ) ) + name.substring( 4 );
+                    properties.put( propertyName, newSetterProperty( propertyName, method, lookup ) );
+                }
+            }
+        }
+
+        Binding bind( Record record )
+        {
+            List<String> keys = record.keys();
+            int[] indexes = new int[keys.size()];
+            Property[] boundProperties = new Property[keys.size()];
+            int size = 0;
+            for ( int i = 0; i < keys.size(); i++ )
+            {
+                Property property = properties.get( keys.get( i ) );
+                if ( property != null )
+                {
+                    indexes[size] = i;
+                    boundProperties[size] = property;
+                    size++;
+                }
+            }
+
+            if ( size == 0 && keys.size() == 1 && isMapLike( record.get( 0 ) ) )
+            {
+                return new EntryBinding( this, properties.values().toArray( new Property[0] ) );
+            }
+            return new ColumnBinding( this, indexes, boundProperties, size );
+        }
+
+        Object newInstance()
+        {
+            try
+            {
+                return (Object) constructor.invokeExact();
+            }
+            catch ( Throwable error )
+            {
+                throw mappingError( error );
+            }
+        }
+
+        RuntimeException mappingError( Throwable error )
+        {
+            if ( error instanceof RuntimeException )
+            {
+                return (RuntimeException) error;
+            }
+            if ( error instanceof Error )
+            {
+                throw (Error) error;
+            }
+            return new ClientException( "Unable to map record to " + type.getName(), error );
+        }
+
+        private static MethodHandle findConstructor( Class<?> type, MethodHandles.Lookup lookup )
+        {
+            try
+            {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible( true );
+                return lookup.unreflectConstructor( constructor ).asType( MethodType.methodType( Object.class ) );
+            }
+            catch ( NoSuchMethodException e )
+            {
+                throw new ClientException( "Unable to map records to " + type.getName() +
+                                           ", class should have a constructor without parameters" );
+            }
+            catch ( IllegalAccessException e )
+            {
+                throw new ClientException( "Unable to access constructor of " + type.getName(), e );
+            }
+        }
+
+        private static Property newFieldProperty( Field field, MethodHandles.Lookup lookup )
+        {
+            try
+            {
+                field.setAccessible( true );
+                return new Property( field.getName(), field.getType(), lookup.unreflectSetter( field ) );
+            }
+            catch ( IllegalAccessException e )
+            {
+                throw new ClientException( "Unable to access field " + field, e );
+            }
+        }
+
+        private static Property newSetterProperty( String name, Method method, MethodHandles.Lookup lookup )
+        {
+            try
+            {
+                return new Property( name, method.getParameterTypes()[0], lookup.unreflect( method ) );
+            }
+            catch ( IllegalAccessException e )
+            {
+                throw new ClientException( "Unable to access method " + method, e );
+            }
+        }
+
+        private static boolean isMapLike( Value value )
+        {
+            // nodes and relationships are also of map type
+            return value.hasType( TYPE_SYSTEM.MAP() );
+        }
+    }
+
+    /**
+     * Field or setter method that accepts a converted value.
+     */
+    private static class Property
+    {
+        final String name;
+        final Class<?> type;
+        final MethodHandle setter;
+        final Function<Value,?> converter;
+
+        Property( String name, Class<?> type, MethodHandle setter )
+        {
+            this.name = name;
+            this.type = type;
+            // setter methods might return a value, drop it
+            this.setter = setter.asType( MethodType.methodType( void.class, Object.class, Object.class ) );
+            this.converter = converterFor( type );
+        }
+
+        void set( TypeMapping mapping, Object target, Value value )
+        {
+            Object converted;
+            if ( value.isNull() && !type.isPrimitive() )
+            {
+                converted = null;
+            }
+            else
+            {
+                converted = converter.apply( value );
+                if ( converted != null && !type.isPrimitive() && !type.isInstance( converted ) )
+                {
+                    throw new Uncoercible( value.type().name(), type.getName() );
+                }
+            }
+
+            try
+            {
+                setter.invokeExact( target, converted );
+            }
+            catch ( Throwable error )
+            {
+                throw mapping.mappingError( error );
+            }
+        }
+    }
+
+    private static Function<Value,?> converterFor( Class<?> type )
+    {
+        Function<Value,?> converter = CONVERTERS.get( type );
+        if ( converter != null )
+        {
+            return converter;
+        }
+        if ( type.isPrimitive() )
+        {
+            return value ->
+            {
+                throw new Uncoercible( value.type().name(), type.getName() );
+            };
+        }
+        // value is checked to be an instance of the property type after conversion
+        return Values.ofObject();
+    }
+
+    private interface Binding
+    {
+        Object map( Record record );
+    }
+
+    /**
+     * Assigns record columns to properties with the same names.
+     */
+    private static class ColumnBinding implements Binding
+    {
+        final TypeMapping mapping;
+        final int[] indexes;
+        final Property[] properties;
+        final int size;
+
+        ColumnBinding( TypeMapping mapping, int[] indexes, Property[] properties, int size )
+        {
+            this.mapping = mapping;
+            this.indexes = indexes;
+            this.properties = properties;
+            this.size = size;
+        }
+
+        @Override
+        public Object map( Record record )
+        {
+            Object result = mapping.newInstance();
+            for ( int i = 0; i < size; i++ )
+            {
+                properties[i].set( mapping, result, record.get( indexes[i] ) );
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Assigns entries of a single map, node or relationship column to properties with the same names.
+     */
+    private static class EntryBinding implements Binding
+    {
+        final TypeMapping mapping;
+        final Property[] properties;
+
+        EntryBinding( TypeMapping mapping, Property[] properties )
+        {
+            this.mapping = mapping;
+            this.properties = properties;
+        }
+
+        @Override
+        public Object map( Record record )
+        {
+            Value value = record.get( 0 );
+            MapAccessor entries = value.hasType( TYPE_SYSTEM.NODE() ) || value.hasType( TYPE_SYSTEM.RELATIONSHIP() )
+                                  ? value.asEntity()
+                                  : value;
+            Object result = mapping.newInstance();
+            for ( Property property : properties )
+            {
+                if ( entries.containsKey( property.name ) )
+                {
+                    property.set( mapping, result, entries.get( property.name ) );
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+/**
+ * Used by the driver to order sessions waiting for a connection when the connection pool towards a server is
+ * exhausted. Sessions with a higher priority are handed a connection before sessions with a lower priority, sessions
+ * with the same priority are served in the order they started waiting.
+ * <p>
+ * Priority only matters when the pool has reached its {@linkplain Config.ConfigBuilder#withMaxConnectionPoolSize(int)
+ * maximum size}. Lower priority sessions can be starved by a constant stream of higher priority ones and will then
+ * fail once their {@linkplain Config.ConfigBuilder#withConnectionAcquisitionTimeout(long, TimeUnit) acquisition
+ * timeout} expires.
+ *
+ * @see SessionOptions#withAcquisitionPriority(AcquisitionPriority)
+ * @since 1.7
+ */
+@Experimental
+public enum AcquisitionPriority
+{
+    /**
+     * Use this for latency sensitive work, like interactive requests.
+     */
+    HIGH,
+    /**
+     * Default priority of all sessions.
+     */
+    NORMAL,
+    /**
+     * Use this for background work, like batch jobs, that can wait for a connection.
+     */
+    LOW
+}
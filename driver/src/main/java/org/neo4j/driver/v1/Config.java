@@ -19,10 +19,14 @@
 package org.neo4j.driver.v1;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.neo4j.driver.internal.async.pool.PoolSettings;
+import org.neo4j.driver.internal.cluster.RoutingContext;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.logging.JULogging;
 import org.neo4j.driver.internal.retry.RetrySettings;
@@ -75,6 +79,11 @@ public class Config
     private final long idleTimeBeforeConnectionTest;
     private final long maxConnectionLifetimeMillis;
     private final long connectionAcquisitionTimeoutMillis;
+    private final int maxPendingConnectionAcquisitions;
+    private final int minConnectionPoolSize;
+    private final int maxMultiplexedQueriesPerConnection;
+    private final RecordBufferWatermarks recordBufferWatermarks;
+    private final boolean deferredPull;
 
     /** Indicator for encrypted traffic */
     private final boolean encrypted;
@@ -84,10 +93,17 @@ public class Config
 
     private final int routingFailureLimit;
     private final long routingRetryDelayMillis;
+    private final double routingTableRefreshFraction;
+    private final long routingLookupHedgeDelayMillis;
+    private final double circuitBreakerFailureRate;
+    private final long circuitBreakerOpenDurationMillis;
+    private final File routingTableCacheFile;
     private final int connectionTimeoutMillis;
     private final RetrySettings retrySettings;
 
     private final LoadBalancingStrategy loadBalancingStrategy;
+    private final String localZone;
+    private final Map<String,String> serverZones;
 
     private Config( ConfigBuilder builder)
     {
@@ -98,14 +114,26 @@ public class Config
         this.maxConnectionLifetimeMillis = builder.maxConnectionLifetimeMillis;
         this.maxConnectionPoolSize = builder.maxConnectionPoolSize;
         this.connectionAcquisitionTimeoutMillis = builder.connectionAcquisitionTimeoutMillis;
+        this.maxPendingConnectionAcquisitions = builder.maxPendingConnectionAcquisitions;
+        this.minConnectionPoolSize = builder.minConnectionPoolSize;
+        this.maxMultiplexedQueriesPerConnection = builder.maxMultiplexedQueriesPerConnection;
+        this.recordBufferWatermarks = builder.recordBufferWatermarks;
+        this.deferredPull = builder.deferredPull;
 
         this.encrypted = builder.encrypted;
         this.trustStrategy = builder.trustStrategy;
         this.routingFailureLimit = builder.routingFailureLimit;
         this.routingRetryDelayMillis = builder.routingRetryDelayMillis;
+        this.routingTableRefreshFraction = builder.routingTableRefreshFraction;
+        this.routingLookupHedgeDelayMillis = builder.routingLookupHedgeDelayMillis;
+        this.circuitBreakerFailureRate = builder.circuitBreakerFailureRate;
+        this.circuitBreakerOpenDurationMillis = builder.circuitBreakerOpenDurationMillis;
+        this.routingTableCacheFile = builder.routingTableCacheFile;
         this.connectionTimeoutMillis = builder.connectionTimeoutMillis;
         this.retrySettings = builder.retrySettings;
         this.loadBalancingStrategy = builder.loadBalancingStrategy;
+        this.localZone = builder.localZone;
+        this.serverZones = Collections.unmodifiableMap( new LinkedHashMap<>( builder.serverZones ) );
     }
 
     /**
@@ -190,6 +218,50 @@ public class Config
         return connectionAcquisitionTimeoutMillis;
     }
 
+    /**
+     * @return the maximum amount of connection acquisitions that can wait for a connection towards a single database
+     * when the connection pool is exhausted, or a negative value when the amount is not limited. Acquisitions that
+     * exceed this limit fail with {@link org.neo4j.driver.v1.exceptions.AcquisitionQueueFullException}.
+     */
+    public int maxPendingConnectionAcquisitions()
+    {
+        return maxPendingConnectionAcquisitions;
+    }
+
+    /**
+     * @return the lower bound of the adaptive connection pool size, or a negative value when the pool size is fixed.
+     */
+    public int minConnectionPoolSize()
+    {
+        return minConnectionPoolSize;
+    }
+
+    /**
+     * @return the maximum amount of auto-commit read queries that can share a single connection, {@code 1} when
+     * queries do not share connections.
+     */
+    public int maxMultiplexedQueriesPerConnection()
+    {
+        return maxMultiplexedQueriesPerConnection;
+    }
+
+    /**
+     * @return the default record buffer watermarks of results.
+     */
+    public RecordBufferWatermarks recordBufferWatermarks()
+    {
+        return recordBufferWatermarks;
+    }
+
+    /**
+     * @return {@code true} if auto-commit queries postpone fetching of records until they are requested,
+     * {@code false} otherwise.
+     */
+    public boolean deferredPull()
+    {
+        return deferredPull;
+    }
+
     /**
      * @return the level of encryption required for all connections.
      */
@@ -226,6 +298,33 @@ public class Config
         return loadBalancingStrategy;
     }
 
+    /**
+     * @return the zone the application runs in, or {@code null} when not configured.
+     */
+    @Experimental
+    public String localZone()
+    {
+        return localZone;
+    }
+
+    /**
+     * @return unmodifiable map from server address, either {@code host} or {@code host:port}, to its zone.
+     */
+    @Experimental
+    public Map<String,String> serverZones()
+    {
+        return serverZones;
+    }
+
+    /**
+     * @return the file routing table is persisted in, or {@code null} when not configured.
+     */
+    @Experimental
+    public File routingTableCacheFile()
+    {
+        return routingTableCacheFile;
+    }
+
     /**
      * Return a {@link ConfigBuilder} instance
      * @return a {@link ConfigBuilder} instance
@@ -245,7 +344,9 @@ public class Config
 
     RoutingSettings routingSettings()
     {
-        return new RoutingSettings( routingFailureLimit, routingRetryDelayMillis );
+        return new RoutingSettings( routingFailureLimit, routingRetryDelayMillis, RoutingContext.EMPTY,
+                routingTableRefreshFraction, routingLookupHedgeDelayMillis, circuitBreakerFailureRate,
+                circuitBreakerOpenDurationMillis );
     }
 
     RetrySettings retrySettings()
@@ -264,11 +365,23 @@ public class Config
         private long idleTimeBeforeConnectionTest = PoolSettings.DEFAULT_IDLE_TIME_BEFORE_CONNECTION_TEST;
         private long maxConnectionLifetimeMillis = PoolSettings.DEFAULT_MAX_CONNECTION_LIFETIME;
         private long connectionAcquisitionTimeoutMillis = PoolSettings.DEFAULT_CONNECTION_ACQUISITION_TIMEOUT;
+        private int maxPendingConnectionAcquisitions = PoolSettings.DEFAULT_MAX_PENDING_ACQUISITIONS;
+        private int minConnectionPoolSize = PoolSettings.DEFAULT_MIN_CONNECTION_POOL_SIZE;
+        private int maxMultiplexedQueriesPerConnection = 1;
+        private RecordBufferWatermarks recordBufferWatermarks = RecordBufferWatermarks.DEFAULT;
+        private boolean deferredPull;
         private boolean encrypted = true;
         private TrustStrategy trustStrategy = trustAllCertificates();
         private LoadBalancingStrategy loadBalancingStrategy = LoadBalancingStrategy.LEAST_CONNECTED;
+        private String localZone;
+        private final Map<String,String> serverZones = new LinkedHashMap<>();
         private int routingFailureLimit = RoutingSettings.DEFAULT.maxRoutingFailures();
         private long routingRetryDelayMillis = RoutingSettings.DEFAULT.retryTimeoutDelay();
+        private double routingTableRefreshFraction = RoutingSettings.DEFAULT.routingTableRefreshFraction();
+        private long routingLookupHedgeDelayMillis = RoutingSettings.DEFAULT.lookupHedgeDelay();
+        private double circuitBreakerFailureRate = RoutingSettings.DEFAULT.circuitBreakerFailureRate();
+        private long circuitBreakerOpenDurationMillis = RoutingSettings.DEFAULT.circuitBreakerOpenDuration();
+        private File routingTableCacheFile;
         private int connectionTimeoutMillis = (int) TimeUnit.SECONDS.toMillis( 5 );
         private RetrySettings retrySettings = RetrySettings.DEFAULT;
 
@@ -302,6 +415,52 @@ public class Config
             return this;
         }
 
+        /**
+         * Specify the zone, for example a data center or an availability zone, this application runs in. Used by
+         * the {@link LoadBalancingStrategy#LOCALITY_AWARE} load balancing strategy together with zones of servers
+         * configured using {@link #withServerZone(String, String)}.
+         *
+         * @param zone the name of the local zone.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withLocalZone( String zone )
+        {
+            if ( zone == null || zone.isEmpty() )
+            {
+                throw new IllegalArgumentException( "Local zone must not be empty, but was: '" + zone + "'" );
+            }
+            this.localZone = zone;
+            return this;
+        }
+
+        /**
+         * Specify the zone of a cluster member. Address should be either {@code host} to match all ports of the
+         * given host or {@code host:port} to match a single server. Addresses should be the same as returned by the
+         * routing procedure, i.e. as advertised by cluster members. Servers without a configured zone are
+         * considered remote.
+         *
+         * @param address the address of the server.
+         * @param zone the name of the zone the server is in.
+         * @return this builder
+         * @see #withLocalZone(String)
+         */
+        @Experimental
+        public ConfigBuilder withServerZone( String address, String zone )
+        {
+            if ( address == null || address.isEmpty() )
+            {
+                throw new IllegalArgumentException( "Server address must not be empty, but was: '" + address + "'" );
+            }
+            if ( zone == null || zone.isEmpty() )
+            {
+                throw new IllegalArgumentException( "Zone of server '" + address + "' must not be empty, but was: '" +
+                                                    zone + "'" );
+            }
+            this.serverZones.put( address, zone );
+            return this;
+        }
+
         /**
          * Enable logging of leaked sessions.
          * <p>
@@ -512,6 +671,160 @@ public class Config
             return this;
         }
 
+        /**
+         * Configure maximum amount of connection acquisitions that can wait for a connection towards a single
+         * database when the connection pool is exhausted. Acquisitions that exceed this limit fail immediately with
+         * {@link org.neo4j.driver.v1.exceptions.AcquisitionQueueFullException} instead of waiting for the
+         * {@linkplain #withConnectionAcquisitionTimeout(long, TimeUnit) acquisition timeout} to expire.
+         * <p>
+         * Bounding the amount of waiting acquisitions helps an overloaded application to shed load early and keeps
+         * the latency of accepted requests predictable.
+         * <p>
+         * Waiting acquisitions are served in {@linkplain AcquisitionPriority priority} order.
+         * <p>
+         * By default amount of waiting acquisitions is not limited. Negative values are allowed and result in
+         * unlimited amount. Value of {@code 0} is not allowed.
+         *
+         * @param value the maximum amount of waiting connection acquisitions.
+         * @return this builder
+         * @see #withMaxConnectionPoolSize(int)
+         * @see #withConnectionAcquisitionTimeout(long, TimeUnit)
+         */
+        @Experimental
+        public ConfigBuilder withMaxPendingConnectionAcquisitions( int value )
+        {
+            if ( value == 0 )
+            {
+                throw new IllegalArgumentException( "Zero value is not supported" );
+            }
+            else if ( value < 0 )
+            {
+                this.maxPendingConnectionAcquisitions = Integer.MAX_VALUE;
+            }
+            else
+            {
+                this.maxPendingConnectionAcquisitions = value;
+            }
+            return this;
+        }
+
+        /**
+         * Enable adaptive sizing of connection pools and configure the smallest size a pool can shrink to. Without
+         * this setting, amount of connections towards a single database is limited by a fixed
+         * {@linkplain #withMaxConnectionPoolSize(int) maximum connection pool size}.
+         * <p>
+         * With adaptive sizing, the limit of every pool moves between the configured minimum and maximum size. The
+         * driver periodically looks at how long connection acquisitions wait and for how long connections are used.
+         * Limit grows when acquisitions have to wait for a connection and the database keeps responding as fast as
+         * before. It does not grow when response times increase because more connections would only put more load on
+         * an already busy database. Limit shrinks slowly when fewer connections are needed and idle connections above
+         * the limit are closed. This keeps the amount of open connections close to what the application actually
+         * uses.
+         * <p>
+         * Pools start with the maximum size. Minimum size larger than the maximum connection pool size is treated
+         * as equal to the maximum. Adaptive sizing is disabled by default. Zero and negative values are not allowed.
+         *
+         * @param value the minimum connection pool size.
+         * @return this builder
+         * @see #withMaxConnectionPoolSize(int)
+         */
+        @Experimental
+        public ConfigBuilder withMinConnectionPoolSize( int value )
+        {
+            if ( value <= 0 )
+            {
+                throw new IllegalArgumentException( "Minimum connection pool size must be positive, but was: " + value );
+            }
+            this.minConnectionPoolSize = value;
+            return this;
+        }
+
+        /**
+         * Configure maximum amount of auto-commit read queries that can be executed concurrently on a single
+         * connection. Such queries are executed by {@link Session#run(String) Session#run} methods of sessions
+         * created with {@link AccessMode#READ read} access mode.
+         * <p>
+         * Bolt protocol allows the driver to send multiple queries over a single connection without waiting for
+         * responses. With this setting, independent read queries from different sessions share a connection and
+         * their results are received in the order the queries were sent. This reduces the amount of connections
+         * needed to keep a database busy. Query that is ignored by the database because a preceding query on the
+         * same connection failed is executed again.
+         * <p>
+         * Records of a query are only received after all records of preceding queries on the same connection, so
+         * results of queries on a shared connection are buffered in memory completely, regardless of the configured
+         * {@link #withRecordBufferWatermarks(RecordBufferWatermarks) record buffer watermarks}.
+         * {@link Session#reset()} does not interrupt queries executed on a shared connection. Transactions never
+         * share connections.
+         * <p>
+         * Default value is {@code 1}, which means that queries do not share connections. Zero and negative values
+         * are not allowed.
+         *
+         * @param value the maximum amount of queries per connection.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withMaxMultiplexedQueriesPerConnection( int value )
+        {
+            if ( value <= 0 )
+            {
+                throw new IllegalArgumentException(
+                        "Maximum amount of queries per connection must be positive, but was: " + value );
+            }
+            this.maxMultiplexedQueriesPerConnection = value;
+            return this;
+        }
+
+        /**
+         * Configure how many records the driver buffers in memory for a single result when records arrive from the
+         * network faster than they are consumed. Reading from the network connection is paused when the buffer
+         * grows above the high watermark and resumed when it shrinks below the low watermark.
+         * <p>
+         * Watermarks expressed in bytes bound the memory used by results with large records. Watermarks expressed
+         * in amount of records bound the memory used by results with small records. Watermarks can be changed for
+         * individual sessions using {@link SessionOptions#withRecordBufferWatermarks(RecordBufferWatermarks)}.
+         * <p>
+         * Default value is {@link RecordBufferWatermarks#DEFAULT}. Value must not be {@code null}.
+         *
+         * @param watermarks the record buffer watermarks.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRecordBufferWatermarks( RecordBufferWatermarks watermarks )
+        {
+            if ( watermarks == null )
+            {
+                throw new IllegalArgumentException( "Record buffer watermarks must not be null" );
+            }
+            this.recordBufferWatermarks = watermarks;
+            return this;
+        }
+
+        /**
+         * Configure auto-commit queries executed using {@link Session#run(Statement)} to postpone fetching of records
+         * until the result is read. Result that is only consumed, for example using
+         * {@link StatementResult#consume()}, then makes the database discard records instead of sending them over the
+         * network. This saves bandwidth for write queries with large results that are never read, at the cost of an
+         * additional network round-trip for results that are read.
+         * <p>
+         * Queries executed in transactions always fetch records right away. When
+         * {@link #withMaxMultiplexedQueriesPerConnection(int) multiplexing} is used, setting has no effect on
+         * {@link AccessMode#READ read} sessions whose queries share connections, they fetch records right away.
+         * {@link AccessMode#WRITE Write} sessions never share connections and are always affected.
+         * <p>
+         * Can be overridden for a single session using {@link SessionOptions#withDeferredPull(boolean)}.
+         * <p>
+         * Disabled by default.
+         *
+         * @param value {@code true} to postpone fetching of records, {@code false} otherwise.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withDeferredPull( boolean value )
+        {
+            this.deferredPull = value;
+            return this;
+        }
+
         /**
          * Configure the {@link EncryptionLevel} to use, use this to control wether the driver uses TLS encryption or not.
          * @param level the TLS level to use
@@ -644,6 +957,130 @@ public class Config
             return this;
         }
 
+        /**
+         * Enable background refresh of the routing table. Routing table received from the cluster is valid for a
+         * time-to-live (TTL) configured on the server. By default it is refreshed only when a session needs it and
+         * finds it expired, which makes that session wait for the cluster composition to be fetched.
+         * <p>
+         * With this setting the driver refreshes the routing table on its event loop after the given fraction of the
+         * TTL has passed. For example, with a fraction of {@code 0.5} and a TTL of 300 seconds the routing table is
+         * refreshed every 150 seconds and sessions never find it expired during normal operation. Routing table is
+         * still refreshed on demand when background refresh fails or the table is missing readers or writers.
+         * <p>
+         * Background refresh is disabled by default. Only applicable to the routing driver.
+         *
+         * @param fraction the fraction of the TTL after which routing table is refreshed, must be greater than
+         * {@code 0} and less than {@code 1}.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingTableRefreshFraction( double fraction )
+        {
+            if ( !(fraction > 0 && fraction < 1) )
+            {
+                throw new IllegalArgumentException(
+                        "The routing table refresh fraction must be greater than 0 and less than 1, but was: " +
+                        fraction );
+            }
+            this.routingTableRefreshFraction = fraction;
+            return this;
+        }
+
+        /**
+         * Enable hedged lookup of the routing table. By default known routers are queried one after another and the
+         * next router is queried only when the previous one failed. A router that does not respond makes the lookup
+         * wait for the {@linkplain #withConnectionTimeout(long, TimeUnit) connection timeout} before the next router
+         * is tried.
+         * <p>
+         * With this setting the next router is queried when the previous one did not respond within the given delay,
+         * without cancelling the previous query. The first routing table received is used and routers that were not
+         * queried yet are skipped. Delay of {@code 0} makes the driver query all known routers in parallel. This
+         * makes failover faster, for example during a leader election, at the cost of additional load on routers.
+         * <p>
+         * Hedged lookup is disabled by default. Only applicable to the routing driver.
+         *
+         * @param delay the delay before the next router is queried, must not be negative.
+         * @param unit the unit in which the delay is given.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingLookupHedgeDelay( long delay, TimeUnit unit )
+        {
+            long delayMillis = unit.toMillis( delay );
+            if ( delayMillis < 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The routing lookup hedge delay may not be smaller than 0, but was %d %s.", delay, unit ) );
+            }
+            this.routingLookupHedgeDelayMillis = delayMillis;
+            return this;
+        }
+
+        /**
+         * Enable per-server circuit breakers. By default a server that fails to provide a connection is only removed
+         * from the routing table and the next rediscovery puts it right back when the cluster still reports it. This
+         * makes a flapping server keep receiving traffic.
+         * <p>
+         * With this setting the driver tracks outcomes of recent requests towards every server. Server is ejected
+         * from load balancing when the given fraction of its recent requests failed. Ejected server receives no
+         * traffic for the given duration, after which a single probe request is sent to it. Successful probe brings
+         * the server back and failed probe ejects it for another period. State of circuit breakers is exposed in
+         * connection pool metrics.
+         * <p>
+         * Circuit breakers are disabled by default. Only applicable to the routing driver.
+         *
+         * @param failureRate the fraction of failed requests after which a server is ejected, must be greater than
+         * {@code 0} and not greater than {@code 1}.
+         * @param openDuration the duration for which a server is ejected, must be greater than {@code 0}.
+         * @param unit the unit in which the duration is given.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withCircuitBreaker( double failureRate, long openDuration, TimeUnit unit )
+        {
+            if ( !(failureRate > 0 && failureRate <= 1) )
+            {
+                throw new IllegalArgumentException(
+                        "The circuit breaker failure rate must be greater than 0 and not greater than 1, but was: " +
+                        failureRate );
+            }
+            long openDurationMillis = unit.toMillis( openDuration );
+            if ( openDurationMillis <= 0 )
+            {
+                throw new IllegalArgumentException( String.format(
+                        "The circuit breaker open duration must be greater than 0, but was %d %s.", openDuration,
+                        unit ) );
+            }
+            this.circuitBreakerFailureRate = failureRate;
+            this.circuitBreakerOpenDurationMillis = openDurationMillis;
+            return this;
+        }
+
+        /**
+         * Persist the routing table in the given file. By default a new routing driver knows only the initial router
+         * and has to fetch the routing table before it can serve the first request.
+         * <p>
+         * With this setting the driver writes addresses of cluster members to the file every time they change. A new
+         * driver created with the same file and the same initial router loads them on start, uses them right away and
+         * fetches the real routing table in background. Loaded routing table is only used for a short time, because it
+         * might be outdated. Errors reading or writing the file are logged and otherwise ignored.
+         * <p>
+         * Routing table is not persisted by default. Only applicable to the routing driver.
+         *
+         * @param file the file to persist the routing table in, will be created if it does not exist.
+         * @return this builder
+         */
+        @Experimental
+        public ConfigBuilder withRoutingTableCache( File file )
+        {
+            if ( file == null )
+            {
+                throw new IllegalArgumentException( "Routing table cache file must not be null" );
+            }
+            this.routingTableCacheFile = file;
+            return this;
+        }
+
         /**
          * Specify socket connection timeout.
          * <p>
@@ -732,7 +1169,18 @@ public class Config
     public enum LoadBalancingStrategy
     {
         ROUND_ROBIN,
-        LEAST_CONNECTED
+        LEAST_CONNECTED,
+        /**
+         * Prefer servers with lower average response latency and fewer active connections. Two random servers are
+         * compared for every selection.
+         */
+        LATENCY_AWARE,
+        /**
+         * Prefer servers in the {@linkplain ConfigBuilder#withLocalZone(String) local zone} and select the least
+         * connected one among them. Servers in other zones are used only when there are no local servers or all
+         * local servers have all connections allowed by their pool size limit in use.
+         */
+        LOCALITY_AWARE
     }
 
     /**
@@ -18,7 +18,12 @@
  */
 package org.neo4j.driver.v1;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.util.Experimental;
 
 /**
  * Accessor for a specific Neo4j graph database.
@@ -138,6 +143,52 @@ public interface Driver extends AutoCloseable
      */
     Session session( AccessMode mode, Iterable<String> bookmarks );
 
+    /**
+     * Create a new {@link Session} for a specific type of work with the specified initial bookmarks and options.
+     * Options can override the connection acquisition priority, the connection acquisition timeout and the record
+     * buffer watermarks configured for this driver, for the created session only.
+     *
+     * @param mode the type of access required by units of work in this session,
+     * e.g. {@link AccessMode#READ read access} or {@link AccessMode#WRITE write access}.
+     * @param bookmarks initial references to some previous transactions. Both {@code null} value and empty iterable
+     * are permitted, and indicate that the bookmarks do not exist or are unknown.
+     * @param options the options of the session.
+     * @return a new {@link Session} object.
+     * @see SessionOptions
+     */
+    @Experimental
+    Session session( AccessMode mode, Iterable<String> bookmarks, SessionOptions options );
+
+    /**
+     * Execute the given independent read statements in parallel over all servers that currently accept reads and
+     * stream their records to the given action.
+     * <p>
+     * This method is meant for partitioned reads, like analytical queries split into ranges of node identifiers.
+     * Every statement is executed as an auto-commit query on one of the readers from the routing table. At most
+     * {@code maxConcurrencyPerServer} statements run on a single server at the same time. Servers that complete
+     * their statements faster pick up more of the remaining ones. Direct driver executes all statements on its only
+     * server.
+     * <p>
+     * Records of different statements are interleaved in no particular order. The action is invoked by one thread
+     * at a time, but not always by the same thread. It is executed by threads of the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common fork-join pool} and should not block for long,
+     * because that would delay other users of the pool.
+     * <p>
+     * Statements that fail because their server became unavailable before they returned any records are executed
+     * again on other readers. Execution stops taking new statements after the first other failure. Returned stage is
+     * then completed exceptionally with that failure as soon as statements that are already running complete.
+     *
+     * @param statements the read statements to execute.
+     * @param maxConcurrencyPerServer maximum number of statements that execute on a single server at the same time.
+     * Should be positive.
+     * @param action the function to be applied to every record of every statement.
+     * @return a {@link CompletionStage completion stage} completed with result summaries in the order of the given
+     * statements when all statements are executed and all records are consumed.
+     */
+    @Experimental
+    CompletionStage<List<ResultSummary>> readAllAsync( List<Statement> statements, int maxConcurrencyPerServer,
+            Consumer<Record> action );
+
     /**
      * Close all the resources assigned to this driver, including open connections and IO threads.
      * <p>
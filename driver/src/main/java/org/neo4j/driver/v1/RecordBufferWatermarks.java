@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+import static java.lang.String.format;
+
+/**
+ * Limits the amount of records that the driver buffers in memory for a single result when records arrive from the
+ * network faster than they are consumed.
+ * <p>
+ * The driver stops reading from the network connection when the buffer of a result grows above a high watermark and
+ * resumes reading when the buffer shrinks below the low watermark again. Watermarks are expressed both in amount of
+ * records and in bytes. Byte size of a record is the size of the RECORD message received from the network. The
+ * driver stops reading when any of the high watermarks is exceeded and resumes reading when the buffer is below both
+ * low watermarks.
+ * <p>
+ * Watermarks are only applied to results that are consumed incrementally. Methods that need all records at once,
+ * like {@link StatementResult#list()}, buffer the whole result regardless of these limits. Such results can be
+ * {@link #withSpillToDisk(long) spilled to disk} once they exceed a byte threshold, so that they can be received
+ * completely without holding all records on the heap.
+ * <p>
+ * Results that are small in bytes but have many records can be {@link #withEagerBuffering(long) buffered eagerly}.
+ * Such results are received completely regardless of the record watermarks, which allows the connection to be
+ * released as soon as the result has been received, even if records are consumed slowly.
+ *
+ * @see Config.ConfigBuilder#withRecordBufferWatermarks(RecordBufferWatermarks)
+ * @see SessionOptions#withRecordBufferWatermarks(RecordBufferWatermarks)
+ * @since 1.7
+ */
+@Experimental
+public final class RecordBufferWatermarks
+{
+    private static final int DEFAULT_LOW_RECORDS = 300;
+    private static final int DEFAULT_HIGH_RECORDS = 1000;
+
+    /**
+     * Default watermarks of {@code 300} and {@code 1000} records without a limit on the byte size of the buffer.
+     * Record counts can be changed using system properties {@code recordBufferLowWatermark} and
+     * {@code recordBufferHighWatermark}. Invalid values of these properties are ignored.
+     */
+    public static final RecordBufferWatermarks DEFAULT = recordsOrDefault(
+            Integer.getInteger( "recordBufferLowWatermark", DEFAULT_LOW_RECORDS ),
+            Integer.getInteger( "recordBufferHighWatermark", DEFAULT_HIGH_RECORDS ) );
+
+    private final int lowRecords;
+    private final int highRecords;
+    private final long lowBytes;
+    private final long highBytes;
+    private final long spillThresholdBytes;
+    private final long eagerBytes;
+
+    private RecordBufferWatermarks( int lowRecords, int highRecords, long lowBytes, long highBytes,
+            long spillThresholdBytes, long eagerBytes )
+    {
+        this.lowRecords = lowRecords;
+        this.highRecords = highRecords;
+        this.lowBytes = lowBytes;
+        this.highBytes = highBytes;
+        this.spillThresholdBytes = spillThresholdBytes;
+        this.eagerBytes = eagerBytes;
+    }
+
+    /**
+     * Create watermarks expressed in amount of records, without a limit on the byte size of the buffer.
+     *
+     * @param low the amount of buffered records below which reading from the network is resumed.
+     * @param high the amount of buffered records above which reading from the network is paused.
+     * @return new watermarks.
+     * @throws IllegalArgumentException when low watermark is not positive or greater than the high watermark.
+     */
+    public static RecordBufferWatermarks records( int low, int high )
+    {
+        assertValid( low, high, "records" );
+        return new RecordBufferWatermarks( low, high, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 0 );
+    }
+
+    /**
+     * Create a copy of these watermarks that additionally limits the byte size of the buffer.
+     *
+     * @param low the amount of buffered bytes below which reading from the network is resumed.
+     * @param high the amount of buffered bytes above which reading from the network is paused.
+     * @return new watermarks.
+     * @throws IllegalArgumentException when low watermark is not positive or greater than the high watermark.
+     */
+    public RecordBufferWatermarks withBytes( long low, long high )
+    {
+        assertValid( low, high, "bytes" );
+        return new RecordBufferWatermarks( lowRecords, highRecords, low, high, spillThresholdBytes, eagerBytes );
+    }
+
+    /**
+     * Create a copy of these watermarks that writes records to a temporary file once the buffer of a result holds
+     * more than the given amount of bytes. All further records of the result are then written to the file and read
+     * back from it after the whole result has been received. File is deleted when all its records are consumed or
+     * when the result is discarded.
+     * <p>
+     * Only results that are fully buffered are spilled, for example by {@link StatementResult#list()} or when the
+     * next statement is executed before the previous result is consumed. Results that are consumed incrementally are
+     * bounded by the watermarks instead. Files are written by a background thread. Disk is never used by default.
+     *
+     * @param thresholdBytes the amount of buffered bytes above which records are written to disk.
+     * @return new watermarks.
+     * @throws IllegalArgumentException when the threshold is not positive.
+     */
+    public RecordBufferWatermarks withSpillToDisk( long thresholdBytes )
+    {
+        if ( thresholdBytes <= 0 )
+        {
+            throw new IllegalArgumentException( "Record buffer spill threshold in bytes should be positive, but was: " +
+                                                thresholdBytes );
+        }
+        return new RecordBufferWatermarks( lowRecords, highRecords, lowBytes, highBytes, thresholdBytes, eagerBytes );
+    }
+
+    /**
+     * Create a copy of these watermarks that ignores the record watermarks while the buffer of a result holds at most
+     * the given amount of bytes. Results smaller than this are read from the network completely, without waiting for
+     * records to be consumed, so that the connection can be released early. Byte watermarks, if any, still apply.
+     *
+     * @param maxBytes the amount of buffered bytes up to which records are read regardless of the record watermarks.
+     * @return new watermarks.
+     * @throws IllegalArgumentException when the amount of bytes is not positive.
+     */
+    public RecordBufferWatermarks withEagerBuffering( long maxBytes )
+    {
+        if ( maxBytes <= 0 )
+        {
+            throw new IllegalArgumentException( "Record buffer eager limit in bytes should be positive, but was: " +
+                                                maxBytes );
+        }
+        return new RecordBufferWatermarks( lowRecords, highRecords, lowBytes, highBytes, spillThresholdBytes,
+                maxBytes );
+    }
+
+    /**
+     * @return the amount of buffered records below which reading from the network is resumed.
+     */
+    public int lowRecords()
+    {
+        return lowRecords;
+    }
+
+    /**
+     * @return the amount of buffered records above which reading from the network is paused.
+     */
+    public int highRecords()
+    {
+        return highRecords;
+    }
+
+    /**
+     * @return the amount of buffered bytes below which reading from the network is resumed,
+     * {@link Long#MAX_VALUE} when byte size of the buffer is not limited.
+     */
+    public long lowBytes()
+    {
+        return lowBytes;
+    }
+
+    /**
+     * @return the amount of buffered bytes above which reading from the network is paused,
+     * {@link Long#MAX_VALUE} when byte size of the buffer is not limited.
+     */
+    public long highBytes()
+    {
+        return highBytes;
+    }
+
+    /**
+     * @return {@code true} when byte size of the buffer is limited, {@code false} otherwise.
+     */
+    public boolean limitsBytes()
+    {
+        return highBytes != Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the amount of buffered bytes above which records are written to disk,
+     * {@link Long#MAX_VALUE} when records are never written to disk.
+     */
+    public long spillThresholdBytes()
+    {
+        return spillThresholdBytes;
+    }
+
+    /**
+     * @return {@code true} when records can be written to disk, {@code false} otherwise.
+     */
+    public boolean spillsToDisk()
+    {
+        return spillThresholdBytes != Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the amount of buffered bytes up to which record watermarks are ignored,
+     * {@code 0} when records are not buffered eagerly.
+     */
+    public long eagerBytes()
+    {
+        return eagerBytes;
+    }
+
+    /**
+     * @return {@code true} when small results are buffered eagerly, {@code false} otherwise.
+     */
+    public boolean buffersEagerly()
+    {
+        return eagerBytes != 0;
+    }
+
+    /**
+     * @return {@code true} when byte size of buffered records has to be known, {@code false} otherwise.
+     */
+    public boolean tracksBytes()
+    {
+        return limitsBytes() || spillsToDisk() || buffersEagerly();
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        RecordBufferWatermarks that = (RecordBufferWatermarks) o;
+        return lowRecords == that.lowRecords && highRecords == that.highRecords &&
+               lowBytes == that.lowBytes && highBytes == that.highBytes &&
+               spillThresholdBytes == that.spillThresholdBytes && eagerBytes == that.eagerBytes;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = lowRecords;
+        result = 31 * result + highRecords;
+        result = 31 * result + Long.hashCode( lowBytes );
+        result = 31 * result + Long.hashCode( highBytes );
+        result = 31 * result + Long.hashCode( spillThresholdBytes );
+        result = 31 * result + Long.hashCode( eagerBytes );
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "RecordBufferWatermarks{lowRecords=%d, highRecords=%d, lowBytes=%d, highBytes=%d, " +
+                       "spillThresholdBytes=%d, eagerBytes=%d}",
+                lowRecords, highRecords, lowBytes, highBytes, spillThresholdBytes, eagerBytes );
+    }
+
+    static RecordBufferWatermarks recordsOrDefault( int low, int high )
+    {
+        try
+        {
+            return records( low, high );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // invalid system properties should not make this class, and so the whole driver, unusable
+            return records( DEFAULT_LOW_RECORDS, DEFAULT_HIGH_RECORDS );
+        }
+    }
+
+    private static void assertValid( long low, long high, String unit )
+    {
+        if ( low <= 0 || low > high )
+        {
+            throw new IllegalArgumentException( "Record buffer watermarks in " + unit + " should be positive " +
+                                                "and low should not exceed high, but were: " + low + " and " + high );
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.v1.util.Experimental;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Options of a single {@link Session} that override the driver {@link Config configuration} for this session only.
+ * <p>
+ * Options are immutable. {@link #DEFAULT Default options} use {@link AcquisitionPriority#NORMAL normal} connection
+ * acquisition priority and the configured connection acquisition timeout, record buffer watermarks and deferred pull
+ * setting. Every
+ * {@code withX} method creates a copy with a single option changed:
+ * <pre>
+ * {@code
+ * SessionOptions options = SessionOptions.DEFAULT
+ *         .withAcquisitionPriority( AcquisitionPriority.HIGH )
+ *         .withAcquisitionTimeout( 100, TimeUnit.MILLISECONDS );
+ *
+ * try ( Session session = driver.session( AccessMode.READ, bookmarks, options ) )
+ * {
+ *     ...
+ * }
+ * }
+ * </pre>
+ *
+ * @see Driver#session(AccessMode, Iterable, SessionOptions)
+ * @since 1.7
+ */
+@Experimental
+public final class SessionOptions
+{
+    private static final long TIMEOUT_NOT_CONFIGURED = Long.MIN_VALUE;
+
+    /**
+     * Options that do not override anything configured for the driver.
+     */
+    public static final SessionOptions DEFAULT =
+            new SessionOptions( AcquisitionPriority.NORMAL, TIMEOUT_NOT_CONFIGURED, null, null );
+
+    private final AcquisitionPriority acquisitionPriority;
+    private final long acquisitionTimeoutMillis;
+    private final RecordBufferWatermarks recordBufferWatermarks;
+    private final Boolean deferredPull;
+
+    private SessionOptions( AcquisitionPriority acquisitionPriority, long acquisitionTimeoutMillis,
+            RecordBufferWatermarks recordBufferWatermarks, Boolean deferredPull )
+    {
+        this.acquisitionPriority = acquisitionPriority;
+        this.acquisitionTimeoutMillis = acquisitionTimeoutMillis;
+        this.recordBufferWatermarks = recordBufferWatermarks;
+        this.deferredPull = deferredPull;
+    }
+
+    /**
+     * Create a copy of these options with the given connection acquisition priority. When the connection pool is
+     * exhausted, sessions with a higher priority are handed a released connection before sessions with a lower
+     * priority.
+     *
+     * @param priority the priority of connection acquisitions performed by the session.
+     * @return new options.
+     * @throws NullPointerException when the priority is {@code null}.
+     */
+    public SessionOptions withAcquisitionPriority( AcquisitionPriority priority )
+    {
+        return new SessionOptions( requireNonNull( priority, "priority" ), acquisitionTimeoutMillis,
+                recordBufferWatermarks, deferredPull );
+    }
+
+    /**
+     * Create a copy of these options with the given connection acquisition timeout.
+     * <p>
+     * The given timeout overrides the {@linkplain Config.ConfigBuilder#withConnectionAcquisitionTimeout(long,
+     * TimeUnit) configured connection acquisition timeout} for the session. This allows latency sensitive callers to
+     * fail fast while background work waits longer for a connection.
+     * <p>
+     * Timeout is a per-session setting, not a deadline of a single call. It applies separately to every connection
+     * acquisition performed by the session, so a session that runs multiple queries or retries a transaction can
+     * wait for connections longer than the given timeout in total.
+     *
+     * @param value the connection acquisition timeout. Value of {@code 0} means that connection acquisition fails
+     * immediately when the pool is exhausted. Negative value means infinite timeout.
+     * @param unit the unit in which the timeout is given.
+     * @return new options.
+     */
+    public SessionOptions withAcquisitionTimeout( long value, TimeUnit unit )
+    {
+        long timeoutMillis = value >= 0 ? unit.toMillis( value ) : -1;
+        return new SessionOptions( acquisitionPriority, timeoutMillis, recordBufferWatermarks, deferredPull );
+    }
+
+    /**
+     * Create a copy of these options with the given record buffer watermarks. Watermarks limit how many records are
+     * buffered in memory for a single result of the session when records arrive faster than they are consumed.
+     * They override the {@linkplain Config.ConfigBuilder#withRecordBufferWatermarks(RecordBufferWatermarks)
+     * configured watermarks} for the session.
+     *
+     * @param watermarks the record buffer watermarks for results of the session, {@code null} to use the
+     * configured watermarks.
+     * @return new options.
+     * @see RecordBufferWatermarks
+     */
+    public SessionOptions withRecordBufferWatermarks( RecordBufferWatermarks watermarks )
+    {
+        return new SessionOptions( acquisitionPriority, acquisitionTimeoutMillis, watermarks, deferredPull );
+    }
+
+    /**
+     * Create a copy of these options that makes auto-commit queries of the session postpone fetching of records
+     * until the result is read. Overrides the {@linkplain Config.ConfigBuilder#withDeferredPull(boolean) configured
+     * setting} for the session.
+     *
+     * @param value {@code true} to postpone fetching of records, {@code false} otherwise.
+     * @return new options.
+     */
+    public SessionOptions withDeferredPull( boolean value )
+    {
+        return new SessionOptions( acquisitionPriority, acquisitionTimeoutMillis, recordBufferWatermarks, value );
+    }
+
+    /**
+     * @return the priority of connection acquisitions performed by the session.
+     */
+    public AcquisitionPriority acquisitionPriority()
+    {
+        return acquisitionPriority;
+    }
+
+    /**
+     * @return {@code true} when these options override the configured connection acquisition timeout,
+     * {@code false} otherwise.
+     */
+    public boolean hasAcquisitionTimeout()
+    {
+        return acquisitionTimeoutMillis != TIMEOUT_NOT_CONFIGURED;
+    }
+
+    /**
+     * @return the connection acquisition timeout in milliseconds, negative value means infinite timeout.
+     * Only meaningful when {@link #hasAcquisitionTimeout()} returns {@code true}.
+     */
+    public long acquisitionTimeoutMillis()
+    {
+        return acquisitionTimeoutMillis;
+    }
+
+    /**
+     * @return the record buffer watermarks for results of the session, {@code null} when configured watermarks
+     * should be used.
+     */
+    public RecordBufferWatermarks recordBufferWatermarks()
+    {
+        return recordBufferWatermarks;
+    }
+
+    /**
+     * @return whether auto-commit queries of the session postpone fetching of records, {@code null} when the
+     * configured setting should be used.
+     */
+    public Boolean deferredPull()
+    {
+        return deferredPull;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        SessionOptions that = (SessionOptions) o;
+        return acquisitionTimeoutMillis == that.acquisitionTimeoutMillis &&
+               acquisitionPriority == that.acquisitionPriority &&
+               Objects.equals( recordBufferWatermarks, that.recordBufferWatermarks ) &&
+               Objects.equals( deferredPull, that.deferredPull );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( acquisitionPriority, acquisitionTimeoutMillis, recordBufferWatermarks, deferredPull );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SessionOptions{" +
+               "acquisitionPriority=" + acquisitionPriority +
+               ", acquisitionTimeoutMillis=" + ( hasAcquisitionTimeout() ? acquisitionTimeoutMillis : "default" ) +
+               ", recordBufferWatermarks=" + ( recordBufferWatermarks == null ? "default" : recordBufferWatermarks ) +
+               ", deferredPull=" + ( deferredPull == null ? "default" : deferredPull ) +
+               '}';
+    }
+}
@@ -20,9 +20,11 @@ package org.neo4j.driver.v1;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.neo4j.driver.v1.exceptions.NoSuchRecordException;
 import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.util.Experimental;
 import org.neo4j.driver.v1.util.Function;
 import org.neo4j.driver.v1.util.Resource;
 
@@ -75,6 +77,17 @@ public interface StatementResult extends Iterator<Record>
      */
     @Override Record next();
 
+    /**
+     * Navigate to and retrieve up to {@code maxSize} next records in this result. Blocks until at least one record
+     * is available, does not wait for the batch to be full.
+     *
+     * @param maxSize the maximum amount of records to retrieve, should be positive.
+     * @return a list of at most {@code maxSize} records, empty when there are no records left in the stream.
+     * @throws IllegalArgumentException when given size is not positive.
+     */
+    @Experimental
+    List<Record> nextBatch( int maxSize );
+
     /**
      * Return the first record in the result, failing if there is not exactly
      * one record left in the stream
@@ -128,6 +141,53 @@ public interface StatementResult extends Iterator<Record>
      */
     <T> List<T> list( Function<Record, T> mapFunction );
 
+    /**
+     * Retrieve and store the entire result, mapping every record to an instance of the given class.
+     * <p>
+     * Class should have a constructor without parameters. Columns are assigned to fields or setter methods with the
+     * same name, columns without a matching field or setter are ignored. When none of the columns match and the
+     * result has a single map, node or relationship column, its entries are assigned instead. Binding of columns
+     * to fields is resolved once per result, so mapping does not create intermediate maps for every record.
+     * <p>
+     * Calling this method exhausts the result.
+     *
+     * @param type the class to map records to.
+     * @param <T> the type of result list elements
+     * @return list of all mapped remaining records
+     * @throws org.neo4j.driver.v1.exceptions.ClientException when records can't be mapped to the given class.
+     * @see #list(Function)
+     */
+    @Experimental
+    <T> List<T> list( Class<T> type );
+
+    /**
+     * Stream the remaining records of this result. Records are fetched as the returned stream is consumed.
+     * <p>
+     * Returned stream can be made {@link Stream#parallel() parallel}. Parallel stream hands off batches of records
+     * that have been received so far to different threads, which is beneficial when processing of every record is
+     * expensive. Records are still received from the network sequentially.
+     * <p>
+     * Closing the stream consumes the rest of the result, which allows the underlying connection to be released
+     * when the result was produced by an auto-commit query. It is recommended to use the stream in a
+     * try-with-resources block.
+     *
+     * @return stream of all remaining records.
+     */
+    @Experimental
+    Stream<Record> stream();
+
+    /**
+     * Lazily map remaining records to instances of the given class, the same way as {@link #list(Class)} does.
+     * Records are fetched as the returned stream is consumed. Closing the stream consumes the rest of the result.
+     *
+     * @param type the class to map records to.
+     * @param <T> the type of stream elements
+     * @return stream of all mapped remaining records
+     * @throws org.neo4j.driver.v1.exceptions.ClientException when records can't be mapped to the given class.
+     */
+    @Experimental
+    <T> Stream<T> stream( Class<T> type );
+
     /**
      * Consume the entire result, yielding a summary of it.
      *
@@ -25,7 +25,10 @@ import java.util.concurrent.Executor;
 import org.neo4j.driver.v1.exceptions.NoSuchRecordException;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.util.Consumer;
+import org.neo4j.driver.v1.util.Experimental;
 import org.neo4j.driver.v1.util.Function;
+import org.neo4j.driver.v1.util.Publisher;
+import org.neo4j.driver.v1.util.Subscription;
 
 /**
  * The result of asynchronous execution of a Cypher statement, conceptually an asynchronous stream of
@@ -89,6 +92,19 @@ public interface StatementResultCursor
      */
     CompletionStage<Record> nextAsync();
 
+    /**
+     * Asynchronously navigate to and retrieve up to {@code maxSize} next records in this result. Returned stage is
+     * completed as soon as at least one record is available, it does not wait for the batch to be full. This is
+     * cheaper than calling {@link #nextAsync()} for every record when records arrive faster than they are processed.
+     *
+     * @param maxSize the maximum amount of records to retrieve, should be positive.
+     * @return a {@link CompletionStage} completed with a list of at most {@code maxSize} records or an empty list when
+     * end of records stream has been reached. Stage can also be completed exceptionally if query execution fails.
+     * @throws IllegalArgumentException when given size is not positive.
+     */
+    @Experimental
+    CompletionStage<List<Record>> nextBatchAsync( int maxSize );
+
     /**
      * Asynchronously investigate the next upcoming {@link Record} without moving forward in the result. Returned
      * stage can contain {@code null} if end of records stream has been reached.
@@ -160,4 +176,21 @@ public interface StatementResultCursor
      * completed exceptionally if query execution or provided function fails.
      */
     <T> CompletionStage<List<T>> listAsync( Function<Record,T> mapFunction );
+
+    /**
+     * Expose remaining records of this result as a {@link Publisher}. Records are delivered to the subscriber
+     * according to the demand it signals via {@link Subscription#request(long)}. Reading from the network is paused
+     * when the subscriber does not keep up and the {@linkplain RecordBufferWatermarks record buffer} is full.
+     * {@link Subscription#cancel() Cancelling} the subscription discards all remaining records.
+     * <p>
+     * Subscriber is signalled by threads of the {@link java.util.concurrent.ForkJoinPool#commonPool() common
+     * fork-join pool} and should not block for long, because that would delay other users of the pool.
+     * <p>
+     * Publisher supports a single subscriber. This cursor should not be used to retrieve records after subscribing.
+     * Result summary is available via {@link #summaryAsync()} after the subscriber is completed.
+     *
+     * @return a publisher of remaining records of this result.
+     */
+    @Experimental
+    Publisher<Record> asPublisher();
 }
@@ -18,10 +18,12 @@
  */
 package org.neo4j.driver.v1;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import org.neo4j.driver.v1.util.Experimental;
 import org.neo4j.driver.v1.util.Resource;
 
 /**
@@ -101,6 +103,42 @@ public interface Transaction extends Resource, StatementRunner
      */
     void failure();
 
+    /**
+     * Run multiple statements in this transaction. All statements are sent to the database in a single network
+     * write, instead of one write per statement like repeated calls to {@link #run(Statement)} do. Statements are
+     * executed in the given order.
+     * <p>
+     * Failure of a statement makes all following statements fail as well. Failure is reported by the corresponding
+     * results and, same as with {@link #run(Statement)}, marks the transaction as failed.
+     *
+     * @param statements the statements to run.
+     * @return results of the given statements, in the same order.
+     */
+    @Experimental
+    List<StatementResult> runAll( List<Statement> statements );
+
+    /**
+     * Run multiple statements in this transaction in asynchronous fashion. All statements are sent to the database
+     * in a single network write and returned stage is completed when the database has responded to all of them.
+     * Completion of the returned stage costs a single network round-trip, regardless of the amount of statements.
+     * <p>
+     * Failure of a statement makes all following statements fail as well. Returned stage is completed normally in
+     * this case and failures are reported by the corresponding cursors, same as with {@link #runAsync(Statement)}.
+     * <p>
+     * Response to the last statement arrives after all records of the previous statements. Results of all
+     * statements but the last one are therefore received completely before the returned stage is completed,
+     * regardless of the {@linkplain RecordBufferWatermarks record buffer watermarks}.
+     * <p>
+     * Returned stage can be completed by an IO thread which should never block. Please see
+     * {@link #commitAsync()} for details.
+     *
+     * @param statements the statements to run.
+     * @return new {@link CompletionStage} that gets completed with cursors of the given statements, in the same
+     * order.
+     */
+    @Experimental
+    CompletionStage<List<StatementResultCursor>> runAllAsync( List<Statement> statements );
+
     /**
      * Closing the transaction will complete it - it will commit if {@link #success()} has been called.
      * When this method returns, all outstanding statements in the transaction are guaranteed to
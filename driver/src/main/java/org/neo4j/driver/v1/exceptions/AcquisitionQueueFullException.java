@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.exceptions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.v1.Config;
+
+/**
+ * An <em>AcquisitionQueueFullException</em> indicates that a connection could not be acquired because the connection
+ * pool is exhausted and too many parties are already waiting for a connection. Limit of waiting parties is configured
+ * using {@link Config.ConfigBuilder#withMaxPendingConnectionAcquisitions(int)}.
+ * <p>
+ * Unlike a timeout configured via {@link Config.ConfigBuilder#withConnectionAcquisitionTimeout(long, TimeUnit)}, this
+ * error is raised immediately, without waiting. It signals that the driver is overloaded and the operation can be
+ * retried later.
+ * @since 1.7
+ */
+public class AcquisitionQueueFullException extends ClientException
+{
+    public AcquisitionQueueFullException( String message )
+    {
+        super( message );
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.util;
+
+/**
+ * Provider of a potentially unbounded number of elements, published according to the demand received from its
+ * {@link Subscriber}.
+ * <p>
+ * This interface has the same shape and contract as {@code org.reactivestreams.Publisher} and
+ * {@code java.util.concurrent.Flow.Publisher}, so it can be adapted to any reactive library with a method
+ * reference. The driver does not depend on these APIs.
+ *
+ * @param <T> the type of published elements.
+ * @since 1.7
+ */
+@Experimental
+public interface Publisher<T>
+{
+    /**
+     * Request this publisher to start streaming elements to the given subscriber. A publisher of query results
+     * supports only a single subscriber, additional subscribers are notified with an {@link IllegalStateException}.
+     *
+     * @param subscriber the subscriber that will consume elements.
+     */
+    void subscribe( Subscriber<? super T> subscriber );
+}
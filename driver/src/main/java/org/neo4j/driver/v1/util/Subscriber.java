@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.util;
+
+/**
+ * Receiver of elements published by a {@link Publisher}. Elements are only delivered after they are requested
+ * using the {@link Subscription} given to {@link #onSubscribe(Subscription)}.
+ * <p>
+ * This interface has the same shape and contract as {@code org.reactivestreams.Subscriber}. Its methods are
+ * invoked one at a time, but not always by the same thread. Driver never invokes them from IO threads.
+ *
+ * @param <T> the type of received elements.
+ * @since 1.7
+ */
+@Experimental
+public interface Subscriber<T>
+{
+    /**
+     * Invoked once after {@link Publisher#subscribe(Subscriber)}. No elements are delivered until
+     * {@link Subscription#request(long)} is called.
+     *
+     * @param subscription the subscription to request elements with.
+     */
+    void onSubscribe( Subscription subscription );
+
+    /**
+     * Invoked with the next requested element.
+     *
+     * @param element the element.
+     */
+    void onNext( T element );
+
+    /**
+     * Invoked once when the stream fails. No other methods are invoked afterwards.
+     *
+     * @param error the failure.
+     */
+    void onError( Throwable error );
+
+    /**
+     * Invoked once when all elements were delivered. No other methods are invoked afterwards.
+     */
+    void onComplete();
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1.util;
+
+/**
+ * Link between a {@link Publisher} and a {@link Subscriber} used to signal demand and to cancel the stream.
+ * <p>
+ * This interface has the same shape and contract as {@code org.reactivestreams.Subscription}.
+ *
+ * @since 1.7
+ */
+@Experimental
+public interface Subscription
+{
+    /**
+     * Request up to {@code n} more elements. Demand is cumulative, {@link Long#MAX_VALUE} means unbounded demand.
+     * Non-positive values fail the stream with an {@link IllegalArgumentException}.
+     *
+     * @param n the amount of additionally requested elements.
+     */
+    void request( long n );
+
+    /**
+     * Stop delivery of elements. Elements that are not yet delivered are discarded.
+     */
+    void cancel();
+}
@@ -150,6 +150,28 @@ public class BookmarkTest
                 asList( "neo4j:bookmark:v1:tx41", null, "neo4j:bookmark:v1:tx42" ) );
     }
 
+    @Test
+    public void maxTransactionIdForEmptyBookmark()
+    {
+        assertEquals( Bookmark.UNKNOWN_TRANSACTION_ID, Bookmark.empty().maxTransactionId() );
+    }
+
+    @Test
+    public void maxTransactionIdForNonEmptyBookmark()
+    {
+        Bookmark bookmark = Bookmark.from( asList( "neo4j:bookmark:v1:tx7", "neo4j:bookmark:v1:tx42" ) );
+        assertEquals( 42, bookmark.maxTransactionId() );
+    }
+
+    @Test
+    public void transactionIdFromString()
+    {
+        assertEquals( 12, Bookmark.transactionId( "neo4j:bookmark:v1:tx12" ) );
+        assertEquals( Bookmark.UNKNOWN_TRANSACTION_ID, Bookmark.transactionId( "neo4j:bookmark:v1:txabc" ) );
+        assertEquals( Bookmark.UNKNOWN_TRANSACTION_ID, Bookmark.transactionId( "unknown-format" ) );
+        assertEquals( Bookmark.UNKNOWN_TRANSACTION_ID, Bookmark.transactionId( null ) );
+    }
+
     private static void verifyParameters( Bookmark bookmark, String expectedMaxValue, String... expectedValues )
     {
         verifyParameters( bookmark, expectedMaxValue, asList( expectedValues ) );
@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ConnectionProvider;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.util.Futures.failedFuture;
+import static org.neo4j.driver.internal.util.ServerVersion.v3_4_0;
+import static org.neo4j.driver.v1.Values.value;
+import static org.neo4j.driver.v1.util.TestUtil.await;
+import static org.neo4j.driver.v1.util.TestUtil.awaitCondition;
+
+public class BulkReaderTest
+{
+    private static final BoltServerAddress A = new BoltServerAddress( "server-a", 7687 );
+    private static final BoltServerAddress B = new BoltServerAddress( "server-b", 7687 );
+
+    private final List<PendingQuery> pendingQueries = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void shouldRejectNonPositiveConcurrency()
+    {
+        try
+        {
+            new BulkReader( mock( ConnectionProvider.class ), 0 );
+            fail( "Exception expected" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertThat( e.getMessage(), startsWith( "Maximum concurrency per server should be positive" ) );
+        }
+    }
+
+    @Test
+    public void shouldReturnNoSummariesWhenNoStatementsGiven()
+    {
+        ConnectionProvider connectionProvider = mock( ConnectionProvider.class );
+        BulkReader reader = new BulkReader( connectionProvider, 2 );
+
+        List<ResultSummary> summaries = await( reader.readAll( emptyList(), record -> fail( "No records expected" ) ) );
+
+        assertTrue( summaries.isEmpty() );
+        verifyZeroInteractions( connectionProvider );
+    }
+
+    @Test
+    public void shouldFailWhenNoReadersAvailable()
+    {
+        ConnectionProvider connectionProvider = connectionProvider();
+        when( connectionProvider.readers() ).thenReturn( completedFuture( new BoltServerAddress[0] ) );
+        BulkReader reader = new BulkReader( connectionProvider, 2 );
+
+        try
+        {
+            await( reader.readAll( singletonList( new Statement( "RETURN 1" ) ), record -> {} ) );
+            fail( "Exception expected" );
+        }
+        catch ( SessionExpiredException e )
+        {
+            assertThat( e.getMessage(), startsWith( "Failed to execute bulk read" ) );
+        }
+        verify( connectionProvider, never() ).acquireReaderConnection( any() );
+    }
+
+    @Test
+    public void shouldSpreadStatementsOverAllReaders()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A, B );
+        BulkReader reader = new BulkReader( connectionProvider, 1 );
+        List<Record> records = new ArrayList<>();
+
+        CompletableFuture<List<ResultSummary>> result =
+                reader.readAll( statements( 1, 2 ), records::add ).toCompletableFuture();
+
+        assertEquals( 2, pendingQueries.size() );
+        assertThat( addressesOf( pendingQueries ), containsInAnyOrder( A, B ) );
+
+        pendingQueries.get( 0 ).complete();
+        pendingQueries.get( 1 ).complete();
+
+        List<ResultSummary> summaries = await( result );
+        assertEquals( 2, summaries.size() );
+        assertEquals( statements( 1, 2 ).get( 0 ), summaries.get( 0 ).statement() );
+        assertEquals( statements( 1, 2 ).get( 1 ), summaries.get( 1 ).statement() );
+        assertEquals( 2, records.size() );
+    }
+
+    @Test
+    public void shouldLimitConcurrencyPerServer()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A );
+        BulkReader reader = new BulkReader( connectionProvider, 2 );
+        List<Record> records = new ArrayList<>();
+
+        CompletableFuture<List<ResultSummary>> result =
+                reader.readAll( statements( 1, 2, 3, 4, 5 ), records::add ).toCompletableFuture();
+
+        assertEquals( 2, pendingQueries.size() );
+
+        pendingQueries.get( 0 ).complete();
+        awaitCondition( () -> pendingQueries.size() == 3 );
+        assertEquals( 3, pendingQueries.size() );
+
+        for ( int i = 1; i < 5; i++ )
+        {
+            int expectedQueries = Math.min( i + 3, 5 );
+            assertFalse( result.isDone() );
+            pendingQueries.get( i ).complete();
+            awaitCondition( () -> pendingQueries.size() == expectedQueries );
+        }
+
+        List<ResultSummary> summaries = await( result );
+        assertEquals( 5, summaries.size() );
+        for ( int i = 0; i < 5; i++ )
+        {
+            assertEquals( "RETURN " + (i + 1), summaries.get( i ).statement().text() );
+        }
+        assertEquals( 5, records.size() );
+    }
+
+    @Test
+    public void shouldStopTakingStatementsAfterFailure()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A );
+        BulkReader reader = new BulkReader( connectionProvider, 1 );
+        ClientException error = new ClientException( "Neo.ClientError.Statement.SyntaxError", "Wrong query" );
+
+        CompletableFuture<List<ResultSummary>> result =
+                reader.readAll( statements( 1, 2, 3 ), record -> {} ).toCompletableFuture();
+
+        assertEquals( 1, pendingQueries.size() );
+        pendingQueries.get( 0 ).fail( error );
+
+        try
+        {
+            await( result );
+            fail( "Exception expected" );
+        }
+        catch ( ClientException e )
+        {
+            assertEquals( error, e );
+        }
+        assertEquals( 1, pendingQueries.size() );
+    }
+
+    @Test
+    public void shouldFailWhenConnectionCanNotBeAcquired()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A );
+        RuntimeException error = new RuntimeException( "Pool is closed" );
+        doReturn( failedFuture( error ) ).when( connectionProvider ).acquireReaderConnection( A );
+        BulkReader reader = new BulkReader( connectionProvider, 2 );
+
+        CompletableFuture<List<ResultSummary>> result =
+                reader.readAll( statements( 1, 2, 3 ), record -> {} ).toCompletableFuture();
+
+        try
+        {
+            await( result );
+            fail( "Exception expected" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( error, e );
+        }
+        assertTrue( pendingQueries.isEmpty() );
+    }
+
+    @Test
+    public void shouldExecuteStatementOnAnotherReaderWhenServerIsUnavailable()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A, B );
+        doReturn( failedFuture( new ServiceUnavailableException( "Server A is down" ) ) )
+                .when( connectionProvider ).acquireReaderConnection( A );
+        BulkReader reader = new BulkReader( connectionProvider, 1 );
+        List<Record> records = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<List<ResultSummary>> result =
+                reader.readAll( statements( 1, 2 ), records::add ).toCompletableFuture();
+
+        assertEquals( 1, pendingQueries.size() );
+        pendingQueries.get( 0 ).complete();
+        awaitCondition( () -> pendingQueries.size() == 2 );
+        pendingQueries.get( 1 ).complete();
+
+        List<ResultSummary> summaries = await( result );
+        assertEquals( "RETURN 1", summaries.get( 0 ).statement().text() );
+        assertEquals( "RETURN 2", summaries.get( 1 ).statement().text() );
+        assertEquals( asList( B, B ), addressesOf( pendingQueries ) );
+        assertEquals( 2, records.size() );
+    }
+
+    @Test
+    public void shouldFailWhenNoReaderIsAvailableToExecuteStatement()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A );
+        SessionExpiredException error = new SessionExpiredException( "Server A is down" );
+        doReturn( failedFuture( error ) ).when( connectionProvider ).acquireReaderConnection( A );
+        BulkReader reader = new BulkReader( connectionProvider, 1 );
+
+        try
+        {
+            await( reader.readAll( statements( 1, 2 ), record -> {} ) );
+            fail( "Exception expected" );
+        }
+        catch ( SessionExpiredException e )
+        {
+            assertEquals( error, e );
+        }
+        verify( connectionProvider ).acquireReaderConnection( A );
+    }
+
+    @Test
+    public void shouldDiscardRemainingRecordsWhenActionFails()
+    {
+        ConnectionProvider connectionProvider = connectionProvider( A );
+        BulkReader reader = new BulkReader( connectionProvider, 1 );
+        RuntimeException error = new RuntimeException( "Action failed" );
+        AtomicBoolean actionInvoked = new AtomicBoolean();
+
+        CompletableFuture<List<ResultSummary>> result = reader.readAll( statements( 1, 2 ), record ->
+        {
+            actionInvoked.set( true );
+            throw error;
+        } ).toCompletableFuture();
+
+        assertEquals( 1, pendingQueries.size() );
+        pendingQueries.get( 0 ).record();
+        awaitCondition( actionInvoked::get );
+
+        // failure is reported only when the remaining records are discarded and the connection can be released
+        assertFalse( result.isDone() );
+        pendingQueries.get( 0 ).complete();
+
+        try
+        {
+            await( result );
+            fail( "Exception expected" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( error, e );
+        }
+        assertEquals( 1, pendingQueries.size() );
+    }
+
+    private ConnectionProvider connectionProvider( BoltServerAddress... readers )
+    {
+        ConnectionProvider connectionProvider = mock( ConnectionProvider.class );
+        when( connectionProvider.readers() ).thenReturn( completedFuture( readers ) );
+        for ( BoltServerAddress address : readers )
+        {
+            when( connectionProvider.acquireReaderConnection( address ) )
+                    .thenAnswer( invocation -> completedFuture( connection( address ) ) );
+        }
+        return connectionProvider;
+    }
+
+    private Connection connection( BoltServerAddress address )
+    {
+        Connection connection = mock( Connection.class );
+        when( connection.serverAddress() ).thenReturn( address );
+        when( connection.serverVersion() ).thenReturn( v3_4_0 );
+        doAnswer( invocation ->
+        {
+            String query = invocation.getArgumentAt( 0, String.class );
+            ResponseHandler runHandler = invocation.getArgumentAt( 2, ResponseHandler.class );
+            ResponseHandler pullAllHandler = invocation.getArgumentAt( 3, ResponseHandler.class );
+            runHandler.onSuccess( singletonMap( "fields", value( singletonList( "x" ) ) ) );
+            pendingQueries.add( new PendingQuery( address, query, pullAllHandler ) );
+            return null;
+        } ).when( connection ).runAndFlush( any(), any(), any(), any() );
+        return connection;
+    }
+
+    private static List<Statement> statements( int... values )
+    {
+        List<Statement> statements = new ArrayList<>();
+        for ( int value : values )
+        {
+            statements.add( new Statement( "RETURN " + value ) );
+        }
+        return statements;
+    }
+
+    private static List<BoltServerAddress> addressesOf( List<PendingQuery> queries )
+    {
+        List<BoltServerAddress> addresses = new ArrayList<>();
+        for ( PendingQuery query : queries )
+        {
+            addresses.add( query.address );
+        }
+        return addresses;
+    }
+
+    private static class PendingQuery
+    {
+        final BoltServerAddress address;
+        final String query;
+        final ResponseHandler pullAllHandler;
+
+        PendingQuery( BoltServerAddress address, String query, ResponseHandler pullAllHandler )
+        {
+            this.address = address;
+            this.query = query;
+            this.pullAllHandler = pullAllHandler;
+        }
+
+        void record()
+        {
+            pullAllHandler.onRecord( new Value[]{value( query )} );
+        }
+
+        void complete()
+        {
+            record();
+            pullAllHandler.onSuccess( emptyMap() );
+        }
+
+        void fail( Throwable error )
+        {
+            pullAllHandler.onFailure( error );
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
@@ -74,6 +75,19 @@ public class DirectConnectionProviderTest
         assertEquals( address, provider.getAddress() );
     }
 
+    @Test
+    public void usesItsOnlyAddressAsReader()
+    {
+        BoltServerAddress address = new BoltServerAddress( "server-1", 25000 );
+        Connection connection = mock( Connection.class );
+        ConnectionPool pool = poolMock( address, connection );
+
+        DirectConnectionProvider provider = new DirectConnectionProvider( address, pool );
+
+        assertArrayEquals( new BoltServerAddress[]{address}, await( provider.readers() ) );
+        assertSame( connection, await( provider.acquireReaderConnection( address ) ) );
+    }
+
     @SuppressWarnings( "unchecked" )
     private static ConnectionPool poolMock( BoltServerAddress address, Connection connection,
             Connection... otherConnections )
@@ -33,6 +33,7 @@ import java.util.List;
 import org.neo4j.driver.internal.async.BootstrapFactory;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.cluster.loadbalancing.LoadBalancer;
+import org.neo4j.driver.internal.metrics.InternalAbstractMetrics;
 import org.neo4j.driver.internal.metrics.InternalMetrics;
 import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.metrics.spi.Metrics;
@@ -242,7 +243,7 @@ public class DriverFactoryTest
 
         @Override
         protected InternalDriver createRoutingDriver( SecurityPlan securityPlan, BoltServerAddress address, ConnectionPool connectionPool,
-                EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, Metrics metrics, Config config )
+                EventExecutorGroup eventExecutorGroup, RoutingSettings routingSettings, RetryLogic retryLogic, InternalAbstractMetrics metrics, Config config )
         {
             throw new UnsupportedOperationException( "Can't create routing driver" );
         }
@@ -268,7 +269,8 @@ public class DriverFactoryTest
 
         @Override
         protected LoadBalancer createLoadBalancer( BoltServerAddress address, ConnectionPool connectionPool,
-                EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings )
+                EventExecutorGroup eventExecutorGroup, Config config, RoutingSettings routingSettings,
+                MetricsListener metrics )
         {
             return null;
         }
@@ -19,16 +19,28 @@
 package org.neo4j.driver.internal;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.internal.util.ServerVersion;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.exceptions.ClientException;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -39,7 +51,11 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.v1.Values.value;
+import static org.neo4j.driver.v1.Values.values;
 import static org.neo4j.driver.v1.util.TestUtil.await;
 import static org.neo4j.driver.v1.util.TestUtil.connectionMock;
 
@@ -57,7 +73,9 @@ public class ExplicitTransactionTest
 
         // Then
         InOrder order = inOrder( connection );
+        order.verify( connection ).setTransactionOpen( true );
         order.verify( connection ).run( eq( "BEGIN" ), any(), any(), any() );
+        order.verify( connection ).setTransactionOpen( false );
         order.verify( connection ).runAndFlush( eq( "ROLLBACK" ), any(), any(), any() );
         order.verify( connection ).release();
     }
@@ -94,7 +112,9 @@ public class ExplicitTransactionTest
 
         // Then
         InOrder order = inOrder( connection );
+        order.verify( connection ).setTransactionOpen( true );
         order.verify( connection ).run( eq( "BEGIN" ), any(), any(), any() );
+        order.verify( connection ).setTransactionOpen( false );
         order.verify( connection ).runAndFlush( eq( "COMMIT" ), any(), any(), any() );
         order.verify( connection ).release();
     }
@@ -289,6 +309,111 @@ public class ExplicitTransactionTest
         verify( connection ).release();
     }
 
+    @Test
+    public void shouldFlushOnceWhenRunningAllStatements()
+    {
+        Connection connection = connectionMock();
+        ExplicitTransaction tx = beginTx( connection );
+
+        List<StatementResult> results = tx.runAll( asList( new Statement( "RETURN 1" ), new Statement( "RETURN 2" ),
+                new Statement( "RETURN 3" ) ) );
+
+        assertEquals( 3, results.size() );
+        InOrder order = inOrder( connection );
+        order.verify( connection ).run( eq( "RETURN 1" ), any(), any(), any() );
+        order.verify( connection ).run( eq( "RETURN 2" ), any(), any(), any() );
+        order.verify( connection ).runAndFlush( eq( "RETURN 3" ), any(), any(), any() );
+        verify( connection, times( 1 ) ).runAndFlush( any(), any(), any(), any() );
+    }
+
+    @Test
+    public void shouldCompleteRunAllAsyncWhenAllRunResponsesArrive()
+    {
+        Connection connection = connectionMock();
+        doAnswer( invocation ->
+        {
+            ResponseHandler runHandler = invocation.getArgumentAt( 2, ResponseHandler.class );
+            runHandler.onSuccess( emptyMap() );
+            return null;
+        } ).when( connection ).run( eq( "RETURN 1" ), any(), any(), any() );
+        ExplicitTransaction tx = beginTx( connection );
+
+        CompletableFuture<List<StatementResultCursor>> cursorsFuture = tx.runAllAsync(
+                asList( new Statement( "RETURN 1" ), new Statement( "RETURN 2" ) ) ).toCompletableFuture();
+        assertFalse( cursorsFuture.isDone() );
+
+        ArgumentCaptor<ResponseHandler> runHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( connection ).runAndFlush( eq( "RETURN 2" ), any(), runHandlerCaptor.capture(), any() );
+        runHandlerCaptor.getValue().onSuccess( emptyMap() );
+
+        assertEquals( 2, await( cursorsFuture ).size() );
+    }
+
+    @Test
+    public void shouldCompleteRunAllAsyncWhenFirstResultExceedsHighWatermark()
+    {
+        Connection connection = connectionMock();
+        when( connection.serverAddress() ).thenReturn( BoltServerAddress.LOCAL_DEFAULT );
+        when( connection.serverVersion() ).thenReturn( ServerVersion.v3_2_0 );
+        doAnswer( invocation ->
+        {
+            ResponseHandler runHandler = invocation.getArgumentAt( 2, ResponseHandler.class );
+            ResponseHandler pullAllHandler = invocation.getArgumentAt( 3, ResponseHandler.class );
+            runHandler.onSuccess( singletonMap( "fields", value( singletonList( "key" ) ) ) );
+            for ( int i = 0; i < 10; i++ )
+            {
+                pullAllHandler.onRecord( values( i ) );
+            }
+            pullAllHandler.onSuccess( emptyMap() );
+            return null;
+        } ).when( connection ).run( eq( "UNWIND range(0, 9) AS key RETURN key" ), any(), any(), any() );
+        doAnswer( invocation ->
+        {
+            ResponseHandler runHandler = invocation.getArgumentAt( 2, ResponseHandler.class );
+            runHandler.onSuccess( emptyMap() );
+            return null;
+        } ).when( connection ).runAndFlush( eq( "RETURN 1" ), any(), any(), any() );
+        ExplicitTransaction tx = new ExplicitTransaction( connection, mock( NetworkSession.class ),
+                RecordBufferWatermarks.records( 1, 2 ) );
+        await( tx.beginAsync( Bookmark.empty() ) );
+
+        List<StatementResultCursor> cursors = await( tx.runAllAsync(
+                asList( new Statement( "UNWIND range(0, 9) AS key RETURN key" ), new Statement( "RETURN 1" ) ) ) );
+
+        verify( connection, never() ).disableAutoRead();
+        assertEquals( 2, cursors.size() );
+        assertEquals( 10, await( cursors.get( 0 ).listAsync() ).size() );
+    }
+
+    @Test
+    public void shouldRunAllWithoutStatements()
+    {
+        Connection connection = connectionMock();
+        ExplicitTransaction tx = beginTx( connection );
+
+        assertTrue( tx.runAll( emptyList() ).isEmpty() );
+        verify( connection, never() ).runAndFlush( any(), any(), any(), any() );
+    }
+
+    @Test
+    public void shouldNotRunAllWhenCommitted()
+    {
+        Connection connection = connectionMock();
+        ExplicitTransaction tx = beginTx( connection );
+        tx.success();
+        tx.close();
+
+        try
+        {
+            tx.runAll( asList( new Statement( "RETURN 1" ), new Statement( "RETURN 2" ) ) );
+            fail( "Exception expected" );
+        }
+        catch ( ClientException e )
+        {
+            assertEquals( "Cannot run more statements in this transaction, it has been committed", e.getMessage() );
+        }
+    }
+
     private static ExplicitTransaction beginTx( Connection connection )
     {
         return beginTx( connection, Bookmark.empty() );
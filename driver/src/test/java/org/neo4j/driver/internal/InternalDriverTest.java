@@ -20,12 +20,18 @@ package org.neo4j.driver.internal;
 
 import org.junit.Test;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.neo4j.driver.internal.security.SecurityPlan;
+import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.AcquisitionPriority;
+import org.neo4j.driver.v1.SessionOptions;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -71,6 +77,36 @@ public class InternalDriverTest
         assertEquals( connectivityStage, driver.verifyConnectivity() );
     }
 
+    @Test
+    public void shouldCreateSessionWithOptions()
+    {
+        SessionFactory sessionFactory = sessionFactoryMock();
+        InternalDriver driver = newDriver( sessionFactory );
+        SessionOptions options = SessionOptions.DEFAULT.withAcquisitionPriority( AcquisitionPriority.HIGH );
+
+        List<String> bookmarks = singletonList( "neo4j:bookmark:v1:tx42" );
+
+        driver.session( AccessMode.READ, bookmarks, options );
+
+        verify( sessionFactory ).newInstance( AccessMode.READ, Bookmark.from( bookmarks ), options );
+    }
+
+    @Test
+    public void shouldNotCreateSessionWithNullOptions()
+    {
+        InternalDriver driver = newDriver( sessionFactoryMock() );
+
+        try
+        {
+            driver.session( AccessMode.READ, null, null );
+            fail( "Exception expected" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertEquals( "Session options must not be null", e.getMessage() );
+        }
+    }
+
     private static InternalDriver newDriver( SessionFactory sessionFactory )
     {
         return new InternalDriver( SecurityPlan.insecure(), sessionFactory, DEV_NULL_METRICS, DEV_NULL_LOGGING );
@@ -40,6 +40,7 @@ import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.StatementType;
 import org.neo4j.driver.v1.util.Function;
 import org.neo4j.driver.v1.util.Functions;
+import org.neo4j.driver.v1.util.Subscriber;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -51,6 +52,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -205,9 +207,9 @@ public class InternalStatementResultCursorTest
         Record record1 = new InternalRecord( asList( "key1", "key2", "key3" ), values( 1, 1, 1 ) );
         Record record2 = new InternalRecord( asList( "key1", "key2", "key3" ), values( 2, 2, 2 ) );
         Record record3 = new InternalRecord( asList( "key1", "key2", "key3" ), values( 3, 3, 3 ) );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedFuture( record1 ) )
-                .thenReturn( completedFuture( record2 ) ).thenReturn( completedFuture( record3 ) )
-                .thenReturn( completedWithNull() );
+        when( pullAllHandler.nextBatchAsync( anyInt() ) ).thenReturn( completedFuture( asList( record1, record2 ) ) )
+                .thenReturn( completedFuture( singletonList( record3 ) ) )
+                .thenReturn( completedFuture( emptyList() ) );
 
         ResultSummary summary = mock( ResultSummary.class );
         when( pullAllHandler.summaryAsync() ).thenReturn( completedFuture( summary ) );
@@ -227,8 +229,8 @@ public class InternalStatementResultCursorTest
         PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
 
         Record record = new InternalRecord( asList( "key1", "key2", "key3" ), values( 1, 1, 1 ) );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedFuture( record ) )
-                .thenReturn( completedWithNull() );
+        when( pullAllHandler.nextBatchAsync( anyInt() ) ).thenReturn( completedFuture( singletonList( record ) ) )
+                .thenReturn( completedFuture( emptyList() ) );
 
         ResultSummary summary = mock( ResultSummary.class );
         when( pullAllHandler.summaryAsync() ).thenReturn( completedFuture( summary ) );
@@ -246,7 +248,7 @@ public class InternalStatementResultCursorTest
     public void shouldForEachAsyncWhenResultContainsNoRecords()
     {
         PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedWithNull() );
+        when( pullAllHandler.nextBatchAsync( anyInt() ) ).thenReturn( completedFuture( emptyList() ) );
 
         ResultSummary summary = mock( ResultSummary.class );
         when( pullAllHandler.summaryAsync() ).thenReturn( completedFuture( summary ) );
@@ -268,9 +270,9 @@ public class InternalStatementResultCursorTest
         Record record1 = new InternalRecord( asList( "key1", "key2" ), values( 1, 1 ) );
         Record record2 = new InternalRecord( asList( "key1", "key2" ), values( 2, 2 ) );
         Record record3 = new InternalRecord( asList( "key1", "key2" ), values( 3, 3 ) );
-        when( pullAllHandler.nextAsync() ).thenReturn( completedFuture( record1 ) )
-                .thenReturn( completedFuture( record2 ) ).thenReturn( completedFuture( record3 ) )
-                .thenReturn( completedWithNull() );
+        when( pullAllHandler.nextBatchAsync( anyInt() ) ).thenReturn( completedFuture( singletonList( record1 ) ) )
+                .thenReturn( completedFuture( asList( record2, record3 ) ) )
+                .thenReturn( completedFuture( emptyList() ) );
 
         InternalStatementResultCursor cursor = newCursor( pullAllHandler );
 
@@ -299,7 +301,41 @@ public class InternalStatementResultCursorTest
             assertEquals( error, e );
         }
         assertEquals( 1, recordsProcessed.get() );
-        verify( pullAllHandler, times( 2 ) ).nextAsync();
+        verify( pullAllHandler, times( 2 ) ).nextBatchAsync( anyInt() );
+    }
+
+    @Test
+    public void shouldReturnNextBatch()
+    {
+        PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
+
+        Record record1 = new InternalRecord( asList( "key1", "key2" ), values( 1, 1 ) );
+        Record record2 = new InternalRecord( asList( "key1", "key2" ), values( 2, 2 ) );
+        when( pullAllHandler.nextBatchAsync( 2 ) ).thenReturn( completedFuture( asList( record1, record2 ) ) );
+
+        InternalStatementResultCursor cursor = newCursor( pullAllHandler );
+
+        assertEquals( asList( record1, record2 ), await( cursor.nextBatchAsync( 2 ) ) );
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveBatchSize()
+    {
+        PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
+        InternalStatementResultCursor cursor = newCursor( pullAllHandler );
+
+        for ( int maxSize : new int[]{0, -1, Integer.MIN_VALUE} )
+        {
+            try
+            {
+                cursor.nextBatchAsync( maxSize );
+                fail( "Exception expected" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                assertThat( e.getMessage(), containsString( "Maximum batch size" ) );
+            }
+        }
     }
 
     @Test
@@ -433,6 +469,19 @@ public class InternalStatementResultCursorTest
         }
     }
 
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void shouldSubscribeToPullAllHandlerThroughPublisher()
+    {
+        PullAllResponseHandler pullAllHandler = mock( PullAllResponseHandler.class );
+        InternalStatementResultCursor cursor = newCursor( pullAllHandler );
+        Subscriber<Record> subscriber = mock( Subscriber.class );
+
+        cursor.asPublisher().subscribe( subscriber );
+
+        verify( pullAllHandler ).subscribe( subscriber );
+    }
+
     private static InternalStatementResultCursor newCursor( PullAllResponseHandler pullAllHandler )
     {
         return new InternalStatementResultCursor( new RunResponseHandler( new CompletableFuture<>() ), pullAllHandler );
@@ -25,7 +25,10 @@ import org.junit.rules.ExpectedException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.neo4j.driver.internal.handlers.PullAllResponseHandler;
 import org.neo4j.driver.internal.handlers.RunResponseHandler;
@@ -390,6 +393,116 @@ public class InternalStatementResultTest
         Record future = result.peek();
     }
 
+    @Test
+    public void shouldStreamRecords()
+    {
+        StatementResult result = createResult( 3 );
+
+        List<String> values;
+        try ( Stream<Record> records = result.stream() )
+        {
+            values = records.map( record -> record.get( "k2" ).asString() ).collect( Collectors.toList() );
+        }
+
+        assertThat( values, equalTo( asList( "v2-1", "v2-2", "v2-3" ) ) );
+        assertFalse( result.hasNext() );
+    }
+
+    @Test
+    public void shouldStreamRecordsInParallel()
+    {
+        StatementResult result = createResult( 5000 );
+
+        List<String> values;
+        try ( Stream<Record> records = result.stream().parallel() )
+        {
+            values = records.map( record -> record.get( "k1" ).asString() ).collect( Collectors.toList() );
+        }
+
+        assertThat( values, hasSize( 5000 ) );
+        for ( int i = 0; i < values.size(); i++ )
+        {
+            assertThat( values.get( i ), equalTo( "v1-" + (i + 1) ) );
+        }
+    }
+
+    @Test
+    public void shouldEstimateSizeOfStreamFromBufferedRecords()
+    {
+        StatementResult result = createResult( 10 );
+        result.next();
+
+        Spliterator<Record> spliterator = result.stream().spliterator();
+
+        assertThat( spliterator.estimateSize(), equalTo( 9L ) );
+    }
+
+    @Test
+    public void shouldSplitStreamIntoBufferedBatches()
+    {
+        StatementResult result = createResult( 10 );
+        Spliterator<Record> spliterator = result.stream().spliterator();
+
+        Spliterator<Record> batch = spliterator.trySplit();
+
+        assertNotNull( batch );
+        assertThat( batch.estimateSize(), equalTo( 10L ) );
+        assertThat( spliterator.estimateSize(), equalTo( 0L ) );
+        assertNull( spliterator.trySplit() );
+        assertTrue( batch.tryAdvance( record -> assertThat( record.get( "k1" ).asString(), equalTo( "v1-1" ) ) ) );
+    }
+
+    @Test
+    public void shouldConsumeResultWhenRecordStreamIsClosed()
+    {
+        StatementResult result = createResult( 3 );
+
+        result.stream().close();
+
+        assertFalse( result.hasNext() );
+    }
+
+    @Test
+    public void shouldListRecordsMappedToClass()
+    {
+        StatementResult result = createResult( 2 );
+
+        List<Row> rows = result.list( Row.class );
+
+        assertThat( rows, hasSize( 2 ) );
+        assertThat( rows.get( 0 ).k1, equalTo( "v1-1" ) );
+        assertThat( rows.get( 1 ).k2, equalTo( "v2-2" ) );
+        assertFalse( result.hasNext() );
+    }
+
+    @Test
+    public void shouldStreamRecordsMappedToClass()
+    {
+        StatementResult result = createResult( 3 );
+
+        List<String> values;
+        try ( Stream<Row> rows = result.stream( Row.class ) )
+        {
+            values = rows.map( row -> row.k1 + row.k2 ).collect( Collectors.toList() );
+        }
+
+        assertThat( values, equalTo( asList( "v1-1v2-1", "v1-2v2-2", "v1-3v2-3" ) ) );
+        assertFalse( result.hasNext() );
+    }
+
+    @Test
+    public void shouldConsumeRemainingRecordsWhenStreamIsClosed()
+    {
+        StatementResult result = createResult( 3 );
+
+        try ( Stream<Row> rows = result.stream( Row.class ) )
+        {
+            assertThat( rows.findFirst().get().k1, equalTo( "v1-1" ) );
+        }
+
+        assertFalse( result.hasNext() );
+    }
+
     private StatementResult createResult( int numberOfRecords )
     {
         RunResponseHandler runHandler = new RunResponseHandler( new CompletableFuture<>() );
@@ -411,6 +524,12 @@ public class InternalStatementResultTest
         return new InternalStatementResult( connection, cursor );
     }
 
+    private static class Row
+    {
+        String k1;
+        String k2;
+    }
+
     private List<Value> values( Record record )
     {
         List<Value> result = new ArrayList<>( record.keys().size() );
@@ -25,6 +25,7 @@ import org.mockito.ArgumentCaptor;
 
 import java.lang.reflect.Method;
 
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.retry.FixedRetryLogic;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
@@ -105,7 +106,7 @@ public class LeakLoggingNetworkSessionTest
     {
         ConnectionProvider provider = mock( ConnectionProvider.class );
         Connection connection = connectionMock( openConnection );
-        when( provider.acquireConnection( any( AccessMode.class ) ) ).thenReturn( completedFuture( connection ) );
+        when( provider.acquireConnection( any( AccessMode.class ), any( AcquisitionSettings.class ) ) ).thenReturn( completedFuture( connection ) );
         return provider;
     }
 
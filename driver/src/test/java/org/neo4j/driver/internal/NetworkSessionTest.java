@@ -29,15 +29,18 @@ import org.mockito.verification.VerificationMode;
 
 import java.util.Map;
 
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.retry.FixedRetryLogic;
 import org.neo4j.driver.internal.retry.RetryLogic;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionProvider;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.ServerVersion;
 import org.neo4j.driver.internal.util.Supplier;
 import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.SessionOptions;
 import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.TransactionWork;
 import org.neo4j.driver.v1.Value;
@@ -94,7 +97,7 @@ public class NetworkSessionTest
         when( connection.serverAddress() ).thenReturn( BoltServerAddress.LOCAL_DEFAULT );
         when( connection.serverVersion() ).thenReturn( ServerVersion.v3_2_0 );
         connectionProvider = mock( ConnectionProvider.class );
-        when( connectionProvider.acquireConnection( any( AccessMode.class ) ) )
+        when( connectionProvider.acquireConnection( any( AccessMode.class ), any() ) )
                 .thenReturn( completedFuture( connection ) );
         session = newSession( connectionProvider, READ );
     }
@@ -107,6 +110,19 @@ public class NetworkSessionTest
         verify( connection ).runAndFlush( eq( "RETURN 1" ), any(), any(), any() );
     }
 
+    @Test
+    public void shouldDeferPullWhenEnabledInOptions()
+    {
+        when( connection.runAndFlushWithDeferredPull( any(), any(), any(), any() ) ).thenReturn( DeferredPull.NONE );
+        NetworkSession session = new NetworkSession( connectionProvider, connectionProvider, WRITE,
+                SessionOptions.DEFAULT.withDeferredPull( true ), new FixedRetryLogic( 0 ), DEV_NULL_LOGGING );
+
+        session.run( "RETURN 1" );
+
+        verify( connection ).runAndFlushWithDeferredPull( eq( "RETURN 1" ), any(), any(), any() );
+        verify( connection, never() ).runAndFlush( any(), any(), any(), any() );
+    }
+
     @Test
     public void shouldNotAllowNewTxWhileOneIsRunning()
     {
@@ -196,12 +212,13 @@ public class NetworkSessionTest
     {
         ConnectionProvider connectionProvider = mock( ConnectionProvider.class );
         Connection connection = mock( Connection.class );
-        when( connectionProvider.acquireConnection( READ ) ).thenReturn( completedFuture( connection ) );
+        when( connectionProvider.acquireConnection( READ, AcquisitionSettings.DEFAULT ) )
+                .thenReturn( completedFuture( connection ) );
         NetworkSession session = newSession( connectionProvider, READ );
 
         session.run( "RETURN 1" );
 
-        verify( connectionProvider ).acquireConnection( READ );
+        verify( connectionProvider ).acquireConnection( READ, AcquisitionSettings.DEFAULT );
         verify( connection ).runAndFlush( eq( "RETURN 1" ), any(), any(), any() );
     }
 
@@ -229,7 +246,7 @@ public class NetworkSessionTest
 
         session.reset();
 
-        verify( connectionProvider, never() ).acquireConnection( any( AccessMode.class ) );
+        verify( connectionProvider, never() ).acquireConnection( any( AccessMode.class ), any() );
     }
 
     @Test
@@ -240,7 +257,7 @@ public class NetworkSessionTest
 
         session.close();
 
-        verify( connectionProvider, never() ).acquireConnection( any( AccessMode.class ) );
+        verify( connectionProvider, never() ).acquireConnection( any( AccessMode.class ), any() );
     }
 
     @Test
@@ -249,7 +266,7 @@ public class NetworkSessionTest
         Transaction tx = session.beginTransaction();
 
         assertNotNull( tx );
-        verify( connectionProvider ).acquireConnection( READ );
+        verify( connectionProvider ).acquireConnection( READ, AcquisitionSettings.DEFAULT );
     }
 
     @Test
@@ -273,7 +290,7 @@ public class NetworkSessionTest
         Transaction tx = session.beginTransaction();
         tx.run( query );
 
-        verify( connectionProvider ).acquireConnection( READ );
+        verify( connectionProvider ).acquireConnection( READ, AcquisitionSettings.DEFAULT );
         verify( connection ).runAndFlush( eq( query ), any(), any(), any() );
 
         tx.close();
@@ -342,11 +359,11 @@ public class NetworkSessionTest
     {
         NetworkSession session1 = newSession( connectionProvider, READ );
         session1.beginTransaction();
-        verify( connectionProvider ).acquireConnection( READ );
+        verify( connectionProvider ).acquireConnection( READ, AcquisitionSettings.DEFAULT );
 
         NetworkSession session2 = newSession( connectionProvider, WRITE );
         session2.beginTransaction();
-        verify( connectionProvider ).acquireConnection( WRITE );
+        verify( connectionProvider ).acquireConnection( WRITE, AcquisitionSettings.DEFAULT );
     }
 
     @Test
@@ -529,7 +546,8 @@ public class NetworkSessionTest
     public void shouldDoNothingWhenClosingWithoutAcquiredConnection()
     {
         RuntimeException error = new RuntimeException( "Hi" );
-        when( connectionProvider.acquireConnection( READ ) ).thenReturn( failedFuture( error ) );
+        when( connectionProvider.acquireConnection( READ, AcquisitionSettings.DEFAULT ) )
+                .thenReturn( failedFuture( error ) );
 
         try
         {
@@ -548,7 +566,7 @@ public class NetworkSessionTest
     public void shouldRunAfterRunFailureToAcquireConnection()
     {
         RuntimeException error = new RuntimeException( "Hi" );
-        when( connectionProvider.acquireConnection( READ ) )
+        when( connectionProvider.acquireConnection( READ, AcquisitionSettings.DEFAULT ) )
                 .thenReturn( failedFuture( error ) ).thenReturn( completedFuture( connection ) );
 
         try
@@ -563,7 +581,7 @@ public class NetworkSessionTest
 
         session.run( "RETURN 2" );
 
-        verify( connectionProvider, times( 2 ) ).acquireConnection( READ );
+        verify( connectionProvider, times( 2 ) ).acquireConnection( READ, AcquisitionSettings.DEFAULT );
         verifyRunAndFlush( connection, "RETURN 2", times( 1 ) );
     }
 
@@ -575,7 +593,7 @@ public class NetworkSessionTest
         setupFailingBegin( connection1, error );
         Connection connection2 = connectionMock();
 
-        when( connectionProvider.acquireConnection( READ ) )
+        when( connectionProvider.acquireConnection( eq( READ ), any( AcquisitionSettings.class ) ) )
                 .thenReturn( completedFuture( connection1 ) ).thenReturn( completedFuture( connection2 ) );
 
         Bookmark bookmark = Bookmark.from( "neo4j:bookmark:v1:tx42" );
@@ -593,7 +611,7 @@ public class NetworkSessionTest
 
         session.run( "RETURN 2" );
 
-        verify( connectionProvider, times( 2 ) ).acquireConnection( READ );
+        verify( connectionProvider, times( 2 ) ).acquireConnection( eq( READ ), any( AcquisitionSettings.class ) );
         verifyBeginTx( connection1, bookmark );
         verifyRunAndFlush( connection2, "RETURN 2", times( 1 ) );
     }
@@ -606,7 +624,7 @@ public class NetworkSessionTest
         setupFailingBegin( connection1, error );
         Connection connection2 = connectionMock();
 
-        when( connectionProvider.acquireConnection( READ ) )
+        when( connectionProvider.acquireConnection( eq( READ ), any( AcquisitionSettings.class ) ) )
                 .thenReturn( completedFuture( connection1 ) ).thenReturn( completedFuture( connection2 ) );
 
         Bookmark bookmark = Bookmark.from( "neo4j:bookmark:v1:tx42" );
@@ -624,7 +642,7 @@ public class NetworkSessionTest
 
         session.beginTransaction();
 
-        verify( connectionProvider, times( 2 ) ).acquireConnection( READ );
+        verify( connectionProvider, times( 2 ) ).acquireConnection( eq( READ ), any( AcquisitionSettings.class ) );
         verifyBeginTx( connection1, bookmark );
         verifyBeginTx( connection2, bookmark );
     }
@@ -633,7 +651,7 @@ public class NetworkSessionTest
     public void shouldBeginTxAfterRunFailureToAcquireConnection()
     {
         RuntimeException error = new RuntimeException( "Hi" );
-        when( connectionProvider.acquireConnection( READ ) )
+        when( connectionProvider.acquireConnection( READ, AcquisitionSettings.DEFAULT ) )
                 .thenReturn( failedFuture( error ) ).thenReturn( completedFuture( connection ) );
 
         try
@@ -648,7 +666,7 @@ public class NetworkSessionTest
 
         session.beginTransaction();
 
-        verify( connectionProvider, times( 2 ) ).acquireConnection( READ );
+        verify( connectionProvider, times( 2 ) ).acquireConnection( READ, AcquisitionSettings.DEFAULT );
         verifyBeginTx( connection, times( 1 ) );
     }
 
@@ -721,7 +739,7 @@ public class NetworkSessionTest
 
         int result = executeTransaction( session, transactionMode, work );
 
-        verify( connectionProvider ).acquireConnection( transactionMode );
+        verify( connectionProvider ).acquireConnection( transactionMode, AcquisitionSettings.DEFAULT );
         verifyBeginTx( connection, times( 1 ) );
         verifyCommitTx( connection, times( 1 ) );
         assertEquals( 42, result );
@@ -746,7 +764,7 @@ public class NetworkSessionTest
 
         int result = executeTransaction( session, transactionMode, work );
 
-        verify( connectionProvider ).acquireConnection( transactionMode );
+        verify( connectionProvider ).acquireConnection( transactionMode, AcquisitionSettings.DEFAULT );
         verifyBeginTx( connection, times( 1 ) );
         if ( commit )
         {
@@ -781,7 +799,7 @@ public class NetworkSessionTest
             assertEquals( error, e );
         }
 
-        verify( connectionProvider ).acquireConnection( transactionMode );
+        verify( connectionProvider ).acquireConnection( transactionMode, AcquisitionSettings.DEFAULT );
         verifyBeginTx( connection, times( 1 ) );
         verifyRollbackTx( connection, times( 1 ) );
     }
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.OngoingStubbing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.Bookmark;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
+import org.neo4j.driver.internal.handlers.PullAllResponseHandler;
+import org.neo4j.driver.internal.handlers.RunResponseHandler;
+import org.neo4j.driver.internal.handlers.SessionPullAllResponseHandler;
+import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.ConnectionProvider;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.internal.util.ServerVersion;
+import org.neo4j.driver.v1.AcquisitionPriority;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.handlers.ResponseHandlers.onIgnored;
+import static org.neo4j.driver.internal.util.Futures.completedWithNull;
+import static org.neo4j.driver.internal.util.Futures.failedFuture;
+import static org.neo4j.driver.v1.AccessMode.READ;
+import static org.neo4j.driver.v1.AccessMode.WRITE;
+import static org.neo4j.driver.v1.Values.value;
+import static org.neo4j.driver.v1.Values.values;
+import static org.neo4j.driver.v1.util.TestUtil.await;
+
+public class MultiplexingConnectionProviderTest
+{
+    @Test
+    public void shouldShareReadConnectionBetweenQueries()
+    {
+        Connection physical = newConnection();
+        ConnectionProvider delegate = newProvider( physical );
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( delegate, 3 );
+
+        Connection connection1 = await( provider.acquireConnection( READ ) );
+        Connection connection2 = await( provider.acquireConnection( READ ) );
+        Connection connection3 = await( provider.acquireConnection( READ ) );
+
+        assertNotSame( connection1, connection2 );
+        connection1.runAndFlush( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+        connection2.runAndFlush( "RETURN 2", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+        connection3.runAndFlush( "RETURN 3", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+
+        verify( delegate, times( 1 ) ).acquireConnection( eq( READ ), any( AcquisitionSettings.class ) );
+        verify( physical ).runAndFlush( eq( "RETURN 1" ), any(), any(), any() );
+        verify( physical ).runAndFlush( eq( "RETURN 2" ), any(), any(), any() );
+        verify( physical ).runAndFlush( eq( "RETURN 3" ), any(), any(), any() );
+        assertEquals( 1, provider.sharedConnectionCount() );
+    }
+
+    @Test
+    public void shouldAcquireNewConnectionWhenLimitReached()
+    {
+        Connection physical1 = newConnection();
+        Connection physical2 = newConnection();
+        ConnectionProvider delegate = newProvider( physical1, physical2 );
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( delegate, 2 );
+
+        await( provider.acquireConnection( READ ) );
+        await( provider.acquireConnection( READ ) );
+        Connection connection3 = await( provider.acquireConnection( READ ) );
+
+        connection3.run( "RETURN 3", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+
+        verify( physical2 ).run( eq( "RETURN 3" ), any(), any(), any() );
+        verify( physical1, never() ).run( any(), any(), any(), any() );
+        assertEquals( 2, provider.sharedConnectionCount() );
+    }
+
+    @Test
+    public void shouldReleasePhysicalConnectionWhenLastQueryReleases()
+    {
+        Connection physical = newConnection();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection1 = await( provider.acquireConnection( READ ) );
+        Connection connection2 = await( provider.acquireConnection( READ ) );
+
+        await( connection1.release() );
+        await( connection1.release() );
+        verify( physical, never() ).release();
+        assertFalse( connection1.isOpen() );
+        assertTrue( connection2.isOpen() );
+
+        await( connection2.release() );
+        verify( physical ).release();
+        assertEquals( 0, provider.sharedConnectionCount() );
+    }
+
+    @Test
+    public void shouldNotMultiplexWriteConnections()
+    {
+        Connection physical = newConnection();
+        ConnectionProvider delegate = newProvider( physical );
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( delegate, 2 );
+
+        assertSame( physical, await( provider.acquireConnection( WRITE ) ) );
+        assertEquals( 0, provider.sharedConnectionCount() );
+    }
+
+    @Test
+    public void shouldNotMultiplexConnectionsWithNonDefaultAcquisitionSettings()
+    {
+        Connection physical1 = newConnection();
+        Connection physical2 = newConnection();
+        ConnectionProvider delegate = newProvider( physical1, physical2 );
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( delegate, 2 );
+        AcquisitionSettings withBookmark =
+                AcquisitionSettings.DEFAULT.withBookmark( Bookmark.from( "neo4j:bookmark:v1:tx42" ) );
+        AcquisitionSettings withPriority = new AcquisitionSettings( AcquisitionPriority.HIGH );
+
+        assertSame( physical1, await( provider.acquireConnection( READ, withBookmark ) ) );
+        assertSame( physical2, await( provider.acquireConnection( READ, withPriority ) ) );
+        verify( delegate ).acquireConnection( READ, withBookmark );
+        verify( delegate ).acquireConnection( READ, withPriority );
+        assertEquals( 0, provider.sharedConnectionCount() );
+    }
+
+    @Test
+    public void shouldNotShareConnectionThatFailedToBeAcquired()
+    {
+        ConnectionProvider delegate = mock( ConnectionProvider.class );
+        Connection physical = newConnection();
+        when( delegate.acquireConnection( any(), any() ) )
+                .thenReturn( failedFuture( new ServiceUnavailableException( "Oh!" ) ) )
+                .thenReturn( completedFuture( physical ) );
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( delegate, 2 );
+
+        try
+        {
+            await( provider.acquireConnection( READ ) );
+            fail( "Exception expected" );
+        }
+        catch ( ServiceUnavailableException e )
+        {
+            assertEquals( "Oh!", e.getMessage() );
+        }
+
+        assertEquals( 0, provider.sharedConnectionCount() );
+        Connection connection = await( provider.acquireConnection( READ ) );
+        connection.run( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+        verify( physical ).run( eq( "RETURN 1" ), any(), any(), any() );
+    }
+
+    @Test
+    public void shouldNotPropagateReset()
+    {
+        Connection physical = newConnection();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection = await( provider.acquireConnection( READ ) );
+        await( connection.reset() );
+
+        verify( physical, never() ).reset();
+    }
+
+    @Test
+    public void shouldReplayQueryIgnoredBecauseOfAnotherQueryFailure()
+    {
+        Connection physical = newConnection();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection1 = await( provider.acquireConnection( READ ) );
+        Connection connection2 = await( provider.acquireConnection( READ ) );
+
+        ResponseHandler runHandler1 = mock( ResponseHandler.class );
+        ResponseHandler pullAllHandler1 = mock( ResponseHandler.class );
+        ResponseHandler runHandler2 = mock( ResponseHandler.class );
+        ResponseHandler pullAllHandler2 = mock( ResponseHandler.class );
+        connection1.runAndFlush( "RETURN 1", emptyMap(), runHandler1, pullAllHandler1 );
+        connection2.runAndFlush( "RETURN 2", emptyMap(), runHandler2, pullAllHandler2 );
+
+        ArgumentCaptor<ResponseHandler> runHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+        ArgumentCaptor<ResponseHandler> pullAllHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( physical, times( 2 ) ).runAndFlush( any(), any(), runHandlers.capture(), pullAllHandlers.capture() );
+
+        // first query fails and second one is ignored
+        ClientException error = new ClientException( "Neo.ClientError.Statement.SyntaxError", "Wrong!" );
+        runHandlers.getAllValues().get( 0 ).onFailure( error );
+        onIgnored( pullAllHandlers.getAllValues().get( 0 ), error );
+        onIgnored( runHandlers.getAllValues().get( 1 ), error );
+        onIgnored( pullAllHandlers.getAllValues().get( 1 ), error );
+
+        verify( runHandler1 ).onFailure( error );
+        verify( pullAllHandler1 ).onFailure( error );
+        verify( runHandler2, never() ).onFailure( any() );
+        verify( pullAllHandler2, never() ).onFailure( any() );
+
+        // second query is executed again
+        verify( physical, times( 2 ) ).runAndFlush( eq( "RETURN 2" ), any(), any(), any() );
+    }
+
+    @Test
+    public void shouldNotReplayQueryThatFailed()
+    {
+        Connection physical = newConnection();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection = await( provider.acquireConnection( READ ) );
+        ResponseHandler runHandler = mock( ResponseHandler.class );
+        ResponseHandler pullAllHandler = mock( ResponseHandler.class );
+        connection.runAndFlush( "RETURN 1", emptyMap(), runHandler, pullAllHandler );
+
+        ArgumentCaptor<ResponseHandler> runHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        ArgumentCaptor<ResponseHandler> pullAllHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( physical ).runAndFlush( any(), any(), runHandlerCaptor.capture(), pullAllHandlerCaptor.capture() );
+
+        ClientException error = new ClientException( "Neo.ClientError.Statement.SyntaxError", "Wrong!" );
+        runHandlerCaptor.getValue().onFailure( error );
+        onIgnored( pullAllHandlerCaptor.getValue(), error );
+
+        verify( runHandler ).onFailure( error );
+        verify( pullAllHandler ).onFailure( error );
+        verify( physical, times( 1 ) ).runAndFlush( any(), any(), any(), any() );
+    }
+
+    @Test
+    public void shouldFailQueryIgnoredTooManyTimes()
+    {
+        Connection physical = newConnection();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection = await( provider.acquireConnection( READ ) );
+        Connection otherConnection = await( provider.acquireConnection( READ ) );
+        ResponseHandler runHandler = mock( ResponseHandler.class );
+        connection.runAndFlush( "RETURN 1", emptyMap(), runHandler, mock( ResponseHandler.class ) );
+        otherConnection.runAndFlush( "RETURN 2", emptyMap(), mock( ResponseHandler.class ),
+                mock( ResponseHandler.class ) );
+
+        ArgumentCaptor<ResponseHandler> runHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( physical, times( 2 ) ).runAndFlush( any(), any(), runHandlers.capture(), any() );
+        ResponseHandler otherRunHandler = runHandlers.getAllValues().get( 1 );
+        ResponseHandler currentRunHandler = runHandlers.getAllValues().get( 0 );
+
+        ClientException error = new ClientException( "Neo.ClientError.Statement.SyntaxError", "Wrong!" );
+        otherRunHandler.onFailure( error );
+        for ( int i = 0; i < MultiplexedConnection.MAX_REPLAYS; i++ )
+        {
+            onIgnored( currentRunHandler, error );
+            runHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+            verify( physical, times( 3 + i ) ).runAndFlush( any(), any(), runHandlers.capture(), any() );
+            currentRunHandler = runHandlers.getValue();
+        }
+        verify( runHandler, never() ).onFailure( any() );
+
+        onIgnored( currentRunHandler, error );
+        verify( runHandler ).onFailure( error );
+        verify( physical, times( 2 + MultiplexedConnection.MAX_REPLAYS ) ).runAndFlush( any(), any(), any(), any() );
+    }
+
+    @Test
+    public void shouldReceiveRecordsOfLaterQueryBeforeEarlierLargeResultIsConsumed()
+    {
+        Connection physical = newConnection();
+        when( physical.serverAddress() ).thenReturn( BoltServerAddress.LOCAL_DEFAULT );
+        when( physical.serverVersion() ).thenReturn( ServerVersion.v3_2_0 );
+        AtomicBoolean autoRead = new AtomicBoolean( true );
+        doAnswer( invocation -> autoRead.getAndSet( false ) ).when( physical ).disableAutoRead();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection1 = await( provider.acquireConnection( READ ) );
+        Connection connection2 = await( provider.acquireConnection( READ ) );
+        PullAllResponseHandler result1 = runAndFlush( connection1, "UNWIND range(1, 5000) AS x RETURN x" );
+        PullAllResponseHandler result2 = runAndFlush( connection2, "RETURN 42 AS x" );
+
+        ArgumentCaptor<ResponseHandler> runHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+        ArgumentCaptor<ResponseHandler> pullAllHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( physical, times( 2 ) ).runAndFlush( any(), any(), runHandlers.capture(), pullAllHandlers.capture() );
+
+        // network delivers responses in order and only while auto-read is enabled
+        int records = RecordBufferWatermarks.DEFAULT.highRecords() * 5;
+        runHandlers.getAllValues().get( 0 ).onSuccess( singletonMap( "fields", value( singletonList( "x" ) ) ) );
+        for ( int i = 0; i < records; i++ )
+        {
+            assertTrue( "Auto-read disabled after " + i + " records", autoRead.get() );
+            pullAllHandlers.getAllValues().get( 0 ).onRecord( values( value( i ) ) );
+        }
+        pullAllHandlers.getAllValues().get( 0 ).onSuccess( emptyMap() );
+        runHandlers.getAllValues().get( 1 ).onSuccess( singletonMap( "fields", value( singletonList( "x" ) ) ) );
+        pullAllHandlers.getAllValues().get( 1 ).onRecord( values( value( 42 ) ) );
+        pullAllHandlers.getAllValues().get( 1 ).onSuccess( emptyMap() );
+
+        // second result is read before the first one
+        assertEquals( 42, await( result2.nextAsync() ).get( "x" ).asInt() );
+        assertEquals( records, await( result1.listAsync( record -> record ) ).size() );
+        verify( physical, never() ).disableAutoRead();
+    }
+
+    @Test
+    public void shouldDetachOnlyTerminatedQuery()
+    {
+        Connection physical = newConnection();
+        MultiplexingConnectionProvider provider = new MultiplexingConnectionProvider( newProvider( physical ), 2 );
+
+        Connection connection1 = await( provider.acquireConnection( READ ) );
+        Connection connection2 = await( provider.acquireConnection( READ ) );
+        ResponseHandler pullAllHandler1 = mock( ResponseHandler.class );
+        ResponseHandler pullAllHandler2 = mock( ResponseHandler.class );
+        connection1.runAndFlush( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), pullAllHandler1 );
+        connection2.runAndFlush( "RETURN 2", emptyMap(), mock( ResponseHandler.class ), pullAllHandler2 );
+
+        ArgumentCaptor<ResponseHandler> pullAllHandlers = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( physical, times( 2 ) ).runAndFlush( any(), any(), any(), pullAllHandlers.capture() );
+
+        connection1.terminateAndRelease( "Thread interrupted" );
+
+        ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass( Throwable.class );
+        verify( pullAllHandler1 ).onFailure( errorCaptor.capture() );
+        assertThat( errorCaptor.getValue(), instanceOf( ServiceUnavailableException.class ) );
+        assertFalse( connection1.isOpen() );
+        assertEquals( 0, ((MultiplexedConnection) connection1).activeHandlersCount() );
+
+        // responses of the terminated query are dropped when they arrive
+        pullAllHandlers.getAllValues().get( 0 ).onRecord( values( value( 1 ) ) );
+        pullAllHandlers.getAllValues().get( 0 ).onSuccess( emptyMap() );
+        verify( pullAllHandler1, never() ).onRecord( any() );
+        verify( pullAllHandler1, never() ).onSuccess( any() );
+
+        // other query keeps using the physical connection
+        verify( physical, never() ).terminateAndRelease( any() );
+        verify( physical, never() ).release();
+        assertTrue( connection2.isOpen() );
+        pullAllHandlers.getAllValues().get( 1 ).onSuccess( emptyMap() );
+        verify( pullAllHandler2 ).onSuccess( emptyMap() );
+
+        await( connection2.release() );
+        verify( physical ).release();
+    }
+
+    private static PullAllResponseHandler runAndFlush( Connection connection, String query )
+    {
+        RunResponseHandler runHandler = new RunResponseHandler( new CompletableFuture<>() );
+        PullAllResponseHandler pullAllHandler = new SessionPullAllResponseHandler( new Statement( query ),
+                runHandler, connection );
+        connection.runAndFlush( query, emptyMap(), runHandler, pullAllHandler );
+        return pullAllHandler;
+    }
+
+    private static Connection newConnection()
+    {
+        Connection connection = mock( Connection.class );
+        when( connection.isOpen() ).thenReturn( true );
+        when( connection.release() ).thenReturn( completedWithNull() );
+        return connection;
+    }
+
+    private static ConnectionProvider newProvider( Connection connection, Connection... otherConnections )
+    {
+        ConnectionProvider provider = mock( ConnectionProvider.class );
+        OngoingStubbing<CompletionStage<Connection>> stubbing =
+                when( provider.acquireConnection( any(), any() ) ).thenReturn( completedFuture( connection ) );
+        for ( Connection otherConnection : otherConnections )
+        {
+            stubbing = stubbing.thenReturn( completedFuture( otherConnection ) );
+        }
+        return provider;
+    }
+}
@@ -23,6 +23,7 @@ import io.netty.channel.DefaultEventLoop;
 import io.netty.channel.EventLoop;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.channel.pool.ChannelPool;
+import io.netty.util.concurrent.ImmediateEventExecutor;
 import io.netty.util.internal.ConcurrentSet;
 import org.junit.After;
 import org.junit.Test;
@@ -39,6 +40,8 @@ import java.util.function.Consumer;
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.async.inbound.InboundMessageDispatcher;
 import org.neo4j.driver.internal.handlers.NoOpResponseHandler;
+import org.neo4j.driver.internal.messaging.RunMessage;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.util.FakeClock;
 import org.neo4j.driver.internal.util.ServerVersion;
@@ -59,6 +62,8 @@ import static org.neo4j.driver.internal.async.ChannelAttributes.messageDispatche
 import static org.neo4j.driver.internal.async.ChannelAttributes.setMessageDispatcher;
 import static org.neo4j.driver.internal.async.ChannelAttributes.terminationReason;
 import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.messaging.DiscardAllMessage.DISCARD_ALL;
+import static org.neo4j.driver.internal.messaging.PullAllMessage.PULL_ALL;
 import static org.neo4j.driver.internal.messaging.ResetMessage.RESET;
 import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
 import static org.neo4j.driver.internal.util.Iterables.single;
@@ -93,11 +98,88 @@ public class NettyConnectionTest
     }
 
     @Test
-    public void shouldSendResetOnRelease()
+    public void shouldNotSendResetOnReleaseWhenIdle()
+    {
+        EmbeddedChannel channel = newChannel();
+        ChannelPool pool = newChannelPool();
+        NettyConnection connection = newConnection( channel, pool );
+
+        CompletionStage<Void> releaseStage = connection.release();
+        channel.runPendingTasks();
+
+        assertEquals( 0, channel.outboundMessages().size() );
+        assertTrue( releaseStage.toCompletableFuture().isDone() );
+        verify( pool ).release( channel );
+    }
+
+    @Test
+    public void shouldNotSendResetOnReleaseAfterSuccessfulQuery()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        connection.runAndFlush( "RETURN 1", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        channel.runPendingTasks();
+        messageDispatcher( channel ).handleSuccessMessage( emptyMap() );
+        messageDispatcher( channel ).handleSuccessMessage( emptyMap() );
+        channel.outboundMessages().clear();
+
+        connection.release();
+        channel.runPendingTasks();
+
+        assertEquals( 0, channel.outboundMessages().size() );
+    }
+
+    @Test
+    public void shouldSendResetOnReleaseWhenResponsesArePending()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        connection.runAndFlush( "RETURN 1", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        channel.runPendingTasks();
+        channel.outboundMessages().clear();
+
+        connection.release();
+        channel.runPendingTasks();
+
+        assertEquals( 1, channel.outboundMessages().size() );
+        assertEquals( RESET, channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldSendResetOnReleaseAfterFailure()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        connection.runAndFlush( "RETURN 1", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        channel.runPendingTasks();
+        messageDispatcher( channel ).muteAckFailure(); // do not send ACK_FAILURE to simplify the test
+        messageDispatcher( channel ).handleFailureMessage( "Neo.ClientError.Statement.SyntaxError", "Wrong!" );
+        messageDispatcher( channel ).handleIgnoredMessage();
+        channel.outboundMessages().clear();
+
+        connection.release();
+        channel.runPendingTasks();
+
+        assertEquals( 1, channel.outboundMessages().size() );
+        assertEquals( RESET, channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldSendResetOnReleaseWhenTransactionIsOpen()
     {
         EmbeddedChannel channel = newChannel();
         NettyConnection connection = newConnection( channel );
 
+        connection.setTransactionOpen( true );
+        connection.runAndFlush( "BEGIN", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        channel.runPendingTasks();
+        messageDispatcher( channel ).handleSuccessMessage( emptyMap() );
+        messageDispatcher( channel ).handleSuccessMessage( emptyMap() );
+        channel.outboundMessages().clear();
+
         connection.release();
         channel.runPendingTasks();
 
@@ -105,6 +187,29 @@ public class NettyConnectionTest
         assertEquals( RESET, channel.readOutbound() );
     }
 
+    @Test
+    public void shouldNotSendResetOnReleaseWhenTransactionIsCommitted()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        connection.setTransactionOpen( true );
+        connection.runAndFlush( "BEGIN", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        connection.setTransactionOpen( false );
+        connection.runAndFlush( "COMMIT", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        channel.runPendingTasks();
+        for ( int i = 0; i < 4; i++ )
+        {
+            messageDispatcher( channel ).handleSuccessMessage( emptyMap() );
+        }
+        channel.outboundMessages().clear();
+
+        connection.release();
+        channel.runPendingTasks();
+
+        assertEquals( 0, channel.outboundMessages().size() );
+    }
+
     @Test
     public void shouldEnqueueRunHandlerFromEventLoopThread() throws Exception
     {
@@ -122,7 +227,111 @@ public class NettyConnectionTest
     @Test
     public void shouldWriteForceReleaseInEventLoopThread() throws Exception
     {
-        testWriteInEventLoop( "ReleaseTestEventLoop", NettyConnection::release );
+        testWriteInEventLoop( "ReleaseTestEventLoop", connection ->
+        {
+            // make connection send RESET on release
+            connection.run( "RETURN 1", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+            connection.release();
+        } );
+    }
+
+    @Test
+    public void shouldWriteOnlyRunWhenPullIsDeferred()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        DeferredPull pull = connection.runAndFlushWithDeferredPull( "RETURN 1", emptyMap(), NO_OP_HANDLER,
+                NO_OP_HANDLER );
+        channel.runPendingTasks();
+
+        assertEquals( 1, channel.outboundMessages().size() );
+        assertEquals( new RunMessage( "RETURN 1", emptyMap() ), channel.readOutbound() );
+
+        pull.pullAll();
+        pull.pullAll();
+        pull.discardAll();
+        channel.runPendingTasks();
+
+        assertEquals( 1, channel.outboundMessages().size() );
+        assertEquals( PULL_ALL, channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldWriteDiscardAllWhenDeferredPullIsDiscarded()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        DeferredPull pull = connection.runAndFlushWithDeferredPull( "CREATE ()", emptyMap(), NO_OP_HANDLER,
+                NO_OP_HANDLER );
+        channel.runPendingTasks();
+        channel.outboundMessages().clear();
+
+        pull.discardAll();
+        pull.pullAll();
+        channel.runPendingTasks();
+
+        assertEquals( 1, channel.outboundMessages().size() );
+        assertEquals( DISCARD_ALL, channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldFailPullHandlerWhenRunWithDeferredPullFails()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+        ResponseHandler runHandler = mock( ResponseHandler.class );
+        ResponseHandler pullHandler = mock( ResponseHandler.class );
+
+        DeferredPull pull = connection.runAndFlushWithDeferredPull( "RETURN 1", emptyMap(), runHandler,
+                pullHandler );
+        channel.runPendingTasks();
+        messageDispatcher( channel ).muteAckFailure(); // do not send ACK_FAILURE to simplify the test
+        messageDispatcher( channel ).handleFailureMessage( "Neo.ClientError.Statement.SyntaxError", "Wrong!" );
+        channel.outboundMessages().clear();
+
+        pull.pullAll();
+        channel.runPendingTasks();
+
+        verify( runHandler ).onFailure( any() );
+        verify( pullHandler ).onFailure( any() );
+        assertEquals( 0, channel.outboundMessages().size() );
+    }
+
+    @Test
+    public void shouldSendResetOnReleaseWhenPullIsDeferred()
+    {
+        EmbeddedChannel channel = newChannel();
+        NettyConnection connection = newConnection( channel );
+
+        connection.runAndFlushWithDeferredPull( "RETURN 1", emptyMap(), NO_OP_HANDLER, NO_OP_HANDLER );
+        channel.runPendingTasks();
+        messageDispatcher( channel ).handleSuccessMessage( emptyMap() );
+        channel.outboundMessages().clear();
+
+        connection.release();
+        channel.runPendingTasks();
+
+        assertEquals( 1, channel.outboundMessages().size() );
+        assertEquals( RESET, channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldNotRunWithDeferredPullWhenReleased()
+    {
+        ResponseHandler runHandler = mock( ResponseHandler.class );
+        ResponseHandler pullHandler = mock( ResponseHandler.class );
+        NettyConnection connection = newConnection( newChannel() );
+
+        connection.release();
+        DeferredPull pull = connection.runAndFlushWithDeferredPull( "RETURN 1", emptyMap(), runHandler,
+                pullHandler );
+
+        assertEquals( DeferredPull.NONE, pull );
+        ArgumentCaptor<IllegalStateException> failureCaptor = ArgumentCaptor.forClass( IllegalStateException.class );
+        verify( pullHandler ).onFailure( failureCaptor.capture() );
+        assertConnectionReleasedError( failureCaptor.getValue() );
     }
 
     @Test
@@ -243,6 +452,7 @@ public class NettyConnectionTest
     {
         EmbeddedChannel channel = newChannel();
         NettyConnection connection = newConnection( channel );
+        messageDispatcher( channel ).queue( NO_OP_HANDLER ); // make connection send RESET on release
 
         CompletionStage<Void> releaseStage1 = connection.release();
         CompletionStage<Void> releaseStage2 = connection.release();
@@ -410,8 +620,7 @@ public class NettyConnectionTest
         CompletableFuture<Void> resetFuture = connection.reset().toCompletableFuture();
         channel.runPendingTasks();
 
-        assertEquals( 1, channel.outboundMessages().size() );
-        assertEquals( RESET, channel.readOutbound() );
+        assertEquals( 0, channel.outboundMessages().size() );
         assertTrue( resetFuture.isDone() );
         assertFalse( resetFuture.isCompletedExceptionally() );
     }
@@ -493,7 +702,14 @@ public class NettyConnectionTest
 
     private static NettyConnection newConnection( Channel channel )
     {
-        return newConnection( channel, mock( ChannelPool.class ) );
+        return newConnection( channel, newChannelPool() );
+    }
+
+    private static ChannelPool newChannelPool()
+    {
+        ChannelPool pool = mock( ChannelPool.class );
+        when( pool.release( any() ) ).thenReturn( ImmediateEventExecutor.INSTANCE.newSucceededFuture( null ) );
+        return pool;
     }
 
     private static NettyConnection newConnection( Channel channel, ChannelPool pool )
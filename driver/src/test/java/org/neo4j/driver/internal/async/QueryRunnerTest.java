@@ -31,7 +31,9 @@ import org.neo4j.driver.internal.handlers.RunResponseHandler;
 import org.neo4j.driver.internal.handlers.SessionPullAllResponseHandler;
 import org.neo4j.driver.internal.handlers.TransactionPullAllResponseHandler;
 import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
 
@@ -42,9 +44,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.neo4j.driver.internal.async.QueryRunner.runInSession;
 import static org.neo4j.driver.internal.async.QueryRunner.runInTransaction;
 import static org.neo4j.driver.v1.Values.value;
@@ -91,6 +96,25 @@ public class QueryRunnerTest
         testWaitingForRunResponse( false, false );
     }
 
+    @Test
+    public void shouldRunInSessionWithDeferredPull() throws Exception
+    {
+        Connection connection = mock( Connection.class );
+        DeferredPull pull = mock( DeferredPull.class );
+        when( connection.runAndFlushWithDeferredPull( eq( QUERY ), eq( PARAMS ), any(), any() ) ).thenReturn( pull );
+
+        InternalStatementResultCursor cursor = runInSession( connection, STATEMENT, RecordBufferWatermarks.DEFAULT,
+                true, false ).toCompletableFuture().get();
+
+        verify( connection, never() ).runAndFlush( any(), any(), any(), any() );
+        verify( pull, never() ).pullAll();
+
+        cursor.consumeAsync();
+
+        verify( pull ).discardAll();
+        verify( pull, never() ).pullAll();
+    }
+
     private static void testNotWaitingForRunResponse( boolean session ) throws Exception
     {
         Connection connection = mock( Connection.class );
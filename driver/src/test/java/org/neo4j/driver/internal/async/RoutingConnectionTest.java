@@ -21,18 +21,29 @@ package org.neo4j.driver.internal.async;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.RoutingErrorHandler;
+import org.neo4j.driver.internal.cluster.loadbalancing.BookmarkListener;
+import org.neo4j.driver.internal.cluster.loadbalancing.ResponseLatencyListener;
+import org.neo4j.driver.internal.handlers.BookmarkRecordingResponseHandler;
+import org.neo4j.driver.internal.handlers.LatencyRecordingResponseHandler;
 import org.neo4j.driver.internal.handlers.RoutingResponseHandler;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.neo4j.driver.v1.AccessMode.READ;
+import static org.neo4j.driver.v1.Values.value;
 
 public class RoutingConnectionTest
 {
@@ -48,6 +59,101 @@ public class RoutingConnectionTest
         testHandlersWrapping( true );
     }
 
+    @Test
+    public void shouldReportRunLatencyToListener()
+    {
+        Connection connection = mock( Connection.class );
+        BoltServerAddress address = new BoltServerAddress( "reader", 7687 );
+        when( connection.serverAddress() ).thenReturn( address );
+        ResponseLatencyListener latencyListener = mock( ResponseLatencyListener.class );
+        RoutingConnection routingConnection = new RoutingConnection( connection, READ,
+                mock( RoutingErrorHandler.class ), latencyListener );
+
+        ResponseHandler runHandler = mock( ResponseHandler.class );
+        routingConnection.runAndFlush( "RETURN 1", emptyMap(), runHandler, mock( ResponseHandler.class ) );
+
+        ArgumentCaptor<ResponseHandler> runHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( connection ).runAndFlush( eq( "RETURN 1" ), eq( emptyMap() ), runHandlerCaptor.capture(), any() );
+        assertThat( runHandlerCaptor.getValue(), instanceOf( LatencyRecordingResponseHandler.class ) );
+
+        runHandlerCaptor.getValue().onSuccess( emptyMap() );
+
+        verify( latencyListener ).onResponse( eq( address ), anyLong() );
+        verify( runHandler ).onSuccess( emptyMap() );
+    }
+
+    @Test
+    public void shouldMeasureRunLatencyFromFlush()
+    {
+        Connection connection = mock( Connection.class );
+        BoltServerAddress address = new BoltServerAddress( "reader", 7687 );
+        when( connection.serverAddress() ).thenReturn( address );
+        ResponseLatencyListener latencyListener = mock( ResponseLatencyListener.class );
+        RoutingConnection routingConnection = new RoutingConnection( connection, READ,
+                mock( RoutingErrorHandler.class ), latencyListener );
+
+        routingConnection.run( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+        ArgumentCaptor<ResponseHandler> runHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( connection ).run( eq( "RETURN 1" ), eq( emptyMap() ), runHandlerCaptor.capture(), any() );
+        ResponseHandler unflushedRunHandler = runHandlerCaptor.getValue();
+
+        // response to a request that was never flushed by this connection does not carry latency information
+        unflushedRunHandler.onSuccess( emptyMap() );
+        verify( latencyListener, never() ).onResponse( any(), anyLong() );
+
+        routingConnection.run( "RETURN 2", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+        verify( connection ).run( eq( "RETURN 2" ), eq( emptyMap() ), runHandlerCaptor.capture(), any() );
+        ResponseHandler flushedRunHandler = runHandlerCaptor.getValue();
+
+        routingConnection.runAndFlush( "RETURN 3", emptyMap(), mock( ResponseHandler.class ),
+                mock( ResponseHandler.class ) );
+        flushedRunHandler.onSuccess( emptyMap() );
+
+        verify( latencyListener ).onResponse( eq( address ), anyLong() );
+    }
+
+    @Test
+    public void shouldReportBookmarkToListener()
+    {
+        Connection connection = mock( Connection.class );
+        BoltServerAddress address = new BoltServerAddress( "reader", 7687 );
+        when( connection.serverAddress() ).thenReturn( address );
+        BookmarkListener bookmarkListener = mock( BookmarkListener.class );
+        RoutingConnection routingConnection = new RoutingConnection( connection, READ,
+                mock( RoutingErrorHandler.class ), null, bookmarkListener );
+
+        ResponseHandler pullAllHandler = mock( ResponseHandler.class );
+        routingConnection.runAndFlush( "COMMIT", emptyMap(), mock( ResponseHandler.class ), pullAllHandler );
+
+        ArgumentCaptor<ResponseHandler> pullAllHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( connection ).runAndFlush( eq( "COMMIT" ), eq( emptyMap() ), any(), pullAllHandlerCaptor.capture() );
+        assertThat( pullAllHandlerCaptor.getValue(), instanceOf( BookmarkRecordingResponseHandler.class ) );
+
+        pullAllHandlerCaptor.getValue().onSuccess( singletonMap( "bookmark", value( "neo4j:bookmark:v1:tx42" ) ) );
+
+        verify( bookmarkListener ).onBookmark( address, "neo4j:bookmark:v1:tx42" );
+        verify( pullAllHandler ).onSuccess( singletonMap( "bookmark", value( "neo4j:bookmark:v1:tx42" ) ) );
+    }
+
+    @Test
+    public void shouldNotReportMissingBookmarkToListener()
+    {
+        Connection connection = mock( Connection.class );
+        BookmarkListener bookmarkListener = mock( BookmarkListener.class );
+        RoutingConnection routingConnection = new RoutingConnection( connection, READ,
+                mock( RoutingErrorHandler.class ), null, bookmarkListener );
+
+        ResponseHandler pullAllHandler = mock( ResponseHandler.class );
+        routingConnection.run( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), pullAllHandler );
+
+        ArgumentCaptor<ResponseHandler> pullAllHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( connection ).run( eq( "RETURN 1" ), eq( emptyMap() ), any(), pullAllHandlerCaptor.capture() );
+        pullAllHandlerCaptor.getValue().onSuccess( emptyMap() );
+
+        verify( bookmarkListener, never() ).onBookmark( any(), any() );
+        verify( pullAllHandler ).onSuccess( emptyMap() );
+    }
+
     private static void testHandlersWrapping( boolean flush )
     {
         Connection connection = mock( Connection.class );
@@ -32,12 +32,13 @@ import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 import org.neo4j.driver.v1.exceptions.TransientException;
 
+import static java.util.Collections.emptyMap;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.neo4j.driver.internal.BoltServerAddress.LOCAL_DEFAULT;
 
 public class RoutingResponseHandlerTest
@@ -51,7 +52,8 @@ public class RoutingResponseHandlerTest
         Throwable handledError = handle( new CompletionException( error ), errorHandler );
 
         assertEquals( error, handledError );
-        verifyZeroInteractions( errorHandler );
+        verify( errorHandler ).onInconclusiveFailure( LOCAL_DEFAULT );
+        verifyNoMoreInteractions( errorHandler );
     }
 
     @Test
@@ -66,6 +68,34 @@ public class RoutingResponseHandlerTest
         verify( errorHandler ).onConnectionFailure( LOCAL_DEFAULT );
     }
 
+    @Test
+    public void shouldHandleSessionExpiredException()
+    {
+        SessionExpiredException error = new SessionExpiredException( "Hi" );
+        RoutingErrorHandler errorHandler = mock( RoutingErrorHandler.class );
+
+        Throwable handledError = handle( error, errorHandler );
+
+        assertEquals( error, handledError );
+        verify( errorHandler ).onInconclusiveFailure( LOCAL_DEFAULT );
+        verifyNoMoreInteractions( errorHandler );
+    }
+
+    @Test
+    public void shouldReportSuccessfulResponse()
+    {
+        ResponseHandler responseHandler = mock( ResponseHandler.class );
+        RoutingErrorHandler errorHandler = mock( RoutingErrorHandler.class );
+        RoutingResponseHandler routingResponseHandler =
+                new RoutingResponseHandler( responseHandler, LOCAL_DEFAULT, AccessMode.READ, errorHandler );
+
+        routingResponseHandler.onSuccess( emptyMap() );
+
+        verify( errorHandler ).onSuccess( LOCAL_DEFAULT );
+        verifyNoMoreInteractions( errorHandler );
+        verify( responseHandler ).onSuccess( emptyMap() );
+    }
+
     @Test
     public void shouldHandleDatabaseUnavailableError()
     {
@@ -87,7 +117,8 @@ public class RoutingResponseHandlerTest
         Throwable handledError = handle( error, errorHandler );
 
         assertEquals( error, handledError );
-        verifyZeroInteractions( errorHandler );
+        verify( errorHandler ).onInconclusiveFailure( LOCAL_DEFAULT );
+        verifyNoMoreInteractions( errorHandler );
     }
 
     @Test
@@ -123,7 +154,8 @@ public class RoutingResponseHandlerTest
         Throwable handledError = handle( error, errorHandler, AccessMode.READ );
 
         assertEquals( error, handledError );
-        verifyZeroInteractions( errorHandler );
+        verify( errorHandler ).onInconclusiveFailure( LOCAL_DEFAULT );
+        verifyNoMoreInteractions( errorHandler );
     }
 
     private void testWriteFailureWithReadAccessMode( String code )
@@ -135,7 +167,8 @@ public class RoutingResponseHandlerTest
 
         assertThat( handledError, instanceOf( ClientException.class ) );
         assertEquals( "Write queries cannot be performed in READ access mode.", handledError.getMessage() );
-        verifyZeroInteractions( errorHandler );
+        verify( errorHandler ).onInconclusiveFailure( LOCAL_DEFAULT );
+        verifyNoMoreInteractions( errorHandler );
     }
 
     private void testWriteFailureWithWriteAccessMode( String code )
@@ -27,6 +27,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.neo4j.driver.internal.spi.IgnoredAwareResponseHandler;
+import org.neo4j.driver.internal.spi.RecordSizeAwareResponseHandler;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.internal.value.IntegerValue;
 import org.neo4j.driver.v1.Value;
@@ -36,8 +38,10 @@ import org.neo4j.driver.v1.exceptions.Neo4jException;
 import static java.util.Collections.emptyMap;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -120,6 +124,20 @@ public class InboundMessageDispatcherTest
         assertEquals( FAILURE_MESSAGE, dispatcher.currentError().getMessage() );
     }
 
+    @Test
+    public void shouldRememberFailureUntilResetIsWritten()
+    {
+        InboundMessageDispatcher dispatcher = newDispatcher();
+        assertFalse( dispatcher.failureSinceLastReset() );
+
+        dispatcher.queue( mock( ResponseHandler.class ) );
+        dispatcher.handleFailureMessage( FAILURE_CODE, FAILURE_MESSAGE );
+        assertTrue( dispatcher.failureSinceLastReset() );
+
+        dispatcher.muteAckFailure();
+        assertFalse( dispatcher.failureSinceLastReset() );
+    }
+
     @Test
     public void shouldSendAckFailureOnFailure()
     {
@@ -223,6 +241,27 @@ public class InboundMessageDispatcherTest
         assertEquals( 1, dispatcher.queuedHandlersCount() );
     }
 
+    @Test
+    public void shouldPassMessageSizeToRecordSizeAwareHandler()
+    {
+        InboundMessageDispatcher dispatcher = newDispatcher();
+
+        RecordSizeAwareResponseHandler handler = mock( RecordSizeAwareResponseHandler.class );
+        dispatcher.queue( handler );
+
+        Value[] fields1 = {new IntegerValue( 1 )};
+        Value[] fields2 = {new IntegerValue( 2 )};
+
+        dispatcher.beforeMessage( 42 );
+        dispatcher.handleRecordMessage( fields1 );
+        dispatcher.beforeMessage( 4242 );
+        dispatcher.handleRecordMessage( fields2 );
+
+        verify( handler ).onRecord( fields1, 42 );
+        verify( handler ).onRecord( fields2, 4242 );
+        verify( handler, never() ).onRecord( any() );
+    }
+
     @Test
     public void shouldFailAllHandlersOnFatalError()
     {
@@ -289,6 +328,25 @@ public class InboundMessageDispatcherTest
         verifyFailure( handler2 );
     }
 
+    @Test
+    public void shouldNotifyIgnoredAwareHandlerOnIgnoredMessage()
+    {
+        InboundMessageDispatcher dispatcher = newDispatcher();
+        ResponseHandler handler1 = mock( ResponseHandler.class );
+        IgnoredAwareResponseHandler handler2 = mock( IgnoredAwareResponseHandler.class );
+
+        dispatcher.queue( handler1 );
+        dispatcher.queue( handler2 );
+
+        dispatcher.handleFailureMessage( FAILURE_CODE, FAILURE_MESSAGE );
+        dispatcher.handleIgnoredMessage();
+
+        ArgumentCaptor<Neo4jException> captor = ArgumentCaptor.forClass( Neo4jException.class );
+        verify( handler2 ).onIgnored( captor.capture() );
+        assertEquals( FAILURE_CODE, captor.getValue().code() );
+        verify( handler2, never() ).onFailure( any() );
+    }
+
     @Test
     public void shouldFailHandlerOnIgnoredMessageWhenHandlingReset()
     {
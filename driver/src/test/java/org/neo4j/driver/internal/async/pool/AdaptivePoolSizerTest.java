@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AdaptivePoolSizerTest
+{
+    private static final long WINDOW = SECONDS.toNanos( 1 );
+
+    @Test
+    public void shouldGrowWhenAcquisitionsWait()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 1, 100, 0 );
+
+        record( sizer, 10, MILLISECONDS.toNanos( 10 ), MILLISECONDS.toNanos( 10 ) );
+
+        assertEquals( 11, sizer.nextLimit( 10, 10, WINDOW ) );
+    }
+
+    @Test
+    public void shouldGrowToDemandComputedWithLittlesLaw()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 1, 100, 0 );
+
+        // 10 seconds of busy time and 6 seconds of waiting time within a second means demand of 16 connections
+        record( sizer, 100, MILLISECONDS.toNanos( 60 ), MILLISECONDS.toNanos( 100 ) );
+
+        assertEquals( 20, sizer.nextLimit( 10, 10, WINDOW ) );
+    }
+
+    @Test
+    public void shouldNotGrowWhenServerLatencyIncreases()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 1, 100, 0 );
+
+        record( sizer, 10, 0, MILLISECONDS.toNanos( 10 ) );
+        assertEquals( 10, sizer.nextLimit( 10, 10, WINDOW ) );
+
+        record( sizer, 10, MILLISECONDS.toNanos( 100 ), MILLISECONDS.toNanos( 50 ) );
+        assertEquals( 10, sizer.nextLimit( 10, 10, 2 * WINDOW ) );
+    }
+
+    @Test
+    public void shouldShrinkSlowlyWhenDemandIsLow()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 1, 100, 0 );
+
+        record( sizer, 10, 0, MILLISECONDS.toNanos( 1 ) );
+        assertEquals( 49, sizer.nextLimit( 50, 0, WINDOW ) );
+
+        assertEquals( 48, sizer.nextLimit( 49, 0, 2 * WINDOW ) );
+    }
+
+    @Test
+    public void shouldNotShrinkBelowConnectionsInUse()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 1, 100, 0 );
+
+        assertEquals( 10, sizer.nextLimit( 10, 10, WINDOW ) );
+    }
+
+    @Test
+    public void shouldStayWithinBounds()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 5, 20, 0 );
+
+        assertEquals( 5, sizer.nextLimit( 5, 0, WINDOW ) );
+
+        record( sizer, 1000, MILLISECONDS.toNanos( 100 ), MILLISECONDS.toNanos( 100 ) );
+        assertEquals( 20, sizer.nextLimit( 10, 10, 2 * WINDOW ) );
+    }
+
+    @Test
+    public void shouldNotChangeLimitWhenNoTimeElapsed()
+    {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer( 1, 100, 0 );
+
+        record( sizer, 10, MILLISECONDS.toNanos( 10 ), MILLISECONDS.toNanos( 10 ) );
+
+        assertEquals( 42, sizer.nextLimit( 42, 42, 0 ) );
+    }
+
+    @Test
+    public void shouldRejectIllegalBounds()
+    {
+        testIllegalBounds( 0, 10 );
+        testIllegalBounds( -1, 10 );
+        testIllegalBounds( 11, 10 );
+    }
+
+    private static void record( AdaptivePoolSizer sizer, int count, long waitNanos, long holdNanos )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            sizer.acquired( waitNanos );
+            sizer.released( holdNanos );
+        }
+    }
+
+    private static void testIllegalBounds( int minSize, int maxSize )
+    {
+        try
+        {
+            new AdaptivePoolSizer( minSize, maxSize );
+            fail( "Exception expected" );
+        }
+        catch ( IllegalArgumentException ignore )
+        {
+        }
+    }
+}
@@ -20,7 +20,6 @@ package org.neo4j.driver.internal.async.pool;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
-import io.netty.channel.pool.ChannelPool;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import org.junit.After;
 import org.junit.Before;
@@ -51,6 +50,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -166,7 +166,7 @@ public class ConnectionPoolImplIT
         pool.acquire( ADDRESS_3 );
 
         pool.retainAll( new HashSet<>( asList( ADDRESS_1, ADDRESS_2, ADDRESS_3 ) ) );
-        for ( ChannelPool channelPool : pool.channelPoolsByAddress.values() )
+        for ( NettyChannelPool channelPool : pool.channelPoolsByAddress.values() )
         {
             verify( channelPool, never() ).close();
         }
@@ -230,7 +230,7 @@ public class ConnectionPoolImplIT
 
     private static class TestConnectionPool extends ConnectionPoolImpl
     {
-        final Map<BoltServerAddress,ChannelPool> channelPoolsByAddress = new HashMap<>();
+        final Map<BoltServerAddress,NettyChannelPool> channelPoolsByAddress = new HashMap<>();
 
         TestConnectionPool( NettyChannelTracker nettyChannelTracker )
         {
@@ -238,19 +238,20 @@ public class ConnectionPoolImplIT
                     DEV_NULL_METRICS, DEV_NULL_LOGGING, new FakeClock() );
         }
 
-        ChannelPool getPool( BoltServerAddress address )
+        NettyChannelPool getPool( BoltServerAddress address )
         {
-            ChannelPool pool = channelPoolsByAddress.get( address );
+            NettyChannelPool pool = channelPoolsByAddress.get( address );
             assertNotNull( pool );
             return pool;
         }
 
         @Override
-        ChannelPool newPool( BoltServerAddress address )
+        NettyChannelPool newPool( BoltServerAddress address )
         {
-            ChannelPool channelPool = mock( ChannelPool.class );
+            NettyChannelPool channelPool = mock( NettyChannelPool.class );
             Channel channel = mock( Channel.class );
-            doReturn( ImmediateEventExecutor.INSTANCE.newSucceededFuture( channel ) ).when( channelPool ).acquire();
+            doReturn( ImmediateEventExecutor.INSTANCE.newSucceededFuture( channel ) )
+                    .when( channelPool ).acquire( any( AcquisitionSettings.class ) );
             channelPoolsByAddress.put( address, channelPool );
             return channelPool;
         }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.ChannelConnector;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+
+public class ConnectionPoolImplTest
+{
+    private static final BoltServerAddress ADDRESS_1 = new BoltServerAddress( "server:1" );
+    private static final BoltServerAddress ADDRESS_2 = new BoltServerAddress( "server:2" );
+
+    @Test
+    public void shouldDrainPoolsWithActiveConnectionsWhenRetaining()
+    {
+        NettyChannelTracker nettyChannelTracker = mock( NettyChannelTracker.class );
+        TestConnectionPool pool = new TestConnectionPool( nettyChannelTracker );
+
+        pool.acquire( ADDRESS_1 );
+        pool.acquire( ADDRESS_2 );
+
+        when( nettyChannelTracker.inUseChannelCount( ADDRESS_1 ) ).thenReturn( 3 );
+        when( pool.getPool( ADDRESS_1 ).drain( any() ) ).thenReturn( true );
+
+        pool.retainAll( singleton( ADDRESS_2 ) );
+
+        ArgumentCaptor<Runnable> onDrainedCaptor = ArgumentCaptor.forClass( Runnable.class );
+        verify( pool.getPool( ADDRESS_1 ) ).drain( onDrainedCaptor.capture() );
+        verify( pool.getPool( ADDRESS_1 ), never() ).close();
+        verify( pool.getPool( ADDRESS_2 ), never() ).drain( any() );
+        assertTrue( pool.isOpen( ADDRESS_1 ) );
+
+        // last in-use connection returned to the draining pool
+        onDrainedCaptor.getValue().run();
+
+        verify( pool.getPool( ADDRESS_1 ) ).close();
+        assertFalse( pool.isOpen( ADDRESS_1 ) );
+        assertTrue( pool.isOpen( ADDRESS_2 ) );
+    }
+
+    @Test
+    public void shouldStopDrainingPoolsWhenAddressIsRetainedAgain()
+    {
+        NettyChannelTracker nettyChannelTracker = mock( NettyChannelTracker.class );
+        TestConnectionPool pool = new TestConnectionPool( nettyChannelTracker );
+
+        pool.acquire( ADDRESS_1 );
+        when( nettyChannelTracker.inUseChannelCount( ADDRESS_1 ) ).thenReturn( 1 );
+
+        pool.retainAll( singleton( ADDRESS_2 ) );
+        verify( pool.getPool( ADDRESS_1 ) ).drain( any() );
+
+        pool.retainAll( singleton( ADDRESS_1 ) );
+        verify( pool.getPool( ADDRESS_1 ) ).stopDraining();
+        verify( pool.getPool( ADDRESS_1 ), never() ).close();
+    }
+
+    @Test
+    public void shouldReportDrainingPools()
+    {
+        TestConnectionPool pool = new TestConnectionPool( mock( NettyChannelTracker.class ) );
+
+        pool.acquire( ADDRESS_1 );
+        when( pool.getPool( ADDRESS_1 ).isDraining() ).thenReturn( true );
+
+        assertTrue( pool.isDraining( ADDRESS_1 ) );
+        assertFalse( pool.isDraining( ADDRESS_2 ) );
+    }
+
+    @Test
+    public void shouldReportCurrentSizeLimitOfPools()
+    {
+        TestConnectionPool pool = new TestConnectionPool( mock( NettyChannelTracker.class ) );
+
+        pool.acquire( ADDRESS_1 );
+        when( pool.getPool( ADDRESS_1 ).sizeLimit() ).thenReturn( 3 );
+
+        assertEquals( 3, pool.sizeLimit( ADDRESS_1 ) );
+        assertEquals( 10, pool.sizeLimit( ADDRESS_2 ) );
+    }
+
+    private static class TestConnectionPool extends ConnectionPoolImpl
+    {
+        final Map<BoltServerAddress,NettyChannelPool> channelPoolsByAddress = new HashMap<>();
+
+        TestConnectionPool( NettyChannelTracker nettyChannelTracker )
+        {
+            super( mock( ChannelConnector.class ), mock( Bootstrap.class ), nettyChannelTracker,
+                    new PoolSettings( 10, 5000, -1, -1 ), DEV_NULL_METRICS, DEV_NULL_LOGGING, new FakeClock() );
+        }
+
+        NettyChannelPool getPool( BoltServerAddress address )
+        {
+            NettyChannelPool pool = channelPoolsByAddress.get( address );
+            assertNotNull( pool );
+            return pool;
+        }
+
+        @Override
+        NettyChannelPool newPool( BoltServerAddress address )
+        {
+            NettyChannelPool channelPool = mock( NettyChannelPool.class );
+            Channel channel = mock( Channel.class );
+            doReturn( ImmediateEventExecutor.INSTANCE.newSucceededFuture( channel ) )
+                    .when( channelPool ).acquire( any( AcquisitionSettings.class ) );
+            channelPoolsByAddress.put( address, channelPool );
+            return channelPool;
+        }
+    }
+}
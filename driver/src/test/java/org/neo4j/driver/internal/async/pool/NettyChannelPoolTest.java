@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.async.ChannelConnector;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.async.ChannelAttributes.setServerAddress;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+
+public class NettyChannelPoolTest
+{
+    private static final BoltServerAddress ADDRESS = BoltServerAddress.LOCAL_DEFAULT;
+
+    private final NettyChannelTracker tracker = new NettyChannelTracker( DEV_NULL_METRICS, DEV_NULL_LOGGING );
+    private final AtomicInteger drainedCount = new AtomicInteger();
+    private NettyChannelPool pool;
+
+    @Before
+    public void setUp()
+    {
+        // embedded event loop executes all pool operations in the calling thread
+        Bootstrap bootstrap = new Bootstrap().group( new EmbeddedChannel().eventLoop() );
+        ChannelConnector connector = mock( ChannelConnector.class );
+        when( connector.connect( any(), any() ) ).then(
+                invocation -> connect( invocation.getArgumentAt( 1, Bootstrap.class ) ) );
+        pool = new NettyChannelPool( ADDRESS, connector, bootstrap, tracker, ChannelHealthChecker.ACTIVE, 1_000, 2 );
+    }
+
+    @After
+    public void tearDown()
+    {
+        pool.close();
+    }
+
+    @Test
+    public void shouldCompleteDrainingRightAwayWhenNoChannelsAreInUse()
+    {
+        Channel channel = acquire();
+        release( channel );
+
+        assertTrue( pool.drain( drainedCount::incrementAndGet ) );
+
+        assertFalse( channel.isOpen() );
+        assertEquals( 1, drainedCount.get() );
+        assertFalse( pool.isDraining() );
+    }
+
+    @Test
+    public void shouldCloseIdleChannelsWhenDrainingStarts()
+    {
+        Channel idleChannel = acquire();
+        Channel inUseChannel = acquire();
+        release( idleChannel );
+
+        assertTrue( pool.drain( drainedCount::incrementAndGet ) );
+
+        assertFalse( idleChannel.isOpen() );
+        assertTrue( inUseChannel.isOpen() );
+        assertEquals( 0, tracker.idleChannelCount( ADDRESS ) );
+        assertEquals( 0, drainedCount.get() );
+        assertTrue( pool.isDraining() );
+    }
+
+    @Test
+    public void shouldCompleteDrainingWhenLastChannelIsReleased()
+    {
+        Channel channel1 = acquire();
+        Channel channel2 = acquire();
+        pool.drain( drainedCount::incrementAndGet );
+
+        release( channel1 );
+        assertFalse( channel1.isOpen() );
+        assertEquals( 0, drainedCount.get() );
+
+        release( channel2 );
+        assertFalse( channel2.isOpen() );
+        assertEquals( 1, drainedCount.get() );
+        assertFalse( pool.isDraining() );
+    }
+
+    @Test
+    public void shouldNotStartDrainingTwice()
+    {
+        acquire();
+
+        assertTrue( pool.drain( drainedCount::incrementAndGet ) );
+        assertFalse( pool.drain( drainedCount::incrementAndGet ) );
+    }
+
+    @Test
+    public void shouldRefuseAcquisitionWhileDraining()
+    {
+        acquire();
+        pool.drain( drainedCount::incrementAndGet );
+
+        Future<Channel> future = pool.acquire( AcquisitionSettings.DEFAULT );
+
+        assertThat( future.cause(), instanceOf( SessionExpiredException.class ) );
+    }
+
+    @Test
+    public void shouldRefuseAcquisitionWaitingForPermitWhenDrainingStarts()
+    {
+        Channel channel1 = acquire();
+        Channel channel2 = acquire();
+        Future<Channel> pending = pool.acquire( AcquisitionSettings.DEFAULT );
+        assertFalse( pending.isDone() );
+
+        pool.drain( drainedCount::incrementAndGet );
+        release( channel1 );
+
+        assertThat( pending.cause(), instanceOf( SessionExpiredException.class ) );
+        assertEquals( 0, pool.pendingAcquisitionsCount() );
+        assertEquals( 0, drainedCount.get() );
+
+        release( channel2 );
+        assertEquals( 1, drainedCount.get() );
+    }
+
+    @Test
+    public void shouldGiveOutChannelsWhenDrainingIsStopped()
+    {
+        Channel channel = acquire();
+        pool.drain( drainedCount::incrementAndGet );
+
+        assertTrue( pool.stopDraining() );
+        assertFalse( pool.stopDraining() );
+        assertFalse( pool.isDraining() );
+
+        release( channel );
+        assertTrue( channel.isOpen() );
+        assertEquals( channel, acquire() );
+        assertEquals( 0, drainedCount.get() );
+    }
+
+    private Channel acquire()
+    {
+        Future<Channel> future = pool.acquire( AcquisitionSettings.DEFAULT );
+        assertTrue( future.isSuccess() );
+        return future.getNow();
+    }
+
+    private void release( Channel channel )
+    {
+        assertTrue( pool.release( channel ).isSuccess() );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static ChannelFuture connect( Bootstrap bootstrap )
+    {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        setServerAddress( channel, ADDRESS );
+        // real connector applies bootstrap attributes, they let the pool recognize channels it created
+        bootstrap.config().attrs().forEach( ( key, value ) -> channel.attr( (AttributeKey<Object>) key ).set( value ) );
+        return channel.newSucceededFuture();
+    }
+}
@@ -22,8 +22,15 @@ import io.netty.channel.Channel;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.neo4j.driver.internal.BoltServerAddress;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -174,6 +181,43 @@ public class NettyChannelTrackerTest
         assertEquals( 0, tracker.inUseChannelCount( address ) );
     }
 
+    @Test
+    public void shouldKeepCountsConsistentWhenUsedConcurrently() throws Exception
+    {
+        int threadCount = 16;
+        int iterations = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool( threadCount );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < threadCount; i++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    Channel channel = newChannel();
+                    tracker.channelCreated( channel, null );
+                    for ( int j = 0; j < iterations; j++ )
+                    {
+                        tracker.channelReleased( channel );
+                        tracker.channelAcquired( channel );
+                    }
+                    tracker.channelReleased( channel );
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get( 1, MINUTES );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals( 0, tracker.inUseChannelCount( address ) );
+        assertEquals( threadCount, tracker.idleChannelCount( address ) );
+    }
+
     private Channel newChannel()
     {
         EmbeddedChannel channel = new EmbeddedChannel();
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.async.pool;
+
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.driver.v1.exceptions.AcquisitionQueueFullException;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.v1.AcquisitionPriority.HIGH;
+import static org.neo4j.driver.v1.AcquisitionPriority.LOW;
+import static org.neo4j.driver.v1.AcquisitionPriority.NORMAL;
+
+public class PendingAcquisitionQueueTest
+{
+    private final EventExecutor executor = new DefaultEventExecutor();
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownGracefully( 0, 0, TimeUnit.MILLISECONDS );
+    }
+
+    @Test
+    public void shouldExecuteActionImmediatelyWhenPermitAvailable()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 2, 10, executor );
+        List<String> executed = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "a" ) );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "b" ) );
+
+        assertEquals( asList( "a", "b" ), executed );
+        assertEquals( 0, queue.pendingCount() );
+    }
+
+    @Test
+    public void shouldServeWaitingPartiesInPriorityOrder()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        List<String> executed = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "first" ) );
+        queue.acquire( LOW, -1, newPromise(), ignore -> executed.add( "low" ) );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "normal" ) );
+        queue.acquire( HIGH, -1, newPromise(), ignore -> executed.add( "high" ) );
+        assertEquals( 3, queue.pendingCount() );
+
+        releaseTimes( queue, 3 );
+
+        assertEquals( asList( "first", "high", "normal", "low" ), executed );
+        assertEquals( 0, queue.pendingCount() );
+    }
+
+    @Test
+    public void shouldServeWaitingPartiesWithSamePriorityInFifoOrder()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        List<Integer> executed = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( 0 ) );
+        for ( int i = 1; i <= 5; i++ )
+        {
+            int index = i;
+            queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( index ) );
+        }
+
+        releaseTimes( queue, 5 );
+
+        assertEquals( asList( 0, 1, 2, 3, 4, 5 ), executed );
+    }
+
+    @Test
+    public void shouldReturnPermitWhenNobodyIsWaiting()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        List<String> executed = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "a" ) );
+        queue.release();
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "b" ) );
+
+        assertEquals( asList( "a", "b" ), executed );
+    }
+
+    @Test
+    public void shouldStartWaitingPartiesWhenMaxPermitsGrows()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        List<String> executed = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "a" ) );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "b" ) );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "c" ) );
+
+        queue.setMaxPermits( 3 );
+
+        assertEquals( asList( "a", "b", "c" ), executed );
+        assertEquals( 3, queue.maxPermits() );
+        assertEquals( 0, queue.pendingCount() );
+    }
+
+    @Test
+    public void shouldNotHandOverReleasedPermitsWhenMaxPermitsShrinks()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 2, 10, executor );
+        List<String> executed = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "a" ) );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "b" ) );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> executed.add( "c" ) );
+
+        queue.setMaxPermits( 1 );
+
+        // both permits are still in use, first release only brings the count back to the new maximum
+        queue.release();
+        assertEquals( asList( "a", "b" ), executed );
+        queue.release();
+        assertEquals( asList( "a", "b", "c" ), executed );
+    }
+
+    @Test
+    public void shouldReportWaitTime()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        List<Long> waitTimes = new ArrayList<>();
+
+        queue.acquire( NORMAL, -1, newPromise(), waitTimes::add );
+        queue.acquire( NORMAL, -1, newPromise(), waitTimes::add );
+        queue.release();
+
+        assertEquals( 2, waitTimes.size() );
+        assertEquals( 0L, waitTimes.get( 0 ).longValue() );
+        assertTrue( waitTimes.get( 1 ) > 0 );
+    }
+
+    @Test
+    public void shouldRejectWhenQueueIsFull()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 2, executor );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> {} );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> {} );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> {} );
+
+        Promise<Void> rejected = newPromise();
+        queue.acquire( HIGH, -1, rejected, ignore -> {} );
+
+        assertTrue( rejected.isDone() );
+        assertThat( rejected.cause(), instanceOf( AcquisitionQueueFullException.class ) );
+        assertEquals( 2, queue.pendingCount() );
+    }
+
+    @Test
+    public void shouldFailImmediatelyWhenTimeoutIsZero()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> {} );
+
+        Promise<Void> promise = newPromise();
+        queue.acquire( NORMAL, 0, promise, ignore -> {} );
+
+        assertTrue( promise.isDone() );
+        assertThat( promise.cause(), instanceOf( TimeoutException.class ) );
+        assertEquals( 0, queue.pendingCount() );
+    }
+
+    @Test
+    public void shouldFailWaitingPartyWhenTimeoutExpires() throws Exception
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> {} );
+
+        Promise<Void> promise = newPromise();
+        List<String> executed = new ArrayList<>();
+        queue.acquire( NORMAL, 50, promise, ignore -> executed.add( "timed out" ) );
+
+        assertTrue( promise.await( 10, TimeUnit.SECONDS ) );
+        assertThat( promise.cause(), instanceOf( TimeoutException.class ) );
+        assertEquals( 0, queue.pendingCount() );
+
+        // released permit should not be handed to the timed out party
+        queue.release();
+        assertTrue( executed.isEmpty() );
+    }
+
+    @Test
+    public void shouldFailWaitingPartiesWhenClosed()
+    {
+        PendingAcquisitionQueue queue = new PendingAcquisitionQueue( 1, 10, executor );
+        queue.acquire( NORMAL, -1, newPromise(), ignore -> {} );
+
+        Promise<Void> waiting = newPromise();
+        queue.acquire( LOW, -1, waiting, ignore -> {} );
+
+        queue.close();
+
+        assertTrue( waiting.isDone() );
+        assertThat( waiting.cause(), instanceOf( IllegalStateException.class ) );
+
+        Promise<Void> afterClose = newPromise();
+        List<String> executed = new ArrayList<>();
+        queue.acquire( HIGH, -1, afterClose, ignore -> executed.add( "after close" ) );
+        assertThat( afterClose.cause(), instanceOf( IllegalStateException.class ) );
+        assertFalse( executed.contains( "after close" ) );
+    }
+
+    private <T> Promise<T> newPromise()
+    {
+        return executor.newPromise();
+    }
+
+    private static void releaseTimes( PendingAcquisitionQueue queue, int times )
+    {
+        for ( int i = 0; i < times; i++ )
+        {
+            queue.release();
+        }
+    }
+}
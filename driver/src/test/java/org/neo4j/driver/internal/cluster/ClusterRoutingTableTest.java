@@ -29,6 +29,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.A;
 import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.B;
@@ -181,4 +182,58 @@ public class ClusterRoutingTableTest
         assertFalse( routingTable.isStaleFor( READ ) );
         assertFalse( routingTable.isStaleFor( WRITE ) );
     }
+
+    @Test
+    public void shouldForgetAddressInAllRoles()
+    {
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( new FakeClock() );
+        routingTable.update( createClusterComposition( asList( A, B ), asList( A, C ), asList( A, D ) ) );
+
+        routingTable.forget( A );
+
+        assertArrayEquals( new BoltServerAddress[]{B}, routingTable.routers().toArray() );
+        assertArrayEquals( new BoltServerAddress[]{C}, routingTable.writers().toArray() );
+        assertArrayEquals( new BoltServerAddress[]{D}, routingTable.readers().toArray() );
+    }
+
+    @Test
+    public void shouldRemoveWriterButKeepOtherRoles()
+    {
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( new FakeClock() );
+        routingTable.update( createClusterComposition( asList( A, B ), asList( A, C ), asList( A, D ) ) );
+
+        routingTable.removeWriter( A );
+
+        assertArrayEquals( new BoltServerAddress[]{A, B}, routingTable.routers().toArray() );
+        assertArrayEquals( new BoltServerAddress[]{C}, routingTable.writers().toArray() );
+        assertArrayEquals( new BoltServerAddress[]{A, D}, routingTable.readers().toArray() );
+    }
+
+    @Test
+    public void shouldNotModifyPreviouslyReturnedAddresses()
+    {
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( new FakeClock() );
+        routingTable.update( createClusterComposition( asList( A, B ), asList( A, C ), asList( A, D ) ) );
+        AddressSet readers = routingTable.readers();
+        AddressSet writers = routingTable.writers();
+
+        routingTable.forget( A );
+        routingTable.update( createClusterComposition( asList( E ), asList( E ), asList( F ) ) );
+
+        assertArrayEquals( new BoltServerAddress[]{A, D}, readers.toArray() );
+        assertArrayEquals( new BoltServerAddress[]{A, C}, writers.toArray() );
+        assertArrayEquals( new BoltServerAddress[]{F}, routingTable.readers().toArray() );
+    }
+
+    @Test
+    public void shouldKeepSameAddressesWhenForgettingUnknownAddress()
+    {
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( new FakeClock() );
+        routingTable.update( createClusterComposition( asList( A, B ), asList( C ), asList( D ) ) );
+        AddressSet routers = routingTable.routers();
+
+        routingTable.forget( E );
+
+        assertSame( routers, routingTable.routers() );
+    }
 }
@@ -18,13 +18,16 @@
  */
 package org.neo4j.driver.internal.cluster;
 
+import io.netty.util.concurrent.EventExecutorGroup;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.cluster.ClusterCompositionResponse.Failure;
@@ -40,12 +43,14 @@ import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.startsWith;
@@ -366,6 +371,134 @@ public class RediscoveryTest
         assertEquals( 0, eventExecutor.scheduleDelays().size() );
     }
 
+    @Test
+    public void shouldQueryNextRouterAfterHedgeDelay()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B ), asOrderedSet( B ), asOrderedSet( A, B ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new CompletableFuture<>() ); // first -> does not respond
+        responsesByAddress.put( B, new Success( expectedComposition ) ); // second -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        ImmediateSchedulingEventExecutor eventExecutor = new ImmediateSchedulingEventExecutor();
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, eventExecutor, 200 );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        assertEquals( singletonList( 200L ), eventExecutor.scheduleDelays() );
+        verify( table, never() ).forget( any() );
+    }
+
+    @Test
+    public void shouldQueryAllRoutersInParallelWhenHedgeDelayIsZero()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( A, B, C ), asOrderedSet( C ), asOrderedSet( A, B, C ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new CompletableFuture<>() ); // first -> does not respond
+        responsesByAddress.put( B, new CompletableFuture<>() ); // second -> does not respond
+        responsesByAddress.put( C, new Success( expectedComposition ) ); // third -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        ImmediateSchedulingEventExecutor eventExecutor = new ImmediateSchedulingEventExecutor();
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, eventExecutor, 0 );
+        RoutingTable table = routingTableMock( A, B, C );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        assertEquals( 0, eventExecutor.scheduleDelays().size() );
+        verify( pool ).acquire( A );
+        verify( pool ).acquire( B );
+        verify( pool ).acquire( C );
+    }
+
+    @Test
+    public void shouldUseFirstReceivedCompositionWhenHedging()
+    {
+        ClusterComposition slowComposition = new ClusterComposition( 1,
+                asOrderedSet( A ), asOrderedSet( A ), asOrderedSet( A ) );
+        ClusterComposition fastComposition = new ClusterComposition( 42,
+                asOrderedSet( B ), asOrderedSet( B ), asOrderedSet( B ) );
+
+        CompletableFuture<Object> slowResponse = new CompletableFuture<>();
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, slowResponse );
+        responsesByAddress.put( B, new Success( fastComposition ) );
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, new ImmediateSchedulingEventExecutor(),
+                0 );
+        RoutingTable table = routingTableMock( A, B );
+
+        CompletionStage<ClusterComposition> lookupStage = rediscovery.lookupClusterComposition( table, pool );
+        assertEquals( fastComposition, await( lookupStage ) );
+
+        slowResponse.complete( new Success( slowComposition ) );
+        assertEquals( fastComposition, await( lookupStage ) );
+    }
+
+    @Test
+    public void shouldQueryNextRouterWithoutWaitingForHedgeDelayWhenRouterFails()
+    {
+        ClusterComposition expectedComposition = new ClusterComposition( 42,
+                asOrderedSet( B ), asOrderedSet( B ), asOrderedSet( B ) );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new ServiceUnavailableException( "Hi!" ) ); // first -> non-fatal failure
+        responsesByAddress.put( B, new Success( expectedComposition ) ); // second -> valid cluster composition
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        // hedge timer never fires
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, mock( EventExecutorGroup.class,
+                RETURNS_MOCKS ), TimeUnit.HOURS.toMillis( 1 ) );
+        RoutingTable table = routingTableMock( A, B );
+
+        ClusterComposition actualComposition = await( rediscovery.lookupClusterComposition( table, pool ) );
+
+        assertEquals( expectedComposition, actualComposition );
+        verify( table ).forget( A );
+    }
+
+    @Test
+    public void shouldFailHedgedLookupOnAuthError()
+    {
+        AuthenticationException authError = new AuthenticationException( "Neo.ClientError.Security.Unauthorized",
+                "Wrong password" );
+
+        Map<BoltServerAddress,Object> responsesByAddress = new HashMap<>();
+        responsesByAddress.put( A, new CompletableFuture<>() ); // first -> does not respond
+        responsesByAddress.put( B, authError ); // second -> fatal auth error
+
+        ClusterCompositionProvider compositionProvider = compositionProviderMock( responsesByAddress );
+        Rediscovery rediscovery = newHedgingRediscovery( compositionProvider, new ImmediateSchedulingEventExecutor(),
+                0 );
+        RoutingTable table = routingTableMock( A, B );
+
+        try
+        {
+            await( rediscovery.lookupClusterComposition( table, pool ) );
+            fail( "Exception expected" );
+        }
+        catch ( AuthenticationException e )
+        {
+            assertEquals( authError, e );
+        }
+    }
+
+    private Rediscovery newHedgingRediscovery( ClusterCompositionProvider compositionProvider,
+            EventExecutorGroup eventExecutorGroup, long hedgeDelay )
+    {
+        RoutingSettings settings = new RoutingSettings( 1, 0, RoutingContext.EMPTY, 0, hedgeDelay );
+        return new Rediscovery( A, settings, compositionProvider, mock( HostNameResolver.class ),
+                eventExecutorGroup, DEV_NULL_LOGGER, false );
+    }
+
     private Rediscovery newRediscovery( BoltServerAddress initialRouter, ClusterCompositionProvider compositionProvider,
             HostNameResolver hostNameResolver )
     {
@@ -395,6 +528,10 @@ public class RediscoveryTest
             {
                 return failedFuture( (Throwable) response );
             }
+            else if ( response instanceof CompletableFuture )
+            {
+                return response;
+            }
             else
             {
                 return completedFuture( response );
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.A;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.B;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.C;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.D;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.E;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+public class RoutingTableCacheTest
+{
+    private static final BoltServerAddress INITIAL_ROUTER = new BoltServerAddress( "initial-router", 7687 );
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder( new File( "target" ) );
+
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    public void shouldLoadNothingWhenDisabled()
+    {
+        RoutingTableCache cache = new RoutingTableCache( null, INITIAL_ROUTER, clock, DEV_NULL_LOGGING );
+
+        cache.store( composition( asList( A, B ), singletonList( C ), asList( D, E ) ) );
+
+        assertFalse( cache.isEnabled() );
+        assertNull( cache.load() );
+    }
+
+    @Test
+    public void shouldLoadNothingWhenFileDoesNotExist() throws Exception
+    {
+        RoutingTableCache cache = newCache( new File( testDir.getRoot(), "missing" ) );
+
+        assertTrue( cache.isEnabled() );
+        assertNull( cache.load() );
+    }
+
+    @Test
+    public void shouldStoreAndLoadComposition() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing-table" );
+        newCache( file ).store( composition( asList( A, B ), singletonList( C ), asList( D, E ) ) );
+
+        clock.progress( 42 );
+        ClusterComposition loaded = newCache( file ).load();
+
+        assertEquals( asSet( A, B ), loaded.readers() );
+        assertEquals( asSet( C ), loaded.writers() );
+        assertEquals( asSet( D, E ), loaded.routers() );
+        assertEquals( clock.millis() + RoutingTableCache.CACHED_ROUTING_TABLE_TTL_MILLIS,
+                loaded.expirationTimestamp() );
+    }
+
+    @Test
+    public void shouldCreateParentDirectories() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "a/b/routing-table" );
+
+        newCache( file ).store( composition( singletonList( A ), singletonList( A ), singletonList( A ) ) );
+
+        assertTrue( file.exists() );
+        assertEquals( asSet( A ), newCache( file ).load().routers() );
+    }
+
+    @Test
+    public void shouldIgnoreCacheOfDifferentInitialRouter() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing-table" );
+        newCache( file ).store( composition( singletonList( A ), singletonList( B ), singletonList( C ) ) );
+
+        RoutingTableCache otherCache =
+                new RoutingTableCache( file, new BoltServerAddress( "other", 7687 ), clock, DEV_NULL_LOGGING );
+
+        assertNull( otherCache.load() );
+    }
+
+    @Test
+    public void shouldIgnoreCorruptedCache() throws Exception
+    {
+        File file = testDir.newFile( "routing-table" );
+        Files.write( file.toPath(), ( "initialRouter=" + INITIAL_ROUTER + "\nreaders=:::not-an-address\n" )
+                .getBytes( UTF_8 ) );
+
+        assertNull( newCache( file ).load() );
+    }
+
+    @Test
+    public void shouldRewriteFileOnlyWhenMembersChange() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing-table" );
+        RoutingTableCache cache = newCache( file );
+
+        cache.store( new ClusterComposition( 1, asSet( A ), asSet( B ), asSet( C ) ) );
+        byte[] content = Files.readAllBytes( file.toPath() );
+        assertTrue( file.delete() );
+
+        cache.store( new ClusterComposition( 2, asSet( A ), asSet( B ), asSet( C ) ) );
+        assertFalse( file.exists() );
+
+        cache.store( new ClusterComposition( 3, asSet( A, D ), asSet( B ), asSet( C ) ) );
+        assertTrue( file.exists() );
+        assertNotEquals( new String( content, UTF_8 ), new String( Files.readAllBytes( file.toPath() ), UTF_8 ) );
+    }
+
+    @Test
+    public void shouldStoreCompositionInBackground() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing-table" );
+        List<Runnable> tasks = new ArrayList<>();
+        RoutingTableCache cache = new RoutingTableCache( file, INITIAL_ROUTER, clock, tasks::add, DEV_NULL_LOGGING );
+
+        cache.storeInBackground( composition( singletonList( A ), singletonList( B ), singletonList( C ) ) );
+        assertFalse( file.exists() );
+
+        assertEquals( 1, tasks.size() );
+        tasks.get( 0 ).run();
+        assertTrue( file.exists() );
+        assertEquals( composition( singletonList( A ), singletonList( B ), singletonList( C ) ).readers(),
+                newCache( file ).load().readers() );
+    }
+
+    @Test
+    public void shouldNotLeaveTemporaryFiles() throws Exception
+    {
+        File file = new File( testDir.getRoot(), "routing-table" );
+        RoutingTableCache cache = newCache( file );
+
+        cache.store( composition( singletonList( A ), singletonList( B ), singletonList( C ) ) );
+        cache.store( composition( singletonList( D ), singletonList( B ), singletonList( C ) ) );
+
+        assertEquals( singletonList( "routing-table" ), asList( testDir.getRoot().list() ) );
+    }
+
+    private RoutingTableCache newCache( File file )
+    {
+        return new RoutingTableCache( file, INITIAL_ROUTER, clock, DEV_NULL_LOGGING );
+    }
+
+    private static ClusterComposition composition( List<BoltServerAddress> readers,
+            List<BoltServerAddress> writers, List<BoltServerAddress> routers )
+    {
+        return new ClusterComposition( 1, new LinkedHashSet<>( readers ), new LinkedHashSet<>( writers ),
+                new LinkedHashSet<>( routers ) );
+    }
+
+    private static Set<BoltServerAddress> asSet( BoltServerAddress... addresses )
+    {
+        return new LinkedHashSet<>( asList( addresses ) );
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.HashSet;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.metrics.MetricsListener;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.A;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.B;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.C;
+import static org.neo4j.driver.internal.cluster.RoutingSettings.CIRCUIT_BREAKER_DISABLED;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
+
+public class CircuitBreakersTest
+{
+    private static final long OPEN_DURATION = 5_000;
+
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    public void shouldKeepCircuitClosedBelowMinimumRequests()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+
+        for ( int i = 0; i < CircuitBreakers.MIN_REQUESTS - 1; i++ )
+        {
+            breakers.onFailure( A );
+        }
+
+        assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+    }
+
+    @Test
+    public void shouldOpenCircuitWhenFailureRateIsReached()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            breakers.onSuccess( A );
+            assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+            breakers.onFailure( A );
+        }
+
+        assertEquals( CircuitState.OPEN, breakers.state( A ) );
+        assertFalse( breakers.tryAcquirePermission( A ) );
+    }
+
+    @Test
+    public void shouldKeepCircuitClosedBelowFailureRate()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            breakers.onSuccess( A );
+            breakers.onSuccess( A );
+            breakers.onFailure( A );
+        }
+
+        assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+    }
+
+    @Test
+    public void shouldForgetOutcomesOutsideOfWindow()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+
+        for ( int i = 0; i < CircuitBreakers.WINDOW_SIZE / 2 - 1; i++ )
+        {
+            breakers.onFailure( A );
+        }
+        for ( int i = 0; i < CircuitBreakers.WINDOW_SIZE; i++ )
+        {
+            breakers.onSuccess( A );
+        }
+        for ( int i = 0; i < CircuitBreakers.WINDOW_SIZE / 2 - 1; i++ )
+        {
+            breakers.onFailure( A );
+        }
+
+        assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+    }
+
+    @Test
+    public void shouldLetSingleProbeThroughWhenHalfOpen()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, A );
+
+        clock.progress( OPEN_DURATION - 1 );
+        assertEquals( CircuitState.OPEN, breakers.state( A ) );
+
+        clock.progress( 1 );
+        assertEquals( CircuitState.HALF_OPEN, breakers.state( A ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+        assertFalse( breakers.tryAcquirePermission( A ) );
+    }
+
+    @Test
+    public void shouldCloseCircuitWhenProbeSucceeds()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, A );
+        clock.progress( OPEN_DURATION );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+
+        breakers.onSuccess( A );
+
+        assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+    }
+
+    @Test
+    public void shouldReopenCircuitWhenProbeFails()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, A );
+        clock.progress( OPEN_DURATION );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+
+        breakers.onFailure( A );
+
+        assertEquals( CircuitState.OPEN, breakers.state( A ) );
+        clock.progress( OPEN_DURATION - 1 );
+        assertEquals( CircuitState.OPEN, breakers.state( A ) );
+        clock.progress( 1 );
+        assertEquals( CircuitState.HALF_OPEN, breakers.state( A ) );
+    }
+
+    @Test
+    public void shouldAllowNewProbeWhenProbeIsInconclusive()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, A );
+        clock.progress( OPEN_DURATION );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+
+        breakers.onInconclusive( A );
+
+        assertEquals( CircuitState.HALF_OPEN, breakers.state( A ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+    }
+
+    @Test
+    public void shouldFilterOutEjectedAddresses()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, B );
+
+        assertArrayEquals( new BoltServerAddress[]{A, C}, breakers.available( new BoltServerAddress[]{A, B, C} ) );
+        assertArrayEquals( new BoltServerAddress[0], breakers.available( new BoltServerAddress[]{B} ) );
+    }
+
+    @Test
+    public void shouldReturnSameArrayWhenNothingIsEjected()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        breakers.onFailure( A );
+        BoltServerAddress[] addresses = {A, B, C};
+
+        assertSame( addresses, breakers.available( addresses ) );
+    }
+
+    @Test
+    public void shouldFilterOutHalfOpenAddressWithProbeInFlight()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, A );
+        clock.progress( OPEN_DURATION );
+
+        assertArrayEquals( new BoltServerAddress[]{A, B}, breakers.available( new BoltServerAddress[]{A, B} ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+        assertArrayEquals( new BoltServerAddress[]{B}, breakers.available( new BoltServerAddress[]{A, B} ) );
+    }
+
+    @Test
+    public void shouldDoNothingWhenDisabled()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( CIRCUIT_BREAKER_DISABLED );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            breakers.onFailure( A );
+        }
+
+        assertFalse( breakers.isEnabled() );
+        assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+        assertTrue( breakers.tryAcquirePermission( A ) );
+    }
+
+    @Test
+    public void shouldForgetBreakersOfRemovedAddresses()
+    {
+        CircuitBreakers breakers = newCircuitBreakers( 0.5 );
+        open( breakers, A );
+        open( breakers, B );
+
+        breakers.retainAll( new HashSet<>( asList( B, C ) ) );
+
+        assertEquals( CircuitState.CLOSED, breakers.state( A ) );
+        assertEquals( CircuitState.OPEN, breakers.state( B ) );
+    }
+
+    @Test
+    public void shouldNotifyMetricsAboutStateChanges()
+    {
+        MetricsListener metrics = mock( MetricsListener.class );
+        CircuitBreakers breakers = new CircuitBreakers( 0.5, OPEN_DURATION, clock, metrics, DEV_NULL_LOGGING );
+
+        open( breakers, A );
+        clock.progress( OPEN_DURATION );
+        breakers.tryAcquirePermission( A );
+        breakers.onSuccess( A );
+
+        InOrder inOrder = inOrder( metrics );
+        inOrder.verify( metrics ).afterCircuitStateChanged( A, CircuitState.OPEN );
+        inOrder.verify( metrics ).afterCircuitStateChanged( A, CircuitState.HALF_OPEN );
+        inOrder.verify( metrics ).afterCircuitStateChanged( A, CircuitState.CLOSED );
+    }
+
+    private CircuitBreakers newCircuitBreakers( double failureRate )
+    {
+        return new CircuitBreakers( failureRate, OPEN_DURATION, clock, DEV_NULL_METRICS, DEV_NULL_LOGGING );
+    }
+
+    private static void open( CircuitBreakers breakers, BoltServerAddress address )
+    {
+        for ( int i = 0; i < CircuitBreakers.MIN_REQUESTS; i++ )
+        {
+            breakers.onFailure( address );
+        }
+        assertEquals( CircuitState.OPEN, breakers.state( address ) );
+    }
+}
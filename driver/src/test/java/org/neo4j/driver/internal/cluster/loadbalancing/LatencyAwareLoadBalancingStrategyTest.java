@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Test;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.internal.util.FakeClock;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.cluster.loadbalancing.LatencyAwareLoadBalancingStrategy.DECAY_TIME_MILLIS;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+public class LatencyAwareLoadBalancingStrategyTest
+{
+    private static final BoltServerAddress A = new BoltServerAddress( "server", 1 );
+    private static final BoltServerAddress B = new BoltServerAddress( "server", 2 );
+    private static final BoltServerAddress C = new BoltServerAddress( "server", 3 );
+
+    private final ConnectionPool connectionPool = mock( ConnectionPool.class );
+    private final FakeClock clock = new FakeClock();
+    private final LatencyAwareLoadBalancingStrategy strategy =
+            new LatencyAwareLoadBalancingStrategy( connectionPool, clock, DEV_NULL_LOGGING );
+
+    @Test
+    public void shouldHandleEmptyReadersArray()
+    {
+        assertNull( strategy.selectReader( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldHandleEmptyWritersArray()
+    {
+        assertNull( strategy.selectWriter( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldHandleSingleAddress()
+    {
+        strategy.onResponse( A, 1_000_000 );
+        when( connectionPool.inUseConnections( A ) ).thenReturn( 42 );
+
+        assertEquals( A, strategy.selectReader( new BoltServerAddress[]{A} ) );
+        assertEquals( A, strategy.selectWriter( new BoltServerAddress[]{A} ) );
+    }
+
+    @Test
+    public void shouldPreferAddressWithLowerLatency()
+    {
+        strategy.onResponse( A, 50_000_000 );
+        strategy.onResponse( B, 1_000_000 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( B, strategy.selectReader( new BoltServerAddress[]{A, B} ) );
+        }
+    }
+
+    @Test
+    public void shouldWeightLatencyByInFlightConnections()
+    {
+        strategy.onResponse( A, 2_000_000 );
+        strategy.onResponse( B, 1_000_000 );
+        when( connectionPool.inUseConnections( A ) ).thenReturn( 1 );
+        when( connectionPool.inUseConnections( B ) ).thenReturn( 9 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( A, strategy.selectWriter( new BoltServerAddress[]{A, B} ) );
+        }
+    }
+
+    @Test
+    public void shouldNeverSelectSlowestOfManyAddresses()
+    {
+        strategy.onResponse( A, 1_000_000 );
+        strategy.onResponse( B, 100_000_000 );
+        strategy.onResponse( C, 2_000_000 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertNotEquals( B, strategy.selectReader( new BoltServerAddress[]{A, B, C} ) );
+        }
+    }
+
+    @Test
+    public void shouldPreferAddressWithoutSamplesOverSlowAddress()
+    {
+        strategy.onResponse( A, 10_000_000 );
+        strategy.onResponse( B, 1_000_000 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( C, strategy.selectReader( new BoltServerAddress[]{A, C} ) );
+        }
+    }
+
+    @Test
+    public void shouldWeightAddressWithoutSamplesByInFlightConnections()
+    {
+        strategy.onResponse( A, 1_000_000 );
+        strategy.onResponse( B, 3_000_000 );
+        when( connectionPool.inUseConnections( C ) ).thenReturn( 10 );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( A, strategy.selectReader( new BoltServerAddress[]{A, C} ) );
+        }
+    }
+
+    @Test
+    public void shouldAverageSamples()
+    {
+        strategy.onResponse( A, 1_000_000 );
+        strategy.onResponse( A, 2_000_000 );
+
+        double latency = strategy.latency( A );
+        assertTrue( latency > 1_000_000 );
+        assertTrue( latency < 2_000_000 );
+    }
+
+    @Test
+    public void shouldDecayLatencyTowardsMeanWithoutNewSamples()
+    {
+        strategy.onResponse( A, 1_000_000 );
+        strategy.onResponse( B, 3_000_000 );
+        assertEquals( 1_000_000, strategy.latency( A ), 0.1 );
+
+        clock.progress( DECAY_TIME_MILLIS );
+        double weight = 1 / Math.E;
+        assertEquals( 1_000_000 * weight + 2_000_000 * (1 - weight), strategy.latency( A ), 0.1 );
+
+        clock.progress( 100 * DECAY_TIME_MILLIS );
+        assertEquals( 2_000_000, strategy.latency( A ), 0.1 );
+    }
+
+    @Test
+    public void shouldReturnMeanLatencyForUnknownAddress()
+    {
+        assertEquals( 1, strategy.latency( A ), 0 );
+
+        strategy.onResponse( A, 1_000_000 );
+        strategy.onResponse( B, 3_000_000 );
+
+        assertEquals( 2_000_000, strategy.latency( C ), 0.1 );
+    }
+
+    @Test
+    public void shouldForgetLatencyOfRemovedAddresses()
+    {
+        strategy.onResponse( A, 1_000_000 );
+        strategy.onResponse( B, 3_000_000 );
+
+        strategy.retainAll( singleton( B ) );
+
+        assertEquals( 3_000_000, strategy.latency( A ), 0.1 );
+        assertEquals( 3_000_000, strategy.latency( B ), 0.1 );
+    }
+}
@@ -18,32 +18,50 @@
  */
 package org.neo4j.driver.internal.cluster.loadbalancing;
 
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.Bookmark;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.cluster.AddressSet;
 import org.neo4j.driver.internal.cluster.ClusterComposition;
 import org.neo4j.driver.internal.cluster.ClusterRoutingTable;
 import org.neo4j.driver.internal.cluster.Rediscovery;
+import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.internal.cluster.RoutingTable;
+import org.neo4j.driver.internal.cluster.RoutingTableCache;
+import org.neo4j.driver.internal.metrics.spi.CircuitState;
 import org.neo4j.driver.internal.spi.Connection;
 import org.neo4j.driver.internal.spi.ConnectionPool;
+import org.neo4j.driver.internal.spi.ResponseHandler;
+import org.neo4j.driver.internal.util.Clock;
 import org.neo4j.driver.internal.util.FakeClock;
 import org.neo4j.driver.internal.util.Futures;
 import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertArrayEquals;
@@ -53,8 +71,15 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.driver.internal.BoltServerAddress.LOCAL_DEFAULT;
@@ -65,8 +90,10 @@ import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.D;
 import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.E;
 import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.F;
 import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+import static org.neo4j.driver.internal.metrics.InternalAbstractMetrics.DEV_NULL_METRICS;
 import static org.neo4j.driver.v1.AccessMode.READ;
 import static org.neo4j.driver.v1.AccessMode.WRITE;
+import static org.neo4j.driver.v1.Values.value;
 import static org.neo4j.driver.v1.util.TestUtil.asOrderedSet;
 import static org.neo4j.driver.v1.util.TestUtil.await;
 
@@ -92,8 +119,8 @@ public class LoadBalancerTest
         when( rediscovery.lookupClusterComposition( routingTable, connectionPool ) )
                 .thenReturn( completedFuture( clusterComposition ) );
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
 
@@ -140,8 +167,8 @@ public class LoadBalancerTest
         when( routingTable.readers() ).thenReturn( new AddressSet() );
         when( routingTable.writers() ).thenReturn( new AddressSet() );
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         try
         {
@@ -182,8 +209,8 @@ public class LoadBalancerTest
 
         Rediscovery rediscovery = mock( Rediscovery.class );
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         Set<BoltServerAddress> seenAddresses = new HashSet<>();
         for ( int i = 0; i < 10; i++ )
@@ -209,8 +236,8 @@ public class LoadBalancerTest
 
         Rediscovery rediscovery = mock( Rediscovery.class );
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         Set<BoltServerAddress> seenAddresses = new HashSet<>();
         for ( int i = 0; i < 10; i++ )
@@ -236,8 +263,8 @@ public class LoadBalancerTest
         when( rediscovery.lookupClusterComposition( any(), any() ) )
                 .thenReturn( completedFuture( clusterComposition ) );
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         Connection connection = await( loadBalancer.acquireConnection( READ ) );
 
@@ -254,8 +281,8 @@ public class LoadBalancerTest
         routingTable.update( new ClusterComposition(
                 42, asOrderedSet( A, B, C ), asOrderedSet( A, C, E ), asOrderedSet( B, D, F ) ) );
 
-        LoadBalancer loadBalancer = new LoadBalancer( newConnectionPoolMock(), routingTable, newRediscoveryMock(),
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock(), routingTable, newRediscoveryMock(),
+                GlobalEventExecutor.INSTANCE );
 
         loadBalancer.onConnectionFailure( B );
 
@@ -283,8 +310,8 @@ public class LoadBalancerTest
         when( rediscovery.lookupClusterComposition( any(), any() ) ).thenReturn( completedFuture(
                 new ClusterComposition( 42, asOrderedSet( A, B ), asOrderedSet( B, C ), asOrderedSet( A, C ) ) ) );
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         Connection connection = await( loadBalancer.acquireConnection( READ ) );
         assertNotNull( connection );
@@ -295,38 +322,524 @@ public class LoadBalancerTest
     private void testRediscoveryWhenStale( AccessMode mode )
     {
         ConnectionPool connectionPool = mock( ConnectionPool.class );
-        when( connectionPool.acquire( LOCAL_DEFAULT ) )
+        when( connectionPool.acquire( eq( LOCAL_DEFAULT ), any( AcquisitionSettings.class ) ) )
                 .thenReturn( completedFuture( mock( Connection.class ) ) );
 
         RoutingTable routingTable = newStaleRoutingTableMock( mode );
         Rediscovery rediscovery = newRediscoveryMock();
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
         Connection connection = await( loadBalancer.acquireConnection( mode ) );
         assertNotNull( connection );
 
-        verify( routingTable ).isStaleFor( mode );
+        // staleness is checked without a lock and checked again under the lock before rediscovery
+        verify( routingTable, times( 2 ) ).isStaleFor( mode );
         verify( rediscovery ).lookupClusterComposition( routingTable, connectionPool );
     }
 
     private void testNoRediscoveryWhenNotStale( AccessMode staleMode, AccessMode notStaleMode )
     {
         ConnectionPool connectionPool = mock( ConnectionPool.class );
-        when( connectionPool.acquire( LOCAL_DEFAULT ) )
+        when( connectionPool.acquire( eq( LOCAL_DEFAULT ), any( AcquisitionSettings.class ) ) )
                 .thenReturn( completedFuture( mock( Connection.class ) ) );
 
         RoutingTable routingTable = newStaleRoutingTableMock( staleMode );
         Rediscovery rediscovery = newRediscoveryMock();
 
-        LoadBalancer loadBalancer = new LoadBalancer( connectionPool, routingTable, rediscovery,
-                GlobalEventExecutor.INSTANCE, DEV_NULL_LOGGING );
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                GlobalEventExecutor.INSTANCE );
 
         assertNotNull( await( loadBalancer.acquireConnection( notStaleMode ) ) );
         verify( routingTable ).isStaleFor( notStaleMode );
         verify( rediscovery, never() ).lookupClusterComposition( routingTable, connectionPool );
     }
 
+    @Test
+    public void shouldRefreshRoutingTableInBackgroundAfterFractionOfTtl()
+    {
+        FakeClock clock = new FakeClock();
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( clock, A );
+        Rediscovery rediscovery = newRediscoveryMock( clock.millis() + 100_000 );
+        EventExecutor eventExecutor = newEventExecutorMock();
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                eventExecutor, clock, 0.5 );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( rediscovery ).lookupClusterComposition( routingTable, connectionPool );
+
+        ArgumentCaptor<Runnable> refreshCaptor = ArgumentCaptor.forClass( Runnable.class );
+        verify( eventExecutor ).schedule( refreshCaptor.capture(), eq( 50_000L ), eq( TimeUnit.MILLISECONDS ) );
+
+        clock.progress( 50_000 );
+        refreshCaptor.getValue().run();
+
+        // routing table refreshed before it expired and next refresh scheduled
+        verify( rediscovery, times( 2 ) ).lookupClusterComposition( routingTable, connectionPool );
+        verify( eventExecutor, times( 2 ) ).schedule( any( Runnable.class ), anyLong(), eq( TimeUnit.MILLISECONDS ) );
+    }
+
+    @Test
+    public void shouldNotRefreshRoutingTableInBackgroundWhenDisabled()
+    {
+        FakeClock clock = new FakeClock();
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( clock, A );
+        Rediscovery rediscovery = newRediscoveryMock( clock.millis() + 100_000 );
+        EventExecutor eventExecutor = newEventExecutorMock();
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                eventExecutor, clock, 0 );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( eventExecutor, never() ).schedule( any( Runnable.class ), anyLong(), any( TimeUnit.class ) );
+    }
+
+    @Test
+    public void shouldNotRefreshRoutingTableInBackgroundWhenTtlIsTooShort()
+    {
+        FakeClock clock = new FakeClock();
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( clock, A );
+        Rediscovery rediscovery = newRediscoveryMock( clock.millis() + 1_000 );
+        EventExecutor eventExecutor = newEventExecutorMock();
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                eventExecutor, clock, 0.5 );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        verify( eventExecutor, never() ).schedule( any( Runnable.class ), anyLong(), any( TimeUnit.class ) );
+    }
+
+    @Test
+    public void shouldCancelBackgroundRefreshOnClose()
+    {
+        FakeClock clock = new FakeClock();
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        when( connectionPool.close() ).thenReturn( completedFuture( null ) );
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( clock, A );
+        Rediscovery rediscovery = newRediscoveryMock( clock.millis() + 100_000 );
+        EventExecutor eventExecutor = newEventExecutorMock();
+        ScheduledFuture<?> scheduledRefresh = mock( ScheduledFuture.class );
+        doReturn( scheduledRefresh ).when( eventExecutor ).schedule( any( Runnable.class ), anyLong(),
+                any( TimeUnit.class ) );
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery,
+                eventExecutor, clock, 0.5 );
+
+        assertNotNull( await( loadBalancer.acquireConnection( READ ) ) );
+        await( loadBalancer.close() );
+
+        verify( scheduledRefresh ).cancel( false );
+    }
+
+    @Test
+    public void shouldNotSelectServerWithOpenCircuitBreaker()
+    {
+        CircuitBreakers circuitBreakers = newCircuitBreakers( new FakeClock() );
+        openCircuitBreaker( circuitBreakers, B );
+
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock(), newRoutingTableMock( A, B ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            Connection connection = await( loadBalancer.acquireConnection( READ ) );
+            assertEquals( A, connection.serverAddress() );
+        }
+    }
+
+    @Test
+    public void shouldFailFastWhenCircuitBreakersOfAllServersAreOpen()
+    {
+        CircuitBreakers circuitBreakers = newCircuitBreakers( new FakeClock() );
+        openCircuitBreaker( circuitBreakers, A );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        try
+        {
+            await( loadBalancer.acquireConnection( READ ) );
+            fail( "Exception expected" );
+        }
+        catch ( SessionExpiredException e )
+        {
+            assertThat( e.getMessage(), containsString( "Circuit breakers of all READ servers are open" ) );
+        }
+        verify( connectionPool, never() ).acquire( any( BoltServerAddress.class ), any( AcquisitionSettings.class ) );
+    }
+
+    @Test
+    public void shouldOpenCircuitBreakerOfServerThatKeepsFailing()
+    {
+        CircuitBreakers circuitBreakers = newCircuitBreakers( new FakeClock() );
+        ConnectionPool connectionPool = newConnectionPoolMockWithFailures( singleton( A ) );
+
+        // routing table mock never forgets addresses, just like a rediscovery that puts the failed server back
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, newRoutingTableMock( A, B ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            Connection connection = await( loadBalancer.acquireConnection( READ ) );
+            assertEquals( B, connection.serverAddress() );
+        }
+
+        assertEquals( CircuitState.OPEN, circuitBreakers.state( A ) );
+        assertEquals( CircuitState.CLOSED, circuitBreakers.state( B ) );
+        verify( connectionPool, times( CircuitBreakers.MIN_REQUESTS ) ).acquire( eq( A ),
+                any( AcquisitionSettings.class ) );
+    }
+
+    @Test
+    public void shouldNotCountDrainingPoolAsServerFailure()
+    {
+        CircuitBreakers circuitBreakers = newCircuitBreakers( new FakeClock() );
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        doReturn( Futures.failedFuture( new SessionExpiredException( "Pool is draining" ) ) )
+                .when( connectionPool ).acquire( eq( A ), any( AcquisitionSettings.class ) );
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, newRoutingTableMock( A, B ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            Connection connection = await( loadBalancer.acquireConnection( READ ) );
+            assertEquals( B, connection.serverAddress() );
+        }
+
+        assertEquals( CircuitState.CLOSED, circuitBreakers.state( A ) );
+        verify( connectionPool, atLeast( CircuitBreakers.MIN_REQUESTS ) ).acquire( eq( A ),
+                any( AcquisitionSettings.class ) );
+    }
+
+    @Test
+    public void shouldCloseCircuitBreakerAfterSuccessfulProbe()
+    {
+        FakeClock clock = new FakeClock();
+        CircuitBreakers circuitBreakers = newCircuitBreakers( clock );
+        openCircuitBreaker( circuitBreakers, A );
+
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( A );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock( delegate ), newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        clock.progress( 1_000 );
+        assertEquals( CircuitState.HALF_OPEN, circuitBreakers.state( A ) );
+
+        Connection connection = await( loadBalancer.acquireConnection( READ ) );
+        assertEquals( A, connection.serverAddress() );
+        // acquired connection does not prove the server works, probe completes when server responds
+        assertEquals( CircuitState.HALF_OPEN, circuitBreakers.state( A ) );
+
+        runAndRespond( connection, delegate, handler -> handler.onSuccess( emptyMap() ) );
+        // outcome is reported once per connection, when it is released
+        assertEquals( CircuitState.HALF_OPEN, circuitBreakers.state( A ) );
+
+        connection.release();
+        assertEquals( CircuitState.CLOSED, circuitBreakers.state( A ) );
+    }
+
+    @Test
+    public void shouldOpenCircuitBreakerOfServerThatKeepsFailingQueries()
+    {
+        CircuitBreakers circuitBreakers = newCircuitBreakers( new FakeClock() );
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( A );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock( delegate ), newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        for ( int i = 0; i < CircuitBreakers.MIN_REQUESTS; i++ )
+        {
+            Connection connection = await( loadBalancer.acquireConnection( READ ) );
+            runAndRespond( connection, delegate,
+                    handler -> handler.onFailure( new ServiceUnavailableException( "Down" ) ) );
+        }
+
+        assertEquals( CircuitState.OPEN, circuitBreakers.state( A ) );
+    }
+
+    @Test
+    public void shouldCountSingleFailurePerConnection()
+    {
+        CircuitBreakers circuitBreakers = newCircuitBreakers( new FakeClock() );
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( A );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock( delegate ), newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        for ( int i = 0; i < CircuitBreakers.MIN_REQUESTS - 1; i++ )
+        {
+            Connection connection = await( loadBalancer.acquireConnection( READ ) );
+            // fatal error fails both RUN and PULL_ALL handlers
+            runAndRespond( connection, delegate,
+                    handler -> handler.onFailure( new ServiceUnavailableException( "Down" ) ) );
+            connection.release();
+        }
+
+        assertEquals( CircuitState.CLOSED, circuitBreakers.state( A ) );
+    }
+
+    @Test
+    public void shouldCountSingleSuccessPerConnection()
+    {
+        CircuitBreakers circuitBreakers = spy( newCircuitBreakers( new FakeClock() ) );
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( A );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock( delegate ), newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+
+        Connection connection = await( loadBalancer.acquireConnection( READ ) );
+        runAndRespond( connection, delegate, handler -> handler.onSuccess( emptyMap() ) );
+        connection.release();
+        connection.release();
+
+        verify( circuitBreakers ).onSuccess( A );
+        verify( circuitBreakers, never() ).onInconclusive( A );
+    }
+
+    @Test
+    public void shouldReleaseProbeOfHalfOpenCircuitBreakerWhenConnectionIsReleasedWithoutRequests()
+    {
+        FakeClock clock = new FakeClock();
+        CircuitBreakers circuitBreakers = newCircuitBreakers( clock );
+        openCircuitBreaker( circuitBreakers, A );
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( A );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock( delegate ), newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+        clock.progress( 1_000 );
+
+        Connection connection = await( loadBalancer.acquireConnection( READ ) );
+        assertEquals( 0, circuitBreakers.available( new BoltServerAddress[]{A} ).length );
+
+        connection.release();
+
+        assertEquals( CircuitState.HALF_OPEN, circuitBreakers.state( A ) );
+        assertEquals( 1, circuitBreakers.available( new BoltServerAddress[]{A} ).length );
+    }
+
+    @Test
+    public void shouldReleaseProbeOfHalfOpenCircuitBreakerOnInconclusiveFailure()
+    {
+        FakeClock clock = new FakeClock();
+        CircuitBreakers circuitBreakers = newCircuitBreakers( clock );
+        openCircuitBreaker( circuitBreakers, A );
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( A );
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock( delegate ), newRoutingTableMock( A ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE, circuitBreakers );
+        clock.progress( 1_000 );
+
+        Connection connection = await( loadBalancer.acquireConnection( READ ) );
+        assertEquals( 0, circuitBreakers.available( new BoltServerAddress[]{A} ).length );
+
+        runAndRespond( connection, delegate,
+                handler -> handler.onFailure( new ClientException( "Invalid syntax" ) ) );
+        connection.release();
+
+        assertEquals( CircuitState.HALF_OPEN, circuitBreakers.state( A ) );
+        assertEquals( 1, circuitBreakers.available( new BoltServerAddress[]{A} ).length );
+    }
+
+    @Test
+    public void shouldLoadCachedRoutingTableAndRefreshItInBackground()
+    {
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( new FakeClock(), A );
+        Rediscovery rediscovery = newRediscoveryMock( Long.MAX_VALUE );
+        RoutingTableCache routingTableCache = mock( RoutingTableCache.class );
+        when( routingTableCache.load() ).thenReturn(
+                new ClusterComposition( Long.MAX_VALUE, singleton( B ), singleton( C ), singleton( D ) ) );
+        EventExecutor eventExecutor = newEventExecutorMock();
+
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, routingTable, rediscovery, eventExecutor,
+                routingTableCache );
+        loadBalancer.loadCachedRoutingTable();
+
+        assertArrayEquals( new BoltServerAddress[]{B}, routingTable.readers().toArray() );
+        assertArrayEquals( new BoltServerAddress[]{C}, routingTable.writers().toArray() );
+        assertArrayEquals( new BoltServerAddress[]{D}, routingTable.routers().toArray() );
+        assertEquals( B, await( loadBalancer.acquireConnection( READ ) ).serverAddress() );
+        verify( rediscovery, never() ).lookupClusterComposition( any( RoutingTable.class ),
+                any( ConnectionPool.class ) );
+
+        ArgumentCaptor<Runnable> refreshCaptor = ArgumentCaptor.forClass( Runnable.class );
+        verify( eventExecutor ).execute( refreshCaptor.capture() );
+        refreshCaptor.getValue().run();
+
+        verify( rediscovery ).lookupClusterComposition( routingTable, connectionPool );
+        assertArrayEquals( new BoltServerAddress[]{A}, routingTable.readers().toArray() );
+    }
+
+    @Test
+    public void shouldNotRefreshInBackgroundWhenNothingCached()
+    {
+        RoutingTableCache routingTableCache = mock( RoutingTableCache.class );
+        EventExecutor eventExecutor = newEventExecutorMock();
+
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock(), new ClusterRoutingTable(
+                new FakeClock(), A ), newRediscoveryMock(), eventExecutor, routingTableCache );
+        loadBalancer.loadCachedRoutingTable();
+
+        verify( eventExecutor, never() ).execute( any( Runnable.class ) );
+    }
+
+    @Test
+    public void shouldStoreFetchedRoutingTableInCache()
+    {
+        ClusterRoutingTable routingTable = new ClusterRoutingTable( new FakeClock(), A );
+        RoutingTableCache routingTableCache = mock( RoutingTableCache.class );
+
+        LoadBalancer loadBalancer = newLoadBalancer( newConnectionPoolMock(), routingTable,
+                newRediscoveryMock( Long.MAX_VALUE ), GlobalEventExecutor.INSTANCE, routingTableCache );
+        await( loadBalancer.acquireConnection( READ ) );
+
+        verify( routingTableCache ).storeInBackground(
+                new ClusterComposition( Long.MAX_VALUE, singleton( A ), singleton( A ), singleton( A ) ) );
+    }
+
+    @Test
+    public void shouldPreferReadersUpToDateWithBookmark()
+    {
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, newRoutingTableMock( A, B, C ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE );
+
+        commitAndReceiveBookmark( loadBalancer, connectionPool, A, "neo4j:bookmark:v1:tx10" );
+        commitAndReceiveBookmark( loadBalancer, connectionPool, B, "neo4j:bookmark:v1:tx42" );
+
+        AcquisitionSettings settings = AcquisitionSettings.DEFAULT.withBookmark(
+                Bookmark.from( "neo4j:bookmark:v1:tx42" ) );
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertEquals( B, await( loadBalancer.acquireConnection( READ, settings ) ).serverAddress() );
+        }
+    }
+
+    @Test
+    public void shouldUseAllReadersWhenNoneIsUpToDateWithBookmark()
+    {
+        ConnectionPool connectionPool = newConnectionPoolMock();
+        LoadBalancer loadBalancer = newLoadBalancer( connectionPool, newRoutingTableMock( A, B ),
+                mock( Rediscovery.class ), GlobalEventExecutor.INSTANCE );
+
+        commitAndReceiveBookmark( loadBalancer, connectionPool, A, "neo4j:bookmark:v1:tx10" );
+
+        AcquisitionSettings settings = AcquisitionSettings.DEFAULT.withBookmark(
+                Bookmark.from( "neo4j:bookmark:v1:tx42" ) );
+        Set<BoltServerAddress> seenAddresses = new HashSet<>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            seenAddresses.add( await( loadBalancer.acquireConnection( READ, settings ) ).serverAddress() );
+        }
+        assertEquals( new HashSet<>( asList( A, B ) ), seenAddresses );
+    }
+
+    private static void commitAndReceiveBookmark( LoadBalancer loadBalancer, ConnectionPool connectionPool,
+            BoltServerAddress address, String bookmark )
+    {
+        Connection delegate = mock( Connection.class );
+        when( delegate.serverAddress() ).thenReturn( address );
+        doReturn( completedFuture( delegate ) ).when( connectionPool ).acquire( eq( address ),
+                any( AcquisitionSettings.class ) );
+
+        Connection connection;
+        do
+        {
+            connection = await( loadBalancer.acquireConnection( READ ) );
+        }
+        while ( !connection.serverAddress().equals( address ) );
+        connection.runAndFlush( "COMMIT", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+
+        ArgumentCaptor<ResponseHandler> pullAllHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( delegate ).runAndFlush( eq( "COMMIT" ), eq( emptyMap() ), any(), pullAllHandlerCaptor.capture() );
+        pullAllHandlerCaptor.getValue().onSuccess( singletonMap( "bookmark", value( bookmark ) ) );
+    }
+
+    private static CircuitBreakers newCircuitBreakers( FakeClock clock )
+    {
+        return new CircuitBreakers( 0.5, 1_000, clock, DEV_NULL_METRICS, DEV_NULL_LOGGING );
+    }
+
+    private static LoadBalancer newLoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable,
+            Rediscovery rediscovery, EventExecutorGroup eventExecutorGroup )
+    {
+        return newLoadBalancer( connectionPool, routingTable, rediscovery, eventExecutorGroup, Clock.SYSTEM,
+                RoutingSettings.DEFAULT_ROUTING_TABLE_REFRESH_FRACTION );
+    }
+
+    private static LoadBalancer newLoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable,
+            Rediscovery rediscovery, EventExecutorGroup eventExecutorGroup, Clock clock,
+            double routingTableRefreshFraction )
+    {
+        return new LoadBalancer( connectionPool, routingTable, rediscovery, eventExecutorGroup, clock,
+                routingTableRefreshFraction, disabledCircuitBreakers( clock ), disabledRoutingTableCache( clock ),
+                DEV_NULL_LOGGING );
+    }
+
+    private static LoadBalancer newLoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable,
+            Rediscovery rediscovery, EventExecutorGroup eventExecutorGroup, CircuitBreakers circuitBreakers )
+    {
+        return new LoadBalancer( connectionPool, routingTable, rediscovery, eventExecutorGroup, Clock.SYSTEM,
+                RoutingSettings.DEFAULT_ROUTING_TABLE_REFRESH_FRACTION, circuitBreakers,
+                disabledRoutingTableCache( Clock.SYSTEM ), DEV_NULL_LOGGING );
+    }
+
+    private static LoadBalancer newLoadBalancer( ConnectionPool connectionPool, RoutingTable routingTable,
+            Rediscovery rediscovery, EventExecutorGroup eventExecutorGroup, RoutingTableCache routingTableCache )
+    {
+        return new LoadBalancer( connectionPool, routingTable, rediscovery, eventExecutorGroup, Clock.SYSTEM,
+                RoutingSettings.DEFAULT_ROUTING_TABLE_REFRESH_FRACTION, disabledCircuitBreakers( Clock.SYSTEM ),
+                routingTableCache, DEV_NULL_LOGGING );
+    }
+
+    private static CircuitBreakers disabledCircuitBreakers( Clock clock )
+    {
+        return new CircuitBreakers( RoutingSettings.CIRCUIT_BREAKER_DISABLED,
+                RoutingSettings.DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION, clock, DEV_NULL_METRICS, DEV_NULL_LOGGING );
+    }
+
+    private static RoutingTableCache disabledRoutingTableCache( Clock clock )
+    {
+        return new RoutingTableCache( null, null, clock, DEV_NULL_LOGGING );
+    }
+
+    private static void runAndRespond( Connection connection, Connection delegate,
+            Consumer<ResponseHandler> response )
+    {
+        connection.runAndFlush( "RETURN 1", emptyMap(), mock( ResponseHandler.class ), mock( ResponseHandler.class ) );
+        ArgumentCaptor<ResponseHandler> runHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        ArgumentCaptor<ResponseHandler> pullAllHandlerCaptor = ArgumentCaptor.forClass( ResponseHandler.class );
+        verify( delegate, atLeastOnce() ).runAndFlush( any(), any(), runHandlerCaptor.capture(),
+                pullAllHandlerCaptor.capture() );
+        response.accept( runHandlerCaptor.getValue() );
+        response.accept( pullAllHandlerCaptor.getValue() );
+    }
+
+    private static void openCircuitBreaker( CircuitBreakers circuitBreakers, BoltServerAddress address )
+    {
+        for ( int i = 0; i < CircuitBreakers.MIN_REQUESTS; i++ )
+        {
+            circuitBreakers.onFailure( address );
+        }
+        assertEquals( CircuitState.OPEN, circuitBreakers.state( address ) );
+    }
+
+    private static RoutingTable newRoutingTableMock( BoltServerAddress... readers )
+    {
+        RoutingTable routingTable = mock( RoutingTable.class );
+        AddressSet readerAddresses = mock( AddressSet.class );
+        when( readerAddresses.toArray() ).thenReturn( readers );
+        when( routingTable.readers() ).thenReturn( readerAddresses );
+        return routingTable;
+    }
+
     private static RoutingTable newStaleRoutingTableMock( AccessMode mode )
     {
         RoutingTable routingTable = mock( RoutingTable.class );
@@ -350,16 +863,41 @@ public class LoadBalancerTest
         return rediscovery;
     }
 
+    private static Rediscovery newRediscoveryMock( long expirationTimestamp )
+    {
+        Rediscovery rediscovery = mock( Rediscovery.class );
+        Set<BoltServerAddress> servers = singleton( A );
+        ClusterComposition clusterComposition = new ClusterComposition( expirationTimestamp, servers, servers, servers );
+        when( rediscovery.lookupClusterComposition( any( RoutingTable.class ), any( ConnectionPool.class ) ) )
+                .thenReturn( completedFuture( clusterComposition ) );
+        return rediscovery;
+    }
+
+    private static EventExecutor newEventExecutorMock()
+    {
+        EventExecutor eventExecutor = mock( EventExecutor.class );
+        when( eventExecutor.next() ).thenReturn( eventExecutor );
+        return eventExecutor;
+    }
+
     private static ConnectionPool newConnectionPoolMock()
     {
         return newConnectionPoolMockWithFailures( emptySet() );
     }
 
+    private static ConnectionPool newConnectionPoolMock( Connection connection )
+    {
+        ConnectionPool pool = mock( ConnectionPool.class );
+        when( pool.acquire( any( BoltServerAddress.class ), any( AcquisitionSettings.class ) ) )
+                .thenReturn( completedFuture( connection ) );
+        return pool;
+    }
+
     private static ConnectionPool newConnectionPoolMockWithFailures(
             Set<BoltServerAddress> unavailableAddresses )
     {
         ConnectionPool pool = mock( ConnectionPool.class );
-        when( pool.acquire( any( BoltServerAddress.class ) ) ).then( invocation ->
+        when( pool.acquire( any( BoltServerAddress.class ), any( AcquisitionSettings.class ) ) ).then( invocation ->
         {
             BoltServerAddress requestedAddress = invocation.getArgumentAt( 0, BoltServerAddress.class );
             if ( unavailableAddresses.contains( requestedAddress ) )
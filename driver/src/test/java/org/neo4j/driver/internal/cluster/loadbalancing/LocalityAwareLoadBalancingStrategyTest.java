@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.spi.ConnectionPool;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.driver.internal.logging.DevNullLogging.DEV_NULL_LOGGING;
+
+public class LocalityAwareLoadBalancingStrategyTest
+{
+    private static final BoltServerAddress LOCAL_1 = new BoltServerAddress( "local-1", 7687 );
+    private static final BoltServerAddress LOCAL_2 = new BoltServerAddress( "local-2", 7687 );
+    private static final BoltServerAddress REMOTE_1 = new BoltServerAddress( "remote-1", 7687 );
+    private static final BoltServerAddress REMOTE_2 = new BoltServerAddress( "remote-2", 7687 );
+
+    private final ConnectionPool connectionPool = mock( ConnectionPool.class );
+
+    @Before
+    public void setUp()
+    {
+        when( connectionPool.sizeLimit( any() ) ).thenReturn( 10 );
+    }
+
+    @Test
+    public void shouldHandleEmptyAddressArrays()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+
+        assertNull( strategy.selectReader( new BoltServerAddress[0] ) );
+        assertNull( strategy.selectWriter( new BoltServerAddress[0] ) );
+    }
+
+    @Test
+    public void shouldMatchServersByHostOrHostAndPort()
+    {
+        Map<String,String> zones = new HashMap<>();
+        zones.put( "local-1", "eu" );
+        zones.put( "local-2:7688", "eu" );
+        zones.put( "remote-1", "us" );
+        LocalityAwareLoadBalancingStrategy strategy =
+                new LocalityAwareLoadBalancingStrategy( connectionPool, "eu", zones, DEV_NULL_LOGGING );
+
+        assertTrue( strategy.isLocal( new BoltServerAddress( "local-1", 7687 ) ) );
+        assertTrue( strategy.isLocal( new BoltServerAddress( "local-1", 9999 ) ) );
+        assertTrue( strategy.isLocal( new BoltServerAddress( "local-2", 7688 ) ) );
+        assertFalse( strategy.isLocal( new BoltServerAddress( "local-2", 7687 ) ) );
+        assertFalse( strategy.isLocal( REMOTE_1 ) );
+        assertFalse( strategy.isLocal( REMOTE_2 ) );
+    }
+
+    @Test
+    public void shouldMatchIpv6Servers()
+    {
+        Map<String,String> zones = new HashMap<>();
+        zones.put( "::1", "eu" );
+        zones.put( "[fe80::1]:7688", "eu" );
+        LocalityAwareLoadBalancingStrategy strategy =
+                new LocalityAwareLoadBalancingStrategy( connectionPool, "eu", zones, DEV_NULL_LOGGING );
+
+        assertTrue( strategy.isLocal( new BoltServerAddress( "[::1]:7687" ) ) );
+        assertTrue( strategy.isLocal( new BoltServerAddress( "[::1]:9999" ) ) );
+        assertTrue( strategy.isLocal( new BoltServerAddress( "[fe80::1]:7688" ) ) );
+        assertFalse( strategy.isLocal( new BoltServerAddress( "[fe80::1]:7687" ) ) );
+    }
+
+    @Test
+    public void shouldPreferLocalReaders()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 5 );
+
+        BoltServerAddress[] readers = {REMOTE_1, LOCAL_1, REMOTE_2};
+        for ( int i = 0; i < 10; i++ )
+        {
+            assertEquals( LOCAL_1, strategy.selectReader( readers ) );
+        }
+    }
+
+    @Test
+    public void shouldSelectLeastConnectedLocalReader()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 3 );
+        when( connectionPool.inUseConnections( LOCAL_2 ) ).thenReturn( 1 );
+
+        assertEquals( LOCAL_2, strategy.selectReader( new BoltServerAddress[]{LOCAL_1, REMOTE_1, LOCAL_2} ) );
+    }
+
+    @Test
+    public void shouldFallbackToRemoteReadersWhenNoLocalReaders()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+        when( connectionPool.inUseConnections( REMOTE_1 ) ).thenReturn( 4 );
+        when( connectionPool.inUseConnections( REMOTE_2 ) ).thenReturn( 2 );
+
+        assertEquals( REMOTE_2, strategy.selectReader( new BoltServerAddress[]{REMOTE_1, REMOTE_2} ) );
+    }
+
+    @Test
+    public void shouldFallbackToRemoteReadersWhenLocalReadersAreSaturated()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 10 );
+        when( connectionPool.inUseConnections( LOCAL_2 ) ).thenReturn( 12 );
+        when( connectionPool.inUseConnections( REMOTE_1 ) ).thenReturn( 3 );
+
+        assertEquals( REMOTE_1, strategy.selectReader( new BoltServerAddress[]{LOCAL_1, LOCAL_2, REMOTE_1} ) );
+    }
+
+    @Test
+    public void shouldUseCurrentPoolSizeLimitAsSaturationThreshold()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+        when( connectionPool.sizeLimit( LOCAL_1 ) ).thenReturn( 4 );
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 4 );
+        when( connectionPool.inUseConnections( REMOTE_1 ) ).thenReturn( 2 );
+
+        assertEquals( REMOTE_1, strategy.selectReader( new BoltServerAddress[]{LOCAL_1, REMOTE_1} ) );
+
+        when( connectionPool.sizeLimit( LOCAL_1 ) ).thenReturn( 5 );
+
+        assertEquals( LOCAL_1, strategy.selectReader( new BoltServerAddress[]{LOCAL_1, REMOTE_1} ) );
+    }
+
+    @Test
+    public void shouldPreferLocalWriter()
+    {
+        LocalityAwareLoadBalancingStrategy strategy = newStrategy();
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 7 );
+
+        assertEquals( LOCAL_1, strategy.selectWriter( new BoltServerAddress[]{REMOTE_1, LOCAL_1} ) );
+    }
+
+    @Test
+    public void shouldBehaveAsLeastConnectedWithoutZones()
+    {
+        LocalityAwareLoadBalancingStrategy strategy =
+                new LocalityAwareLoadBalancingStrategy( connectionPool, null, emptyMap(), DEV_NULL_LOGGING );
+        when( connectionPool.inUseConnections( LOCAL_1 ) ).thenReturn( 7 );
+        when( connectionPool.inUseConnections( REMOTE_1 ) ).thenReturn( 1 );
+
+        assertEquals( REMOTE_1, strategy.selectReader( new BoltServerAddress[]{LOCAL_1, REMOTE_1} ) );
+    }
+
+    private LocalityAwareLoadBalancingStrategy newStrategy()
+    {
+        Map<String,String> zones = new HashMap<>();
+        zones.put( LOCAL_1.host(), "eu" );
+        zones.put( LOCAL_2.host(), "eu" );
+        zones.put( REMOTE_1.host(), "us" );
+        zones.put( REMOTE_2.host(), "us" );
+        return new LocalityAwareLoadBalancingStrategy( connectionPool, "eu", zones, DEV_NULL_LOGGING );
+    }
+}
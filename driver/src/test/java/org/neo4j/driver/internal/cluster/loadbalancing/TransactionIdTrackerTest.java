@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.cluster.loadbalancing;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.Bookmark;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.neo4j.driver.internal.Bookmark.UNKNOWN_TRANSACTION_ID;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.A;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.B;
+import static org.neo4j.driver.internal.cluster.ClusterCompositionUtil.C;
+
+public class TransactionIdTrackerTest
+{
+    private final TransactionIdTracker tracker = new TransactionIdTracker();
+
+    @Test
+    public void shouldReturnUnknownTransactionIdForUnknownServer()
+    {
+        assertEquals( UNKNOWN_TRANSACTION_ID, tracker.lastTransactionId( A ) );
+    }
+
+    @Test
+    public void shouldKeepHighestTransactionId()
+    {
+        tracker.onBookmark( A, bookmark( 10 ) );
+        tracker.onBookmark( A, bookmark( 42 ) );
+        tracker.onBookmark( A, bookmark( 12 ) );
+        tracker.onBookmark( B, bookmark( 7 ) );
+
+        assertEquals( 42, tracker.lastTransactionId( A ) );
+        assertEquals( 7, tracker.lastTransactionId( B ) );
+    }
+
+    @Test
+    public void shouldIgnoreBookmarksOfUnknownFormat()
+    {
+        tracker.onBookmark( A, "unknown-format" );
+
+        assertEquals( UNKNOWN_TRANSACTION_ID, tracker.lastTransactionId( A ) );
+    }
+
+    @Test
+    public void shouldSelectUpToDateAddresses()
+    {
+        tracker.onBookmark( A, bookmark( 10 ) );
+        tracker.onBookmark( B, bookmark( 20 ) );
+        tracker.onBookmark( C, bookmark( 30 ) );
+
+        BoltServerAddress[] addresses = {A, B, C};
+
+        assertArrayEquals( new BoltServerAddress[]{B, C},
+                tracker.upToDate( addresses, Bookmark.from( bookmark( 20 ) ) ) );
+        assertArrayEquals( new BoltServerAddress[]{C},
+                tracker.upToDate( addresses, Bookmark.from( bookmark( 25 ) ) ) );
+    }
+
+    @Test
+    public void shouldReturnSameAddressesWhenBookmarkIsEmpty()
+    {
+        tracker.onBookmark( A, bookmark( 10 ) );
+        BoltServerAddress[] addresses = {A, B};
+
+        assertSame( addresses, tracker.upToDate( addresses, Bookmark.empty() ) );
+    }
+
+    @Test
+    public void shouldReturnSameAddressesWhenNoneIsKnownToBeUpToDate()
+    {
+        tracker.onBookmark( A, bookmark( 10 ) );
+        BoltServerAddress[] addresses = {A, B};
+
+        assertSame( addresses, tracker.upToDate( addresses, Bookmark.from( bookmark( 11 ) ) ) );
+    }
+
+    @Test
+    public void shouldReturnSameAddressesWhenAllAreUpToDate()
+    {
+        tracker.onBookmark( A, bookmark( 10 ) );
+        tracker.onBookmark( B, bookmark( 11 ) );
+        BoltServerAddress[] addresses = {A, B};
+
+        assertSame( addresses, tracker.upToDate( addresses, Bookmark.from( bookmark( 10 ) ) ) );
+    }
+
+    @Test
+    public void shouldForgetRemovedServers()
+    {
+        tracker.onBookmark( A, bookmark( 10 ) );
+        tracker.onBookmark( B, bookmark( 20 ) );
+
+        tracker.retainAll( new HashSet<>( asList( B, C ) ) );
+
+        assertEquals( UNKNOWN_TRANSACTION_ID, tracker.lastTransactionId( A ) );
+        assertEquals( 20, tracker.lastTransactionId( B ) );
+    }
+
+    private static String bookmark( long transactionId )
+    {
+        return "neo4j:bookmark:v1:tx" + transactionId;
+    }
+}
@@ -22,15 +22,28 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalStatementResult;
+import org.neo4j.driver.internal.InternalStatementResultCursor;
 import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.util.ServerVersion;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.RecordBufferWatermarks;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
@@ -38,21 +51,27 @@ import org.neo4j.driver.v1.exceptions.SessionExpiredException;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.StatementType;
 import org.neo4j.driver.v1.util.Functions;
+import org.neo4j.driver.v1.util.Subscriber;
+import org.neo4j.driver.v1.util.Subscription;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.driver.v1.Values.value;
 import static org.neo4j.driver.v1.Values.values;
@@ -655,6 +674,124 @@ public class PullAllResponseHandlerTest
         }
     }
 
+    @Test
+    public void shouldReturnAvailableRecordsInNextBatchAsync()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onRecord( values( 3 ) );
+
+        List<Record> batch1 = await( handler.nextBatchAsync( 2 ) );
+        assertEquals( 2, batch1.size() );
+        assertEquals( 1, batch1.get( 0 ).get( "key" ).asInt() );
+        assertEquals( 2, batch1.get( 1 ).get( "key" ).asInt() );
+
+        List<Record> batch2 = await( handler.nextBatchAsync( 2 ) );
+        assertEquals( 1, batch2.size() );
+        assertEquals( 3, batch2.get( 0 ).get( "key" ).asInt() );
+    }
+
+    @Test
+    public void shouldReturnBatchInNextBatchAsyncWhenRecordBecomesAvailableLater()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+
+        CompletableFuture<List<Record>> batchFuture = handler.nextBatchAsync( 10 ).toCompletableFuture();
+        assertFalse( batchFuture.isDone() );
+
+        handler.onRecord( values( 42 ) );
+
+        assertTrue( batchFuture.isDone() );
+        List<Record> batch = await( batchFuture );
+        assertEquals( 1, batch.size() );
+        assertEquals( 42, batch.get( 0 ).get( "key" ).asInt() );
+    }
+
+    @Test
+    public void shouldReturnEmptyBatchInNextBatchAsyncAfterSuccess()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+
+        CompletableFuture<List<Record>> batchFuture = handler.nextBatchAsync( 10 ).toCompletableFuture();
+        assertFalse( batchFuture.isDone() );
+
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( emptyList(), await( batchFuture ) );
+        assertEquals( emptyList(), await( handler.nextBatchAsync( 10 ) ) );
+    }
+
+    @Test
+    public void shouldPropagateFailureInNextBatchAsync()
+    {
+        PullAllResponseHandler handler = newHandler();
+        RuntimeException error = new RuntimeException( "Failed to read" );
+        handler.onFailure( error );
+
+        try
+        {
+            await( handler.nextBatchAsync( 10 ) );
+            fail( "Exception expected" );
+        }
+        catch ( RuntimeException e )
+        {
+            assertEquals( error, e );
+        }
+    }
+
+    @Test
+    public void shouldEnableAutoReadOnceWhenBatchRetrievedFromBuffer()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ), connection );
+
+        for ( int i = 0; i < PullAllResponseHandler.RECORD_BUFFER_HIGH_WATERMARK + 1; i++ )
+        {
+            handler.onRecord( values( i ) );
+        }
+        verify( connection ).disableAutoRead();
+
+        List<Record> batch = await( handler.nextBatchAsync( Integer.MAX_VALUE ) );
+
+        assertEquals( PullAllResponseHandler.RECORD_BUFFER_HIGH_WATERMARK + 1, batch.size() );
+        verify( connection ).enableAutoRead();
+    }
+
+    @Test
+    public void shouldReceiveAllRecordsWhenProducedAndConsumedConcurrently() throws Exception
+    {
+        int recordCount = 100_000;
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> producer = executor.submit( () ->
+            {
+                for ( int i = 0; i < recordCount; i++ )
+                {
+                    handler.onRecord( values( i ) );
+                }
+                handler.onSuccess( emptyMap() );
+            } );
+
+            int expected = 0;
+            Record record;
+            while ( (record = await( handler.nextAsync() )) != null )
+            {
+                assertEquals( expected, record.get( "key" ).asInt() );
+                expected++;
+            }
+
+            producer.get( 1, TimeUnit.MINUTES );
+            assertEquals( recordCount, expected );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void shouldDisableAutoReadWhenTooManyRecordsArrive()
     {
@@ -696,6 +833,508 @@ public class PullAllResponseHandlerTest
         verify( connection ).enableAutoRead();
     }
 
+    @Test
+    public void shouldUseConfiguredRecordWatermarks()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( new Statement( "RETURN 1" ), singletonList( "key" ), connection,
+                RecordBufferWatermarks.records( 2, 5 ) );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            handler.onRecord( values( i ) );
+        }
+        verify( connection, never() ).disableAutoRead();
+
+        handler.onRecord( values( 5 ) );
+        verify( connection ).disableAutoRead();
+
+        for ( int i = 0; i < 4; i++ )
+        {
+            assertNotNull( await( handler.nextAsync() ) );
+        }
+        verify( connection, never() ).enableAutoRead();
+
+        assertNotNull( await( handler.nextAsync() ) );
+        verify( connection ).enableAutoRead();
+    }
+
+    @Test
+    public void shouldDisableAutoReadWhenTooManyBytesArrive()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( new Statement( "RETURN 1" ), singletonList( "key" ), connection,
+                RecordBufferWatermarks.DEFAULT.withBytes( 1_000, 10_000 ) );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            handler.onRecord( values( i ), 1_000 );
+        }
+        verify( connection, never() ).disableAutoRead();
+
+        handler.onRecord( values( 10 ), 1 );
+        verify( connection ).disableAutoRead();
+    }
+
+    @Test
+    public void shouldEnableAutoReadWhenBytesRetrievedFromBuffer()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( new Statement( "RETURN 1" ), singletonList( "key" ), connection,
+                RecordBufferWatermarks.DEFAULT.withBytes( 1_000, 10_000 ) );
+
+        handler.onRecord( values( 0 ), 6_000 );
+        handler.onRecord( values( 1 ), 6_000 );
+        verify( connection ).disableAutoRead();
+
+        assertEquals( 0, await( handler.nextAsync() ).get( "key" ).asInt() );
+        verify( connection, never() ).enableAutoRead();
+
+        assertEquals( 1, await( handler.nextAsync() ).get( "key" ).asInt() );
+        verify( connection ).enableAutoRead();
+    }
+
+    @Test
+    public void shouldIgnoreRecordWatermarksWhenResultBufferedEagerly()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( new Statement( "RETURN 1" ), singletonList( "key" ), connection,
+                RecordBufferWatermarks.records( 1, 2 ).withEagerBuffering( 1000 ) );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            handler.onRecord( values( i ), 100 );
+        }
+        verify( connection, never() ).disableAutoRead();
+
+        handler.onRecord( values( 10 ), 100 );
+        verify( connection ).disableAutoRead();
+    }
+
+    @Test
+    public void shouldReleaseConnectionOfEagerlyBufferedResultBeforeRecordsConsumed()
+    {
+        Connection connection = connectionMock();
+        RunResponseHandler runResponseHandler = new RunResponseHandler( new CompletableFuture<>() );
+        runResponseHandler.onSuccess( singletonMap( "fields", value( singletonList( "key" ) ) ) );
+        PullAllResponseHandler handler = new SessionPullAllResponseHandler( new Statement( "RETURN 1" ),
+                runResponseHandler, connection, RecordBufferWatermarks.records( 1, 2 ).withEagerBuffering( 1000 ) );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            handler.onRecord( values( i ), 10 );
+        }
+        handler.onSuccess( emptyMap() );
+
+        verify( connection, never() ).disableAutoRead();
+        verify( connection ).release();
+        assertEquals( 5, await( handler.listAsync( Functions.identity() ) ).size() );
+    }
+
+    @Test
+    public void shouldIgnoreMessageSizesWhenBytesNotLimited()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ), connection );
+
+        handler.onRecord( values( 1 ), Integer.MAX_VALUE );
+        handler.onRecord( values( 2 ), Integer.MAX_VALUE );
+
+        verify( connection, never() ).disableAutoRead();
+    }
+
+    @Test
+    public void shouldReadSpilledRecordsAfterSuccess()
+    {
+        PullAllResponseHandler handler = newSpillingHandler();
+        CompletionStage<ResultSummary> summaryStage = handler.summaryAsync();
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+        handler.onSuccess( emptyMap() );
+        assertNotNull( await( summaryStage ) );
+
+        for ( int i = 1; i <= 5; i++ )
+        {
+            assertEquals( i, await( handler.nextAsync() ).get( "key" ).asInt() );
+        }
+        assertNull( await( handler.nextAsync() ) );
+        assertEquals( 0, handler.remainingRecordsEstimate() );
+    }
+
+    @Test
+    public void shouldCompleteWaitingConsumerWithSpilledRecordOnSuccess()
+    {
+        PullAllResponseHandler handler = newSpillingHandler();
+        handler.summaryAsync();
+        handler.onRecord( values( 1 ), 40 );
+        handler.onRecord( values( 2 ), 40 );
+        handler.onRecord( values( 3 ), 40 );
+
+        assertEquals( 1, await( handler.nextAsync() ).get( "key" ).asInt() );
+        assertEquals( 2, await( handler.nextAsync() ).get( "key" ).asInt() );
+
+        CompletableFuture<Record> recordFuture = handler.nextAsync().toCompletableFuture();
+        assertFalse( recordFuture.isDone() );
+
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( 3, await( recordFuture ).get( "key" ).asInt() );
+        assertNull( await( handler.nextAsync() ) );
+    }
+
+    @Test
+    public void shouldListSpilledRecords()
+    {
+        PullAllResponseHandler handler = newSpillingHandler();
+        CompletionStage<List<Integer>> valuesStage = handler.listAsync( record -> record.get( "key" ).asInt() );
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+        handler.onSuccess( emptyMap() );
+
+        List<Integer> values = await( valuesStage );
+
+        assertEquals( asList( 1, 2, 3, 4, 5 ), values );
+    }
+
+    @Test
+    public void shouldReturnSpilledRecordsInBatches()
+    {
+        PullAllResponseHandler handler = newSpillingHandler();
+        handler.summaryAsync();
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+        handler.onSuccess( emptyMap() );
+
+        // in-memory records and spilled records are never returned in the same batch
+        assertEquals( 2, await( handler.nextBatchAsync( 3 ) ).size() );
+        List<Record> batch = await( handler.nextBatchAsync( 3 ) );
+        assertEquals( 3, batch.size() );
+        assertEquals( 5, batch.get( 2 ).get( "key" ).asInt() );
+        assertEquals( emptyList(), await( handler.nextBatchAsync( 3 ) ) );
+    }
+
+    @Test
+    public void shouldReadSpilledRecordsInBoundedBatchesWithForEach()
+    {
+        AtomicInteger maxBatchSize = new AtomicInteger();
+        InternalStatementResultCursor cursor = newLargeSpilledResultCursor( 1000, maxBatchSize );
+
+        AtomicInteger expected = new AtomicInteger();
+        await( cursor.forEachAsync( record -> assertEquals( expected.getAndIncrement(), record.get( 0 ).asInt() ) ) );
+
+        assertEquals( 1000, expected.get() );
+        assertThat( maxBatchSize.get(), lessThanOrEqualTo( 10 ) );
+    }
+
+    @Test
+    public void shouldReadSpilledRecordsInBoundedBatchesWithStream()
+    {
+        AtomicInteger maxBatchSize = new AtomicInteger();
+        InternalStatementResult result = new InternalStatementResult( connectionMock(),
+                newLargeSpilledResultCursor( 1000, maxBatchSize ) );
+
+        assertEquals( 1000, result.stream().count() );
+        assertThat( maxBatchSize.get(), lessThanOrEqualTo( 10 ) );
+    }
+
+    @Test
+    public void shouldDiscardSpilledRecords()
+    {
+        PullAllResponseHandler handler = newSpillingHandler();
+        handler.summaryAsync();
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+
+        CompletionStage<ResultSummary> summaryStage = handler.consumeAsync();
+        handler.onRecord( values( 6 ), 40 );
+        handler.onSuccess( emptyMap() );
+
+        assertNotNull( await( summaryStage ) );
+        assertNull( await( handler.nextAsync() ) );
+    }
+
+    @Test
+    public void shouldNotSpillRecordsThatAreConsumedIncrementally()
+    {
+        Executor spillExecutor = mock( Executor.class );
+        PullAllResponseHandler handler = newSpillingHandler( spillExecutor );
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+        handler.onSuccess( emptyMap() );
+
+        verifyZeroInteractions( spillExecutor );
+        assertEquals( 5, handler.remainingRecordsEstimate() );
+        assertEquals( 5, await( handler.listAsync( Functions.identity() ) ).size() );
+    }
+
+    @Test
+    public void shouldWriteSpilledRecordsAndCompleteResultOnSpillExecutor()
+    {
+        List<Runnable> spillTasks = new ArrayList<>();
+        PullAllResponseHandler handler = newSpillingHandler( spillTasks::add );
+        CompletableFuture<List<Record>> listFuture = handler.listAsync( Functions.identity() ).toCompletableFuture();
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+        handler.onSuccess( emptyMap() );
+
+        // three writes and the completion are waiting for the spill executor
+        assertEquals( 4, spillTasks.size() );
+        assertFalse( listFuture.isDone() );
+
+        spillTasks.forEach( Runnable::run );
+
+        assertEquals( 5, await( listFuture ).size() );
+        assertEquals( 0, handler.remainingRecordsEstimate() );
+    }
+
+    @Test
+    public void shouldReleaseConnectionBeforeSpilledRecordsAreWritten()
+    {
+        testConnectionReleasedBeforeSpilledRecordsAreWritten( true );
+    }
+
+    @Test
+    public void shouldReleaseConnectionOnFailureBeforeSpilledRecordsAreWritten()
+    {
+        testConnectionReleasedBeforeSpilledRecordsAreWritten( false );
+    }
+
+    @Test
+    public void shouldDeleteSpilledRecordsOnSpillExecutorWhenDiscarded()
+    {
+        List<Runnable> spillTasks = new ArrayList<>();
+        PullAllResponseHandler handler = newSpillingHandler( spillTasks::add );
+        handler.summaryAsync();
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+
+        CompletionStage<ResultSummary> summaryStage = handler.consumeAsync();
+        handler.onRecord( values( 6 ), 40 );
+        handler.onSuccess( emptyMap() );
+
+        // three writes and the deletion, result is completed straight away
+        assertEquals( 4, spillTasks.size() );
+        assertNotNull( await( summaryStage ) );
+        spillTasks.forEach( Runnable::run );
+        assertNull( await( handler.nextAsync() ) );
+    }
+
+    @Test
+    public void shouldDeliverRecordsToSubscriberOnDemand()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        handler.onRecord( values( 3 ) );
+
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+        assertEquals( emptyList(), subscriber.values() );
+
+        subscriber.subscription.request( 2 );
+        assertEquals( asList( 1, 2 ), subscriber.values() );
+
+        handler.onSuccess( emptyMap() );
+        assertFalse( subscriber.completed );
+
+        subscriber.subscription.request( 1 );
+        assertEquals( asList( 1, 2, 3 ), subscriber.values() );
+        assertTrue( subscriber.completed );
+        assertNull( subscriber.error );
+    }
+
+    @Test
+    public void shouldDeliverRecordsToSubscriberAsTheyArrive()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+        subscriber.subscription.request( Long.MAX_VALUE );
+
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        assertEquals( asList( 1, 2 ), subscriber.values() );
+        assertFalse( subscriber.completed );
+
+        handler.onSuccess( emptyMap() );
+        assertTrue( subscriber.completed );
+        assertNotNull( await( handler.summaryAsync() ) );
+    }
+
+    @Test
+    public void shouldCompleteSubscriberOfEmptyResultWithoutDemand()
+    {
+        PullAllResponseHandler handler = newHandler();
+        handler.onSuccess( emptyMap() );
+
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+
+        assertTrue( subscriber.completed );
+        assertEquals( emptyList(), subscriber.values() );
+    }
+
+    @Test
+    public void shouldDeliverFailureToSubscriberAfterRecords()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        RuntimeException error = new RuntimeException( "Hi!" );
+        handler.onRecord( values( 1 ) );
+        handler.onFailure( error );
+
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+        assertNull( subscriber.error );
+
+        subscriber.subscription.request( 1 );
+        assertEquals( singletonList( 1 ), subscriber.values() );
+        assertEquals( error, subscriber.error );
+        assertFalse( subscriber.completed );
+    }
+
+    @Test
+    public void shouldAllowSubscriberToRequestFromOnNext()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            handler.onRecord( values( i ) );
+        }
+        handler.onSuccess( emptyMap() );
+
+        TestSubscriber subscriber = new TestSubscriber()
+        {
+            @Override
+            public void onNext( Record record )
+            {
+                super.onNext( record );
+                subscription.request( 1 );
+            }
+        };
+        handler.subscribe( subscriber, Runnable::run );
+        subscriber.subscription.request( 1 );
+
+        assertEquals( asList( 0, 1, 2, 3, 4 ), subscriber.values() );
+        assertTrue( subscriber.completed );
+    }
+
+    @Test
+    public void shouldDiscardRecordsWhenSubscriptionCancelled()
+    {
+        Connection connection = connectionMock();
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ), connection );
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+        subscriber.subscription.cancel();
+        verify( connection ).enableAutoRead();
+
+        handler.onRecord( values( 3 ) );
+        subscriber.subscription.request( 10 );
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( emptyList(), subscriber.values() );
+        assertFalse( subscriber.completed );
+        assertNotNull( await( handler.summaryAsync() ) );
+    }
+
+    @Test
+    public void shouldRejectSecondSubscriber()
+    {
+        PullAllResponseHandler handler = newHandler();
+        handler.subscribe( new TestSubscriber(), Runnable::run );
+
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+
+        assertNotNull( subscriber.subscription );
+        assertThat( subscriber.error, instanceOf( IllegalStateException.class ) );
+    }
+
+    @Test
+    public void shouldFailSubscriberWhenNonPositiveAmountRequested()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+
+        TestSubscriber subscriber = new TestSubscriber();
+        handler.subscribe( subscriber, Runnable::run );
+        subscriber.subscription.request( 0 );
+
+        assertThat( subscriber.error, instanceOf( IllegalArgumentException.class ) );
+        assertEquals( emptyList(), subscriber.values() );
+    }
+
+    @Test
+    public void shouldSignalSubscriberOnExecutorWithoutHoldingLock() throws Exception
+    {
+        int recordCount = 10_000;
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Thread producerThread = Thread.currentThread();
+        AtomicBoolean misbehaved = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch( 1 );
+        try
+        {
+            TestSubscriber subscriber = new TestSubscriber()
+            {
+                @Override
+                public void onNext( Record record )
+                {
+                    if ( Thread.holdsLock( handler ) || Thread.currentThread() == producerThread )
+                    {
+                        misbehaved.set( true );
+                    }
+                    super.onNext( record );
+                    subscription.request( 1 );
+                }
+
+                @Override
+                public void onComplete()
+                {
+                    super.onComplete();
+                    done.countDown();
+                }
+            };
+            handler.subscribe( subscriber, executor );
+            executor.submit( () -> subscriber.subscription.request( 1 ) ).get( 1, TimeUnit.MINUTES );
+
+            for ( int i = 0; i < recordCount; i++ )
+            {
+                handler.onRecord( values( i ) );
+            }
+            handler.onSuccess( emptyMap() );
+
+            assertTrue( done.await( 1, TimeUnit.MINUTES ) );
+            assertFalse( misbehaved.get() );
+            assertEquals( recordCount, subscriber.records.size() );
+            for ( int i = 0; i < recordCount; i++ )
+            {
+                assertEquals( i, subscriber.records.get( i ).get( 0 ).asInt() );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void shouldNotDisableAutoReadWhenSummaryRequested()
     {
@@ -1156,6 +1795,73 @@ public class PullAllResponseHandlerTest
         assertEquals( StatementType.READ_WRITE, summary2.statementType() );
     }
 
+    @Test
+    public void shouldEstimateRemainingRecords()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        handler.onRecord( values( 1 ) );
+        handler.onRecord( values( 2 ) );
+        assertEquals( Long.MAX_VALUE, handler.remainingRecordsEstimate() );
+
+        handler.onSuccess( emptyMap() );
+        assertEquals( 2, handler.remainingRecordsEstimate() );
+
+        await( handler.nextAsync() );
+        assertEquals( 1, handler.remainingRecordsEstimate() );
+
+        await( handler.consumeAsync() );
+        assertEquals( 0, handler.remainingRecordsEstimate() );
+    }
+
+    @Test
+    public void shouldDiscardAllWhenConsumedWithDeferredPull()
+    {
+        PullAllResponseHandler handler = newHandler();
+        DeferredPull pull = mock( DeferredPull.class );
+        handler.deferPull( pull );
+
+        CompletableFuture<ResultSummary> consumeFuture = handler.consumeAsync().toCompletableFuture();
+        handler.onSuccess( emptyMap() );
+
+        assertNotNull( await( consumeFuture ) );
+        verify( pull ).discardAll();
+        verify( pull, never() ).pullAll();
+    }
+
+    @Test
+    public void shouldPullAllOnceWhenRecordsAreRequestedWithDeferredPull()
+    {
+        PullAllResponseHandler handler = newHandler( singletonList( "key" ) );
+        DeferredPull pull = mock( DeferredPull.class );
+        handler.deferPull( pull );
+
+        CompletionStage<Record> peekStage = handler.peekAsync();
+        CompletionStage<Record> nextStage = handler.nextAsync();
+        verify( pull ).pullAll();
+
+        handler.onRecord( values( 42 ) );
+        handler.onSuccess( emptyMap() );
+
+        assertEquals( value( 42 ), await( peekStage ).get( "key" ) );
+        assertEquals( value( 42 ), await( nextStage ).get( "key" ) );
+        assertNotNull( await( handler.consumeAsync() ) );
+        verify( pull ).pullAll();
+        verify( pull, never() ).discardAll();
+    }
+
+    @Test
+    public void shouldPullAllWhenFailureIsRequestedWithDeferredPull()
+    {
+        PullAllResponseHandler handler = newHandler();
+        DeferredPull pull = mock( DeferredPull.class );
+        handler.deferPull( pull );
+
+        handler.failureAsync();
+
+        verify( pull ).pullAll();
+        verify( pull, never() ).discardAll();
+    }
+
     private static PullAllResponseHandler newHandler()
     {
         return newHandler( new Statement( "RETURN 1" ) );
@@ -1183,10 +1889,90 @@ public class PullAllResponseHandlerTest
 
     private static PullAllResponseHandler newHandler( Statement statement, List<String> statementKeys,
             Connection connection )
+    {
+        return newHandler( statement, statementKeys, connection, RecordBufferWatermarks.DEFAULT );
+    }
+
+    private static PullAllResponseHandler newHandler( Statement statement, List<String> statementKeys,
+            Connection connection, RecordBufferWatermarks watermarks )
     {
         RunResponseHandler runResponseHandler = new RunResponseHandler( new CompletableFuture<>() );
         runResponseHandler.onSuccess( singletonMap( "fields", value( statementKeys ) ) );
-        return new TestPullAllResponseHandler( statement, runResponseHandler, connection );
+        return new TestPullAllResponseHandler( statement, runResponseHandler, connection, watermarks );
+    }
+
+    private static PullAllResponseHandler newSpillingHandler()
+    {
+        return newSpillingHandler( Runnable::run );
+    }
+
+    private static PullAllResponseHandler newSpillingHandler( Executor spillExecutor )
+    {
+        // two records of 40 bytes fit into memory, the rest is spilled
+        RunResponseHandler runResponseHandler = new RunResponseHandler( new CompletableFuture<>() );
+        runResponseHandler.onSuccess( singletonMap( "fields", value( singletonList( "key" ) ) ) );
+        return new TestPullAllResponseHandler( new Statement( "RETURN 1" ), runResponseHandler, connectionMock(),
+                RecordBufferWatermarks.DEFAULT.withSpillToDisk( 100 ), spillExecutor );
+    }
+
+    private static void testConnectionReleasedBeforeSpilledRecordsAreWritten( boolean success )
+    {
+        List<Runnable> spillTasks = new ArrayList<>();
+        Connection connection = connectionMock();
+        RunResponseHandler runResponseHandler = new RunResponseHandler( new CompletableFuture<>() );
+        runResponseHandler.onSuccess( singletonMap( "fields", value( singletonList( "key" ) ) ) );
+        PullAllResponseHandler handler = new SessionPullAllResponseHandler( new Statement( "RETURN 1" ),
+                runResponseHandler, connection, RecordBufferWatermarks.DEFAULT.withSpillToDisk( 100 ),
+                spillTasks::add );
+        CompletableFuture<ResultSummary> summaryFuture = handler.summaryAsync().toCompletableFuture();
+        for ( int i = 1; i <= 5; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+
+        if ( success )
+        {
+            handler.onSuccess( emptyMap() );
+        }
+        else
+        {
+            handler.onFailure( new RuntimeException() );
+        }
+
+        verify( connection ).release();
+        assertFalse( summaryFuture.isDone() );
+        spillTasks.forEach( Runnable::run );
+        assertTrue( summaryFuture.isDone() );
+    }
+
+    private static InternalStatementResultCursor newLargeSpilledResultCursor( int recordCount,
+            AtomicInteger maxBatchSize )
+    {
+        RunResponseHandler runResponseHandler = new RunResponseHandler( new CompletableFuture<>() );
+        runResponseHandler.onSuccess( singletonMap( "fields", value( singletonList( "key" ) ) ) );
+        // at most 10 records are held in memory, everything above 100 bytes is spilled
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 5, 10 ).withSpillToDisk( 100 );
+        PullAllResponseHandler handler = new TestPullAllResponseHandler( new Statement( "RETURN 1" ),
+                runResponseHandler, connectionMock(), watermarks, Runnable::run )
+        {
+            @Override
+            public CompletionStage<List<Record>> nextBatchAsync( int maxSize )
+            {
+                return super.nextBatchAsync( maxSize ).thenApply( batch ->
+                {
+                    maxBatchSize.accumulateAndGet( batch.size(), Math::max );
+                    return batch;
+                } );
+            }
+        };
+
+        handler.summaryAsync();
+        for ( int i = 0; i < recordCount; i++ )
+        {
+            handler.onRecord( values( i ), 40 );
+        }
+        handler.onSuccess( emptyMap() );
+        return new InternalStatementResultCursor( runResponseHandler, handler );
     }
 
     private static Connection connectionMock()
@@ -1204,11 +1990,60 @@ public class PullAllResponseHandlerTest
         assertEquals( emptyList(), await( handler.listAsync( Functions.identity() ) ) );
     }
 
+    private static class TestSubscriber implements Subscriber<Record>
+    {
+        final List<Record> records = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe( Subscription subscription )
+        {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext( Record record )
+        {
+            records.add( record );
+        }
+
+        @Override
+        public void onError( Throwable error )
+        {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+        }
+
+        List<Integer> values()
+        {
+            List<Integer> values = new ArrayList<>();
+            for ( Record record : records )
+            {
+                values.add( record.get( 0 ).asInt() );
+            }
+            return values;
+        }
+    }
+
     private static class TestPullAllResponseHandler extends PullAllResponseHandler
     {
-        TestPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection )
+        TestPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection,
+                RecordBufferWatermarks watermarks )
+        {
+            super( statement, runResponseHandler, connection, watermarks );
+        }
+
+        TestPullAllResponseHandler( Statement statement, RunResponseHandler runResponseHandler, Connection connection,
+                RecordBufferWatermarks watermarks, Executor spillExecutor )
         {
-            super( statement, runResponseHandler, connection );
+            super( statement, runResponseHandler, connection, watermarks, spillExecutor );
         }
 
         @Override
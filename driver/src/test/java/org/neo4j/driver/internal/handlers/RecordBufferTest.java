@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.v1.Values.values;
+
+public class RecordBufferTest
+{
+    @Test
+    public void shouldBeEmptyWhenCreated()
+    {
+        RecordBuffer buffer = new RecordBuffer();
+
+        assertTrue( buffer.isEmpty() );
+        assertEquals( 0, buffer.size() );
+        assertEquals( 0, buffer.bytes() );
+        assertNull( buffer.peek() );
+        assertNull( buffer.poll() );
+    }
+
+    @Test
+    public void shouldReturnRecordsInInsertionOrder()
+    {
+        RecordBuffer buffer = new RecordBuffer();
+        Record record1 = newRecord( 1 );
+        Record record2 = newRecord( 2 );
+        Record record3 = newRecord( 3 );
+
+        buffer.add( record1, 0 );
+        buffer.add( record2, 0 );
+        buffer.add( record3, 0 );
+
+        assertSame( record1, buffer.peek() );
+        assertSame( record1, buffer.poll() );
+        assertSame( record2, buffer.peek() );
+        assertSame( record2, buffer.poll() );
+        assertSame( record3, buffer.poll() );
+        assertNull( buffer.poll() );
+        assertTrue( buffer.isEmpty() );
+    }
+
+    @Test
+    public void shouldTrackSizeAndBytes()
+    {
+        RecordBuffer buffer = new RecordBuffer();
+
+        buffer.add( newRecord( 1 ), 10 );
+        buffer.add( newRecord( 2 ), 20 );
+        assertFalse( buffer.isEmpty() );
+        assertEquals( 2, buffer.size() );
+        assertEquals( 30, buffer.bytes() );
+
+        buffer.poll();
+        assertEquals( 1, buffer.size() );
+        assertEquals( 20, buffer.bytes() );
+
+        buffer.peek();
+        assertEquals( 1, buffer.size() );
+        assertEquals( 20, buffer.bytes() );
+    }
+
+    @Test
+    public void shouldClear()
+    {
+        RecordBuffer buffer = new RecordBuffer();
+        buffer.add( newRecord( 1 ), 10 );
+        buffer.add( newRecord( 2 ), 20 );
+
+        buffer.clear();
+
+        assertTrue( buffer.isEmpty() );
+        assertEquals( 0, buffer.size() );
+        assertEquals( 0, buffer.bytes() );
+
+        Record record = newRecord( 3 );
+        buffer.add( record, 30 );
+        assertSame( record, buffer.poll() );
+    }
+
+    @Test
+    public void shouldPassRecordsBetweenProducerAndConsumerThreads() throws Exception
+    {
+        int recordCount = 1_000_000;
+        RecordBuffer buffer = new RecordBuffer();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> producer = executor.submit( () ->
+            {
+                for ( int i = 0; i < recordCount; i++ )
+                {
+                    buffer.add( newRecord( i ), 1 );
+                }
+            } );
+
+            int expected = 0;
+            while ( expected < recordCount )
+            {
+                Record record = buffer.poll();
+                if ( record != null )
+                {
+                    assertEquals( expected, record.get( "key" ).asInt() );
+                    expected++;
+                    // removed record is always counted as added
+                    assertTrue( buffer.size() >= 0 );
+                    assertTrue( buffer.bytes() >= 0 );
+                }
+            }
+
+            producer.get( 1, TimeUnit.MINUTES );
+            assertTrue( buffer.isEmpty() );
+            assertEquals( 0, buffer.size() );
+            assertEquals( 0, buffer.bytes() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Record newRecord( int value )
+    {
+        return new InternalRecord( singletonList( "key" ), values( value ) );
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.handlers;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.neo4j.driver.v1.Value;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.v1.Values.values;
+
+public class RecordSpillFileTest
+{
+    @Test
+    public void shouldReadWrittenRecordsInOrder() throws IOException
+    {
+        RecordSpillFile file = RecordSpillFile.create();
+
+        file.write( values( 1, "a" ) );
+        file.write( values( 2, "b" ) );
+        file.write( values( 3, "c" ) );
+
+        assertArrayEquals( values( 1, "a" ), file.read() );
+        assertArrayEquals( values( 2, "b" ), file.read() );
+        assertArrayEquals( values( 3, "c" ), file.read() );
+        assertNull( file.read() );
+    }
+
+    @Test
+    public void shouldDeleteFileWhenLastRecordRead() throws IOException
+    {
+        RecordSpillFile file = RecordSpillFile.create();
+        file.write( values( 1 ) );
+        file.write( values( 2 ) );
+        assertTrue( Files.exists( file.path() ) );
+
+        file.read();
+        assertTrue( Files.exists( file.path() ) );
+
+        file.read();
+        assertFalse( Files.exists( file.path() ) );
+    }
+
+    @Test
+    public void shouldDeleteFile() throws IOException
+    {
+        RecordSpillFile file = RecordSpillFile.create();
+        file.write( values( 1 ) );
+
+        file.delete();
+
+        assertFalse( Files.exists( file.path() ) );
+        assertNull( file.read() );
+    }
+
+    @Test
+    public void shouldDeleteEmptyFileWhenRead() throws IOException
+    {
+        RecordSpillFile file = RecordSpillFile.create();
+
+        Value[] fields = file.read();
+
+        assertNull( fields );
+        assertFalse( Files.exists( file.path() ) );
+    }
+}
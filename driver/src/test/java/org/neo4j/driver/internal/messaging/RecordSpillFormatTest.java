@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.messaging;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.async.inbound.ByteBufInput;
+import org.neo4j.driver.internal.util.ByteBufOutput;
+import org.neo4j.driver.internal.util.Iterables;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.PathValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Relationship;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.driver.v1.Values.point;
+import static org.neo4j.driver.v1.Values.value;
+
+public class RecordSpillFormatTest
+{
+    @Test
+    public void shouldWriteAndReadPrimitiveValues() throws IOException
+    {
+        Value[] fields = {value( (Object) null ), value( true ), value( 42 ), value( 4.2 ), value( "Hello" ),
+                value( new byte[]{1, 2, 3} )};
+
+        assertArrayEquals( fields, writeAndRead( fields ) );
+    }
+
+    @Test
+    public void shouldWriteAndReadCollections() throws IOException
+    {
+        Map<String,Object> map = new HashMap<>();
+        map.put( "list", asList( 1, 2, 3 ) );
+        map.put( "map", singletonMap( "key", "value" ) );
+        Value[] fields = {value( map ), value( asList( "a", asList( 1L, 2L ) ) )};
+
+        assertArrayEquals( fields, writeAndRead( fields ) );
+    }
+
+    @Test
+    public void shouldWriteAndReadTemporalAndSpatialValues() throws IOException
+    {
+        Value[] fields = {value( LocalDate.of( 2018, 5, 12 ) ),
+                value( ZonedDateTime.of( 2018, 5, 12, 10, 30, 0, 0, ZoneId.of( "Europe/Stockholm" ) ) ),
+                point( 7203, 1.0, 2.0 ), point( 4979, 1.0, 2.0, 3.0 )};
+
+        assertArrayEquals( fields, writeAndRead( fields ) );
+    }
+
+    @Test
+    public void shouldWriteAndReadNode() throws IOException
+    {
+        Node node = new InternalNode( 1, asList( "Person", "Employee" ), singletonMap( "name", value( "Alice" ) ) );
+
+        Node readNode = writeAndRead( new NodeValue( node ) )[0].asNode();
+
+        assertEquals( node, readNode );
+        assertEquals( asList( "Person", "Employee" ), readNode.labels() );
+        assertEquals( "Alice", readNode.get( "name" ).asString() );
+    }
+
+    @Test
+    public void shouldWriteAndReadRelationship() throws IOException
+    {
+        Relationship relationship = new InternalRelationship( 3, 1, 2, "KNOWS", singletonMap( "since", value( 2018 ) ) );
+
+        Relationship readRelationship = writeAndRead( new RelationshipValue( relationship ) )[0].asRelationship();
+
+        assertEquals( relationship, readRelationship );
+        assertEquals( 1, readRelationship.startNodeId() );
+        assertEquals( 2, readRelationship.endNodeId() );
+        assertEquals( "KNOWS", readRelationship.type() );
+        assertEquals( 2018, readRelationship.get( "since" ).asInt() );
+    }
+
+    @Test
+    public void shouldWriteAndReadPath() throws IOException
+    {
+        Node alice = new InternalNode( 1, singletonList( "Person" ), singletonMap( "name", value( "Alice" ) ) );
+        Node bob = new InternalNode( 2 );
+        Node carol = new InternalNode( 3 );
+        Relationship aliceKnowsBob = new InternalRelationship( 10, 1, 2, "KNOWS" );
+        // traversed against its direction
+        Relationship carolKnowsBob = new InternalRelationship( 11, 3, 2, "KNOWS" );
+        Path path = new InternalPath( alice, aliceKnowsBob, bob, carolKnowsBob, carol );
+
+        Path readPath = writeAndRead( new PathValue( path ) )[0].asPath();
+
+        assertEquals( path, readPath );
+        assertEquals( asList( alice, bob, carol ), Iterables.asList( readPath.nodes() ) );
+        assertEquals( "Alice", readPath.start().get( "name" ).asString() );
+        Relationship readCarolKnowsBob = Iterables.asList( readPath.relationships() ).get( 1 );
+        assertEquals( 3, readCarolKnowsBob.startNodeId() );
+        assertEquals( 2, readCarolKnowsBob.endNodeId() );
+    }
+
+    @Test
+    public void shouldWriteAndReadEmptyPath() throws IOException
+    {
+        Path path = new InternalPath( new InternalNode( 1 ) );
+
+        Path readPath = writeAndRead( new PathValue( path ) )[0].asPath();
+
+        assertEquals( path, readPath );
+        assertEquals( 0, readPath.length() );
+    }
+
+    private static Value[] writeAndRead( Value... fields ) throws IOException
+    {
+        ByteBuf buf = Unpooled.buffer();
+        RecordSpillFormat.newWriter( new ByteBufOutput( buf ) ).write( fields );
+
+        ByteBufInput input = new ByteBufInput();
+        input.start( buf );
+        Value[] readFields = RecordSpillFormat.newReader( input ).read();
+        input.stop();
+
+        assertEquals( 0, buf.readableBytes() );
+        return readFields;
+    }
+}
@@ -27,9 +27,11 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.DriverFactory;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.metrics.MetricsListener;
 import org.neo4j.driver.internal.security.SecurityPlan;
 import org.neo4j.driver.internal.spi.Connection;
+import org.neo4j.driver.internal.spi.DeferredPull;
 import org.neo4j.driver.internal.spi.ConnectionPool;
 import org.neo4j.driver.internal.spi.ResponseHandler;
 import org.neo4j.driver.v1.AuthToken;
@@ -70,6 +72,13 @@ public class FailingConnectionDriverFactory extends DriverFactory
                     .thenApply( connection -> new FailingConnection( connection, nextRunFailure ) );
         }
 
+        @Override
+        public CompletionStage<Connection> acquire( BoltServerAddress address, AcquisitionSettings acquisitionSettings )
+        {
+            return delegate.acquire( address, acquisitionSettings )
+                    .thenApply( connection -> new FailingConnection( connection, nextRunFailure ) );
+        }
+
         @Override
         public void retainAll( Set<BoltServerAddress> addressesToRetain )
         {
@@ -99,6 +108,18 @@ public class FailingConnectionDriverFactory extends DriverFactory
         {
             return delegate.isOpen( address );
         }
+
+        @Override
+        public int sizeLimit( BoltServerAddress address )
+        {
+            return delegate.sizeLimit( address );
+        }
+
+        @Override
+        public boolean isDraining( BoltServerAddress address )
+        {
+            return delegate.isDraining( address );
+        }
     }
 
     private static class FailingConnection implements Connection
@@ -152,6 +173,23 @@ public class FailingConnectionDriverFactory extends DriverFactory
             delegate.runAndFlush( statement, parameters, runHandler, pullAllHandler );
         }
 
+        @Override
+        public DeferredPull runAndFlushWithDeferredPull( String statement, Map<String,Value> parameters,
+                ResponseHandler runHandler, ResponseHandler pullHandler )
+        {
+            if ( tryFail( runHandler, pullHandler ) )
+            {
+                return DeferredPull.NONE;
+            }
+            return delegate.runAndFlushWithDeferredPull( statement, parameters, runHandler, pullHandler );
+        }
+
+        @Override
+        public void setTransactionOpen( boolean open )
+        {
+            delegate.setTransactionOpen( open );
+        }
+
         @Override
         public CompletionStage<Void> reset()
         {
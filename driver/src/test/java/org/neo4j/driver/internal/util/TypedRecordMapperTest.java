@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.internal.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.value.Uncoercible;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.neo4j.driver.v1.Values.NULL;
+import static org.neo4j.driver.v1.Values.value;
+
+public class TypedRecordMapperTest
+{
+    @Test
+    public void shouldMapColumnsToFields()
+    {
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+
+        Person person = mapper.apply( record( asList( "name", "age", "score", "tags" ),
+                value( "Alice" ), value( 42 ), value( 4.2 ), value( asList( "a", "b" ) ) ) );
+
+        assertEquals( "Alice", person.name );
+        assertEquals( 42, person.age );
+        assertEquals( 4.2, person.score, 0.0 );
+        assertEquals( asList( "a", "b" ), person.tags );
+    }
+
+    @Test
+    public void shouldMapManyRecordsOfSameResult()
+    {
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+        List<String> keys = asList( "age", "name" );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            Person person = mapper.apply( record( keys, value( i ), value( "Person-" + i ) ) );
+            assertEquals( i, person.age );
+            assertEquals( "Person-" + i, person.name );
+        }
+    }
+
+    @Test
+    public void shouldPreferSettersOverFields()
+    {
+        TypedRecordMapper<Bean> mapper = new TypedRecordMapper<>( Bean.class );
+
+        Bean bean = mapper.apply( record( singletonList( "title" ), value( "hello" ) ) );
+
+        assertEquals( "HELLO", bean.title );
+    }
+
+    @Test
+    public void shouldIgnoreUnknownColumns()
+    {
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+
+        Person person = mapper.apply( record( asList( "name", "unknown" ), value( "Bob" ), value( 1 ) ) );
+
+        assertEquals( "Bob", person.name );
+        assertEquals( 0, person.age );
+    }
+
+    @Test
+    public void shouldMapNullToReferenceFields()
+    {
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+
+        Person person = mapper.apply( record( asList( "name", "tags" ), NULL, NULL ) );
+
+        assertNull( person.name );
+        assertNull( person.tags );
+    }
+
+    @Test
+    public void shouldFailToMapNullToPrimitiveField()
+    {
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+
+        try
+        {
+            mapper.apply( record( singletonList( "age" ), NULL ) );
+            fail( "Exception expected" );
+        }
+        catch ( Uncoercible ignore )
+        {
+        }
+    }
+
+    @Test
+    public void shouldFailToMapValueOfWrongType()
+    {
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+
+        try
+        {
+            mapper.apply( record( singletonList( "name" ), value( 42 ) ) );
+            fail( "Exception expected" );
+        }
+        catch ( Uncoercible ignore )
+        {
+        }
+    }
+
+    @Test
+    public void shouldMapPropertiesOfSingleNodeColumn()
+    {
+        Map<String,Value> properties = new HashMap<>();
+        properties.put( "name", value( "Carol" ) );
+        properties.put( "age", value( 33 ) );
+        Value node = new NodeValue( new InternalNode( 1, singletonList( "Person" ), properties ) );
+        TypedRecordMapper<Person> mapper = new TypedRecordMapper<>( Person.class );
+
+        Person person = mapper.apply( record( singletonList( "p" ), node ) );
+
+        assertEquals( "Carol", person.name );
+        assertEquals( 33, person.age );
+        assertNull( person.tags );
+    }
+
+    @Test
+    public void shouldFailWithoutConstructorWithoutParameters()
+    {
+        try
+        {
+            new TypedRecordMapper<>( NoDefaultConstructor.class );
+            fail( "Exception expected" );
+        }
+        catch ( ClientException e )
+        {
+            assertThat( e.getMessage(), startsWith( "Unable to map records" ) );
+        }
+    }
+
+    @Test
+    public void shouldFailForInterfaces()
+    {
+        try
+        {
+            new TypedRecordMapper<>( Runnable.class );
+            fail( "Exception expected" );
+        }
+        catch ( ClientException e )
+        {
+            assertTrue( e.getMessage().contains( "only concrete classes are supported" ) );
+        }
+    }
+
+    private static Record record( List<String> keys, Value... values )
+    {
+        return new InternalRecord( keys, values );
+    }
+
+    private static class Person
+    {
+        private String name;
+        private int age;
+        private double score;
+        private List<String> tags;
+    }
+
+    public static class Bean
+    {
+        private String title;
+
+        public void setTitle( String title )
+        {
+            this.title = title.toUpperCase();
+        }
+    }
+
+    private static class NoDefaultConstructor
+    {
+        final String name;
+
+        NoDefaultConstructor( String name )
+        {
+            this.name = name;
+        }
+    }
+}
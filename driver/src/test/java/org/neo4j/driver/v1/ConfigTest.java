@@ -23,12 +23,15 @@ import org.junit.Test;
 import java.io.File;
 import java.util.concurrent.TimeUnit;
 
+import org.neo4j.driver.internal.cluster.RoutingSettings;
 import org.neo4j.driver.v1.util.FileTools;
 
 import static java.lang.System.getProperty;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -297,6 +300,243 @@ public class ConfigTest
         assertEquals( 0, config.connectionAcquisitionTimeoutMillis() );
     }
 
+    @Test
+    public void shouldHaveAdaptivePoolSizingDisabledByDefault()
+    {
+        assertEquals( -1, Config.defaultConfig().minConnectionPoolSize() );
+    }
+
+    @Test
+    public void shouldAllowPositiveMinConnectionPoolSize()
+    {
+        Config config = Config.build().withMinConnectionPoolSize( 5 ).toConfig();
+
+        assertEquals( 5, config.minConnectionPoolSize() );
+    }
+
+    @Test
+    public void shouldDisallowZeroOrNegativeMinConnectionPoolSize()
+    {
+        for ( int value : new int[]{0, -1, -42} )
+        {
+            try
+            {
+                Config.build().withMinConnectionPoolSize( value );
+                fail( "Exception expected" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                assertThat( e.getMessage(), containsString( String.valueOf( value ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldDisableBackgroundRoutingTableRefreshByDefault()
+    {
+        Config config = Config.defaultConfig();
+
+        assertEquals( 0, config.routingSettings().routingTableRefreshFraction(), 0 );
+    }
+
+    @Test
+    public void shouldAllowRoutingTableRefreshFraction()
+    {
+        Config config = Config.build().withRoutingTableRefreshFraction( 0.75 ).toConfig();
+
+        assertEquals( 0.75, config.routingSettings().routingTableRefreshFraction(), 0 );
+    }
+
+    @Test
+    public void shouldDisallowRoutingTableRefreshFractionOutsideOfRange()
+    {
+        for ( double value : new double[]{0, -0.5, 1, 42, Double.NaN} )
+        {
+            try
+            {
+                Config.build().withRoutingTableRefreshFraction( value );
+                fail( "Exception expected" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                assertThat( e.getMessage(), containsString( String.valueOf( value ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldDisableRoutingLookupHedgingByDefault()
+    {
+        Config config = Config.defaultConfig();
+
+        assertFalse( config.routingSettings().lookupHedgingEnabled() );
+    }
+
+    @Test
+    public void shouldAllowRoutingLookupHedgeDelay()
+    {
+        Config config = Config.build().withRoutingLookupHedgeDelay( 2, TimeUnit.SECONDS ).toConfig();
+
+        assertTrue( config.routingSettings().lookupHedgingEnabled() );
+        assertEquals( 2000, config.routingSettings().lookupHedgeDelay() );
+    }
+
+    @Test
+    public void shouldAllowZeroRoutingLookupHedgeDelay()
+    {
+        Config config = Config.build().withRoutingLookupHedgeDelay( 0, TimeUnit.SECONDS ).toConfig();
+
+        assertTrue( config.routingSettings().lookupHedgingEnabled() );
+        assertEquals( 0, config.routingSettings().lookupHedgeDelay() );
+    }
+
+    @Test
+    public void shouldDisallowNegativeRoutingLookupHedgeDelay()
+    {
+        try
+        {
+            Config.build().withRoutingLookupHedgeDelay( -1, TimeUnit.SECONDS );
+            fail( "Exception expected" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertThat( e.getMessage(), containsString( "-1" ) );
+        }
+    }
+
+    @Test
+    public void shouldHaveCircuitBreakerDisabledByDefault()
+    {
+        RoutingSettings settings = Config.defaultConfig().routingSettings();
+
+        assertFalse( settings.circuitBreakerEnabled() );
+    }
+
+    @Test
+    public void shouldAllowCircuitBreaker()
+    {
+        RoutingSettings settings = Config.build()
+                .withCircuitBreaker( 0.3, 10, TimeUnit.SECONDS )
+                .toConfig()
+                .routingSettings();
+
+        assertTrue( settings.circuitBreakerEnabled() );
+        assertEquals( 0.3, settings.circuitBreakerFailureRate(), 0.0 );
+        assertEquals( 10_000, settings.circuitBreakerOpenDuration() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldDisallowZeroCircuitBreakerFailureRate()
+    {
+        Config.build().withCircuitBreaker( 0, 10, TimeUnit.SECONDS );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldDisallowCircuitBreakerFailureRateAboveOne()
+    {
+        Config.build().withCircuitBreaker( 1.5, 10, TimeUnit.SECONDS );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldDisallowZeroCircuitBreakerOpenDuration()
+    {
+        Config.build().withCircuitBreaker( 0.5, 0, TimeUnit.SECONDS );
+    }
+
+    @Test
+    public void shouldNotPersistRoutingTableByDefault()
+    {
+        assertNull( Config.defaultConfig().routingTableCacheFile() );
+    }
+
+    @Test
+    public void shouldAllowRoutingTableCache()
+    {
+        File file = new File( "routing-table" );
+
+        Config config = Config.build().withRoutingTableCache( file ).toConfig();
+
+        assertEquals( file, config.routingTableCacheFile() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldDisallowNullRoutingTableCache()
+    {
+        Config.build().withRoutingTableCache( null );
+    }
+
+    @Test
+    public void shouldHaveDefaultRecordBufferWatermarks()
+    {
+        Config config = Config.defaultConfig();
+
+        assertEquals( RecordBufferWatermarks.DEFAULT, config.recordBufferWatermarks() );
+    }
+
+    @Test
+    public void shouldChangeRecordBufferWatermarks()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 10, 100 ).withBytes( 1024, 4096 );
+
+        Config config = Config.build().withRecordBufferWatermarks( watermarks ).toConfig();
+
+        assertEquals( watermarks, config.recordBufferWatermarks() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowNullRecordBufferWatermarks()
+    {
+        Config.build().withRecordBufferWatermarks( null );
+    }
+
+    @Test
+    public void shouldNotDeferPullByDefault()
+    {
+        assertFalse( Config.defaultConfig().deferredPull() );
+    }
+
+    @Test
+    public void shouldChangeDeferredPull()
+    {
+        assertTrue( Config.build().withDeferredPull( true ).toConfig().deferredPull() );
+    }
+
+    @Test
+    public void shouldHaveNoZonesByDefault()
+    {
+        Config config = Config.defaultConfig();
+
+        assertNull( config.localZone() );
+        assertTrue( config.serverZones().isEmpty() );
+    }
+
+    @Test
+    public void shouldAllowZones()
+    {
+        Config config = Config.build()
+                .withLocalZone( "eu-west" )
+                .withServerZone( "server-1", "eu-west" )
+                .withServerZone( "server-2:7688", "us-east" )
+                .toConfig();
+
+        assertEquals( "eu-west", config.localZone() );
+        assertEquals( 2, config.serverZones().size() );
+        assertEquals( "eu-west", config.serverZones().get( "server-1" ) );
+        assertEquals( "us-east", config.serverZones().get( "server-2:7688" ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldDisallowEmptyLocalZone()
+    {
+        Config.build().withLocalZone( "" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldDisallowEmptyServerZone()
+    {
+        Config.build().withServerZone( "server-1", null );
+    }
+
     public static void deleteDefaultKnownCertFileIfExists()
     {
         if( DEFAULT_KNOWN_HOSTS.exists() )
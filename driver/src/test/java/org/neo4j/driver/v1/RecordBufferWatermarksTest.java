@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecordBufferWatermarksTest
+{
+    @Test
+    public void shouldNotLimitBytesByDefault()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.DEFAULT;
+
+        assertEquals( 300, watermarks.lowRecords() );
+        assertEquals( 1000, watermarks.highRecords() );
+        assertEquals( Long.MAX_VALUE, watermarks.lowBytes() );
+        assertEquals( Long.MAX_VALUE, watermarks.highBytes() );
+        assertFalse( watermarks.limitsBytes() );
+        assertEquals( Long.MAX_VALUE, watermarks.spillThresholdBytes() );
+        assertFalse( watermarks.spillsToDisk() );
+        assertEquals( 0, watermarks.eagerBytes() );
+        assertFalse( watermarks.buffersEagerly() );
+        assertFalse( watermarks.tracksBytes() );
+    }
+
+    @Test
+    public void shouldFallBackToDefaultRecordWatermarksWhenGivenIllegalValues()
+    {
+        assertEquals( RecordBufferWatermarks.records( 10, 20 ), RecordBufferWatermarks.recordsOrDefault( 10, 20 ) );
+        assertEquals( RecordBufferWatermarks.records( 300, 1000 ), RecordBufferWatermarks.recordsOrDefault( 0, 20 ) );
+        assertEquals( RecordBufferWatermarks.records( 300, 1000 ), RecordBufferWatermarks.recordsOrDefault( 21, 20 ) );
+    }
+
+    @Test
+    public void shouldCreateRecordWatermarks()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 10, 20 );
+
+        assertEquals( 10, watermarks.lowRecords() );
+        assertEquals( 20, watermarks.highRecords() );
+        assertFalse( watermarks.limitsBytes() );
+    }
+
+    @Test
+    public void shouldAddByteWatermarks()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 10, 20 ).withBytes( 1024, 2048 );
+
+        assertEquals( 10, watermarks.lowRecords() );
+        assertEquals( 20, watermarks.highRecords() );
+        assertEquals( 1024, watermarks.lowBytes() );
+        assertEquals( 2048, watermarks.highBytes() );
+        assertTrue( watermarks.limitsBytes() );
+    }
+
+    @Test
+    public void shouldAllowEqualLowAndHighWatermarks()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 5, 5 ).withBytes( 7, 7 );
+
+        assertEquals( 5, watermarks.lowRecords() );
+        assertEquals( 5, watermarks.highRecords() );
+        assertEquals( 7, watermarks.lowBytes() );
+        assertEquals( 7, watermarks.highBytes() );
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveRecordWatermarks()
+    {
+        testIllegalRecordWatermarks( 0, 10 );
+        testIllegalRecordWatermarks( -1, 10 );
+    }
+
+    @Test
+    public void shouldNotAllowLowRecordWatermarkAboveHigh()
+    {
+        testIllegalRecordWatermarks( 11, 10 );
+    }
+
+    @Test
+    public void shouldNotAllowIllegalByteWatermarks()
+    {
+        testIllegalByteWatermarks( 0, 10 );
+        testIllegalByteWatermarks( -1, 10 );
+        testIllegalByteWatermarks( 11, 10 );
+    }
+
+    @Test
+    public void shouldAddSpillThreshold()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 10, 20 ).withSpillToDisk( 4096 );
+
+        assertEquals( 10, watermarks.lowRecords() );
+        assertEquals( 20, watermarks.highRecords() );
+        assertEquals( 4096, watermarks.spillThresholdBytes() );
+        assertTrue( watermarks.spillsToDisk() );
+        assertFalse( watermarks.limitsBytes() );
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveSpillThreshold()
+    {
+        for ( long threshold : new long[]{0, -1} )
+        {
+            try
+            {
+                RecordBufferWatermarks.DEFAULT.withSpillToDisk( threshold );
+                fail( "Exception expected" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                assertThat( e.getMessage(), startsWith( "Record buffer spill threshold" ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldAddEagerBuffering()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 10, 20 ).withEagerBuffering( 65536 );
+
+        assertEquals( 10, watermarks.lowRecords() );
+        assertEquals( 20, watermarks.highRecords() );
+        assertEquals( 65536, watermarks.eagerBytes() );
+        assertTrue( watermarks.buffersEagerly() );
+        assertTrue( watermarks.tracksBytes() );
+        assertFalse( watermarks.limitsBytes() );
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveEagerBuffering()
+    {
+        for ( long maxBytes : new long[]{0, -1} )
+        {
+            try
+            {
+                RecordBufferWatermarks.DEFAULT.withEagerBuffering( maxBytes );
+                fail( "Exception expected" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                assertThat( e.getMessage(), startsWith( "Record buffer eager limit" ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldImplementEquals()
+    {
+        assertEquals( RecordBufferWatermarks.records( 1, 2 ), RecordBufferWatermarks.records( 1, 2 ) );
+        assertEquals( RecordBufferWatermarks.records( 1, 2 ).hashCode(),
+                RecordBufferWatermarks.records( 1, 2 ).hashCode() );
+        assertNotEquals( RecordBufferWatermarks.records( 1, 2 ), RecordBufferWatermarks.records( 1, 3 ) );
+        assertNotEquals( RecordBufferWatermarks.records( 1, 2 ),
+                RecordBufferWatermarks.records( 1, 2 ).withBytes( 1, 2 ) );
+        assertNotEquals( RecordBufferWatermarks.records( 1, 2 ),
+                RecordBufferWatermarks.records( 1, 2 ).withSpillToDisk( 100 ) );
+        assertNotEquals( RecordBufferWatermarks.records( 1, 2 ),
+                RecordBufferWatermarks.records( 1, 2 ).withEagerBuffering( 100 ) );
+    }
+
+    private static void testIllegalRecordWatermarks( int low, int high )
+    {
+        try
+        {
+            RecordBufferWatermarks.records( low, high );
+            fail( "Exception expected" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertThat( e.getMessage(), startsWith( "Record buffer watermarks in records" ) );
+        }
+    }
+
+    private static void testIllegalByteWatermarks( long low, long high )
+    {
+        try
+        {
+            RecordBufferWatermarks.DEFAULT.withBytes( low, high );
+            fail( "Exception expected" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            assertThat( e.getMessage(), startsWith( "Record buffer watermarks in bytes" ) );
+        }
+    }
+}
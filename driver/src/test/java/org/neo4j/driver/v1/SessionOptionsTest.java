@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.neo4j.driver.v1;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SessionOptionsTest
+{
+    @Test
+    public void shouldNotOverrideConfigByDefault()
+    {
+        SessionOptions options = SessionOptions.DEFAULT;
+
+        assertEquals( AcquisitionPriority.NORMAL, options.acquisitionPriority() );
+        assertFalse( options.hasAcquisitionTimeout() );
+        assertNull( options.recordBufferWatermarks() );
+        assertNull( options.deferredPull() );
+    }
+
+    @Test
+    public void shouldChangeSingleOptionInCopy()
+    {
+        RecordBufferWatermarks watermarks = RecordBufferWatermarks.records( 10, 20 );
+        SessionOptions options = SessionOptions.DEFAULT
+                .withAcquisitionPriority( AcquisitionPriority.HIGH )
+                .withAcquisitionTimeout( 2, SECONDS )
+                .withRecordBufferWatermarks( watermarks )
+                .withDeferredPull( true );
+
+        assertEquals( AcquisitionPriority.HIGH, options.acquisitionPriority() );
+        assertTrue( options.hasAcquisitionTimeout() );
+        assertEquals( 2000, options.acquisitionTimeoutMillis() );
+        assertEquals( watermarks, options.recordBufferWatermarks() );
+        assertEquals( Boolean.TRUE, options.deferredPull() );
+
+        SessionOptions expected = SessionOptions.DEFAULT
+                .withAcquisitionTimeout( 2, SECONDS )
+                .withRecordBufferWatermarks( watermarks )
+                .withDeferredPull( true );
+        assertEquals( expected, options.withAcquisitionPriority( AcquisitionPriority.NORMAL ) );
+        assertEquals( AcquisitionPriority.NORMAL, SessionOptions.DEFAULT.acquisitionPriority() );
+        assertFalse( SessionOptions.DEFAULT.hasAcquisitionTimeout() );
+    }
+
+    @Test
+    public void shouldTreatNegativeAcquisitionTimeoutAsInfinite()
+    {
+        SessionOptions options = SessionOptions.DEFAULT.withAcquisitionTimeout( -42, SECONDS );
+
+        assertTrue( options.hasAcquisitionTimeout() );
+        assertEquals( -1, options.acquisitionTimeoutMillis() );
+    }
+
+    @Test
+    public void shouldAllowZeroAcquisitionTimeout()
+    {
+        SessionOptions options = SessionOptions.DEFAULT.withAcquisitionTimeout( 0, SECONDS );
+
+        assertTrue( options.hasAcquisitionTimeout() );
+        assertEquals( 0, options.acquisitionTimeoutMillis() );
+    }
+
+    @Test
+    public void shouldResetRecordBufferWatermarksToConfigured()
+    {
+        SessionOptions options = SessionOptions.DEFAULT
+                .withRecordBufferWatermarks( RecordBufferWatermarks.records( 1, 2 ) )
+                .withRecordBufferWatermarks( null );
+
+        assertNull( options.recordBufferWatermarks() );
+        assertEquals( SessionOptions.DEFAULT, options );
+    }
+
+    @Test
+    public void shouldNotAllowNullAcquisitionPriority()
+    {
+        try
+        {
+            SessionOptions.DEFAULT.withAcquisitionPriority( null );
+            fail( "Exception expected" );
+        }
+        catch ( NullPointerException ignore )
+        {
+        }
+    }
+
+    @Test
+    public void shouldImplementEquals()
+    {
+        assertEquals( SessionOptions.DEFAULT.withAcquisitionTimeout( 1, SECONDS ),
+                SessionOptions.DEFAULT.withAcquisitionTimeout( 1000, MILLISECONDS ) );
+        assertEquals( SessionOptions.DEFAULT.withAcquisitionTimeout( 1, SECONDS ).hashCode(),
+                SessionOptions.DEFAULT.withAcquisitionTimeout( 1000, MILLISECONDS ).hashCode() );
+        assertNotEquals( SessionOptions.DEFAULT, SessionOptions.DEFAULT.withAcquisitionTimeout( 1, SECONDS ) );
+        assertNotEquals( SessionOptions.DEFAULT,
+                SessionOptions.DEFAULT.withAcquisitionPriority( AcquisitionPriority.LOW ) );
+        assertNotEquals( SessionOptions.DEFAULT, SessionOptions.DEFAULT.withDeferredPull( false ) );
+    }
+}
@@ -33,6 +33,7 @@ import org.neo4j.driver.internal.BoltServerAddress;
 import org.neo4j.driver.internal.ConnectionSettings;
 import org.neo4j.driver.internal.DriverFactory;
 import org.neo4j.driver.internal.async.ChannelConnector;
+import org.neo4j.driver.internal.async.pool.AcquisitionSettings;
 import org.neo4j.driver.internal.async.pool.ConnectionPoolImpl;
 import org.neo4j.driver.internal.async.pool.PoolSettings;
 import org.neo4j.driver.internal.cluster.RoutingSettings;
@@ -328,9 +329,10 @@ public class ConnectionHandlingIT
         }
 
         @Override
-        public CompletionStage<Connection> acquire( final BoltServerAddress address )
+        public CompletionStage<Connection> acquire( final BoltServerAddress address,
+                AcquisitionSettings acquisitionSettings )
         {
-            Connection connection = await( super.acquire( address ) );
+            Connection connection = await( super.acquire( address, acquisitionSettings ) );
 
             if ( memorize )
             {